@@ -0,0 +1,276 @@
+package com.amanda.cinema.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+// Closed-loop HTTP load against running instances of the API, reporting throughput and p50/p99
+// latency of the movie and showtime endpoints per instance and client count. Start one instance
+// per thread mode against the same database, e.g. VIRTUAL_THREADS=false on 8080 and
+// VIRTUAL_THREADS=true SERVER_PORT=8081, then run:
+//
+//   mvn -Pbenchmarks test-compile exec:exec@load \
+//       -Dload.targets=platform=http://localhost:8080,virtual=http://localhost:8081 \
+//       -Dload.email=admin@example.com -Dload.password=...
+//
+// Each client is a virtual thread sending one request at a time, picking endpoints from a random
+// stream seeded per client, so every run sends the same request sequence. Targets are measured
+// one after another at each client count; only requests started after the warmup are recorded.
+// Client counts above Tomcat's 200 platform threads and the Hikari pool show where each mode
+// starts to queue.
+public class EndpointLoadBenchmark {
+
+    private static final String[] ENDPOINTS = {"movies.page", "movies.byId", "showtimes.byMovie", "showtimes.byDate"};
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private final HttpClient httpClient;
+    private final int warmupSeconds;
+    private final int measureSeconds;
+    private final long seed;
+
+    public EndpointLoadBenchmark(HttpClient httpClient, int warmupSeconds, int measureSeconds, long seed) {
+        this.httpClient = httpClient;
+        this.warmupSeconds = warmupSeconds;
+        this.measureSeconds = measureSeconds;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> targets = targets(setting("load.targets", "http://localhost:8080"));
+        int[] clientCounts = Arrays.stream(setting("load.clients", "50,200,800").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim())).toArray();
+        int warmupSeconds = Integer.parseInt(setting("load.warmup-seconds", "10"));
+        int measureSeconds = Integer.parseInt(setting("load.seconds", "30"));
+        long seed = Long.parseLong(setting("load.seed", "42"));
+        String email = setting("load.email", System.getenv("CINEMA_ADMIN_EMAIL"));
+        String password = setting("load.password", System.getenv("CINEMA_ADMIN_PASSWORD"));
+        if (email == null || password == null) {
+            throw new IllegalArgumentException("Set load.email and load.password to an admin account");
+        }
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .executor(clients)
+                     .build()) {
+            EndpointLoadBenchmark benchmark = new EndpointLoadBenchmark(httpClient, warmupSeconds, measureSeconds, seed);
+
+            Map<String, Target> prepared = new LinkedHashMap<>();
+            for (Map.Entry<String, String> target : targets.entrySet()) {
+                prepared.put(target.getKey(), benchmark.prepare(target.getValue(), email, password));
+            }
+
+            System.out.printf("%d cores, %ds warmup + %ds per run, seed %d%n",
+                    Runtime.getRuntime().availableProcessors(), warmupSeconds, measureSeconds, seed);
+            System.out.printf("%-10s %7s  %-18s %9s %9s %9s %9s %8s%n",
+                    "target", "clients", "endpoint", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (int clientCount : clientCounts) {
+                for (Map.Entry<String, Target> target : prepared.entrySet()) {
+                    benchmark.run(target.getValue(), clientCount, clients).print(target.getKey(), clientCount);
+                }
+            }
+        }
+    }
+
+    // Sign in and pick the movie ids the run will ask for
+    Target prepare(String baseUrl, String email, String password) throws IOException, InterruptedException {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/admin/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        jsonMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+        JsonNode session = jsonMapper.readTree(httpClient.send(login, HttpResponse.BodyHandlers.ofString()).body());
+        if (!session.has("token")) {
+            throw new IllegalStateException("Admin login at " + baseUrl + " failed: " + session);
+        }
+        String token = session.get("token").asString();
+
+        HttpRequest movies = HttpRequest.newBuilder(URI.create(baseUrl + "/api/admin/movies?limit=50"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        List<Long> movieIds = new ArrayList<>();
+        for (JsonNode movie : jsonMapper.readTree(httpClient.send(movies, HttpResponse.BodyHandlers.ofString()).body())
+                .path("items")) {
+            movieIds.add(movie.get("id").asLong());
+        }
+        if (movieIds.isEmpty()) {
+            throw new IllegalStateException("No movies at " + baseUrl + " to request");
+        }
+        return new Target(baseUrl, token, movieIds);
+    }
+
+    Result run(Target target, int clientCount, ExecutorService clients) throws InterruptedException {
+        long started = System.nanoTime();
+        long measureFrom = started + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(measureSeconds);
+        Result result = new Result(measureSeconds);
+
+        List<Recorder> recorders = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int client = 0; client < clientCount; client++) {
+            Recorder recorder = new Recorder();
+            Random random = new Random(seed * 31 + client);
+            recorders.add(recorder);
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int endpoint = random.nextInt(ENDPOINTS.length);
+                    HttpRequest request = request(target, endpoint, random);
+                    long sent = System.nanoTime();
+                    boolean ok;
+                    try {
+                        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        ok = status < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (sent >= measureFrom) {
+                        recorder.record(endpoint, System.nanoTime() - sent, ok);
+                    }
+                }
+            }));
+        }
+        for (Future<?> client : running) {
+            try {
+                client.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load client failed", e.getCause());
+            }
+        }
+        for (Recorder recorder : recorders) {
+            result.add(recorder);
+        }
+        return result;
+    }
+
+    private HttpRequest request(Target target, int endpoint, Random random) {
+        Long movieId = target.movieIds.get(random.nextInt(target.movieIds.size()));
+        String path = switch (endpoint) {
+            case 0 -> "/api/admin/movies?limit=20";
+            case 1 -> "/api/admin/movies/" + movieId;
+            case 2 -> "/api/admin/showtimes?movieId=" + movieId;
+            default -> "/api/admin/showtimes?date=" + LocalDate.now().plusDays(random.nextInt(7));
+        };
+        return HttpRequest.newBuilder(URI.create(target.baseUrl + path))
+                .header("Authorization", "Bearer " + target.token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    // A system property, or the default when it is unset or blank
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    // "label=url,label=url", or bare urls labelled by themselves
+    private static Map<String, String> targets(String spec) {
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (String target : spec.split(",")) {
+            int separator = target.indexOf('=');
+            targets.put(separator > 0 ? target.substring(0, separator).trim() : target.trim(),
+                    target.substring(separator + 1).trim());
+        }
+        return targets;
+    }
+
+    static class Target {
+        private final String baseUrl;
+        private final String token;
+        private final List<Long> movieIds;
+
+        Target(String baseUrl, String token, List<Long> movieIds) {
+            this.baseUrl = baseUrl;
+            this.token = token;
+            this.movieIds = movieIds;
+        }
+    }
+
+    // One client's latencies in nanoseconds per endpoint; only its own thread writes to it
+    static class Recorder {
+        private final long[][] latencies = new long[ENDPOINTS.length][1024];
+        private final int[] counts = new int[ENDPOINTS.length];
+        private final int[] errors = new int[ENDPOINTS.length];
+
+        void record(int endpoint, long nanos, boolean ok) {
+            if (counts[endpoint] == latencies[endpoint].length) {
+                latencies[endpoint] = Arrays.copyOf(latencies[endpoint], counts[endpoint] * 2);
+            }
+            latencies[endpoint][counts[endpoint]++] = nanos;
+            if (!ok) {
+                errors[endpoint]++;
+            }
+        }
+    }
+
+    // Every client's recordings merged, per endpoint and overall
+    static class Result {
+        private final int seconds;
+        private final long[][] latencies = new long[ENDPOINTS.length + 1][0];
+        private final int[] errors = new int[ENDPOINTS.length + 1];
+
+        Result(int seconds) {
+            this.seconds = seconds;
+        }
+
+        void add(Recorder recorder) {
+            for (int endpoint = 0; endpoint < ENDPOINTS.length; endpoint++) {
+                append(endpoint, recorder.latencies[endpoint], recorder.counts[endpoint]);
+                append(ENDPOINTS.length, recorder.latencies[endpoint], recorder.counts[endpoint]);
+                errors[endpoint] += recorder.errors[endpoint];
+                errors[ENDPOINTS.length] += recorder.errors[endpoint];
+            }
+        }
+
+        void print(String target, int clientCount) {
+            for (int row = 0; row <= ENDPOINTS.length; row++) {
+                long[] sorted = latencies[row];
+                Arrays.sort(sorted);
+                System.out.printf("%-10s %7d  %-18s %9.1f %9.1f %9.1f %9.1f %8d%n",
+                        target, clientCount, row < ENDPOINTS.length ? ENDPOINTS[row] : "all",
+                        (double) sorted.length / seconds,
+                        millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                        millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0), errors[row]);
+            }
+        }
+
+        private void append(int row, long[] values, int count) {
+            int from = latencies[row].length;
+            latencies[row] = Arrays.copyOf(latencies[row], from + count);
+            System.arraycopy(values, 0, latencies[row], from, count);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
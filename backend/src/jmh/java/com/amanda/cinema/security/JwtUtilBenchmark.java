@@ -0,0 +1,63 @@
+package com.amanda.cinema.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.amanda.cinema.model.User;
+
+// Throughput and allocation (-prof gc, reported as gc.alloc.rate.norm bytes/op) of token issue
+// and verification. Run with: mvn -Pbenchmarks test-compile exec:exec -Djmh.include=JwtUtilBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long!!";
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1));
+        user = new User("bench@amanda.lk", "Bench User", "CUSTOMER", "LOCAL");
+        user.setId(42L);
+        token = jwtUtil.generateToken(user);
+    }
+
+    // Login / OAuth2 success path
+    @Benchmark
+    public String issue() {
+        return jwtUtil.generateToken(user);
+    }
+
+    // Filter and /api/auth/me path: one verification for every claim
+    @Benchmark
+    public JwtClaims parse() {
+        return jwtUtil.parse(token);
+    }
+
+    // Previous /api/auth/me shape: one full verification per extracted claim
+    @Benchmark
+    public void extractEachClaim(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.extractUsername(token));
+        blackhole.consume(jwtUtil.extractUserId(token));
+        blackhole.consume(jwtUtil.extractRole(token));
+        blackhole.consume(jwtUtil.extractName(token));
+    }
+}
@@ -0,0 +1,27 @@
+package com.amanda.cinema.booking;
+
+import java.util.List;
+
+// A booking request that cannot be carried out; the reason maps to the HTTP status
+public class BookingException extends RuntimeException {
+
+    public enum Reason { NOT_FOUND, NOT_BOOKABLE, INVALID_SEATS, SEATS_UNAVAILABLE, HOLD_EXPIRED, INVALID_STATE }
+
+    private final Reason reason;
+    private final List<String> seats;
+
+    public BookingException(Reason reason, String message) {
+        this(reason, message, List.of());
+    }
+
+    public BookingException(Reason reason, String message, List<String> seats) {
+        super(message);
+        this.reason = reason;
+        this.seats = seats;
+    }
+
+    public Reason getReason() { return reason; }
+
+    // The seats the request failed on, for INVALID_SEATS and SEATS_UNAVAILABLE
+    public List<String> getSeats() { return seats; }
+}
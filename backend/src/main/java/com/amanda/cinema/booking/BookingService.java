@@ -0,0 +1,282 @@
+package com.amanda.cinema.booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.dto.BookingDTO;
+import com.amanda.cinema.dto.SeatMapDTO;
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.BookingSeat;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.BookingSeatRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+import com.amanda.cinema.repository.UserRepository;
+
+// Holds, confirms and releases seats. Availability is decided by the showtime's in-memory SeatMap,
+// so competing requests are settled without touching the database; only the winner writes its
+// booking, and the unique booking_seats key backs the map up should they ever disagree.
+@Component
+public class BookingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final UserRepository userRepository;
+    private final SeatInventory seatInventory;
+    private final HoldExpiryService holdExpiry;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSeatsPerBooking;
+    private final long holdSeconds;
+
+    public BookingService(ShowtimeRepository showtimeRepository,
+                          BookingRepository bookingRepository,
+                          BookingSeatRepository bookingSeatRepository,
+                          UserRepository userRepository,
+                          SeatInventory seatInventory,
+                          HoldExpiryService holdExpiry,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${booking.max-seats:10}") int maxSeatsPerBooking,
+                          @Value("${booking.hold.ttl-seconds:600}") long holdSeconds) {
+        this.showtimeRepository = showtimeRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingSeatRepository = bookingSeatRepository;
+        this.userRepository = userRepository;
+        this.seatInventory = seatInventory;
+        this.holdExpiry = holdExpiry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSeatsPerBooking = maxSeatsPerBooking;
+        this.holdSeconds = holdSeconds;
+    }
+
+    // Current availability of a showtime's seats
+    public SeatMapDTO seatMap(Long showtimeId) {
+        ShowtimeSeating seating = findSeating(showtimeId);
+        SeatMap map = seatInventory.get(seating);
+        return new SeatMapDTO(showtimeId, seating.getHallId(), seating.getHallName(), seating.getSeatRows(),
+                seating.getSeatsPerRow(), map.getAvailable(), labels(map.takenSeats(), seating));
+    }
+
+    // Hold the seats for the user until the hold expires; all or nothing
+    public BookingDTO hold(Long showtimeId, List<String> seatLabels, Long userId) {
+        ShowtimeSeating seating = findSeating(showtimeId);
+        if (!"ACTIVE".equals(seating.getStatus()) || !seating.getStartsAt().isAfter(LocalDateTime.now())) {
+            throw new BookingException(BookingException.Reason.NOT_BOOKABLE, "Showtime is not open for booking");
+        }
+        int[] seats = parseSeats(seatLabels, seating);
+
+        SeatMap map = seatInventory.get(seating);
+        if (!map.tryReserve(seats)) {
+            // Another node may have released the seats since this map was loaded
+            SeatMap current = seatInventory.reloadIfStale(seating, map, seats);
+            if (current == null || !current.tryReserve(seats)) {
+                List<Integer> conflicts = (current != null ? current : map).conflicts(seats);
+                throw new BookingException(BookingException.Reason.SEATS_UNAVAILABLE, "Seats are no longer available",
+                        labels(conflicts.isEmpty() ? toList(seats) : conflicts, seating));
+            }
+            map = current;
+        }
+
+        try {
+            Booking booking = transactionTemplate.execute(status -> {
+                Booking created = new Booking();
+                created.setShowtime(showtimeRepository.getReferenceById(showtimeId));
+                created.setUser(userRepository.getReferenceById(userId));
+                created.setStatus(Booking.HELD);
+                created.setSeatCount(seats.length);
+                created.setTotalPrice(seating.getPrice().multiply(BigDecimal.valueOf(seats.length)));
+                created.setHoldExpiresAt(LocalDateTime.now().plusSeconds(holdSeconds));
+                bookingRepository.save(created);
+
+                List<BookingSeat> rows = new ArrayList<>(seats.length);
+                for (int seat : seats) {
+                    rows.add(new BookingSeat(created, showtimeId, seat));
+                }
+                bookingSeatRepository.saveAll(rows);
+                bookingSeatRepository.flush();
+                return created;
+            });
+            holdExpiry.schedule(booking.getId(), booking.getHoldExpiresAt());
+
+            logger.info("Booking {} holds {} seats of showtime {} for user {}", booking.getId(), seats.length,
+                    showtimeId, userId);
+            return new BookingDTO(booking.getId(), showtimeId, seating.getMovieTitle(), seating.getHallName(),
+                    seating.getStartsAt().toLocalDate().toString(), seating.getStartsAt().toLocalTime().toString(),
+                    labels(toList(seats), seating), booking.getStatus(), booking.getTotalPrice(),
+                    booking.getHoldExpiresAt(), booking.getCreatedAt());
+        } catch (DataIntegrityViolationException e) {
+            // The database already had one of the seats, so the map was out of date; reload it
+            map.release(seats);
+            seatInventory.evict(showtimeId);
+            logger.warn("Seat map of showtime {} disagreed with booking_seats, evicted", showtimeId);
+            throw new BookingException(BookingException.Reason.SEATS_UNAVAILABLE, "Seats are no longer available",
+                    labels(toList(seats), seating));
+        } catch (RuntimeException e) {
+            map.release(seats);
+            throw e;
+        }
+    }
+
+    // Turn the user's hold into a sale, provided it has not expired
+    public BookingDTO confirm(Long bookingId, Long userId) {
+        BookingDTO confirmed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (bookingRepository.confirmHeld(bookingId, userId, now) == 0) {
+                Booking booking = findOwned(bookingId, userId);
+                if (Booking.HELD.equals(booking.getStatus()) || Booking.EXPIRED.equals(booking.getStatus())) {
+                    throw new BookingException(BookingException.Reason.HOLD_EXPIRED, "Hold has expired");
+                }
+                throw new BookingException(BookingException.Reason.INVALID_STATE,
+                        "Booking is " + booking.getStatus().toLowerCase(Locale.ROOT));
+            }
+            logger.info("Booking {} confirmed", bookingId);
+            return toDTO(bookingId);
+        });
+        holdExpiry.cancel(bookingId);
+        return confirmed;
+    }
+
+    // Cancel a held or confirmed booking and free its seats; admins may cancel anyone's
+    public BookingDTO cancel(Long bookingId, Long userId, boolean admin) {
+        BookingDTO cancelled = transactionTemplate.execute(status -> {
+            Booking booking = admin
+                    ? bookingRepository.findById(bookingId).orElseThrow(BookingService::notFound)
+                    : findOwned(bookingId, userId);
+            int updated = bookingRepository.cancelActive(bookingId, LocalDateTime.now());
+            if (!release(bookingId, booking.getShowtime().getId(), updated)) {
+                throw new BookingException(BookingException.Reason.INVALID_STATE,
+                        "Booking is " + booking.getStatus().toLowerCase(Locale.ROOT));
+            }
+            logger.info("Booking {} cancelled", bookingId);
+            return toDTO(bookingId);
+        });
+        holdExpiry.cancel(bookingId);
+        return cancelled;
+    }
+
+    // The user's bookings, newest first, with their seats loaded in one statement
+    public List<BookingDTO> findByUser(Long userId, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<Booking> bookings = bookingRepository.findByUserIdWithShowtime(userId, Limit.of(limit));
+            if (bookings.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, List<Integer>> seatsByBooking = new HashMap<>();
+            for (BookingSeat seat : bookingSeatRepository.findByBookingIds(
+                    bookings.stream().map(Booking::getId).collect(Collectors.toList()))) {
+                seatsByBooking.computeIfAbsent(seat.getBooking().getId(), id -> new ArrayList<>()).add(seat.getSeatIndex());
+            }
+
+            return bookings.stream()
+                    .map(booking -> BookingDTO.from(booking, labels(seatsByBooking.getOrDefault(booking.getId(), List.of()),
+                            booking.getShowtime().getHall().getSeatsPerRow())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    // After a conditional status update: delete the booking's seat rows and free them in the map
+    // once that commits. Returns whether the update had changed the booking.
+    private boolean release(Long bookingId, Long showtimeId, int updated) {
+        if (updated == 0) {
+            return false;
+        }
+        int[] seats = bookingSeatRepository.findSeatIndexesByBookingId(bookingId).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        bookingSeatRepository.deleteByBookingId(bookingId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatInventory.release(showtimeId, seats);
+            }
+        });
+        return true;
+    }
+
+    private ShowtimeSeating findSeating(Long showtimeId) {
+        return showtimeRepository.findSeatingById(showtimeId)
+                .orElseThrow(() -> new BookingException(BookingException.Reason.NOT_FOUND,
+                        "Showtime not found or has no hall"));
+    }
+
+    private Booking findOwned(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(BookingService::notFound);
+        if (!booking.getUser().getId().equals(userId)) {
+            // Other users' bookings are reported as missing rather than forbidden
+            throw notFound();
+        }
+        return booking;
+    }
+
+    private BookingDTO toDTO(Long bookingId) {
+        Booking booking = bookingRepository.findByIdWithShowtime(bookingId).orElseThrow(BookingService::notFound);
+        return BookingDTO.from(booking, labels(bookingSeatRepository.findSeatIndexesByBookingId(bookingId),
+                booking.getShowtime().getHall().getSeatsPerRow()));
+    }
+
+    // Sorted, distinct seat indexes for the labels; rejects unknown seats and oversized requests
+    private int[] parseSeats(List<String> seatLabels, ShowtimeSeating seating) {
+        if (seatLabels == null || seatLabels.isEmpty()) {
+            throw new BookingException(BookingException.Reason.INVALID_SEATS, "At least one seat is required");
+        }
+
+        TreeSet<Integer> seats = new TreeSet<>();
+        List<String> invalid = new ArrayList<>();
+        for (String label : seatLabels) {
+            int index = SeatLabels.index(label, seating.getSeatRows(), seating.getSeatsPerRow());
+            if (index < 0) {
+                invalid.add(label);
+            } else {
+                seats.add(index);
+            }
+        }
+        if (!invalid.isEmpty()) {
+            throw new BookingException(BookingException.Reason.INVALID_SEATS, "Unknown seats", invalid);
+        }
+        if (seats.size() > maxSeatsPerBooking) {
+            throw new BookingException(BookingException.Reason.INVALID_SEATS,
+                    "At most " + maxSeatsPerBooking + " seats per booking");
+        }
+        return seats.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<String> labels(List<Integer> seats, ShowtimeSeating seating) {
+        return labels(seats, seating.getSeatsPerRow());
+    }
+
+    private static List<String> labels(List<Integer> seats, int seatsPerRow) {
+        return seats.stream()
+                .map(seat -> SeatLabels.label(seat, seatsPerRow))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> toList(int[] seats) {
+        return Arrays.stream(seats).boxed().collect(Collectors.toList());
+    }
+
+    private static BookingException notFound() {
+        return new BookingException(BookingException.Reason.NOT_FOUND, "Booking not found");
+    }
+}
@@ -0,0 +1,18 @@
+package com.amanda.cinema.booking;
+
+import java.time.LocalDateTime;
+
+// A held booking and when its hold lapses, selected to put it back on the expiry wheel
+public class HoldDeadline {
+    private final Long bookingId;
+    private final LocalDateTime expiresAt;
+
+    public HoldDeadline(Long bookingId, LocalDateTime expiresAt) {
+        this.bookingId = bookingId;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getBookingId() { return bookingId; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
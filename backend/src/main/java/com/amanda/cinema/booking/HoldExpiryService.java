@@ -0,0 +1,233 @@
+package com.amanda.cinema.booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.BookingSeat;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.BookingSeatRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Lapses unconfirmed seat holds. Every hold's deadline sits on a HoldTimingWheel of the node that
+// took it: a ticker thread advances the wheel and expires whatever came due in batches, one
+// transaction and a handful of statements per batch. Holds outstanding at startup are read back
+// onto the wheel once. A hold whose node died is on no wheel, so an infrequent sweep expires holds
+// still held well past their deadline.
+@Component
+public class HoldExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryService.class);
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatInventory seatInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldTimingWheel wheel;
+    private final long retryMillis;
+    private final long sweepMillis;
+    private final long sweepGraceMillis;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter scheduled;
+    private final Counter cancelled;
+    private final Counter expired;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public HoldExpiryService(BookingRepository bookingRepository,
+                             BookingSeatRepository bookingSeatRepository,
+                             SeatInventory seatInventory,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${booking.hold.wheel.tick-ms:1000}") long tickMillis,
+                             @Value("${booking.hold.wheel.slots:512}") int wheelSlots,
+                             @Value("${booking.hold.retry-seconds:30}") long retrySeconds,
+                             @Value("${booking.hold.sweep.interval-seconds:60}") long sweepSeconds,
+                             @Value("${booking.hold.sweep.grace-seconds:60}") long sweepGraceSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSeatRepository = bookingSeatRepository;
+        this.seatInventory = seatInventory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HoldTimingWheel(wheelSlots, tickMillis, System.currentTimeMillis());
+        this.retryMillis = TimeUnit.SECONDS.toMillis(retrySeconds);
+        this.sweepMillis = TimeUnit.SECONDS.toMillis(sweepSeconds);
+        this.sweepGraceMillis = TimeUnit.SECONDS.toMillis(sweepGraceSeconds);
+
+        // Rates of booking.holds.{scheduled,cancelled,expired} come from the counters; pending is
+        // the number of holds on the wheel right now
+        this.scheduled = meterRegistry.counter("booking.holds.scheduled");
+        this.cancelled = meterRegistry.counter("booking.holds.cancelled");
+        this.expired = meterRegistry.counter("booking.holds.expired");
+        this.failed = meterRegistry.counter("booking.holds.expiry.failures");
+        this.batchTimer = Timer.builder("booking.holds.expiry.batch")
+                .description("Time to expire one batch of due holds")
+                .register(meterRegistry);
+        Gauge.builder("booking.holds.pending", wheel, HoldTimingWheel::size).register(meterRegistry);
+    }
+
+    // Put the holds left from before the restart back on the wheel, then start ticking
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long started = System.currentTimeMillis();
+        int loaded = 0;
+        long afterId = 0;
+        List<HoldDeadline> deadlines;
+        do {
+            deadlines = bookingRepository.findHoldDeadlines(afterId, Limit.of(LOAD_BATCH_SIZE));
+            for (HoldDeadline deadline : deadlines) {
+                wheel.schedule(deadline.getBookingId(), toMillis(deadline.getExpiresAt()));
+                afterId = deadline.getBookingId();
+            }
+            loaded += deadlines.size();
+        } while (deadlines.size() == LOAD_BATCH_SIZE);
+
+        long tickMillis = wheel.getTickMillis();
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        // On the ticker thread too, so a sweep never races a tick over the same batch
+        ticker.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        logger.info("Hold expiry wheel started with {} outstanding holds in {} ms ({} slots of {} ms)",
+                loaded, System.currentTimeMillis() - started, wheel.getWheelSize(), tickMillis);
+    }
+
+    // Expire the booking's hold at its deadline; call once the hold has committed
+    public void schedule(Long bookingId, LocalDateTime expiresAt) {
+        wheel.schedule(bookingId, toMillis(expiresAt));
+        scheduled.increment();
+    }
+
+    // Take a confirmed or cancelled booking's hold off the wheel
+    public void cancel(Long bookingId) {
+        if (wheel.cancel(bookingId)) {
+            cancelled.increment();
+        }
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        try {
+            List<Long> due = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < due.size(); from += EXPIRY_BATCH_SIZE) {
+                expireBatch(due.subList(from, Math.min(from + EXPIRY_BATCH_SIZE, due.size())));
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay task and stop expiry altogether
+            logger.error("Hold expiry tick failed", e);
+        }
+    }
+
+    // Expire holds the wheels missed: still held more than the grace period after their deadline,
+    // which a live node would have expired by then
+    void sweep() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(sweepGraceMillis));
+            List<Long> overdue;
+            do {
+                overdue = bookingRepository.findOverdueHoldIds(cutoff, Limit.of(EXPIRY_BATCH_SIZE));
+                if (overdue.isEmpty()) {
+                    break;
+                }
+                logger.warn("Expiring {} seat holds no node scheduled", overdue.size());
+            } while (expireBatch(overdue) && overdue.size() == EXPIRY_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            logger.error("Hold expiry sweep failed", e);
+        }
+    }
+
+    // Expire the batch's holds that are still held and past their deadline, in one transaction.
+    // The seats leave the SeatMaps only after their rows are deleted and committed. Returns false
+    // if the batch failed and was put back on the wheel.
+    boolean expireBatch(List<Long> bookingIds) {
+        long started = System.nanoTime();
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> due = new ArrayList<>(bookingIds.size());
+                for (Booking booking : bookingRepository.findHeldForUpdate(bookingIds)) {
+                    if (booking.getHoldExpiresAt() != null && booking.getHoldExpiresAt().isAfter(now)) {
+                        // Due on the wheel but not yet by the database clock; try again at its deadline
+                        wheel.schedule(booking.getId(), toMillis(booking.getHoldExpiresAt()));
+                    } else {
+                        due.add(booking.getId());
+                    }
+                }
+                if (due.isEmpty()) {
+                    return 0;
+                }
+
+                Map<Long, List<Integer>> seatsByShowtime = new HashMap<>();
+                for (BookingSeat seat : bookingSeatRepository.findByBookingIds(due)) {
+                    seatsByShowtime.computeIfAbsent(seat.getShowtimeId(), id -> new ArrayList<>()).add(seat.getSeatIndex());
+                }
+                bookingSeatRepository.deleteByBookingIds(due);
+                int updated = bookingRepository.expireHeld(due, now);
+
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        seatsByShowtime.forEach((showtimeId, seats) -> seatInventory.release(showtimeId,
+                                seats.stream().mapToInt(Integer::intValue).toArray()));
+                    }
+                });
+                return updated;
+            });
+
+            expired.increment(count);
+            if (count > 0) {
+                logger.info("Expired {} seat holds", count);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Put the batch back on the wheel rather than strand its seats until the next restart
+            failed.increment();
+            long retryAt = System.currentTimeMillis() + retryMillis;
+            bookingIds.forEach(id -> wheel.schedule(id, retryAt));
+            logger.error("Failed to expire {} seat holds, retrying in {} ms", bookingIds.size(), retryMillis, e);
+            return false;
+        } finally {
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,169 @@
+package com.amanda.cinema.booking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Hashed timing wheel of hold deadlines. Time is cut into ticks and a deadline hashes to the slot
+// of its tick modulo the wheel size; each slot is an intrusive doubly linked list, so scheduling
+// and cancelling a hold are O(1) whatever the number outstanding. Advancing visits only the slots
+// of the ticks that passed and expires the entries in them whose tick has come; entries a full
+// turn or more ahead stay put. Slots are locked individually, so schedule and cancel calls on
+// different slots never contend, and advance is expected from a single ticker thread.
+public class HoldTimingWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Slot[] slots;
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // The first tick not yet visited; raised before its slots are visited so that a concurrent
+    // schedule never lands in a slot the advance has already passed
+    private volatile long nextTick;
+
+    public HoldTimingWheel(int wheelSize, long tickMillis, long startMillis) {
+        if (wheelSize < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("Wheel size and tick must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    public long getTickMillis() { return tickMillis; }
+
+    public int getWheelSize() { return slots.length; }
+
+    // Holds scheduled and not yet expired or cancelled
+    public int size() {
+        return entries.size();
+    }
+
+    // Expire the booking's hold at the deadline, replacing any earlier deadline it had.
+    // Deadlines already passed expire on the next advance.
+    public void schedule(Long bookingId, long deadlineMillis) {
+        Entry entry = new Entry(bookingId, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        Entry previous = entries.put(bookingId, entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+
+        while (true) {
+            long tick = Math.max(entry.deadlineTick, nextTick);
+            Slot slot = slots[(int) (tick & mask)];
+            synchronized (slot) {
+                // Re-read under the lock: the advance raises nextTick before locking any slot it visits
+                if (tick >= nextTick) {
+                    if (entries.get(bookingId) != entry) {
+                        // Replaced or cancelled while we were placing it
+                        return;
+                    }
+                    slot.add(entry);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Forget the booking's hold, e.g. once it is confirmed; false if it was not scheduled
+    public boolean cancel(Long bookingId) {
+        Entry entry = entries.remove(bookingId);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    // Visit the slots of every tick up to now and return the bookings whose holds are due. After
+    // a stall of a full turn or more each slot is visited once, which still finds every due entry.
+    public synchronized List<Long> advance(long nowMillis) {
+        long lastTick = Math.floorDiv(nowMillis, tickMillis);
+        long firstTick = nextTick;
+        if (lastTick < firstTick) {
+            return List.of();
+        }
+        nextTick = lastTick + 1;
+        firstTick = Math.max(firstTick, lastTick - mask);
+
+        List<Long> due = new ArrayList<>();
+        for (long tick = firstTick; tick <= lastTick; tick++) {
+            Slot slot = slots[(int) (tick & mask)];
+            synchronized (slot) {
+                Entry entry = slot.head;
+                while (entry != null) {
+                    Entry next = entry.next;
+                    if (entry.deadlineTick <= lastTick) {
+                        slot.remove(entry);
+                        // A concurrent cancel or reschedule owns the id now; drop the stale entry
+                        if (entries.remove(entry.bookingId, entry)) {
+                            due.add(entry.bookingId);
+                        }
+                    }
+                    entry = next;
+                }
+            }
+        }
+        return due;
+    }
+
+    private void unlink(Entry entry) {
+        Slot slot = entry.slot;
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            if (entry.slot == slot) {
+                slot.remove(entry);
+            }
+        }
+    }
+
+    private static class Slot {
+        private Entry head;
+
+        void add(Entry entry) {
+            entry.slot = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.slot = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+
+    private static class Entry {
+        private final Long bookingId;
+        private final long deadlineTick;
+        // Guarded by the lock of the slot the entry is in; read unlocked only as a hint
+        private volatile Slot slot;
+        private Entry prev;
+        private Entry next;
+
+        Entry(Long bookingId, long deadlineTick) {
+            this.bookingId = bookingId;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
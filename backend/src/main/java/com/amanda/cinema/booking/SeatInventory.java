@@ -0,0 +1,92 @@
+package com.amanda.cinema.booking;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.config.VirtualThreads;
+import com.amanda.cinema.repository.BookingSeatRepository;
+
+// In-memory SeatMaps of the showtimes being sold, loaded from booking_seats on first use. Every
+// seat in booking_seats is also taken in the map: seats are claimed here before their rows are
+// inserted and released only after their rows are deleted and committed.
+//
+// Seats taken here but free in booking_seats are a map gone stale: another node released them, or
+// they belong to an insert of this node still in flight. A refused hold checks the refused seats
+// against the database and reloads the map once if any of them are free there; the unique
+// booking_seats key still settles a seat that the reload wrongly shows as free.
+@Component
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+
+    private final BookingSeatRepository bookingSeatRepository;
+    private final ConcurrentMap<Long, SeatMap> maps = new ConcurrentHashMap<>();
+
+    public SeatInventory(BookingSeatRepository bookingSeatRepository) {
+        this.bookingSeatRepository = bookingSeatRepository;
+    }
+
+    // The showtime's map, loaded once; concurrent first calls wait for the same load
+    public SeatMap get(ShowtimeSeating seating) {
+        SeatMap map = maps.get(seating.getShowtimeId());
+        if (map == null) {
+            map = VirtualThreads.limitPinned(() ->
+                    maps.computeIfAbsent(seating.getShowtimeId(), id -> load(id, seating.getCapacity())));
+        }
+        if (map.getCapacity() != seating.getCapacity()) {
+            // The showtime moved to another hall since the map was loaded
+            maps.remove(seating.getShowtimeId(), map);
+            return get(seating);
+        }
+        return map;
+    }
+
+    // Free seats after the deletion of their booking_seats rows has committed. Runs inside the
+    // map's bin lock, so a release cannot slip in between a concurrent load's read and its insert.
+    public void release(Long showtimeId, int[] seats) {
+        maps.computeIfPresent(showtimeId, (id, map) -> {
+            map.release(seats);
+            return map;
+        });
+    }
+
+    // The map refused the seats. Returns a freshly loaded map if booking_seats has any of the
+    // refused seats free, or null when the database agrees that they are taken.
+    public SeatMap reloadIfStale(ShowtimeSeating seating, SeatMap map, int[] seats) {
+        List<Integer> conflicts = map.conflicts(seats);
+        if (conflicts.isEmpty()) {
+            // Released since the refusal; the same map may take them now
+            return map;
+        }
+        Set<Integer> stored = new HashSet<>(bookingSeatRepository.findTakenSeatIndexes(seating.getShowtimeId(), conflicts));
+        if (stored.containsAll(conflicts)) {
+            return null;
+        }
+        logger.info("Seat map of showtime {} has {} seat(s) free in booking_seats, reloading",
+                seating.getShowtimeId(), conflicts.size() - stored.size());
+        maps.remove(seating.getShowtimeId(), map);
+        return get(seating);
+    }
+
+    // Drop a showtime's map, e.g. after a failed insert showed it disagrees with the database
+    public void evict(Long showtimeId) {
+        maps.remove(showtimeId);
+    }
+
+    public int size() {
+        return maps.size();
+    }
+
+    private SeatMap load(Long showtimeId, int capacity) {
+        SeatMap map = new SeatMap(capacity, bookingSeatRepository.findSeatIndexesByShowtimeId(showtimeId));
+        logger.debug("Seat map of showtime {} loaded, {} of {} seats taken", showtimeId, map.getTaken(), capacity);
+        return map;
+    }
+}
@@ -0,0 +1,53 @@
+package com.amanda.cinema.booking;
+
+import java.util.Locale;
+
+// Converts between seat labels ("A1", "C12", "AA3") and row-major seat indexes. Rows are lettered
+// A..Z, AA..AZ and so on; seat numbers start at 1.
+public final class SeatLabels {
+
+    private SeatLabels() {}
+
+    public static String label(int index, int seatsPerRow) {
+        return rowName(index / seatsPerRow) + (index % seatsPerRow + 1);
+    }
+
+    // Index of the label in a seatRows x seatsPerRow hall, or -1 if it does not name a seat there
+    public static int index(String label, int seatRows, int seatsPerRow) {
+        if (label == null) {
+            return -1;
+        }
+        String text = label.trim().toUpperCase(Locale.ROOT);
+        int split = 0;
+        while (split < text.length() && text.charAt(split) >= 'A' && text.charAt(split) <= 'Z') {
+            split++;
+        }
+        if (split == 0 || split == text.length() || split > 3) {
+            return -1;
+        }
+
+        int row = 0;
+        for (int i = 0; i < split; i++) {
+            row = row * 26 + (text.charAt(i) - 'A' + 1);
+        }
+        row--;
+
+        String digits = text.substring(split);
+        if (digits.length() > 4 || !digits.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return -1;
+        }
+        int number = Integer.parseInt(digits);
+        if (row >= seatRows || number < 1 || number > seatsPerRow) {
+            return -1;
+        }
+        return row * seatsPerRow + number - 1;
+    }
+
+    private static String rowName(int row) {
+        StringBuilder name = new StringBuilder();
+        for (int n = row + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.amanda.cinema.booking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Availability of one showtime's seats as a bitmap, one bit per seat index; a set bit is a held
+// or sold seat. Updates are lock-free: a multi-seat reservation claims each 64-seat word with one
+// compare-and-set and undoes the words it already claimed if a later one conflicts. A seat can
+// therefore only ever be claimed by one successful reservation.
+public class SeatMap {
+
+    private final int capacity;
+    private final AtomicLongArray words;
+    private final AtomicInteger taken = new AtomicInteger();
+
+    public SeatMap(int capacity) {
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    // A map with the given seats already taken, e.g. the booking_seats rows of the showtime
+    public SeatMap(int capacity, Collection<Integer> takenSeats) {
+        this(capacity);
+        for (int seat : takenSeats) {
+            checkIndex(seat);
+            long bit = 1L << seat;
+            if ((words.getAndAccumulate(seat >>> 6, bit, (a, b) -> a | b) & bit) == 0) {
+                taken.incrementAndGet();
+            }
+        }
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public int getTaken() { return taken.get(); }
+
+    public int getAvailable() { return capacity - taken.get(); }
+
+    public boolean isTaken(int seat) {
+        checkIndex(seat);
+        return (words.get(seat >>> 6) & (1L << seat)) != 0;
+    }
+
+    // Claim every seat or none. Seats must be distinct and sorted so concurrent requests claim
+    // words in the same order.
+    public boolean tryReserve(int[] seats) {
+        for (int seat : seats) {
+            checkIndex(seat);
+        }
+
+        int claimedUpTo = 0;
+        int i = 0;
+        while (i < seats.length) {
+            int word = seats[i] >>> 6;
+            long mask = 0;
+            while (i < seats.length && seats[i] >>> 6 == word) {
+                mask |= 1L << seats[i];
+                i++;
+            }
+
+            if (!claim(word, mask)) {
+                release(seats, claimedUpTo);
+                return false;
+            }
+            claimedUpTo = i;
+        }
+        taken.addAndGet(seats.length);
+        return true;
+    }
+
+    // Free seats of a released booking; seats not currently taken are ignored
+    public void release(int[] seats) {
+        int released = 0;
+        for (int seat : seats) {
+            checkIndex(seat);
+            long bit = 1L << seat;
+            if ((words.getAndAccumulate(seat >>> 6, ~bit, (a, b) -> a & b) & bit) != 0) {
+                released++;
+            }
+        }
+        taken.addAndGet(-released);
+    }
+
+    // Indexes of every taken seat, in order
+    public List<Integer> takenSeats() {
+        List<Integer> seats = new ArrayList<>(taken.get());
+        for (int w = 0; w < words.length(); w++) {
+            long bits = words.get(w);
+            while (bits != 0) {
+                seats.add((w << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return seats;
+    }
+
+    private boolean claim(int word, long mask) {
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    // Undo the claims of a failed reservation: the first 'count' seats, which this request owns
+    private void release(int[] seats, int count) {
+        for (int i = 0; i < count; i++) {
+            long bit = 1L << seats[i];
+            words.getAndAccumulate(seats[i] >>> 6, ~bit, (a, b) -> a & b);
+        }
+    }
+
+    // The given seats that are currently taken, to report why a reservation failed
+    public List<Integer> conflicts(int[] seats) {
+        List<Integer> conflicts = new ArrayList<>();
+        for (int seat : seats) {
+            if (isTaken(seat)) {
+                conflicts.add(seat);
+            }
+        }
+        return conflicts;
+    }
+
+    private void checkIndex(int seat) {
+        if (seat < 0 || seat >= capacity) {
+            throw new IndexOutOfBoundsException("Seat " + seat + " outside capacity " + capacity);
+        }
+    }
+}
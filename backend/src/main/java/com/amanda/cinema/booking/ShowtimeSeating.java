@@ -0,0 +1,54 @@
+package com.amanda.cinema.booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// What booking needs to know about a showtime and its hall, selected in one statement
+public class ShowtimeSeating {
+    private final Long showtimeId;
+    private final String movieTitle;
+    private final Long hallId;
+    private final String hallName;
+    private final int seatRows;
+    private final int seatsPerRow;
+    private final BigDecimal price;
+    private final String status;
+    private final LocalDate showDate;
+    private final LocalTime startTime;
+
+    public ShowtimeSeating(Long showtimeId, String movieTitle, Long hallId, String hallName, Integer seatRows, Integer seatsPerRow,
+                           BigDecimal price, String status, LocalDate showDate, LocalTime startTime) {
+        this.showtimeId = showtimeId;
+        this.movieTitle = movieTitle;
+        this.hallId = hallId;
+        this.hallName = hallName;
+        this.seatRows = seatRows;
+        this.seatsPerRow = seatsPerRow;
+        this.price = price;
+        this.status = status;
+        this.showDate = showDate;
+        this.startTime = startTime;
+    }
+
+    public Long getShowtimeId() { return showtimeId; }
+
+    public String getMovieTitle() { return movieTitle; }
+
+    public Long getHallId() { return hallId; }
+
+    public String getHallName() { return hallName; }
+
+    public int getSeatRows() { return seatRows; }
+
+    public int getSeatsPerRow() { return seatsPerRow; }
+
+    public int getCapacity() { return seatRows * seatsPerRow; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public String getStatus() { return status; }
+
+    public LocalDateTime getStartsAt() { return LocalDateTime.of(showDate, startTime); }
+}
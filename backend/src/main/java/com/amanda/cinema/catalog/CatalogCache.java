@@ -0,0 +1,213 @@
+package com.amanda.cinema.catalog;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amanda.cinema.config.VirtualThreads;
+import com.amanda.cinema.dto.MovieDTOAssembler;
+import com.amanda.cinema.dto.VersionStamp;
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.MovieRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Read-through cache of the now-showing and coming-soon lists, keyed by list and date so a new
+// day reads fresh rows. Entries expire at the next local midnight (or the configured TTL, if
+// sooner) and are invalidated after commit only when a changed movie was, or now would be, on them.
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final MovieRepository movieRepository;
+    private final MovieDTOAssembler movieDTOAssembler;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final LoadingCache<Key, CatalogEntry> cache;
+    // Keys with a load in progress and how many readers wait on it; such loads are not in the map
+    private final Map<Key, Integer> loading = new ConcurrentHashMap<>();
+
+    public CatalogCache(MovieRepository movieRepository,
+                        MovieDTOAssembler movieDTOAssembler,
+                        MeterRegistry meterRegistry,
+                        @Value("${catalog.cache.max-size:64}") long maxSize,
+                        @Value("${catalog.cache.ttl-seconds:900}") long ttlSeconds) {
+        this.movieRepository = movieRepository;
+        this.movieDTOAssembler = movieDTOAssembler;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new MidnightExpiry(clock, TimeUnit.SECONDS.toNanos(ttlSeconds)))
+                .recordStats()
+                .build(this::load);
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size under cache=catalog.movies
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog.movies");
+    }
+
+    public CatalogEntry get(CatalogList list, LocalDate date) {
+        Key key = new Key(list, date);
+        CatalogEntry entry = cache.asMap().get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        // Registered before the load reads anything, so a change committing meanwhile sees the key
+        loading.merge(key, 1, Integer::sum);
+        try {
+            return VirtualThreads.limitPinned(() -> cache.get(key));
+        } finally {
+            loading.computeIfPresent(key, (k, readers) -> readers > 1 ? readers - 1 : null);
+        }
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Ordered ahead of CatalogSnapshotService, which re-renders from the surviving entries
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        // A load in progress may have read its rows before this change committed. Invalidating its
+        // key waits for the load to store its entry and then drops it. Read before the map: a load
+        // that finishes in between is in the map by the time it leaves this set.
+        Set<Key> stale = new HashSet<>(loading.keySet());
+        Map<Key, CatalogEntry> entries = cache.asMap();
+        if (entries.isEmpty() && stale.isEmpty()) {
+            return;
+        }
+
+        // Movies on a cached list must leave it (deleted) or be re-rendered (edited, new photo)
+        entries.forEach((key, entry) -> {
+            if (entry.getMovies().stream().anyMatch(movie -> event.getMovieIds().contains(movie.getId()))) {
+                stale.add(key);
+            }
+        });
+
+        // Created or edited movies may also have joined a list they were not on
+        if (event.getType() == MovieChangedEvent.Type.CREATED || event.getType() == MovieChangedEvent.Type.UPDATED) {
+            List<Movie> changed = loadMovies(event);
+            for (Key key : entries.keySet()) {
+                if (changed.stream().anyMatch(movie -> key.list.contains(movie, key.date))) {
+                    stale.add(key);
+                }
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            cache.invalidateAll(stale);
+            logger.debug("Catalog entries {} invalidated by {} of movies {}", stale, event.getType(), event.getMovieIds());
+        }
+    }
+
+    private List<Movie> loadMovies(MovieChangedEvent event) {
+        List<Long> ids = new ArrayList<>(event.getMovieIds());
+        List<Movie> movies = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            movieRepository.findAllById(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())))
+                    .forEach(movies::add);
+        }
+        return movies;
+    }
+
+    private CatalogEntry load(Key key) {
+        // Read the version first: a write racing the load then yields a newer list under an older
+        // tag, which its invalidation replaces (see onMovieChanged), never an older list under a
+        // current tag
+        VersionStamp version = movieRepository.findVersion();
+        List<Movie> movies = key.list == CatalogList.NOW_SHOWING
+                ? movieRepository.findCurrentlyShowing(key.date)
+                : movieRepository.findComingSoon(key.date);
+        logger.debug("Catalog {} for {} loaded with {} movies", key.list, key.date, movies.size());
+        return new CatalogEntry(Collections.unmodifiableList(movieDTOAssembler.toDTOs(movies)),
+                version.weakETag(key.list, key.date));
+    }
+
+    // Expire at the configured TTL or at the midnight ending the entry's date, whichever is sooner
+    static class MidnightExpiry implements Expiry<Key, CatalogEntry> {
+
+        private final Clock clock;
+        private final long ttlNanos;
+
+        MidnightExpiry(Clock clock, long ttlNanos) {
+            this.clock = clock;
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, CatalogEntry entry, long currentTime) {
+            ZonedDateTime now = ZonedDateTime.now(clock);
+            ZonedDateTime midnight = key.date.plusDays(1).atStartOfDay(clock.getZone());
+            long untilMidnight = Duration.between(now, midnight).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilMidnight));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, CatalogEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, CatalogEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    static class Key {
+        private final CatalogList list;
+        private final LocalDate date;
+
+        Key(CatalogList list, LocalDate date) {
+            this.list = list;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return list == other.list && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(list, date);
+        }
+
+        @Override
+        public String toString() {
+            return list + "@" + date;
+        }
+    }
+}
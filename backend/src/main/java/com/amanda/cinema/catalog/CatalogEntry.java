@@ -0,0 +1,20 @@
+package com.amanda.cinema.catalog;
+
+import java.util.List;
+
+import com.amanda.cinema.dto.MovieDTO;
+
+// One cached catalog list and the weak ETag of the movie table version it was loaded at
+public class CatalogEntry {
+    private final List<MovieDTO> movies;
+    private final String eTag;
+
+    public CatalogEntry(List<MovieDTO> movies, String eTag) {
+        this.movies = movies;
+        this.eTag = eTag;
+    }
+
+    public List<MovieDTO> getMovies() { return movies; }
+
+    public String getETag() { return eTag; }
+}
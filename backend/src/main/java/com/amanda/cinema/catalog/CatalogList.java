@@ -0,0 +1,28 @@
+package com.amanda.cinema.catalog;
+
+import java.time.LocalDate;
+
+import com.amanda.cinema.model.Movie;
+
+// The customer-facing movie lists, with the same membership rules as their MovieRepository queries
+public enum CatalogList {
+
+    NOW_SHOWING {
+        @Override
+        public boolean contains(Movie movie, LocalDate date) {
+            return "ACTIVE".equals(movie.getStatus())
+                    && movie.getShowStartDate() != null && !movie.getShowStartDate().isAfter(date)
+                    && movie.getShowEndDate() != null && !movie.getShowEndDate().isBefore(date);
+        }
+    },
+    COMING_SOON {
+        @Override
+        public boolean contains(Movie movie, LocalDate date) {
+            return "COMING_SOON".equals(movie.getStatus())
+                    && movie.getShowStartDate() != null && movie.getShowStartDate().isAfter(date);
+        }
+    };
+
+    // Whether the movie belongs on this list on the given date
+    public abstract boolean contains(Movie movie, LocalDate date);
+}
@@ -0,0 +1,42 @@
+package com.amanda.cinema.catalog;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Immutable rendering of every catalog list for one date. Replaced wholesale on rebuild, so a
+// reader holding one always sees a consistent set of bytes.
+public class CatalogSnapshot {
+    private final LocalDate date;
+    private final Map<CatalogList, RenderedList> lists;
+
+    public CatalogSnapshot(LocalDate date, Map<CatalogList, RenderedList> lists) {
+        this.date = date;
+        this.lists = Map.copyOf(lists);
+    }
+
+    public LocalDate getDate() { return date; }
+
+    public RenderedList get(CatalogList list) { return lists.get(list); }
+
+    // JSON body of one list, plain and gzip-compressed, rendered from a CatalogEntry. The arrays
+    // are shared by every response and must never be written to.
+    public static class RenderedList {
+        private final CatalogEntry source;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        public RenderedList(CatalogEntry source, byte[] json, byte[] gzip) {
+            this.source = source;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public CatalogEntry getSource() { return source; }
+
+        public String getETag() { return source.getETag(); }
+
+        public byte[] getJson() { return json; }
+
+        public byte[] getGzip() { return gzip; }
+    }
+}
@@ -0,0 +1,150 @@
+package com.amanda.cinema.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amanda.cinema.event.MovieChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+// Renders the catalog lists to JSON and gzip bytes once per change instead of once per request.
+// Readers take the current snapshot from an AtomicReference and never wait; rebuilds run on a
+// single background thread, coalesce bursts of changes and swap the new snapshot in atomically.
+@Component
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final CatalogCache catalogCache;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean(false);
+    // Not a monitor: rebuilds may load from the database, which would pin a virtual thread's carrier
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshotService(CatalogCache catalogCache, ObjectMapper objectMapper) {
+        this.catalogCache = catalogCache;
+        this.objectMapper = objectMapper;
+    }
+
+    // Today's snapshot. Only the first reads of a new day, if they beat the midnight rebuild, or
+    // reads before startup finished wait for a build.
+    public CatalogSnapshot current() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null && snapshot.getDate().equals(catalogCache.today())) {
+            return snapshot;
+        }
+        return rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Initial catalog snapshot failed, the first request will retry", e);
+        }
+    }
+
+    // Runs after CatalogCache has dropped the entries the change affects
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        requestRebuild();
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void onDateRollover() {
+        requestRebuild();
+    }
+
+    // Queue a rebuild unless one is already waiting; a queued rebuild picks up every change made
+    // before it starts
+    public void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Catalog snapshot rebuild failed, still serving the previous one", e);
+            }
+        });
+    }
+
+    // Build and publish a snapshot for today. Lists whose cache entry is unchanged reuse their
+    // previous rendering, so an edit to a coming-soon movie does not re-render now-showing.
+    public CatalogSnapshot rebuild() {
+        buildLock.lock();
+        try {
+            long started = System.nanoTime();
+            LocalDate today = catalogCache.today();
+            CatalogSnapshot previous = current.get();
+
+            Map<CatalogList, CatalogSnapshot.RenderedList> lists = new EnumMap<>(CatalogList.class);
+            int rendered = 0;
+            for (CatalogList list : CatalogList.values()) {
+                CatalogEntry entry = catalogCache.get(list, today);
+                CatalogSnapshot.RenderedList reused = previous != null && previous.getDate().equals(today)
+                        ? previous.get(list) : null;
+                if (reused != null && reused.getSource() == entry) {
+                    lists.put(list, reused);
+                } else {
+                    lists.put(list, render(entry));
+                    rendered++;
+                }
+            }
+
+            CatalogSnapshot snapshot = new CatalogSnapshot(today, lists);
+            current.set(snapshot);
+            logger.debug("Catalog snapshot for {} built in {} us, {} lists rendered",
+                    today, (System.nanoTime() - started) / 1000, rendered);
+            return snapshot;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private CatalogSnapshot.RenderedList render(CatalogEntry entry) {
+        byte[] json = objectMapper.writeValueAsBytes(entry.getMovies());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CatalogSnapshot.RenderedList(entry, json, compressed.toByteArray());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package com.amanda.cinema.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// With spring.threads.virtual.enabled requests run on virtual threads, and on JDK 21 a virtual
+// thread that blocks while holding a monitor pins its carrier thread. The in-memory caches load
+// from the database under one: a ConcurrentHashMap bin lock in computeIfAbsent, or Caffeine's.
+// If every carrier were pinned by such a load waiting for a pooled connection, the virtual
+// threads holding the connections could never run to return them. Those loads go through
+// limitPinned, which lets at most half the carriers in at once; the others wait on a semaphore,
+// which unmounts them. Platform threads are not limited.
+public final class VirtualThreads {
+
+    private static final int MAX_PINNED = Math.max(1, carriers() / 2);
+    private static final Semaphore PINNED = new Semaphore(MAX_PINNED);
+
+    private VirtualThreads() {
+    }
+
+    // Run a load that blocks under a monitor, waiting first if too many carriers are pinned
+    public static <T> T limitPinned(Supplier<T> load) {
+        if (!Thread.currentThread().isVirtual()) {
+            return load.get();
+        }
+        PINNED.acquireUninterruptibly();
+        try {
+            return load.get();
+        } finally {
+            PINNED.release();
+        }
+    }
+
+    public static int maxPinned() {
+        return MAX_PINNED;
+    }
+
+    private static int carriers() {
+        String parallelism = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        return parallelism != null ? Integer.parseInt(parallelism) : Runtime.getRuntime().availableProcessors();
+    }
+}
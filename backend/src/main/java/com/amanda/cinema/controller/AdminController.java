@@ -4,13 +4,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import com.amanda.cinema.dto.CursorPage;
+import com.amanda.cinema.dto.KeysetCursor;
 import com.amanda.cinema.model.User;
 import com.amanda.cinema.repository.UserRepository;
+import com.amanda.cinema.security.JwtPrincipalCache;
+import com.amanda.cinema.security.TokenEpochRegistry;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -18,14 +23,22 @@ import com.amanda.cinema.repository.UserRepository;
 public class AdminController {
 
     private final UserRepository userRepository;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
-    public AdminController(UserRepository userRepository) {
+    public AdminController(UserRepository userRepository,
+                           JwtPrincipalCache jwtPrincipalCache,
+                           TokenEpochRegistry tokenEpochRegistry) {
         this.userRepository = userRepository;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.tokenEpochRegistry = tokenEpochRegistry;
     }
 
-    // Get all users (admin only)
+    // Get all users (admin only); passing limit or cursor returns a keyset page instead of the full list
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(Authentication authentication) {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor,
+                                         Authentication authentication) {
         try {
             // Check if user is authenticated
             if (authentication == null || !authentication.isAuthenticated()) {
@@ -44,9 +57,17 @@ public class AdminController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
 
+            if (limit != null || cursor != null) {
+                return ResponseEntity.ok(getUserPage(limit, cursor));
+            }
+
             List<User> users = userRepository.findAll();
             return ResponseEntity.ok(users);
 
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to fetch users: " + e.getMessage());
@@ -54,6 +75,103 @@ public class AdminController {
         }
     }
 
+    // Change a user's role (admin only)
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<?> updateUserRole(@PathVariable Long id,
+                                            @RequestBody Map<String, String> requestData,
+                                            Authentication authentication) {
+        try {
+            // Check if user is authenticated
+            if (authentication == null || !authentication.isAuthenticated()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Unauthorized");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+
+            // Get authenticated user
+            User currentUser = (User) authentication.getPrincipal();
+
+            // Check if user is admin
+            if (!"ADMIN".equals(currentUser.getRole())) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. Admin privileges required.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            String role = requestData.get("role");
+            if (!"ADMIN".equals(role) && !"CUSTOMER".equals(role)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Role must be ADMIN or CUSTOMER");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            User user = userRepository.findById(id).orElse(null);
+            if (user == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+
+            user.setRole(role);
+            // Existing tokens carry the old role claim, so revoke them
+            revokeTokens(user);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Role updated successfully");
+            response.put("userId", user.getId());
+            response.put("role", user.getRole());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update role: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    // Revoke every token issued to a user so far, forcing a new login (admin only)
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable Long id, Authentication authentication) {
+        try {
+            // Check if user is authenticated
+            if (authentication == null || !authentication.isAuthenticated()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Unauthorized");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+
+            // Get authenticated user
+            User currentUser = (User) authentication.getPrincipal();
+
+            // Check if user is admin
+            if (!"ADMIN".equals(currentUser.getRole())) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. Admin privileges required.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            User user = userRepository.findById(id).orElse(null);
+            if (user == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+
+            revokeTokens(user);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Tokens revoked successfully");
+            response.put("userId", user.getId());
+            response.put("tokenEpoch", user.getTokenEpoch());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to revoke tokens: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     // Get dashboard stats (admin only)
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboard(Authentication authentication) {
@@ -86,4 +204,34 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    private CursorPage<User> getUserPage(Integer limit, String cursor) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        long afterId = 0L;
+        if (cursor != null) {
+            try {
+                afterId = Long.parseLong(KeysetCursor.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page exists
+        List<User> users = userRepository.findPageAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? KeysetCursor.encode(users.get(users.size() - 1).getId()) : null;
+        return new CursorPage<>(users, nextCursor, pageSize);
+    }
+
+    // Bump the user's token epoch and save; this node applies it at once, others on their next refresh
+    private void revokeTokens(User user) {
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        userRepository.save(user);
+        tokenEpochRegistry.record(user.getId(), user.getTokenEpoch());
+        jwtPrincipalCache.invalidateUser(user.getId());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.amanda.cinema.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.HallRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+@RestController
+@RequestMapping("/api/admin/halls")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AdminHallController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminHallController.class);
+    // Keeps a showtime's seat bitmap to a few hundred words
+    private static final int MAX_ROWS = 100;
+    private static final int MAX_SEATS_PER_ROW = 100;
+
+    private final HallRepository hallRepository;
+    private final ShowtimeRepository showtimeRepository;
+    private final BookingRepository bookingRepository;
+
+    public AdminHallController(HallRepository hallRepository,
+                               ShowtimeRepository showtimeRepository,
+                               BookingRepository bookingRepository) {
+        this.hallRepository = hallRepository;
+        this.showtimeRepository = showtimeRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    // Get all halls
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getAllHalls(Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            List<Hall> halls = hallRepository.findAllByOrderByNameAsc();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(halls);
+        } catch (Exception e) {
+            logger.error("Error fetching halls", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch halls: " + e.getMessage()));
+        }
+    }
+
+    // Create a hall: {"name": "Hall 1", "seatRows": 12, "seatsPerRow": 18}
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional
+    public ResponseEntity<?> createHall(@RequestBody Hall hall, Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            String validationError = validateHall(hall);
+            if (validationError != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", validationError));
+            }
+            if (hallRepository.existsByNameIgnoreCase(hall.getName().trim())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A hall with this name already exists"));
+            }
+
+            hall.setId(null);
+            hall.setName(hall.getName().trim());
+            Hall savedHall = hallRepository.save(hall);
+            logger.info("Hall created with id: {} ({} seats)", savedHall.getId(), savedHall.getCapacity());
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(savedHall);
+        } catch (Exception e) {
+            logger.error("Error creating hall", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to create hall: " + e.getMessage()));
+        }
+    }
+
+    // Update a hall; the seat grid is fixed once any of its showtimes has seats held or sold
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional
+    public ResponseEntity<?> updateHall(@PathVariable Long id,
+                                        @RequestBody Hall hallDetails,
+                                        Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            Optional<Hall> hallOpt = hallRepository.findById(id);
+            if (hallOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Hall not found"));
+            }
+
+            String validationError = validateHall(hallDetails);
+            if (validationError != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", validationError));
+            }
+
+            Hall hall = hallOpt.get();
+            boolean gridChanged = !hall.getSeatRows().equals(hallDetails.getSeatRows())
+                    || !hall.getSeatsPerRow().equals(hallDetails.getSeatsPerRow());
+            if (gridChanged && bookingRepository.existsByShowtimeHallIdAndStatusIn(id,
+                    List.of(Booking.HELD, Booking.CONFIRMED))) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Seats of this hall are booked; its layout cannot change"));
+            }
+            if (!hall.getName().equalsIgnoreCase(hallDetails.getName().trim())
+                    && hallRepository.existsByNameIgnoreCase(hallDetails.getName().trim())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A hall with this name already exists"));
+            }
+
+            hall.setName(hallDetails.getName().trim());
+            hall.setSeatRows(hallDetails.getSeatRows());
+            hall.setSeatsPerRow(hallDetails.getSeatsPerRow());
+            Hall updatedHall = hallRepository.save(hall);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(updatedHall);
+        } catch (Exception e) {
+            logger.error("Error updating hall id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update hall: " + e.getMessage()));
+        }
+    }
+
+    // Delete a hall that no showtime uses
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional
+    public ResponseEntity<?> deleteHall(@PathVariable Long id, Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            if (!hallRepository.existsById(id)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Hall not found"));
+            }
+            if (showtimeRepository.existsByHallId(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Showtimes are scheduled in this hall"));
+            }
+
+            hallRepository.deleteById(id);
+            logger.info("Hall deleted: {}", id);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", "Hall deleted successfully"));
+        } catch (Exception e) {
+            logger.error("Error deleting hall id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to delete hall: " + e.getMessage()));
+        }
+    }
+
+    // Helper method returning the first problem with a hall's fields, or null
+    private String validateHall(Hall hall) {
+        if (hall.getName() == null || hall.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (hall.getName().trim().length() > 100) {
+            return "Name must be at most 100 characters";
+        }
+        if (hall.getSeatRows() == null || hall.getSeatRows() < 1 || hall.getSeatRows() > MAX_ROWS) {
+            return "seatRows must be between 1 and " + MAX_ROWS;
+        }
+        if (hall.getSeatsPerRow() == null || hall.getSeatsPerRow() < 1 || hall.getSeatsPerRow() > MAX_SEATS_PER_ROW) {
+            return "seatsPerRow must be between 1 and " + MAX_SEATS_PER_ROW;
+        }
+        return null;
+    }
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Authentication is null or not authenticated");
+            return false;
+        }
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        logger.info("User {} is admin: {}", authentication.getName(), isAdmin);
+        return isAdmin;
+    }
+}
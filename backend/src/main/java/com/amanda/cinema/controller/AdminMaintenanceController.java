@@ -0,0 +1,109 @@
+package com.amanda.cinema.controller;
+
+import com.amanda.cinema.storage.PhotoDerivativeService;
+import com.amanda.cinema.storage.PhotoStorageMigrationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/maintenance")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AdminMaintenanceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMaintenanceController.class);
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final PhotoStorageMigrationJob photoStorageMigrationJob;
+    private final PhotoDerivativeService photoDerivativeService;
+
+    public AdminMaintenanceController(PhotoStorageMigrationJob photoStorageMigrationJob,
+                                      PhotoDerivativeService photoDerivativeService) {
+        this.photoStorageMigrationJob = photoStorageMigrationJob;
+        this.photoDerivativeService = photoDerivativeService;
+    }
+
+    // Start moving inline photo bytes into the photo store
+    @PostMapping(value = "/photos/migrate-storage", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> migratePhotoStorage(@RequestParam(defaultValue = "100") int batchSize,
+                                                 Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "batchSize must be between 1 and " + MAX_BATCH_SIZE));
+        }
+
+        boolean started = photoStorageMigrationJob.start(batchSize);
+        logger.info("Photo storage migration requested by {}, started: {}", authentication.getName(), started);
+
+        Map<String, Object> body = new HashMap<>(photoStorageMigrationJob.status());
+        body.put("message", started ? "Photo storage migration started" : "Photo storage migration already running");
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Progress of the photo storage migration
+    @GetMapping(value = "/photos/migrate-storage", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPhotoStorageMigrationStatus(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(photoStorageMigrationJob.status());
+    }
+
+    // Generate missing thumbnail/card/hero derivatives for existing photos
+    @PostMapping(value = "/photos/derivatives/backfill", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> backfillPhotoDerivatives(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        boolean started = photoDerivativeService.startBackfill();
+        logger.info("Photo derivative backfill requested by {}, started: {}", authentication.getName(), started);
+
+        Map<String, Object> body = new HashMap<>(photoDerivativeService.status());
+        body.put("message", started ? "Photo derivative backfill started" : "Photo derivative backfill already running");
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Progress of derivative generation
+    @GetMapping(value = "/photos/derivatives", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPhotoDerivativeStatus(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(photoDerivativeService.status());
+    }
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -1,23 +1,47 @@
 package com.amanda.cinema.controller;
 
+import com.amanda.cinema.dto.CursorPage;
+import com.amanda.cinema.dto.KeysetCursor;
 import com.amanda.cinema.dto.MovieDTO;
+import com.amanda.cinema.dto.MovieDTOAssembler;
+import com.amanda.cinema.dto.PhotoRefDTO;
+import com.amanda.cinema.dto.VersionStamp;
+import com.amanda.cinema.event.MovieChangedEvent;
 import com.amanda.cinema.model.Movie;
-import com.amanda.cinema.model.MoviePhoto;
 import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
 import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.search.FacetResult;
+import com.amanda.cinema.search.MovieFacet;
+import com.amanda.cinema.search.MovieFacetIndex;
+import com.amanda.cinema.search.MovieSearchIndex;
+import com.amanda.cinema.storage.PhotoContentCleaner;
+import com.amanda.cinema.validation.MovieValidator;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/admin/movies")
@@ -25,19 +49,56 @@ import java.util.stream.Collectors;
 public class AdminMovieController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminMovieController.class);
+    private static final int IN_LIST_BATCH_SIZE = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    // Clients may keep JSON responses but must revalidate them with the ETag on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     private final MovieRepository movieRepository;
+    private final MovieDTOAssembler movieDTOAssembler;
     private final MoviePhotoRepository moviePhotoRepository;
+    private final MoviePhotoVariantRepository moviePhotoVariantRepository;
+    private final PhotoContentCleaner photoContentCleaner;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MovieSearchIndex movieSearchIndex;
+    private final MovieFacetIndex movieFacetIndex;
 
     public AdminMovieController(MovieRepository movieRepository,
-                                MoviePhotoRepository moviePhotoRepository) {
+                                MovieDTOAssembler movieDTOAssembler,
+                                MoviePhotoRepository moviePhotoRepository,
+                                MoviePhotoVariantRepository moviePhotoVariantRepository,
+                                PhotoContentCleaner photoContentCleaner,
+                                PlatformTransactionManager transactionManager,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                MovieSearchIndex movieSearchIndex,
+                                MovieFacetIndex movieFacetIndex) {
         this.movieRepository = movieRepository;
+        this.movieDTOAssembler = movieDTOAssembler;
         this.moviePhotoRepository = moviePhotoRepository;
+        this.moviePhotoVariantRepository = moviePhotoVariantRepository;
+        this.photoContentCleaner = photoContentCleaner;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.movieSearchIndex = movieSearchIndex;
+        this.movieFacetIndex = movieFacetIndex;
     }
 
-    // Get all movies
+    // Get all movies; passing limit or cursor returns a keyset page instead of the full list.
+    // Answers 304 from a version query alone when the client's ETag is current. Last-Modified is
+    // not used: deleting a movie other than the latest changes the count but not the timestamp.
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getAllMovies(Authentication authentication) {
+    public ResponseEntity<?> getAllMovies(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String cursor,
+                                          WebRequest webRequest,
+                                          Authentication authentication) {
         try {
             logger.info("Fetching all movies. Auth: {}", authentication != null ? authentication.getName() : "null");
 
@@ -47,16 +108,30 @@ public class AdminMovieController {
                         .body(Map.of("error", "Admin access required"));
             }
 
+            VersionStamp version = movieRepository.findVersion();
+            if (webRequest.checkNotModified(version.weakETag())) {
+                return null;
+            }
+
+            if (limit != null || cursor != null) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .cacheControl(REVALIDATE)
+                        .body(getMoviePage(limit, cursor));
+            }
+
             List<Movie> movies = movieRepository.findAll();
             logger.info("Found {} movies in database", movies.size());
 
-            List<MovieDTO> movieDTOs = movies.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<MovieDTO> movieDTOs = movieDTOAssembler.toDTOs(movies);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(REVALIDATE)
                     .body(movieDTOs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching movies", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -64,9 +139,80 @@ public class AdminMovieController {
         }
     }
 
-    // Get movie by ID
+    private CursorPage<MovieDTO> getMoviePage(Integer limit, String cursor) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        long afterId = cursor != null ? parseCursorId(cursor) : 0L;
+
+        // One extra row tells whether another page exists
+        List<Movie> movies = movieRepository.findPageAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = movies.size() > pageSize;
+        if (hasMore) {
+            movies = movies.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? KeysetCursor.encode(movies.get(movies.size() - 1).getId()) : null;
+        return new CursorPage<>(movieDTOAssembler.toDTOs(movies), nextCursor, pageSize);
+    }
+
+    private long parseCursorId(String cursor) {
+        try {
+            return Long.parseLong(KeysetCursor.decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Export every movie as NDJSON (one MovieDTO per line), streamed in constant memory
+    @GetMapping("/export")
+    public ResponseEntity<?> exportMovies(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        logger.info("Exporting movies for {}", authentication.getName());
+
+        StreamingResponseBody body = out -> readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Movie> movies = movieRepository.streamAll()) {
+                List<Movie> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+                movies.forEach(movie -> {
+                    chunk.add(movie);
+                    if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                        writeMovieChunk(chunk, out);
+                    }
+                });
+                writeMovieChunk(chunk, out);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Write one chunk (primary photos resolved in a single query), then detach its rows
+    private void writeMovieChunk(List<Movie> chunk, OutputStream out) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            for (MovieDTO dto : movieDTOAssembler.toDTOs(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    // Get movie by ID; answers 304 without loading it when the client's ETag is current
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getMovieById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getMovieById(@PathVariable Long id, WebRequest webRequest,
+                                          Authentication authentication) {
         try {
             logger.info("Fetching movie with id: {}", id);
 
@@ -75,6 +221,13 @@ public class AdminMovieController {
                         .body(Map.of("error", "Admin access required"));
             }
 
+            // Photo changes bump the movie's updatedAt, so it also covers primaryPhotoUrl
+            VersionStamp version = movieRepository.findVersionById(id);
+            if (!version.isEmpty()
+                    && webRequest.checkNotModified(version.strongETag("movie", id), version.getLastModifiedMillis())) {
+                return null;
+            }
+
             Optional<Movie> movieOpt = movieRepository.findById(id);
             if (movieOpt.isEmpty()) {
                 logger.warn("Movie not found with id: {}", id);
@@ -82,9 +235,10 @@ public class AdminMovieController {
                         .body(Map.of("error", "Movie not found"));
             }
 
-            MovieDTO movieDTO = convertToDTO(movieOpt.get());
+            MovieDTO movieDTO = movieDTOAssembler.toDTO(movieOpt.get());
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(REVALIDATE)
                     .body(movieDTO);
         } catch (Exception e) {
             logger.error("Error fetching movie with id: {}", id, e);
@@ -108,19 +262,10 @@ public class AdminMovieController {
             }
 
             // Validate required fields
-            if (movie.getTitle() == null || movie.getTitle().trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "Title is required"));
-            }
-
-            if (movie.getDurationMinutes() == null) {
+            String invalid = MovieValidator.validate(movie);
+            if (invalid != null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "Duration is required"));
-            }
-
-            if (movie.getStartTime() == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "Start time is required"));
+                        .body(Map.of("error", invalid));
             }
 
             // Set timestamps
@@ -128,14 +273,14 @@ public class AdminMovieController {
             movie.setUpdatedAt(LocalDateTime.now());
 
             // Set default status if not provided
-            if (movie.getStatus() == null || movie.getStatus().trim().isEmpty()) {
-                movie.setStatus("ACTIVE");
-            }
+            MovieValidator.applyDefaults(movie);
 
             // Save movie
             Movie savedMovie = movieRepository.save(movie);
             movieRepository.flush(); // Force immediate persistence
 
+            eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.CREATED, savedMovie.getId()));
+
             logger.info("Movie created successfully with ID: {}", savedMovie.getId());
 
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -143,7 +288,7 @@ public class AdminMovieController {
                     .body(Map.of(
                             "message", "Movie created successfully",
                             "movieId", savedMovie.getId(),
-                            "movie", convertToDTO(savedMovie)
+                            "movie", movieDTOAssembler.toDTO(savedMovie)
                     ));
         } catch (Exception e) {
             logger.error("Error creating movie", e);
@@ -221,13 +366,15 @@ public class AdminMovieController {
             Movie updatedMovie = movieRepository.save(movie);
             movieRepository.flush();
 
+            eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, id));
+
             logger.info("Movie updated successfully: {}", id);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(Map.of(
                             "message", "Movie updated successfully",
-                            "movie", convertToDTO(updatedMovie)
+                            "movie", movieDTOAssembler.toDTO(updatedMovie)
                     ));
         } catch (Exception e) {
             logger.error("Error updating movie with id: {}", id, e);
@@ -254,9 +401,18 @@ public class AdminMovieController {
                         .body(Map.of("error", "Movie not found"));
             }
 
+            Set<String> contentHashes = new HashSet<>(moviePhotoVariantRepository.findContentHashesByMovieId(id));
+            moviePhotoRepository.findPhotoRefsByMovieId(id).stream()
+                    .map(PhotoRefDTO::getContentHash)
+                    .filter(Objects::nonNull)
+                    .forEach(contentHashes::add);
+
             movieRepository.deleteById(id);
             movieRepository.flush();
 
+            photoContentCleaner.deleteUnreferencedAfterCommit(contentHashes);
+            eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, id));
+
             logger.info("Movie deleted successfully: {}", id);
 
             return ResponseEntity.ok()
@@ -269,7 +425,8 @@ public class AdminMovieController {
         }
     }
 
-    // Search movies
+    // Search movies; title text matches title, director and cast through the search index,
+    // ranked by relevance, and only the matching rows are loaded
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> searchMovies(@RequestParam(required = false) String title,
                                           @RequestParam(required = false) String genre,
@@ -283,12 +440,15 @@ public class AdminMovieController {
                         .body(Map.of("error", "Admin access required"));
             }
 
-            List<Movie> movies = movieRepository.searchMovies(title, genre, status);
+            List<Movie> movies;
+            if (title != null && !title.isBlank() && movieSearchIndex.isReady()) {
+                movies = findAllInOrder(movieSearchIndex.search(title, genre, status));
+            } else {
+                movies = movieRepository.searchMovies(title, genre, status);
+            }
             logger.info("Found {} movies matching search criteria", movies.size());
 
-            List<MovieDTO> movieDTOs = movies.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<MovieDTO> movieDTOs = movieDTOAssembler.toDTOs(movies);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
@@ -300,184 +460,71 @@ public class AdminMovieController {
         }
     }
 
-    // Upload movie photo
-    @PostMapping(value = "/{id}/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Transactional
-    public ResponseEntity<?> uploadPhoto(@PathVariable Long id,
-                                         @RequestParam("file") MultipartFile file,
-                                         @RequestParam(defaultValue = "false") Boolean isPrimary,
-                                         Authentication authentication) {
+    // Filter by genre, language, rating and status with per-value counts. Repeat a parameter to OR
+    // values within a facet (?genre=Drama&genre=Action); different facets are ANDed.
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getMovieFacets(@RequestParam(required = false) List<String> genre,
+                                            @RequestParam(required = false) List<String> language,
+                                            @RequestParam(required = false) List<String> rating,
+                                            @RequestParam(required = false) List<String> status,
+                                            @RequestParam(defaultValue = "true") boolean includeMovies,
+                                            Authentication authentication) {
         try {
-            logger.info("Uploading photo for movie id: {}", id);
-
             if (!isAdmin(authentication)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Admin access required"));
             }
 
-            Optional<Movie> movieOpt = movieRepository.findById(id);
-            if (movieOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", "Movie not found"));
-            }
-
-            Movie movie = movieOpt.get();
-
-            // If this is set as primary, unset other primary photos
-            if (isPrimary) {
-                List<MoviePhoto> existingPhotos = moviePhotoRepository.findByMovieId(id);
-                existingPhotos.forEach(photo -> photo.setIsPrimary(false));
-                moviePhotoRepository.saveAll(existingPhotos);
+            if (!movieFacetIndex.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("error", "Facet index is still loading"));
             }
 
-            MoviePhoto photo = new MoviePhoto();
-            photo.setMovie(movie);
-            photo.setPhotoData(file.getBytes());
-            photo.setIsPrimary(isPrimary);
-
-            MoviePhoto savedPhoto = moviePhotoRepository.save(photo);
-            moviePhotoRepository.flush();
-
-            logger.info("Photo uploaded successfully with id: {}", savedPhoto.getId());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of(
-                            "message", "Photo uploaded successfully",
-                            "photoId", savedPhoto.getId()
-                    ));
-        } catch (Exception e) {
-            logger.error("Error uploading photo for movie id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to upload photo: " + e.getMessage()));
-        }
-    }
-
-    // Get movie photo
-    @GetMapping(value = "/{movieId}/photos/{photoId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getPhoto(@PathVariable Long movieId,
-                                      @PathVariable Long photoId) {
-        try {
-            logger.info("Fetching photo id: {} for movie id: {}", photoId, movieId);
-
-            Optional<MoviePhoto> photoOpt = moviePhotoRepository.findById(photoId);
-            if (photoOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", "Photo not found"));
+            Map<MovieFacet, List<String>> selection = new EnumMap<>(MovieFacet.class);
+            if (genre != null) {
+                selection.put(MovieFacet.GENRE, genre);
             }
-
-            MoviePhoto photo = photoOpt.get();
-            String base64Image = Base64.getEncoder().encodeToString(photo.getPhotoData());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of(
-                            "id", photo.getId(),
-                            "isPrimary", photo.getIsPrimary(),
-                            "photoData", base64Image
-                    ));
-        } catch (Exception e) {
-            logger.error("Error fetching photo id: {}", photoId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to fetch photo: " + e.getMessage()));
-        }
-    }
-
-    // Get all photos for a movie
-    @GetMapping(value = "/{movieId}/photos", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getAllPhotos(@PathVariable Long movieId, Authentication authentication) {
-        try {
-            logger.info("Fetching all photos for movie id: {}", movieId);
-
-            if (!isAdmin(authentication)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "Admin access required"));
+            if (language != null) {
+                selection.put(MovieFacet.LANGUAGE, language);
             }
-
-            List<MoviePhoto> photos = moviePhotoRepository.findByMovieId(movieId);
-
-            List<Map<String, Object>> photoData = photos.stream()
-                    .map(photo -> Map.of(
-                            "id", (Object) photo.getId(),
-                            "isPrimary", photo.getIsPrimary(),
-                            "photoData", Base64.getEncoder().encodeToString(photo.getPhotoData())
-                    ))
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(photoData);
-        } catch (Exception e) {
-            logger.error("Error fetching photos for movie id: {}", movieId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to fetch photos: " + e.getMessage()));
-        }
-    }
-
-    // Delete movie photo
-    @DeleteMapping(value = "/{movieId}/photos/{photoId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Transactional
-    public ResponseEntity<?> deletePhoto(@PathVariable Long movieId,
-                                         @PathVariable Long photoId,
-                                         Authentication authentication) {
-        try {
-            logger.info("Deleting photo id: {} for movie id: {}", photoId, movieId);
-
-            if (!isAdmin(authentication)) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("error", "Admin access required"));
+            if (rating != null) {
+                selection.put(MovieFacet.RATING, rating);
             }
-
-            if (!moviePhotoRepository.existsById(photoId)) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", "Photo not found"));
+            if (status != null) {
+                selection.put(MovieFacet.STATUS, status);
             }
 
-            moviePhotoRepository.deleteById(photoId);
-            moviePhotoRepository.flush();
+            FacetResult result = movieFacetIndex.query(selection);
 
-            logger.info("Photo deleted successfully: {}", photoId);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("total", result.getTotal());
+            response.put("counts", result.getCounts());
+            if (includeMovies) {
+                response.put("movies", movieDTOAssembler.toDTOs(findAllInOrder(result.getMovieIds())));
+            }
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("message", "Photo deleted successfully"));
+                    .body(response);
         } catch (Exception e) {
-            logger.error("Error deleting photo id: {}", photoId, e);
+            logger.error("Error filtering movies by facets", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to delete photo: " + e.getMessage()));
+                    .body(Map.of("error", "Facet filtering failed: " + e.getMessage()));
         }
     }
 
-    // Helper method to convert Movie to DTO
-    private MovieDTO convertToDTO(Movie movie) {
-        MovieDTO dto = new MovieDTO();
-        dto.setId(movie.getId());
-        dto.setTitle(movie.getTitle());
-        dto.setDescription(movie.getDescription());
-        dto.setGenre(movie.getGenre());
-        dto.setDurationMinutes(movie.getDurationMinutes());
-        dto.setStartTime(movie.getStartTime());
-        dto.setLanguage(movie.getLanguage());
-        dto.setRating(movie.getRating());
-        dto.setReleaseDate(movie.getReleaseDate());
-        dto.setShowStartDate(movie.getShowStartDate());
-        dto.setShowEndDate(movie.getShowEndDate());
-        dto.setDirector(movie.getDirector());
-        dto.setCast(movie.getCast());
-        dto.setStatus(movie.getStatus());
-
-        // Get primary photo if exists
-        try {
-            Optional<MoviePhoto> primaryPhoto = moviePhotoRepository.findPrimaryPhotoByMovieId(movie.getId());
-            if (primaryPhoto.isPresent()) {
-                String base64Image = Base64.getEncoder().encodeToString(primaryPhoto.get().getPhotoData());
-                dto.setPrimaryPhotoBase64(base64Image);
+    // Load movies by id, keeping the order of the given ids
+    private List<Movie> findAllInOrder(List<Long> ids) {
+        Map<Long, Movie> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_LIST_BATCH_SIZE) {
+            for (Movie movie : movieRepository.findAllById(ids.subList(from, Math.min(from + IN_LIST_BATCH_SIZE, ids.size())))) {
+                byId.put(movie.getId(), movie);
             }
-        } catch (Exception e) {
-            logger.warn("Error loading primary photo for movie id: {}", movie.getId());
         }
-
-        return dto;
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     // Helper method to check if user is admin
@@ -0,0 +1,131 @@
+package com.amanda.cinema.controller;
+
+import com.amanda.cinema.imports.MovieImportResult;
+import com.amanda.cinema.imports.MovieImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Bulk movie catalog imports and their error reports
+@RestController
+@RequestMapping("/api/admin/movies")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AdminMovieImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMovieImportController.class);
+
+    private final MovieImportService movieImportService;
+
+    public AdminMovieImportController(MovieImportService movieImportService) {
+        this.movieImportService = movieImportService;
+    }
+
+    // Import movies from an uploaded CSV or JSON file (format from the parameter, content type or extension)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importMovies(@RequestParam("file") MultipartFile file,
+                                          @RequestParam(required = false) String format,
+                                          Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return runImport(in, MovieImportService.Format.resolve(format, file.getContentType(),
+                    file.getOriginalFilename()), authentication);
+        } catch (Exception e) {
+            logger.error("Error importing movies from {}", file.getOriginalFilename(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import movies: " + e.getMessage()));
+        }
+    }
+
+    // Import movies from the raw request body (CSV, a JSON array or NDJSON), read as it arrives
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importMoviesStream(@RequestParam(required = false) String format,
+                                                HttpServletRequest request,
+                                                Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        try (InputStream in = request.getInputStream()) {
+            return runImport(in, MovieImportService.Format.resolve(format, request.getContentType(), null),
+                    authentication);
+        } catch (Exception e) {
+            logger.error("Error importing movies", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import movies: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> runImport(InputStream in, MovieImportService.Format format,
+                                        Authentication authentication) throws IOException {
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Unknown import format; use csv or json"));
+        }
+
+        logger.info("Importing movies as {} for {}", format, authentication.getName());
+        MovieImportResult result = movieImportService.importMovies(in, format);
+        if (result.getAbortedReason() != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", result.getAbortedReason(), "result", result));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // Download the failed rows of an import as CSV
+    @GetMapping("/import/{importId}/errors")
+    public ResponseEntity<?> getImportErrors(@PathVariable String importId, Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        Path report = movieImportService.findReport(importId);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Import report not found"));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("import-" + importId + "-errors.csv").build().toString())
+                .body(new FileSystemResource(report));
+    }
+
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Authentication is null or not authenticated");
+            return false;
+        }
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        logger.info("User {} is admin: {}", authentication.getName(), isAdmin);
+        return isAdmin;
+    }
+}
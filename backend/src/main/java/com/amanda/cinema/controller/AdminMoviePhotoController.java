@@ -0,0 +1,449 @@
+package com.amanda.cinema.controller;
+
+import com.amanda.cinema.dto.PhotoRefDTO;
+import com.amanda.cinema.dto.VersionStamp;
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.model.MoviePhotoData;
+import com.amanda.cinema.model.MoviePhotoVariant;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.storage.InspectingInputStream;
+import com.amanda.cinema.storage.PhotoContentCleaner;
+import com.amanda.cinema.storage.PhotoDerivativeService;
+import com.amanda.cinema.storage.PhotoRejectedException;
+import com.amanda.cinema.storage.PhotoStorage;
+import com.amanda.cinema.storage.PhotoVariant;
+import com.amanda.cinema.storage.StoredPhoto;
+import com.amanda.cinema.storage.ZeroCopyFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Movie photo upload, metadata, raw bytes and deletion
+@RestController
+@RequestMapping("/api/admin/movies")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AdminMoviePhotoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMoviePhotoController.class);
+    // Clients may keep JSON responses but must revalidate them with the ETag on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl PHOTO_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private final MovieRepository movieRepository;
+    private final MoviePhotoRepository moviePhotoRepository;
+    private final MoviePhotoDataRepository moviePhotoDataRepository;
+    private final MoviePhotoVariantRepository moviePhotoVariantRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoDerivativeService photoDerivativeService;
+    private final PhotoContentCleaner photoContentCleaner;
+    private final ZeroCopyFileSender zeroCopyFileSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxUploadBytes;
+
+    public AdminMoviePhotoController(MovieRepository movieRepository,
+                                     MoviePhotoRepository moviePhotoRepository,
+                                     MoviePhotoDataRepository moviePhotoDataRepository,
+                                     MoviePhotoVariantRepository moviePhotoVariantRepository,
+                                     PhotoStorage photoStorage,
+                                     PhotoDerivativeService photoDerivativeService,
+                                     PhotoContentCleaner photoContentCleaner,
+                                     ZeroCopyFileSender zeroCopyFileSender,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${photo.upload.max-bytes:10485760}") long maxUploadBytes) {
+        this.movieRepository = movieRepository;
+        this.moviePhotoRepository = moviePhotoRepository;
+        this.moviePhotoDataRepository = moviePhotoDataRepository;
+        this.moviePhotoVariantRepository = moviePhotoVariantRepository;
+        this.photoStorage = photoStorage;
+        this.photoDerivativeService = photoDerivativeService;
+        this.photoContentCleaner = photoContentCleaner;
+        this.zeroCopyFileSender = zeroCopyFileSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    // Upload movie photo
+    @PostMapping(value = "/{id}/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> uploadPhoto(@PathVariable Long id,
+                                         @RequestParam("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "false") Boolean isPrimary,
+                                         Authentication authentication) {
+        logger.info("Uploading photo for movie id: {}", id);
+
+        if (file.getSize() > maxUploadBytes) {
+            return photoTooLarge();
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return storeUploadedPhoto(id, in, isPrimary, authentication);
+        } catch (Exception e) {
+            logger.error("Error uploading photo for movie id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to upload photo: " + e.getMessage()));
+        }
+    }
+
+    // Upload movie photo as the raw request body, streamed straight into storage
+    @PostMapping(value = "/{id}/photos",
+            consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+                    "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> uploadPhotoStream(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "false") Boolean isPrimary,
+                                               HttpServletRequest request,
+                                               Authentication authentication) {
+        logger.info("Streaming photo upload for movie id: {}", id);
+
+        // Reject oversized uploads from the declared length before reading anything
+        if (request.getContentLengthLong() > maxUploadBytes) {
+            return photoTooLarge();
+        }
+
+        try (InputStream in = request.getInputStream()) {
+            return storeUploadedPhoto(id, in, isPrimary, authentication);
+        } catch (Exception e) {
+            logger.error("Error uploading photo for movie id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to upload photo: " + e.getMessage()));
+        }
+    }
+
+    // Get movie photo
+    @GetMapping(value = "/{movieId}/photos/{photoId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPhoto(@PathVariable Long movieId,
+                                      @PathVariable Long photoId) {
+        try {
+            logger.info("Fetching photo id: {} for movie id: {}", photoId, movieId);
+
+            Optional<PhotoRefDTO> photoOpt = moviePhotoRepository.findPhotoRefById(photoId);
+            if (photoOpt.isEmpty() || !photoOpt.get().getMovieId().equals(movieId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Photo not found"));
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(toPhotoResponse(photoOpt.get()));
+        } catch (Exception e) {
+            logger.error("Error fetching photo id: {}", photoId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch photo: " + e.getMessage()));
+        }
+    }
+
+    // Stream raw photo bytes with caching and byte range support
+    @GetMapping("/{movieId}/photos/{photoId}/raw")
+    public ResponseEntity<?> getRawPhoto(@PathVariable Long movieId,
+                                         @PathVariable Long photoId,
+                                         @RequestParam(required = false) String variant,
+                                         WebRequest webRequest,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) {
+        try {
+            Optional<PhotoRefDTO> photoRefOpt = moviePhotoRepository.findPhotoRefById(photoId);
+            if (photoRefOpt.isEmpty() || !photoRefOpt.get().getMovieId().equals(movieId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Photo not found"));
+            }
+
+            PhotoRefDTO photoRef = photoRefOpt.get();
+            String contentHash = photoRef.getContentHash();
+            String contentTypeValue = photoRef.getContentType();
+            CacheControl cacheControl = PHOTO_CACHE_CONTROL;
+
+            if (variant != null) {
+                PhotoVariant requested = PhotoVariant.fromParam(variant);
+                if (requested == null) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Unknown photo variant: " + variant));
+                }
+
+                Optional<MoviePhotoVariant> variantOpt =
+                        moviePhotoVariantRepository.findByPhotoIdAndVariant(photoId, requested.name());
+                if (variantOpt.isPresent()) {
+                    contentHash = variantOpt.get().getContentHash();
+                    contentTypeValue = variantOpt.get().getContentType();
+                } else {
+                    // Derivative not generated yet - serve the original but don't let it be cached
+                    cacheControl = CacheControl.noCache();
+                }
+            }
+
+            // Stored bytes are never modified in place, so the content hash (or id for legacy rows)
+            // is a stable strong validator
+            String etag = contentHash != null
+                    ? "\"" + contentHash + "\""
+                    : "\"photo-" + photoRef.getPhotoId() + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            MediaType contentType = MediaType.parseMediaType(resolveContentType(contentTypeValue));
+
+            if (contentHash != null) {
+                Resource resource = photoStorage.load(contentHash);
+                if (resource == null) {
+                    logger.error("Stored content missing for photo id: {}", photoId);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Photo content not found"));
+                }
+
+                // Whole-file responses go out zero-copy; ranges are sliced by Spring
+                if (request.getHeader(HttpHeaders.RANGE) == null && resource.isFile()) {
+                    response.setStatus(HttpServletResponse.SC_OK);
+                    response.setContentType(contentType.toString());
+                    response.setHeader(HttpHeaders.ETAG, etag);
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+                    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+                    zeroCopyFileSender.send(request, response, resource.getFile().toPath());
+                    return null;
+                }
+
+                return ResponseEntity.ok()
+                        .contentType(contentType)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .body(resource);
+            }
+
+            // Legacy photo whose bytes are still inline in the table
+            Optional<MoviePhotoData> photoDataOpt = moviePhotoDataRepository.findById(photoId);
+            if (photoDataOpt.isEmpty() || photoDataOpt.get().getPhotoData() == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Photo content not found"));
+            }
+
+            // Range requests are answered with 206 by Spring from the Resource body
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .body(new ByteArrayResource(photoDataOpt.get().getPhotoData()));
+        } catch (Exception e) {
+            logger.error("Error streaming photo id: {}", photoId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch photo: " + e.getMessage()));
+        }
+    }
+
+    // Get all photos for a movie; validated by the ETag of the movie's version, which photo changes bump
+    @GetMapping(value = "/{movieId}/photos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getAllPhotos(@PathVariable Long movieId, WebRequest webRequest,
+                                          Authentication authentication) {
+        try {
+            logger.info("Fetching all photos for movie id: {}", movieId);
+
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            VersionStamp version = movieRepository.findVersionById(movieId);
+            if (!version.isEmpty()
+                    && webRequest.checkNotModified(version.weakETag("photos"))) {
+                return null;
+            }
+
+            List<PhotoRefDTO> photos = moviePhotoRepository.findPhotoRefsByMovieId(movieId);
+
+            List<Map<String, Object>> photoData = photos.stream()
+                    .map(this::toPhotoResponse)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(REVALIDATE)
+                    .body(photoData);
+        } catch (Exception e) {
+            logger.error("Error fetching photos for movie id: {}", movieId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch photos: " + e.getMessage()));
+        }
+    }
+
+    // Delete movie photo
+    @DeleteMapping(value = "/{movieId}/photos/{photoId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional
+    public ResponseEntity<?> deletePhoto(@PathVariable Long movieId,
+                                         @PathVariable Long photoId,
+                                         Authentication authentication) {
+        try {
+            logger.info("Deleting photo id: {} for movie id: {}", photoId, movieId);
+
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            Optional<PhotoRefDTO> photoRefOpt = moviePhotoRepository.findPhotoRefById(photoId);
+            if (photoRefOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Photo not found"));
+            }
+
+            Set<String> contentHashes = new HashSet<>(moviePhotoVariantRepository.findContentHashesByPhotoId(photoId));
+            if (photoRefOpt.get().getContentHash() != null) {
+                contentHashes.add(photoRefOpt.get().getContentHash());
+            }
+
+            moviePhotoRepository.deleteById(photoId);
+            moviePhotoRepository.flush();
+            movieRepository.touchUpdatedAt(photoRefOpt.get().getMovieId(), LocalDateTime.now());
+            eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.PHOTOS_CHANGED,
+                    photoRefOpt.get().getMovieId()));
+
+            photoContentCleaner.deleteUnreferencedAfterCommit(contentHashes);
+
+            logger.info("Photo deleted successfully: {}", photoId);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", "Photo deleted successfully"));
+        } catch (Exception e) {
+            logger.error("Error deleting photo id: {}", photoId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to delete photo: " + e.getMessage()));
+        }
+    }
+
+
+    // Helper method shared by both upload endpoints. The bytes are streamed to storage in fixed-size
+    // chunks before any database work, so no connection is held while a slow client uploads.
+    private ResponseEntity<?> storeUploadedPhoto(Long movieId, InputStream body, Boolean isPrimary,
+                                                 Authentication authentication) throws IOException {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        if (!movieRepository.existsById(movieId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Movie not found"));
+        }
+
+        InspectingInputStream inspected = new InspectingInputStream(body, maxUploadBytes);
+        StoredPhoto stored;
+        try {
+            stored = photoStorage.store(inspected);
+        } catch (PhotoRejectedException e) {
+            logger.warn("Photo upload for movie id {} rejected: {}", movieId, e.getMessage());
+            if (e.getReason() == PhotoRejectedException.Reason.TOO_LARGE) {
+                return photoTooLarge();
+            }
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(Map.of("error", e.getMessage()));
+        }
+
+        MoviePhoto savedPhoto;
+        try {
+            savedPhoto = transactionTemplate.execute(status -> {
+                // If this is set as primary, unset other primary photos
+                if (isPrimary) {
+                    moviePhotoRepository.clearPrimaryByMovieId(movieId);
+                }
+
+                MoviePhoto photo = new MoviePhoto();
+                photo.setMovie(movieRepository.getReferenceById(movieId));
+                photo.setContentHash(stored.getContentHash());
+                photo.setSizeBytes(stored.getSizeBytes());
+                photo.setContentType(inspected.getDetectedContentType());
+                photo.setIsPrimary(isPrimary);
+
+                MoviePhoto saved = moviePhotoRepository.save(photo);
+                moviePhotoRepository.flush();
+
+                movieRepository.touchUpdatedAt(movieId, LocalDateTime.now());
+                photoDerivativeService.submitAfterCommit(saved.getId());
+                eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.PHOTOS_CHANGED, movieId));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // Don't leave the stored bytes behind if the row never made it
+            photoStorage.release(stored.getContentHash());
+            photoContentCleaner.deleteUnreferenced(stored.getContentHash());
+            throw e;
+        }
+        // The row has committed, so the content no longer needs its pin
+        photoStorage.release(stored.getContentHash());
+
+        logger.info("Photo uploaded successfully with id: {} ({} bytes)", savedPhoto.getId(), stored.getSizeBytes());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "message", "Photo uploaded successfully",
+                        "photoId", savedPhoto.getId()
+                ));
+    }
+
+    // Helper method for the 413 response of oversized uploads
+    private ResponseEntity<?> photoTooLarge() {
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+                .body(Map.of("error", "Photo exceeds the maximum size of " + maxUploadBytes + " bytes"));
+    }
+
+    // Helper method to describe a photo without its bytes
+    private Map<String, Object> toPhotoResponse(PhotoRefDTO photo) {
+        return Map.of(
+                "id", photo.getPhotoId(),
+                "isPrimary", photo.getIsPrimary(),
+                "contentType", resolveContentType(photo.getContentType()),
+                "url", photo.getUrl(),
+                "thumbnailUrl", photo.getVariantUrl(PhotoVariant.smallest())
+        );
+    }
+
+    // Helper method to fall back to JPEG for photos uploaded without a content type
+    private String resolveContentType(String contentType) {
+        if (contentType == null || !contentType.startsWith("image/")) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        return contentType;
+    }
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Authentication is null or not authenticated");
+            return false;
+        }
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        logger.info("User {} is admin: {}", authentication.getName(), isAdmin);
+        return isAdmin;
+    }
+}
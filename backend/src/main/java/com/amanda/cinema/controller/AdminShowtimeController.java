@@ -1,20 +1,52 @@
 package com.amanda.cinema.controller;
 
+import com.amanda.cinema.booking.SeatInventory;
+import com.amanda.cinema.dto.CursorPage;
+import com.amanda.cinema.dto.KeysetCursor;
+import com.amanda.cinema.dto.ShowtimeDTO;
+import com.amanda.cinema.dto.VersionStamp;
+import com.amanda.cinema.model.Hall;
 import com.amanda.cinema.model.Movie;
 import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.HallRepository;
 import com.amanda.cinema.repository.MovieRepository;
 import com.amanda.cinema.repository.ShowtimeRepository;
+import com.amanda.cinema.schedule.BulkShowtimeResult;
+import com.amanda.cinema.schedule.BulkShowtimeService;
+import com.amanda.cinema.schedule.HallScheduleIndex;
+import com.amanda.cinema.schedule.OptimizerBusyException;
+import com.amanda.cinema.schedule.ScheduleOptimizerService;
+import com.amanda.cinema.schedule.ScheduleOptions;
+import com.amanda.cinema.schedule.SchedulePlan;
+import com.amanda.cinema.schedule.ShowtimeConflictException;
+import com.amanda.cinema.schedule.ShowtimeRecurrence;
+import com.amanda.cinema.schedule.ShowtimeSlot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/admin/showtimes")
@@ -22,32 +54,103 @@ import java.util.*;
 public class AdminShowtimeController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminShowtimeController.class);
+    // Clients may keep responses but must revalidate them with the ETag on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     private final ShowtimeRepository showtimeRepository;
     private final MovieRepository movieRepository;
+    private final HallRepository hallRepository;
+    private final BookingRepository bookingRepository;
+    private final SeatInventory seatInventory;
+    private final BulkShowtimeService bulkShowtimeService;
+    private final HallScheduleIndex hallScheduleIndex;
+    private final ScheduleOptimizerService scheduleOptimizerService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
 
     public AdminShowtimeController(ShowtimeRepository showtimeRepository,
-                                   MovieRepository movieRepository) {
+                                   MovieRepository movieRepository,
+                                   HallRepository hallRepository,
+                                   BookingRepository bookingRepository,
+                                   SeatInventory seatInventory,
+                                   BulkShowtimeService bulkShowtimeService,
+                                   HallScheduleIndex hallScheduleIndex,
+                                   ScheduleOptimizerService scheduleOptimizerService,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper) {
         this.showtimeRepository = showtimeRepository;
         this.movieRepository = movieRepository;
+        this.hallRepository = hallRepository;
+        this.bookingRepository = bookingRepository;
+        this.seatInventory = seatInventory;
+        this.bulkShowtimeService = bulkShowtimeService;
+        this.hallScheduleIndex = hallScheduleIndex;
+        this.scheduleOptimizerService = scheduleOptimizerService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
     }
 
-    // Get all showtimes
+    // Get showtimes, optionally filtered by movieId, a single date, or a from/to date range.
+    // Unfiltered listings return a keyset page instead of the full list when limit or cursor is given.
+    // Answers 304 from a version query alone when the client's ETag is current. Last-Modified is
+    // not used: deleting a showtime other than the latest changes the count but not the timestamp.
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getAllShowtimes(Authentication authentication) {
+    public ResponseEntity<?> getAllShowtimes(@RequestParam(required = false) Long movieId,
+                                             @RequestParam(required = false) String date,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String cursor,
+                                             WebRequest webRequest,
+                                             Authentication authentication) {
         try {
-            logger.info("Fetching all showtimes");
+            logger.info("Fetching showtimes - movieId: {}, date: {}, from: {}, to: {}", movieId, date, from, to);
 
-            List<Showtime> showtimes = showtimeRepository.findAll();
-            logger.info("Found {} showtimes", showtimes.size());
+            // from/to only apply when neither movieId nor date is given
+            boolean range = movieId == null && date == null && (from != null || to != null);
+            if (range && (from == null || to == null)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Both from and to are required for a date range"));
+            }
+            LocalDate showDate = date != null ? LocalDate.parse(date) : null;
+            LocalDate fromDate = range ? LocalDate.parse(from) : null;
+            LocalDate toDate = range ? LocalDate.parse(to) : null;
 
-            List<Map<String, Object>> showtimeDTOs = showtimes.stream()
-                    .map(this::convertToDTO)
-                    .toList();
+            VersionStamp version = showtimeRepository.findVersion(movieId, showDate, fromDate, toDate);
+            if (webRequest.checkNotModified(version.weakETag())) {
+                return null;
+            }
+
+            List<ShowtimeDTO> showtimes;
+            if (movieId != null && showDate != null) {
+                showtimes = showtimeRepository.findDTOsByMovieIdAndShowDate(movieId, showDate);
+            } else if (movieId != null) {
+                showtimes = showtimeRepository.findDTOsByMovieId(movieId);
+            } else if (showDate != null) {
+                showtimes = showtimeRepository.findDTOsByShowDate(showDate);
+            } else if (range) {
+                showtimes = showtimeRepository.findDTOsByDateRange(fromDate, toDate);
+            } else if (limit != null || cursor != null) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .cacheControl(REVALIDATE)
+                        .body(getShowtimePage(limit, cursor));
+            } else {
+                showtimes = showtimeRepository.findAllDTOs();
+            }
+            logger.info("Found {} showtimes", showtimes.size());
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body(showtimeDTOs);
+                    .cacheControl(REVALIDATE)
+                    .body(showtimes);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Dates must be in yyyy-MM-dd format"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching showtimes", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -55,13 +158,98 @@ public class AdminShowtimeController {
         }
     }
 
-    // Get showtime by ID
+    // Export showtimes as NDJSON, one per line: the given date range, or upcoming ACTIVE showtimes
+    // from 'from' (default today) when 'to' is omitted. Streamed in constant memory.
+    @GetMapping("/export")
+    public ResponseEntity<?> exportShowtimes(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Admin access required"));
+        }
+
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            toDate = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Dates must be in yyyy-MM-dd format"));
+        }
+
+        logger.info("Exporting showtimes from {} to {}", fromDate, toDate != null ? toDate : "open end");
+
+        StreamingResponseBody body = out -> readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ShowtimeDTO> showtimes = toDate != null
+                    ? showtimeRepository.streamByDateRange(fromDate, toDate)
+                    : showtimeRepository.streamUpcomingShowtimes(fromDate)) {
+                for (Iterator<ShowtimeDTO> it = showtimes.iterator(); it.hasNext(); ) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Page in (showDate, startTime, id) order; the cursor carries all three keys of the last row
+    private CursorPage<ShowtimeDTO> getShowtimePage(Integer limit, String cursor) {
+        int pageSize = KeysetCursor.clampLimit(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<ShowtimeDTO> showtimes;
+        if (cursor == null) {
+            showtimes = showtimeRepository.findFirstPage(fetchLimit);
+        } else {
+            String[] keys = KeysetCursor.decode(cursor, 3);
+            try {
+                showtimes = showtimeRepository.findPageAfter(LocalDate.parse(keys[0]),
+                        LocalTime.parse(keys[1]), Long.parseLong(keys[2]), fetchLimit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        boolean hasMore = showtimes.size() > pageSize;
+        if (hasMore) {
+            showtimes = showtimes.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            ShowtimeDTO last = showtimes.get(showtimes.size() - 1);
+            nextCursor = KeysetCursor.encode(last.showDateValue(), last.startTimeValue(), last.getId());
+        }
+        return new CursorPage<>(showtimes, nextCursor, pageSize);
+    }
+
+    // Get showtime by ID; answers 304 without loading it when the client's ETag is current
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getShowtimeById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getShowtimeById(@PathVariable Long id, WebRequest webRequest,
+                                             Authentication authentication) {
         try {
             logger.info("Fetching showtime with id: {}", id);
 
-            Optional<Showtime> showtimeOpt = showtimeRepository.findById(id);
+            VersionStamp version = showtimeRepository.findVersionById(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Showtime not found"));
+            }
+            if (webRequest.checkNotModified(version.strongETag("showtime", id), version.getLastModifiedMillis())) {
+                return null;
+            }
+
+            Optional<ShowtimeDTO> showtimeOpt = showtimeRepository.findDTOById(id);
             if (showtimeOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Showtime not found"));
@@ -69,7 +257,8 @@ public class AdminShowtimeController {
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body(convertToDTO(showtimeOpt.get()));
+                    .cacheControl(REVALIDATE)
+                    .body(showtimeOpt.get());
         } catch (Exception e) {
             logger.error("Error fetching showtime", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -77,7 +266,7 @@ public class AdminShowtimeController {
         }
     }
 
-    // Create new showtime
+    // Create new showtime; 409 with the clashing showtimes if its hall is in use at that time
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @Transactional
     public ResponseEntity<?> createShowtime(@RequestBody Map<String, Object> requestData,
@@ -95,6 +284,14 @@ public class AdminShowtimeController {
 
             Showtime showtime = new Showtime();
             showtime.setMovie(movieOpt.get());
+            if (requestData.get("hallId") != null) {
+                Optional<Hall> hallOpt = hallRepository.findById(Long.valueOf(requestData.get("hallId").toString()));
+                if (hallOpt.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Hall not found"));
+                }
+                showtime.setHall(hallOpt.get());
+            }
             showtime.setShowDate(java.time.LocalDate.parse(requestData.get("showDate").toString()));
             showtime.setStartTime(java.time.LocalTime.parse(requestData.get("startTime").toString()));
             showtime.setEndTime(java.time.LocalTime.parse(requestData.get("endTime").toString()));
@@ -103,8 +300,14 @@ public class AdminShowtimeController {
             showtime.setCreatedAt(LocalDateTime.now());
             showtime.setUpdatedAt(LocalDateTime.now());
 
+            HallScheduleIndex.Reservation reservation = showtime.getHall() != null
+                    ? hallScheduleIndex.reserve(ShowtimeSlot.from(showtime)) : null;
+
             Showtime savedShowtime = showtimeRepository.save(showtime);
             showtimeRepository.flush();
+            if (reservation != null) {
+                reservation.assign(savedShowtime.getId());
+            }
 
             logger.info("Showtime created successfully with ID: {}", savedShowtime.getId());
 
@@ -115,6 +318,8 @@ public class AdminShowtimeController {
                             "showtimeId", savedShowtime.getId(),
                             "showtime", convertToDTO(savedShowtime)
                     ));
+        } catch (ShowtimeConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
             logger.error("Error creating showtime", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -122,7 +327,109 @@ public class AdminShowtimeController {
         }
     }
 
-    // Update showtime
+    // Generate a movie's showtimes from a weekly pattern (days x start times between two dates) in
+    // one transaction, with JDBC batched inserts; reports how many rows were written and how fast.
+    // Nothing is written if any occurrence would overlap another showtime in the hall.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createShowtimesBulk(@RequestBody Map<String, Object> requestData,
+                                                 Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            if (requestData.get("movieId") == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "movieId is required"));
+            }
+            Long movieId = Long.valueOf(requestData.get("movieId").toString());
+            logger.info("Generating bulk showtimes for movie id: {}", movieId);
+
+            Optional<Movie> movieOpt = movieRepository.findById(movieId);
+            if (movieOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Movie not found"));
+            }
+            Long hallId = null;
+            if (requestData.get("hallId") != null) {
+                hallId = Long.valueOf(requestData.get("hallId").toString());
+                if (!hallRepository.existsById(hallId)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "Hall not found"));
+                }
+            }
+
+            ShowtimeRecurrence recurrence = ShowtimeRecurrence.parse(requestData, movieOpt.get());
+            BulkShowtimeResult result = bulkShowtimeService.generate(movieId, hallId, recurrence);
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(
+                            "message", "Showtimes generated successfully",
+                            "result", result
+                    ));
+        } catch (ShowtimeConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "conflicts", e.getConflicts()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Dates must be yyyy-MM-dd and times HH:mm"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error generating bulk showtimes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to generate showtimes: " + e.getMessage()));
+        }
+    }
+
+    // Plan showtimes for every active movie across the halls between two dates, packing each hall's
+    // free time and favouring prime time. Previews by default; with "preview": false the plan is
+    // saved in one transaction, and nothing is saved if a showtime appeared in its way meanwhile.
+    // Answers 429 while the optimizer is already busy with as many runs as it allows.
+    @PostMapping(value = "/optimize", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> optimizeSchedule(@RequestBody Map<String, Object> requestData,
+                                              Authentication authentication) {
+        try {
+            if (!isAdmin(authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Admin access required"));
+            }
+
+            ScheduleOptions options = ScheduleOptions.parse(requestData);
+            logger.info("Optimizing schedule from {} to {} (preview: {})",
+                    options.getFrom(), options.getTo(), options.isPreview());
+
+            SchedulePlan plan = scheduleOptimizerService.optimize(options);
+
+            return ResponseEntity.status(plan.isPreview() ? HttpStatus.OK : HttpStatus.CREATED)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(
+                            "message", plan.isPreview() ? "Schedule planned" : "Schedule created successfully",
+                            "plan", plan
+                    ));
+        } catch (OptimizerBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (ShowtimeConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "conflicts", e.getConflicts()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Dates must be yyyy-MM-dd and times HH:mm"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error optimizing schedule", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to optimize schedule: " + e.getMessage()));
+        }
+    }
+
+    // Update showtime; moving it onto a time its hall is already in use answers 409
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @Transactional
     public ResponseEntity<?> updateShowtime(@PathVariable Long id,
@@ -138,6 +445,7 @@ public class AdminShowtimeController {
             }
 
             Showtime showtime = showtimeOpt.get();
+            ShowtimeSlot previousSlot = ShowtimeSlot.from(showtime);
 
             // Update movie if provided
             if (requestData.containsKey("movieId")) {
@@ -148,6 +456,27 @@ public class AdminShowtimeController {
                 }
             }
 
+            boolean hallChanged = false;
+            // Moving to another hall would strand the seats already held or sold in this one
+            if (requestData.containsKey("hallId")) {
+                Long hallId = requestData.get("hallId") != null
+                        ? Long.valueOf(requestData.get("hallId").toString()) : null;
+                Long currentHallId = showtime.getHall() != null ? showtime.getHall().getId() : null;
+                if (!Objects.equals(hallId, currentHallId)) {
+                    if (bookingRepository.existsByShowtimeId(id)) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(Map.of("error", "Showtime has bookings; its hall cannot change"));
+                    }
+                    Optional<Hall> hallOpt = hallId != null ? hallRepository.findById(hallId) : Optional.empty();
+                    if (hallId != null && hallOpt.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(Map.of("error", "Hall not found"));
+                    }
+                    showtime.setHall(hallOpt.orElse(null));
+                    hallChanged = true;
+                }
+            }
+
             if (requestData.containsKey("showDate")) {
                 showtime.setShowDate(java.time.LocalDate.parse(requestData.get("showDate").toString()));
             }
@@ -166,8 +495,17 @@ public class AdminShowtimeController {
 
             showtime.setUpdatedAt(LocalDateTime.now());
 
+            ShowtimeSlot slot = ShowtimeSlot.from(showtime);
+            if (!slot.samePlacement(previousSlot)) {
+                hallScheduleIndex.move(previousSlot, slot);
+            }
+
             Showtime updatedShowtime = showtimeRepository.save(showtime);
             showtimeRepository.flush();
+            if (hallChanged) {
+                // Drop the seat map sized for the old layout; the next request reloads it
+                seatInventory.evict(id);
+            }
 
             logger.info("Showtime updated successfully: {}", id);
 
@@ -177,6 +515,8 @@ public class AdminShowtimeController {
                             "message", "Showtime updated successfully",
                             "showtime", convertToDTO(updatedShowtime)
                     ));
+        } catch (ShowtimeConflictException e) {
+            return conflict(e);
         } catch (Exception e) {
             logger.error("Error updating showtime", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -191,13 +531,20 @@ public class AdminShowtimeController {
         try {
             logger.info("Deleting showtime with id: {}", id);
 
-            if (!showtimeRepository.existsById(id)) {
+            Optional<ShowtimeSlot> slotOpt = showtimeRepository.findSlotById(id);
+            if (slotOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Showtime not found"));
             }
+            if (bookingRepository.existsByShowtimeId(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Showtime has bookings and cannot be deleted"));
+            }
 
             showtimeRepository.deleteById(id);
             showtimeRepository.flush();
+            seatInventory.evict(id);
+            hallScheduleIndex.removeAfterCommit(slotOpt.get());
 
             logger.info("Showtime deleted successfully: {}", id);
 
@@ -211,19 +558,29 @@ public class AdminShowtimeController {
         }
     }
 
-    // Helper method to convert Showtime to DTO
-    private Map<String, Object> convertToDTO(Showtime showtime) {
-        Map<String, Object> dto = new HashMap<>();
-        dto.put("id", showtime.getId());
-        dto.put("movie", Map.of(
-                "id", showtime.getMovie().getId(),
-                "title", showtime.getMovie().getTitle()
-        ));
-        dto.put("showDate", showtime.getShowDate().toString());
-        dto.put("startTime", showtime.getStartTime().toString());
-        dto.put("endTime", showtime.getEndTime().toString());
-        dto.put("price", showtime.getPrice());
-        dto.put("status", showtime.getStatus());
-        return dto;
+    // A write in the same transaction may already have changed the entity, so it must not commit
+    private ResponseEntity<?> conflict(ShowtimeConflictException e) {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "conflicts", e.getConflicts()));
+    }
+
+    // Helper method to convert a Showtime already holding its movie to DTO
+    private ShowtimeDTO convertToDTO(Showtime showtime) {
+        return ShowtimeDTO.from(showtime);
+    }
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Authentication is null or not authenticated");
+            return false;
+        }
+
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        logger.info("User {} is admin: {}", authentication.getName(), isAdmin);
+        return isAdmin;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import com.amanda.cinema.dto.LoginRequest;
 import com.amanda.cinema.dto.RegisterRequest;
 import com.amanda.cinema.model.User;
 import com.amanda.cinema.repository.UserRepository;
+import com.amanda.cinema.security.JwtClaims;
 import com.amanda.cinema.security.JwtUtil;
 
 @RestController
@@ -100,15 +101,12 @@ public class AuthController {
         Map<String, Object> response = new HashMap<>();
 
         String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
-        Long userId = jwtUtil.extractUserId(token);
-        String role = jwtUtil.extractRole(token);
-        String name = jwtUtil.extractName(token);
-
-        response.put("userId", userId);
-        response.put("email", email);
-        response.put("role", role);
-        response.put("name", name);
+        JwtClaims claims = jwtUtil.parse(token);
+
+        response.put("userId", claims.getUserId());
+        response.put("email", claims.getEmail());
+        response.put("role", claims.getRole());
+        response.put("name", claims.getName());
         response.put("message", "JWT authentication working");
         return response;
     }
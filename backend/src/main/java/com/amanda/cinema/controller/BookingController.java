@@ -0,0 +1,187 @@
+package com.amanda.cinema.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import com.amanda.cinema.booking.BookingException;
+import com.amanda.cinema.booking.BookingService;
+import com.amanda.cinema.dto.BookingDTO;
+import com.amanda.cinema.dto.KeysetCursor;
+import com.amanda.cinema.model.User;
+
+@RestController
+@RequestMapping("/api/bookings")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class BookingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
+
+    private final BookingService bookingService;
+
+    public BookingController(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    // Get the seat map of a showtime
+    @GetMapping(value = "/showtimes/{showtimeId}/seats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getSeatMap(@PathVariable Long showtimeId) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookingService.seatMap(showtimeId));
+        } catch (BookingException e) {
+            return bookingError(e);
+        } catch (Exception e) {
+            logger.error("Error fetching seat map of showtime id: {}", showtimeId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch seat map: " + e.getMessage()));
+        }
+    }
+
+    // Hold seats: {"showtimeId": 12, "seats": ["C7", "C8"]}. Confirm before holdExpiresAt.
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> holdSeats(@RequestBody Map<String, Object> requestData,
+                                       Authentication authentication) {
+        try {
+            User user = currentUser(authentication);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Unauthorized"));
+            }
+
+            if (requestData.get("showtimeId") == null || !(requestData.get("seats") instanceof List<?> seatValues)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "showtimeId and a seats list are required"));
+            }
+            Long showtimeId = Long.valueOf(requestData.get("showtimeId").toString());
+            List<String> seats = new ArrayList<>(seatValues.size());
+            for (Object seat : seatValues) {
+                seats.add(String.valueOf(seat));
+            }
+
+            BookingDTO booking = bookingService.hold(showtimeId, seats, user.getId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(booking);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid showtimeId"));
+        } catch (BookingException e) {
+            return bookingError(e);
+        } catch (Exception e) {
+            logger.error("Error holding seats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to hold seats: " + e.getMessage()));
+        }
+    }
+
+    // Confirm a held booking
+    @PostMapping(value = "/{id}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> confirmBooking(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = currentUser(authentication);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Unauthorized"));
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookingService.confirm(id, user.getId()));
+        } catch (BookingException e) {
+            return bookingError(e);
+        } catch (Exception e) {
+            logger.error("Error confirming booking id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to confirm booking: " + e.getMessage()));
+        }
+    }
+
+    // Cancel a held or confirmed booking
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> cancelBooking(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = currentUser(authentication);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Unauthorized"));
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookingService.cancel(id, user.getId(), isAdmin(authentication)));
+        } catch (BookingException e) {
+            return bookingError(e);
+        } catch (Exception e) {
+            logger.error("Error cancelling booking id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to cancel booking: " + e.getMessage()));
+        }
+    }
+
+    // Get the current user's bookings, newest first
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getMyBookings(@RequestParam(required = false) Integer limit,
+                                           Authentication authentication) {
+        try {
+            User user = currentUser(authentication);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("error", "Unauthorized"));
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookingService.findByUser(user.getId(), KeysetCursor.clampLimit(limit)));
+        } catch (Exception e) {
+            logger.error("Error fetching bookings", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch bookings: " + e.getMessage()));
+        }
+    }
+
+    // Helper method mapping a BookingException to its status; seat problems list the seats
+    private ResponseEntity<?> bookingError(BookingException e) {
+        HttpStatus status = switch (e.getReason()) {
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case INVALID_SEATS -> HttpStatus.BAD_REQUEST;
+            case HOLD_EXPIRED -> HttpStatus.GONE;
+            case NOT_BOOKABLE, SEATS_UNAVAILABLE, INVALID_STATE -> HttpStatus.CONFLICT;
+        };
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e.getMessage());
+        if (!e.getSeats().isEmpty()) {
+            body.put("seats", e.getSeats());
+        }
+        return ResponseEntity.status(status).body(body);
+    }
+
+    // Helper method for the signed-in user, or null
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof User user)) {
+            return null;
+        }
+        return user;
+    }
+
+    // Helper method to check if user is admin
+    private boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
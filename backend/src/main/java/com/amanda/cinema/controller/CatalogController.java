@@ -0,0 +1,111 @@
+package com.amanda.cinema.controller;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.amanda.cinema.catalog.CatalogList;
+import com.amanda.cinema.catalog.CatalogSnapshot;
+import com.amanda.cinema.catalog.CatalogSnapshotService;
+
+// Public movie lists for the customer homepage. Bodies are written straight from the pre-rendered
+// JSON (or gzip) bytes of the current CatalogSnapshot; If-None-Match is answered with 304.
+@RestController
+@RequestMapping("/api/catalog")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class CatalogController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogController.class);
+    // Lists change with admin edits and the date, so clients revalidate with the ETag on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public CatalogController(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    // Get movies showing today
+    @GetMapping(value = "/now-showing", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getNowShowing(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                           WebRequest webRequest) {
+        try {
+            return serve(CatalogList.NOW_SHOWING, acceptEncoding, webRequest);
+        } catch (Exception e) {
+            logger.error("Error fetching now showing movies", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch now showing movies: " + e.getMessage()));
+        }
+    }
+
+    // Get movies opening after today
+    @GetMapping(value = "/coming-soon", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getComingSoon(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                           WebRequest webRequest) {
+        try {
+            return serve(CatalogList.COMING_SOON, acceptEncoding, webRequest);
+        } catch (Exception e) {
+            logger.error("Error fetching coming soon movies", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch coming soon movies: " + e.getMessage()));
+        }
+    }
+
+    // Helper method writing one rendered list, compressed when the client accepts gzip
+    private ResponseEntity<?> serve(CatalogList list, String acceptEncoding, WebRequest webRequest) {
+        CatalogSnapshot.RenderedList rendered = catalogSnapshotService.current().get(list);
+        if (webRequest.checkNotModified(rendered.getETag())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(rendered.getGzip().length)
+                    .body(rendered.getGzip());
+        }
+        return response.contentLength(rendered.getJson().length)
+                .body(rendered.getJson());
+    }
+
+    // Whether Accept-Encoding allows gzip: listed without q=0, or covered by a "*" that is
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                    refused = true;
+                }
+            }
+            if (name.equals("gzip")) {
+                return !refused;
+            }
+            if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return wildcard;
+    }
+}
@@ -0,0 +1,69 @@
+package com.amanda.cinema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.Showtime;
+
+// A booking with the showtime, movie and hall it is for and its seat labels
+public class BookingDTO {
+    private final Long id;
+    private final Long showtimeId;
+    private final String movieTitle;
+    private final String hallName;
+    private final String showDate;
+    private final String startTime;
+    private final List<String> seats;
+    private final String status;
+    private final BigDecimal totalPrice;
+    private final LocalDateTime holdExpiresAt;
+    private final LocalDateTime createdAt;
+
+    public BookingDTO(Long id, Long showtimeId, String movieTitle, String hallName, String showDate,
+                      String startTime, List<String> seats, String status, BigDecimal totalPrice,
+                      LocalDateTime holdExpiresAt, LocalDateTime createdAt) {
+        this.id = id;
+        this.showtimeId = showtimeId;
+        this.movieTitle = movieTitle;
+        this.hallName = hallName;
+        this.showDate = showDate;
+        this.startTime = startTime;
+        this.seats = seats;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.holdExpiresAt = holdExpiresAt;
+        this.createdAt = createdAt;
+    }
+
+    // The booking's showtime, movie and hall must already be loaded
+    public static BookingDTO from(Booking booking, List<String> seats) {
+        Showtime showtime = booking.getShowtime();
+        return new BookingDTO(booking.getId(), showtime.getId(), showtime.getMovie().getTitle(),
+                showtime.getHall().getName(), showtime.getShowDate().toString(), showtime.getStartTime().toString(),
+                seats, booking.getStatus(), booking.getTotalPrice(), booking.getHoldExpiresAt(), booking.getCreatedAt());
+    }
+
+    public Long getId() { return id; }
+
+    public Long getShowtimeId() { return showtimeId; }
+
+    public String getMovieTitle() { return movieTitle; }
+
+    public String getHallName() { return hallName; }
+
+    public String getShowDate() { return showDate; }
+
+    public String getStartTime() { return startTime; }
+
+    public List<String> getSeats() { return seats; }
+
+    public String getStatus() { return status; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+
+    public LocalDateTime getHoldExpiresAt() { return holdExpiresAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,53 @@
+package com.amanda.cinema.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for keyset pagination: the sort key of the last row of a page,
+// base64url encoded so clients pass it back verbatim instead of building one
+public final class KeysetCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {}
+
+    public static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder(VERSION);
+        for (Object key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Key parts of a cursor; throws IllegalArgumentException for anything not produced by encode
+    public static String[] decode(String cursor, int expectedKeys) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != expectedKeys + 1 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] keys = new String[expectedKeys];
+        System.arraycopy(parts, 1, keys, 0, expectedKeys);
+        return keys;
+    }
+
+    // Requested page size bounded to [1, MAX_LIMIT]
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+}
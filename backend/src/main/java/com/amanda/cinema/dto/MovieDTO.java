@@ -18,7 +18,7 @@ public class MovieDTO {
     private String director;
     private String cast;
     private String status;
-    private String primaryPhotoBase64;
+    private String primaryPhotoUrl;
 
     // Constructors
     public MovieDTO() {}
@@ -66,6 +66,6 @@ public class MovieDTO {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
-    public String getPrimaryPhotoBase64() { return primaryPhotoBase64; }
-    public void setPrimaryPhotoBase64(String primaryPhotoBase64) { this.primaryPhotoBase64 = primaryPhotoBase64; }
+    public String getPrimaryPhotoUrl() { return primaryPhotoUrl; }
+    public void setPrimaryPhotoUrl(String primaryPhotoUrl) { this.primaryPhotoUrl = primaryPhotoUrl; }
 }
\ No newline at end of file
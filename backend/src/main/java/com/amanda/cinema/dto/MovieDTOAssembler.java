@@ -0,0 +1,98 @@
+package com.amanda.cinema.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.storage.PhotoVariant;
+
+// Builds MovieDTOs for the admin and public catalog endpoints, resolving primary photos in batches
+@Component
+public class MovieDTOAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieDTOAssembler.class);
+    private static final int PHOTO_BATCH_SIZE = 1000;
+    // List rows only need a small preview; a single movie is shown large enough to need more
+    private static final PhotoVariant LIST_VARIANT = PhotoVariant.smallest();
+    private static final PhotoVariant DETAIL_VARIANT = PhotoVariant.CARD;
+
+    private final MoviePhotoRepository moviePhotoRepository;
+
+    public MovieDTOAssembler(MoviePhotoRepository moviePhotoRepository) {
+        this.moviePhotoRepository = moviePhotoRepository;
+    }
+
+    // Convert a list of movies, loading all of their primary photos in one query per 1000 movies
+    public List<MovieDTO> toDTOs(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, PhotoRefDTO> primaryPhotos = new HashMap<>();
+        try {
+            List<Long> movieIds = movies.stream()
+                    .map(Movie::getId)
+                    .collect(Collectors.toList());
+            // SQL Server caps a statement at 2100 parameters, so very large lists are chunked
+            for (int from = 0; from < movieIds.size(); from += PHOTO_BATCH_SIZE) {
+                List<Long> chunk = movieIds.subList(from, Math.min(from + PHOTO_BATCH_SIZE, movieIds.size()));
+                for (PhotoRefDTO photo : moviePhotoRepository.findPrimaryPhotoRefsByMovieIds(chunk)) {
+                    primaryPhotos.putIfAbsent(photo.getMovieId(), photo);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Error loading primary photos for {} movies", movies.size(), e);
+        }
+
+        return movies.stream()
+                .map(movie -> toDTO(movie, primaryPhotos.get(movie.getId()), LIST_VARIANT))
+                .collect(Collectors.toList());
+    }
+
+    // Convert a single movie for a detail response
+    public MovieDTO toDTO(Movie movie) {
+        PhotoRefDTO primaryPhoto = null;
+        try {
+            primaryPhoto = moviePhotoRepository.findPrimaryPhotoRefsByMovieIds(List.of(movie.getId()))
+                    .stream()
+                    .findFirst()
+                    .orElse(null);
+        } catch (Exception e) {
+            logger.warn("Error loading primary photo for movie id: {}", movie.getId());
+        }
+        return toDTO(movie, primaryPhoto, DETAIL_VARIANT);
+    }
+
+    // Convert a movie with an already loaded primary photo, linking the given derivative of it
+    private MovieDTO toDTO(Movie movie, PhotoRefDTO primaryPhoto, PhotoVariant photoVariant) {
+        MovieDTO dto = new MovieDTO();
+        dto.setId(movie.getId());
+        dto.setTitle(movie.getTitle());
+        dto.setDescription(movie.getDescription());
+        dto.setGenre(movie.getGenre());
+        dto.setDurationMinutes(movie.getDurationMinutes());
+        dto.setStartTime(movie.getStartTime());
+        dto.setLanguage(movie.getLanguage());
+        dto.setRating(movie.getRating());
+        dto.setReleaseDate(movie.getReleaseDate());
+        dto.setShowStartDate(movie.getShowStartDate());
+        dto.setShowEndDate(movie.getShowEndDate());
+        dto.setDirector(movie.getDirector());
+        dto.setCast(movie.getCast());
+        dto.setStatus(movie.getStatus());
+
+        if (primaryPhoto != null) {
+            dto.setPrimaryPhotoUrl(primaryPhoto.getVariantUrl(photoVariant));
+        }
+
+        return dto;
+    }
+}
@@ -0,0 +1,45 @@
+package com.amanda.cinema.dto;
+
+import com.amanda.cinema.storage.PhotoVariant;
+
+// Lightweight photo reference used wherever the image bytes are not needed
+public class PhotoRefDTO {
+    private final Long movieId;
+    private final Long photoId;
+    private final Boolean isPrimary;
+    private final String contentType;
+    private final String contentHash;
+    private final Long sizeBytes;
+
+    public PhotoRefDTO(Long movieId, Long photoId, Boolean isPrimary, String contentType,
+                       String contentHash, Long sizeBytes) {
+        this.movieId = movieId;
+        this.photoId = photoId;
+        this.isPrimary = isPrimary;
+        this.contentType = contentType;
+        this.contentHash = contentHash;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Long getMovieId() { return movieId; }
+
+    public Long getPhotoId() { return photoId; }
+
+    public Boolean getIsPrimary() { return isPrimary; }
+
+    public String getContentType() { return contentType; }
+
+    public String getContentHash() { return contentHash; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+
+    // Relative URL of the raw image endpoint for this photo
+    public String getUrl() {
+        return "/api/admin/movies/" + movieId + "/photos/" + photoId + "/raw";
+    }
+
+    // Relative URL of a generated derivative of this photo
+    public String getVariantUrl(PhotoVariant variant) {
+        return getUrl() + "?variant=" + variant.name().toLowerCase();
+    }
+}
@@ -0,0 +1,41 @@
+package com.amanda.cinema.dto;
+
+import java.util.List;
+
+// Seat availability of a showtime: the hall grid and the labels of held or sold seats
+public class SeatMapDTO {
+    private final Long showtimeId;
+    private final Long hallId;
+    private final String hallName;
+    private final int seatRows;
+    private final int seatsPerRow;
+    private final int available;
+    private final List<String> taken;
+
+    public SeatMapDTO(Long showtimeId, Long hallId, String hallName, int seatRows, int seatsPerRow,
+                      int available, List<String> taken) {
+        this.showtimeId = showtimeId;
+        this.hallId = hallId;
+        this.hallName = hallName;
+        this.seatRows = seatRows;
+        this.seatsPerRow = seatsPerRow;
+        this.available = available;
+        this.taken = taken;
+    }
+
+    public Long getShowtimeId() { return showtimeId; }
+
+    public Long getHallId() { return hallId; }
+
+    public String getHallName() { return hallName; }
+
+    public int getSeatRows() { return seatRows; }
+
+    public int getSeatsPerRow() { return seatsPerRow; }
+
+    public int getCapacity() { return seatRows * seatsPerRow; }
+
+    public int getAvailable() { return available; }
+
+    public List<String> getTaken() { return taken; }
+}
@@ -0,0 +1,76 @@
+package com.amanda.cinema.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.amanda.cinema.model.Showtime;
+
+// Read-only showtime row with its movie's id and title, built directly by JPQL constructor
+// expressions so listing a showtime never touches the lazy movie association
+public class ShowtimeDTO {
+    private final Long id;
+    private final MovieRef movie;
+    private final LocalDate showDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final BigDecimal price;
+    private final String status;
+    private final Long hallId;
+
+    public ShowtimeDTO(Long id, Long movieId, String movieTitle, LocalDate showDate,
+                       LocalTime startTime, LocalTime endTime, BigDecimal price, String status, Long hallId) {
+        this.id = id;
+        this.movie = new MovieRef(movieId, movieTitle);
+        this.showDate = showDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.price = price;
+        this.status = status;
+        this.hallId = hallId;
+    }
+
+    // For write endpoints that already hold the entity and its movie
+    public static ShowtimeDTO from(Showtime showtime) {
+        return new ShowtimeDTO(showtime.getId(), showtime.getMovie().getId(), showtime.getMovie().getTitle(),
+                showtime.getShowDate(), showtime.getStartTime(), showtime.getEndTime(),
+                showtime.getPrice(), showtime.getStatus(),
+                showtime.getHall() != null ? showtime.getHall().getId() : null);
+    }
+
+    public Long getId() { return id; }
+
+    public MovieRef getMovie() { return movie; }
+
+    // Dates and times serialize via toString, as the listing always has ("18:30", not "18:30:00")
+    public String getShowDate() { return showDate.toString(); }
+
+    public String getStartTime() { return startTime.toString(); }
+
+    public String getEndTime() { return endTime.toString(); }
+
+    public BigDecimal getPrice() { return price; }
+
+    public String getStatus() { return status; }
+
+    public Long getHallId() { return hallId; }
+
+    // Keyset cursor keys, not part of the JSON
+    public LocalDate showDateValue() { return showDate; }
+
+    public LocalTime startTimeValue() { return startTime; }
+
+    public static class MovieRef {
+        private final Long id;
+        private final String title;
+
+        public MovieRef(Long id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+
+        public Long getId() { return id; }
+
+        public String getTitle() { return title; }
+    }
+}
@@ -0,0 +1,54 @@
+package com.amanda.cinema.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+// Row count and latest updatedAt of a resource or collection, selected by an aggregate query
+// before anything is loaded. Validators for conditional GETs are derived from it.
+public class VersionStamp {
+    private final long count;
+    private final LocalDateTime lastUpdated;
+
+    public VersionStamp(Long count, LocalDateTime lastUpdated) {
+        this.count = count != null ? count : 0L;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getCount() { return count; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+
+    public boolean isEmpty() { return count == 0; }
+
+    // Epoch millis for Last-Modified, or -1 when there is nothing to date. Only for single
+    // resources: a collection's latest timestamp does not move when one of its rows is deleted.
+    public long getLastModifiedMillis() {
+        return lastUpdated != null ? lastUpdated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+    }
+
+    // Weak validator for a collection: the same rows may serialize differently (paging, ordering),
+    // but any insert, update or delete changes the count or the latest timestamp. The qualifiers
+    // fold in request state the body depends on beyond the URL, e.g. the current date.
+    public String weakETag(Object... qualifiers) {
+        StringBuilder tag = new StringBuilder("W/\"").append(count).append('-').append(timestampToken());
+        for (Object qualifier : qualifiers) {
+            tag.append('-').append(qualifier);
+        }
+        return tag.append('"').toString();
+    }
+
+    // Strong validator for a single resource, whose representation changes only with updatedAt
+    public String strongETag(String kind, Long id) {
+        return "\"" + kind + "-" + id + "-" + timestampToken() + "\"";
+    }
+
+    private String timestampToken() {
+        if (lastUpdated == null) {
+            return "0";
+        }
+        // Microseconds, within datetime2's precision, so back-to-back edits get distinct tags
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), lastUpdated);
+        return Long.toString(micros, 36);
+    }
+}
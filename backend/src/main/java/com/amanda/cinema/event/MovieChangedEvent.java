@@ -0,0 +1,32 @@
+package com.amanda.cinema.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+// Published by the admin write paths when movies change; in-memory read models listen with
+// @TransactionalEventListener so they only see committed state
+public class MovieChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        PHOTOS_CHANGED
+    }
+
+    private final Type type;
+    private final Set<Long> movieIds;
+
+    public MovieChangedEvent(Type type, Collection<Long> movieIds) {
+        this.type = type;
+        this.movieIds = Set.copyOf(movieIds);
+    }
+
+    public static MovieChangedEvent of(Type type, Long movieId) {
+        return new MovieChangedEvent(type, Set.of(movieId));
+    }
+
+    public Type getType() { return type; }
+
+    public Set<Long> getMovieIds() { return movieIds; }
+}
@@ -0,0 +1,100 @@
+package com.amanda.cinema.imports;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader, one record at a time. Quoted fields may hold commas, doubled quotes
+// and line breaks; LF and CRLF both end a record. A field longer than the limit fails the read
+// rather than growing without bound on an unterminated quote.
+public class CsvReader implements Closeable {
+
+    private final BufferedReader in;
+    private final int maxFieldChars;
+    private final StringBuilder field = new StringBuilder();
+
+    public CsvReader(Reader in, int maxFieldChars) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        this.maxFieldChars = maxFieldChars;
+    }
+
+    // The next record's fields, or null at the end of the input
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean read = false;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            in.reset();
+                        }
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new IOException("Unterminated quoted field at end of input");
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(char c) throws IOException {
+        if (field.length() >= maxFieldChars) {
+            throw new IOException("Field longer than " + maxFieldChars + " characters");
+        }
+        field.append(c);
+    }
+
+    // A value quoted for writing when it holds a delimiter, quote or line break
+    public static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
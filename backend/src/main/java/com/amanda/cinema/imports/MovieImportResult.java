@@ -0,0 +1,51 @@
+package com.amanda.cinema.imports;
+
+import java.util.List;
+
+// Counts of one catalog import. Failed rows are listed in the error report, not here, so the
+// response stays small however many rows fail.
+public class MovieImportResult {
+    private final String importId;
+    private final int rows;
+    private final int imported;
+    private final int failed;
+    private final int batches;
+    private final long elapsedMillis;
+    private final List<String> ignoredColumns;
+    private final String abortedReason;
+
+    public MovieImportResult(String importId, int rows, int imported, int failed, int batches, long elapsedMillis,
+                             List<String> ignoredColumns, String abortedReason) {
+        this.importId = importId;
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.batches = batches;
+        this.elapsedMillis = elapsedMillis;
+        this.ignoredColumns = ignoredColumns;
+        this.abortedReason = abortedReason;
+    }
+
+    public String getImportId() { return importId; }
+
+    public int getRows() { return rows; }
+
+    public int getImported() { return imported; }
+
+    public int getFailed() { return failed; }
+
+    public int getBatches() { return batches; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    // CSV header columns that map to no movie property
+    public List<String> getIgnoredColumns() { return ignoredColumns; }
+
+    // Why reading stopped early (malformed input); rows before it were still imported
+    public String getAbortedReason() { return abortedReason; }
+
+    // Where the failed rows can be downloaded, or null when none failed
+    public String getErrorReportUrl() {
+        return failed > 0 ? "/api/admin/movies/import/" + importId + "/errors" : null;
+    }
+}
@@ -0,0 +1,374 @@
+package com.amanda.cinema.imports;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.validation.MovieValidator;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+// Streams a CSV or JSON catalog into the movies table. Rows are read one at a time, checked with
+// the createMovie rules and persisted in fixed-size batches, one transaction per batch with the
+// persistence context cleared after each; failed rows are written to an on-disk CSV report. Nothing
+// held in memory grows with the upload, so heap use stays flat however large the file.
+@Component
+public class MovieImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieImportService.class);
+    // Long enough for any description, short enough that an unterminated quote cannot exhaust the heap
+    private static final int MAX_FIELD_CHARS = 1 << 20;
+    private static final long PURGE_INTERVAL_MILLIS = 10 * 60 * 1000;
+
+    public enum Format {
+        CSV, JSON;
+
+        // From an explicit format name, else the content type, else the file extension; null if none says
+        public static Format resolve(String format, String contentType, String filename) {
+            if (format != null) {
+                return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                    case "csv" -> CSV;
+                    case "json", "ndjson" -> JSON;
+                    default -> null;
+                };
+            }
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.contains("csv")) {
+                return CSV;
+            }
+            if (type.contains("json")) {
+                return JSON;
+            }
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return JSON;
+            }
+            return null;
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Path reportDir;
+    private final long reportTtlMinutes;
+
+    public MovieImportService(EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${movie.import.batch-size:500}") int batchSize,
+                              @Value("${movie.import.report-dir:${java.io.tmpdir}/amanda-cinema-imports}") String reportDir,
+                              @Value("${movie.import.report-ttl-minutes:60}") long reportTtlMinutes) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.reportDir = Paths.get(reportDir).toAbsolutePath().normalize();
+        this.reportTtlMinutes = reportTtlMinutes;
+    }
+
+    // Import every row of the upload. Bad rows are reported and skipped; malformed input stops
+    // the read, keeping the batches already committed.
+    public MovieImportResult importMovies(InputStream in, Format format) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportRun run = new ImportRun(UUID.randomUUID().toString());
+
+        try (RowSource source = format == Format.CSV ? new CsvRows(in) : new JsonRows(in)) {
+            while (true) {
+                Map<String, ?> row;
+                try {
+                    row = source.next();
+                } catch (IOException | JacksonException e) {
+                    run.abortedReason = "Stopped reading after row " + run.rows + ": " + e.getMessage();
+                    break;
+                }
+                if (row == null) {
+                    break;
+                }
+                read(run, row);
+            }
+            persistBatch(run);
+
+            MovieImportResult result = new MovieImportResult(run.importId, run.rows, run.imported, run.failed,
+                    run.batches, System.currentTimeMillis() - started, source.ignoredColumns(), run.abortedReason);
+            logger.info("Movie import {} read {} rows: {} imported, {} failed in {} batches, {} ms",
+                    run.importId, run.rows, run.imported, run.failed, run.batches, result.getElapsedMillis());
+            return result;
+        } finally {
+            run.closeReport();
+        }
+    }
+
+    // The error report of an import, or null if it had none or has expired
+    public Path findReport(String importId) {
+        try {
+            if (!UUID.fromString(importId).toString().equals(importId)) {
+                return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Path report = reportDir.resolve(importId + ".csv");
+        return Files.isRegularFile(report) ? report : null;
+    }
+
+    // Delete error reports older than their TTL
+    @Scheduled(fixedDelay = PURGE_INTERVAL_MILLIS)
+    public void purgeReports() {
+        if (!Files.isDirectory(reportDir)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(reportTtlMinutes, ChronoUnit.MINUTES));
+        try (Stream<Path> reports = Files.list(reportDir)) {
+            reports.filter(path -> path.getFileName().toString().endsWith(".csv")).forEach(path -> {
+                try {
+                    if (Files.getLastModifiedTime(path).compareTo(cutoff) < 0) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete import report {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not list import reports in {}", reportDir, e);
+        }
+    }
+
+    private void read(ImportRun run, Map<String, ?> row) throws IOException {
+        int rowNumber = ++run.rows;
+        Movie movie;
+        try {
+            movie = MovieRowMapper.toMovie(row);
+        } catch (IllegalArgumentException e) {
+            run.fail(rowNumber, MovieRowMapper.title(row), e.getMessage());
+            return;
+        }
+
+        String invalid = MovieValidator.validate(movie);
+        if (invalid != null) {
+            run.fail(rowNumber, movie.getTitle(), invalid);
+            return;
+        }
+        MovieValidator.applyDefaults(movie);
+
+        run.pending.add(new PendingRow(rowNumber, movie));
+        if (run.pending.size() >= batchSize) {
+            persistBatch(run);
+        }
+    }
+
+    // Persist the pending rows in one transaction. A row the database rejects (a value too long
+    // for its column, say) rolls the whole batch back, so the batch is then redone row by row to
+    // import the others and report that one.
+    private void persistBatch(ImportRun run) throws IOException {
+        List<PendingRow> batch = run.pending;
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingRow row : batch) {
+                    entityManager.persist(row.movie);
+                }
+                entityManager.flush();
+                List<Long> ids = new ArrayList<>(batch.size());
+                for (PendingRow row : batch) {
+                    ids.add(row.movie.getId());
+                }
+                entityManager.clear();
+                eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, ids));
+            });
+            run.imported += batch.size();
+        } catch (RuntimeException e) {
+            logger.warn("Movie import {} batch ending at row {} failed, retrying row by row: {}",
+                    run.importId, batch.get(batch.size() - 1).rowNumber, rootMessage(e));
+            for (PendingRow row : batch) {
+                // The rolled-back insert left its identity value behind
+                row.movie.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.persist(row.movie);
+                        entityManager.flush();
+                        Long id = row.movie.getId();
+                        entityManager.clear();
+                        eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.CREATED, id));
+                    });
+                    run.imported++;
+                } catch (RuntimeException rowError) {
+                    run.fail(row.rowNumber, row.movie.getTitle(), rootMessage(rowError));
+                }
+            }
+        }
+        run.batches++;
+        batch.clear();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    // State of one import; the report file is opened on the first failure
+    private class ImportRun {
+        private final String importId;
+        private final List<PendingRow> pending = new ArrayList<>(batchSize);
+        private int rows;
+        private int imported;
+        private int failed;
+        private int batches;
+        private String abortedReason;
+        private BufferedWriter report;
+
+        ImportRun(String importId) {
+            this.importId = importId;
+        }
+
+        void fail(int rowNumber, String title, String error) throws IOException {
+            failed++;
+            if (report == null) {
+                Files.createDirectories(reportDir);
+                report = Files.newBufferedWriter(reportDir.resolve(importId + ".csv"), StandardCharsets.UTF_8);
+                report.write("row,title,error\n");
+            }
+            report.write(rowNumber + "," + CsvReader.quote(title) + "," + CsvReader.quote(error) + "\n");
+        }
+
+        void closeReport() throws IOException {
+            if (report != null) {
+                report.close();
+            }
+        }
+    }
+
+    private static class PendingRow {
+        private final int rowNumber;
+        private final Movie movie;
+
+        PendingRow(int rowNumber, Movie movie) {
+            this.rowNumber = rowNumber;
+            this.movie = movie;
+        }
+    }
+
+    private interface RowSource extends Closeable {
+        // The next row keyed by column or property name, or null at the end
+        Map<String, ?> next() throws IOException;
+
+        default List<String> ignoredColumns() {
+            return List.of();
+        }
+    }
+
+    // Records keyed by the header row; blank lines are skipped
+    private class CsvRows implements RowSource {
+        private final CsvReader reader;
+        private List<String> header;
+        private final List<String> ignored = new ArrayList<>();
+
+        CsvRows(InputStream in) {
+            this.reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_FIELD_CHARS);
+        }
+
+        @Override
+        public Map<String, ?> next() throws IOException {
+            if (header == null) {
+                header = reader.readRecord();
+                if (header == null) {
+                    return null;
+                }
+                for (String column : header) {
+                    if (!MovieRowMapper.isKnownColumn(column)) {
+                        ignored.add(column);
+                    }
+                }
+            }
+
+            List<String> record;
+            do {
+                record = reader.readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            if (record.size() > header.size()) {
+                throw new IOException("Record has " + record.size() + " fields but the header has " + header.size());
+            }
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                row.put(header.get(i), record.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public List<String> ignoredColumns() {
+            return ignored;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Objects of a top-level JSON array, or a sequence of objects such as the NDJSON export
+    private class JsonRows implements RowSource {
+        private final MappingIterator<Map<String, Object>> objects;
+
+        JsonRows(InputStream in) {
+            this.objects = objectMapper.readerForMapOf(Object.class).readValues(in);
+        }
+
+        @Override
+        public Map<String, ?> next() {
+            return objects.hasNextValue() ? objects.nextValue() : null;
+        }
+
+        @Override
+        public void close() {
+            objects.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.amanda.cinema.imports;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.amanda.cinema.model.Movie;
+
+// Builds a Movie from one imported row. Column names match the movie's JSON properties ignoring
+// case, underscores and spaces ("showStartDate", "show_start_date"); unknown columns, ids and
+// timestamps are ignored, so an NDJSON export can be imported again as it is.
+final class MovieRowMapper {
+
+    private static final Map<String, BiConsumer<Movie, String>> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("title", Movie::setTitle);
+        COLUMNS.put("description", Movie::setDescription);
+        COLUMNS.put("genre", Movie::setGenre);
+        COLUMNS.put("durationminutes", (movie, value) -> movie.setDurationMinutes(parse("durationMinutes", value,
+                text -> new BigDecimal(text).intValueExact())));
+        COLUMNS.put("starttime", (movie, value) -> movie.setStartTime(parse("startTime", value, LocalTime::parse)));
+        COLUMNS.put("language", Movie::setLanguage);
+        COLUMNS.put("rating", Movie::setRating);
+        COLUMNS.put("releasedate", (movie, value) -> movie.setReleaseDate(parse("releaseDate", value, LocalDate::parse)));
+        COLUMNS.put("showstartdate", (movie, value) -> movie.setShowStartDate(parse("showStartDate", value, LocalDate::parse)));
+        COLUMNS.put("showenddate", (movie, value) -> movie.setShowEndDate(parse("showEndDate", value, LocalDate::parse)));
+        COLUMNS.put("director", Movie::setDirector);
+        COLUMNS.put("cast", Movie::setCast);
+        COLUMNS.put("status", Movie::setStatus);
+    }
+
+    private MovieRowMapper() {
+    }
+
+    static boolean isKnownColumn(String column) {
+        return COLUMNS.containsKey(normalize(column));
+    }
+
+    // The movie the row describes; throws IllegalArgumentException naming the first bad value.
+    // Blank values are left unset; lists (e.g. a JSON cast array) are joined with ", ".
+    static Movie toMovie(Map<String, ?> row) {
+        Movie movie = new Movie();
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            BiConsumer<Movie, String> setter = COLUMNS.get(normalize(entry.getKey()));
+            String value = text(entry.getValue());
+            if (setter != null && value != null) {
+                setter.accept(movie, value);
+            }
+        }
+        return movie;
+    }
+
+    // The row's title as given, for reporting a row that failed before it became a movie
+    static String title(Map<String, ?> row) {
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            if ("title".equals(normalize(entry.getKey()))) {
+                return text(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static String text(Object value) {
+        if (value == null || value instanceof Map) {
+            return null;
+        }
+        String text = value instanceof Collection<?> values
+                ? values.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                : value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static <T> T parse(String column, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (DateTimeParseException | ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": invalid value '" + value + "'");
+        }
+    }
+
+    private static String normalize(String column) {
+        StringBuilder key = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+}
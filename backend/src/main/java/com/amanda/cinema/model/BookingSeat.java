@@ -0,0 +1,50 @@
+package com.amanda.cinema.model;
+
+import jakarta.persistence.*;
+
+// One seat owned by a HELD or CONFIRMED booking. The unique (showtime_id, seat_index) key is the
+// durable guarantee against double-booking; rows are deleted when their booking is released.
+@Entity
+@Table(name = "booking_seats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_seats_showtime_seat",
+                columnNames = {"showtime_id", "seat_index"}))
+public class BookingSeat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", nullable = false)
+    private Booking booking;
+
+    // Denormalized from the booking so the unique key can cover it
+    @Column(name = "showtime_id", nullable = false)
+    private Long showtimeId;
+
+    // Row-major position in the hall grid: row * seatsPerRow + (number - 1)
+    @Column(name = "seat_index", nullable = false)
+    private Integer seatIndex;
+
+    // Constructors
+    public BookingSeat() {}
+
+    public BookingSeat(Booking booking, Long showtimeId, Integer seatIndex) {
+        this.booking = booking;
+        this.showtimeId = showtimeId;
+        this.seatIndex = seatIndex;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Booking getBooking() { return booking; }
+    public void setBooking(Booking booking) { this.booking = booking; }
+
+    public Long getShowtimeId() { return showtimeId; }
+    public void setShowtimeId(Long showtimeId) { this.showtimeId = showtimeId; }
+
+    public Integer getSeatIndex() { return seatIndex; }
+    public void setSeatIndex(Integer seatIndex) { this.seatIndex = seatIndex; }
+}
@@ -0,0 +1,70 @@
+package com.amanda.cinema.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "halls")
+public class Hall {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    // Seats form a rows x seatsPerRow grid; seat labels are the row letter and 1-based number ("C7")
+    @Column(name = "seat_rows", nullable = false)
+    private Integer seatRows;
+
+    @Column(name = "seats_per_row", nullable = false)
+    private Integer seatsPerRow;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public Hall() {}
+
+    public Hall(String name, Integer seatRows, Integer seatsPerRow) {
+        this.name = name;
+        this.seatRows = seatRows;
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public int getCapacity() { return seatRows * seatsPerRow; }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Integer getSeatRows() { return seatRows; }
+    public void setSeatRows(Integer seatRows) { this.seatRows = seatRows; }
+
+    public Integer getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(Integer seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
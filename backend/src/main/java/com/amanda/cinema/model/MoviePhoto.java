@@ -15,9 +15,17 @@ public class MoviePhoto {
     @JoinColumn(name = "movie_id", nullable = false)
     private Movie movie;
 
-    @Lob
-    @Column(name = "photo_data", columnDefinition = "VARBINARY(MAX)", nullable = false)
-    private byte[] photoData;
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "derivatives_failed_at")
+    private LocalDateTime derivativesFailedAt;
 
     @Column(name = "is_primary")
     private Boolean isPrimary = false;
@@ -28,9 +36,8 @@ public class MoviePhoto {
     // Constructors
     public MoviePhoto() {}
 
-    public MoviePhoto(Movie movie, byte[] photoData, Boolean isPrimary) {
+    public MoviePhoto(Movie movie, Boolean isPrimary) {
         this.movie = movie;
-        this.photoData = photoData;
         this.isPrimary = isPrimary;
     }
 
@@ -46,8 +53,17 @@ public class MoviePhoto {
     public Movie getMovie() { return movie; }
     public void setMovie(Movie movie) { this.movie = movie; }
 
-    public byte[] getPhotoData() { return photoData; }
-    public void setPhotoData(byte[] photoData) { this.photoData = photoData; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public LocalDateTime getDerivativesFailedAt() { return derivativesFailedAt; }
+    public void setDerivativesFailedAt(LocalDateTime derivativesFailedAt) { this.derivativesFailedAt = derivativesFailedAt; }
 
     public Boolean getIsPrimary() { return isPrimary; }
     public void setIsPrimary(Boolean isPrimary) { this.isPrimary = isPrimary; }
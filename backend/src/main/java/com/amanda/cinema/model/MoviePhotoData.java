@@ -0,0 +1,27 @@
+package com.amanda.cinema.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+// Legacy inline photo bytes, mapped separately from MoviePhoto so that metadata
+// queries never read the VARBINARY(MAX) column. Rows are created through MoviePhoto.
+@Entity
+@Immutable
+@Table(name = "movie_photos")
+public class MoviePhotoData {
+
+    @Id
+    private Long id;
+
+    @Lob
+    @Column(name = "photo_data", columnDefinition = "VARBINARY(MAX)")
+    private byte[] photoData;
+
+    // Constructors
+    public MoviePhotoData() {}
+
+    // Getters
+    public Long getId() { return id; }
+
+    public byte[] getPhotoData() { return photoData; }
+}
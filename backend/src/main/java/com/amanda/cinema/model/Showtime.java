@@ -10,14 +10,21 @@ import java.time.LocalTime;
 @Table(name = "showtimes")
 public class Showtime {
 
+    // Sequence ids in blocks of 50 (V5) let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "showtimes_seq")
+    @SequenceGenerator(name = "showtimes_seq", sequenceName = "showtimes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "movie_id", nullable = false)
     private Movie movie;
 
+    // Null for showtimes scheduled before halls existed; those cannot be booked
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hall_id")
+    private Hall hall;
+
     @Column(name = "show_date", nullable = false)
     private LocalDate showDate;
 
@@ -60,6 +67,9 @@ public class Showtime {
     public Movie getMovie() { return movie; }
     public void setMovie(Movie movie) { this.movie = movie; }
 
+    public Hall getHall() { return hall; }
+    public void setHall(Hall hall) { this.hall = hall; }
+
     public LocalDate getShowDate() { return showDate; }
     public void setShowDate(LocalDate showDate) { this.showDate = showDate; }
 
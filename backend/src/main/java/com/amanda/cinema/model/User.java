@@ -22,6 +22,10 @@ public class User {
     @Column(nullable = true)
     private String password;
 
+    // Bumped to revoke every token issued before it (role change, forced sign-out)
+    @Column(name = "token_epoch")
+    private Integer tokenEpoch;
+
 
     // Constructors
     public User() {}
@@ -53,4 +57,7 @@ public class User {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
+    public int getTokenEpoch() { return tokenEpoch != null ? tokenEpoch : 0; }
+    public void setTokenEpoch(int tokenEpoch) { this.tokenEpoch = tokenEpoch; }
+
 }
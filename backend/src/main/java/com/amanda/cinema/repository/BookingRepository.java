@@ -0,0 +1,70 @@
+package com.amanda.cinema.repository;
+
+import com.amanda.cinema.booking.HoldDeadline;
+import com.amanda.cinema.model.Booking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Status transitions are conditional updates, so a confirm racing the hold expiry (or a second
+    // cancel) changes the row at most once; callers act only when one row was updated
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'CONFIRMED', b.holdExpiresAt = null, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.user.id = :userId AND b.status = 'HELD' AND b.holdExpiresAt > :now")
+    int confirmHeld(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'CANCELLED', b.holdExpiresAt = null, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.status IN ('HELD', 'CONFIRMED')")
+    int cancelActive(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Expire holds the caller has locked with findHeldForUpdate and found past their deadline
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'EXPIRED', b.holdExpiresAt = null, b.updatedAt = :now " +
+            "WHERE b.id IN :ids AND b.status = 'HELD' AND b.holdExpiresAt <= :now")
+    int expireHeld(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // The bookings among the ids that are still held, locked until the transaction ends so a
+    // concurrent cancel waits for the expiry rather than both releasing the same seats
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'HELD'")
+    List<Booking> findHeldForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Outstanding holds after the given id, to reschedule their expiry at startup
+    @Query("SELECT new com.amanda.cinema.booking.HoldDeadline(b.id, b.holdExpiresAt) FROM Booking b " +
+            "WHERE b.status = 'HELD' AND b.id > :afterId ORDER BY b.id")
+    List<HoldDeadline> findHoldDeadlines(@Param("afterId") Long afterId, Limit limit);
+
+    // Holds whose deadline passed before the cutoff, oldest first: left behind by a node that died
+    @Query("SELECT b.id FROM Booking b WHERE b.status = 'HELD' AND b.holdExpiresAt < :cutoff ORDER BY b.holdExpiresAt")
+    List<Long> findOverdueHoldIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    // A user's bookings, newest first
+    @Query("SELECT b FROM Booking b JOIN FETCH b.showtime s JOIN FETCH s.movie JOIN FETCH s.hall " +
+            "WHERE b.user.id = :userId ORDER BY b.createdAt DESC")
+    List<Booking> findByUserIdWithShowtime(@Param("userId") Long userId, Limit limit);
+
+    // A booking with the showtime data its DTO shows
+    @Query("SELECT b FROM Booking b JOIN FETCH b.showtime s JOIN FETCH s.movie JOIN FETCH s.hall WHERE b.id = :id")
+    Optional<Booking> findByIdWithShowtime(@Param("id") Long id);
+
+    // Whether a showtime has any booking row, which pins it to its hall and blocks deletion
+    boolean existsByShowtimeId(Long showtimeId);
+
+    // Whether any showtime in the hall has a booking in one of the statuses
+    boolean existsByShowtimeHallIdAndStatusIn(Long hallId, Collection<String> statuses);
+}
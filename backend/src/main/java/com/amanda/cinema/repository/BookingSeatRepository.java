@@ -0,0 +1,42 @@
+package com.amanda.cinema.repository;
+
+import com.amanda.cinema.model.BookingSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
+
+    // Every held or sold seat of a showtime, to build its SeatMap
+    @Query("SELECT bs.seatIndex FROM BookingSeat bs WHERE bs.showtimeId = :showtimeId")
+    List<Integer> findSeatIndexesByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    // Which of the given seats of a showtime have rows, to check a seat map that refused them
+    @Query("SELECT bs.seatIndex FROM BookingSeat bs WHERE bs.showtimeId = :showtimeId AND bs.seatIndex IN :seatIndexes")
+    List<Integer> findTakenSeatIndexes(@Param("showtimeId") Long showtimeId,
+                                       @Param("seatIndexes") Collection<Integer> seatIndexes);
+
+    // Seats of one booking
+    @Query("SELECT bs.seatIndex FROM BookingSeat bs WHERE bs.booking.id = :bookingId ORDER BY bs.seatIndex")
+    List<Integer> findSeatIndexesByBookingId(@Param("bookingId") Long bookingId);
+
+    // Seats of several bookings, for listing them in one statement
+    @Query("SELECT bs FROM BookingSeat bs WHERE bs.booking.id IN :bookingIds ORDER BY bs.seatIndex")
+    List<BookingSeat> findByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Free the seats of a released booking in one statement
+    @Modifying
+    @Query("DELETE FROM BookingSeat bs WHERE bs.booking.id = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    // Free the seats of a batch of expired holds
+    @Modifying
+    @Query("DELETE FROM BookingSeat bs WHERE bs.booking.id IN :bookingIds")
+    int deleteByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,17 @@
+package com.amanda.cinema.repository;
+
+import com.amanda.cinema.model.Hall;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HallRepository extends JpaRepository<Hall, Long> {
+
+    // All halls by name
+    List<Hall> findAllByOrderByNameAsc();
+
+    // Check for a name clash
+    boolean existsByNameIgnoreCase(String name);
+}
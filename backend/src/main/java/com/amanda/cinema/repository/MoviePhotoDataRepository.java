@@ -0,0 +1,24 @@
+package com.amanda.cinema.repository;
+
+import com.amanda.cinema.model.MoviePhotoData;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MoviePhotoDataRepository extends JpaRepository<MoviePhotoData, Long> {
+
+    // Find photos whose bytes are still inline, in id order, for the storage migration
+    @Query("SELECT d.id FROM MoviePhotoData d WHERE d.id > :afterId AND d.photoData IS NOT NULL ORDER BY d.id")
+    List<Long> findIdsWithInlineData(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Drop inline bytes once they have been moved to PhotoStorage
+    @Modifying
+    @Query(value = "UPDATE movie_photos SET photo_data = NULL WHERE id = :id", nativeQuery = true)
+    int clearPhotoData(@Param("id") Long id);
+}
@@ -1,11 +1,16 @@
 package com.amanda.cinema.repository;
 
+import com.amanda.cinema.dto.PhotoRefDTO;
 import com.amanda.cinema.model.MoviePhoto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,52 @@ public interface MoviePhotoRepository extends JpaRepository<MoviePhoto, Long> {
     @Query("SELECT mp FROM MoviePhoto mp WHERE mp.movie.id = :movieId AND mp.isPrimary = true")
     Optional<MoviePhoto> findPrimaryPhotoByMovieId(@Param("movieId") Long movieId);
 
+    // Find photo references (no image bytes) for a movie
+    @Query("SELECT new com.amanda.cinema.dto.PhotoRefDTO(mp.movie.id, mp.id, mp.isPrimary, mp.contentType, mp.contentHash, mp.sizeBytes) " +
+            "FROM MoviePhoto mp WHERE mp.movie.id = :movieId ORDER BY mp.id")
+    List<PhotoRefDTO> findPhotoRefsByMovieId(@Param("movieId") Long movieId);
+
+    // Find a single photo reference (no image bytes)
+    @Query("SELECT new com.amanda.cinema.dto.PhotoRefDTO(mp.movie.id, mp.id, mp.isPrimary, mp.contentType, mp.contentHash, mp.sizeBytes) " +
+            "FROM MoviePhoto mp WHERE mp.id = :photoId")
+    Optional<PhotoRefDTO> findPhotoRefById(@Param("photoId") Long photoId);
+
+    // Find primary photo references for a batch of movies in a single query
+    @Query("SELECT new com.amanda.cinema.dto.PhotoRefDTO(mp.movie.id, mp.id, mp.isPrimary, mp.contentType, mp.contentHash, mp.sizeBytes) " +
+            "FROM MoviePhoto mp WHERE mp.movie.id IN :movieIds AND mp.isPrimary = true")
+    List<PhotoRefDTO> findPrimaryPhotoRefsByMovieIds(@Param("movieIds") Collection<Long> movieIds);
+
+    // Count photos sharing the same stored content
+    long countByContentHash(String contentHash);
+
+    // Clear the primary flag on every photo of a movie in one statement
+    @Modifying
+    @Query("UPDATE MoviePhoto mp SET mp.isPrimary = false WHERE mp.movie.id = :movieId AND mp.isPrimary = true")
+    int clearPrimaryByMovieId(@Param("movieId") Long movieId);
+
+    // Point a photo at content moved into PhotoStorage
+    @Modifying
+    @Query("UPDATE MoviePhoto mp SET mp.contentHash = :contentHash, mp.sizeBytes = :sizeBytes, " +
+            "mp.contentType = :contentType WHERE mp.id = :id")
+    int updateStoredContent(@Param("id") Long id,
+                            @Param("contentHash") String contentHash,
+                            @Param("sizeBytes") Long sizeBytes,
+                            @Param("contentType") String contentType);
+
+    // Find stored photos without a content type, in id order: migrated before the type was recorded
+    @Query("SELECT new com.amanda.cinema.dto.PhotoRefDTO(mp.movie.id, mp.id, mp.isPrimary, mp.contentType, mp.contentHash, mp.sizeBytes) " +
+            "FROM MoviePhoto mp WHERE mp.id > :afterId AND mp.contentHash IS NOT NULL AND mp.contentType IS NULL ORDER BY mp.id")
+    List<PhotoRefDTO> findStoredPhotoRefsWithoutContentType(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE MoviePhoto mp SET mp.contentType = :contentType WHERE mp.id = :id")
+    int updateContentType(@Param("id") Long id, @Param("contentType") String contentType);
+
+    // Record that derivatives cannot be generated for a photo, so backfills stop queueing it
+    @Modifying
+    @Query("UPDATE MoviePhoto mp SET mp.derivativesFailedAt = :failedAt WHERE mp.id = :id")
+    int markDerivativesFailed(@Param("id") Long id, @Param("failedAt") LocalDateTime failedAt);
+
     // Delete all photos for a movie
     void deleteByMovieId(Long movieId);
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.amanda.cinema.repository;
+
+import com.amanda.cinema.model.MoviePhotoVariant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MoviePhotoVariantRepository extends JpaRepository<MoviePhotoVariant, Long> {
+
+    // Find a specific derivative of a photo
+    Optional<MoviePhotoVariant> findByPhotoIdAndVariant(Long photoId, String variant);
+
+    // Find the variants already generated for a photo
+    @Query("SELECT v.variant FROM MoviePhotoVariant v WHERE v.photo.id = :photoId")
+    List<String> findVariantNamesByPhotoId(@Param("photoId") Long photoId);
+
+    // Find stored content of every variant of a movie's photos
+    @Query("SELECT v.contentHash FROM MoviePhotoVariant v WHERE v.photo.movie.id = :movieId")
+    List<String> findContentHashesByMovieId(@Param("movieId") Long movieId);
+
+    // Find stored content of every variant of a photo
+    @Query("SELECT v.contentHash FROM MoviePhotoVariant v WHERE v.photo.id = :photoId")
+    List<String> findContentHashesByPhotoId(@Param("photoId") Long photoId);
+
+    // Count variants sharing the same stored content
+    long countByContentHash(String contentHash);
+
+    // Find photos, in id order, that are missing at least one variant and have not failed to decode
+    @Query("SELECT mp.id FROM MoviePhoto mp WHERE mp.id > :afterId AND mp.derivativesFailedAt IS NULL AND " +
+            "(SELECT COUNT(v) FROM MoviePhotoVariant v WHERE v.photo.id = mp.id) < :variantCount " +
+            "ORDER BY mp.id")
+    List<Long> findPhotoIdsMissingVariants(@Param("afterId") Long afterId,
+                                           @Param("variantCount") long variantCount,
+                                           Pageable pageable);
+}
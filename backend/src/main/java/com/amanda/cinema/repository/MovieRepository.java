@@ -1,13 +1,24 @@
 package com.amanda.cinema.repository;
 
+import com.amanda.cinema.dto.VersionStamp;
 import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.search.MovieFacetDocument;
+import com.amanda.cinema.search.MovieSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
@@ -29,6 +40,56 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     @Query("SELECT m FROM Movie m WHERE m.status = 'COMING_SOON' AND m.showStartDate > :currentDate")
     List<Movie> findComingSoon(@Param("currentDate") LocalDate currentDate);
 
+    // Active movies with a duration whose show window overlaps the dates, for the schedule optimizer;
+    // a missing show date leaves that side of the window open
+    @Query("SELECT m FROM Movie m WHERE m.status = 'ACTIVE' AND m.durationMinutes IS NOT NULL " +
+            "AND (m.showStartDate IS NULL OR m.showStartDate <= :endDate) " +
+            "AND (m.showEndDate IS NULL OR m.showEndDate >= :startDate) ORDER BY m.id")
+    List<Movie> findSchedulable(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Count and latest updatedAt of all movies, for conditional GETs of movie listings
+    @Query("SELECT new com.amanda.cinema.dto.VersionStamp(COUNT(m), MAX(m.updatedAt)) FROM Movie m")
+    VersionStamp findVersion();
+
+    // Version of one movie; count is 0 when it does not exist
+    @Query("SELECT new com.amanda.cinema.dto.VersionStamp(COUNT(m), MAX(m.updatedAt)) FROM Movie m WHERE m.id = :id")
+    VersionStamp findVersionById(@Param("id") Long id);
+
+    // Bump updatedAt for changes stored outside the movie row, such as its photos
+    @Modifying
+    @Query("UPDATE Movie m SET m.updatedAt = :updatedAt WHERE m.id = :id")
+    int touchUpdatedAt(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Keyset page ordered by id, seeking on the primary key instead of an OFFSET scan
+    @Query("SELECT m FROM Movie m WHERE m.id > :afterId ORDER BY m.id")
+    List<Movie> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Every movie in id order for exports, read in fetch-size batches; consume inside a transaction and close
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Movie m ORDER BY m.id")
+    Stream<Movie> streamAll();
+
+    // Searchable columns of every movie, for building the search index
+    @Query("SELECT new com.amanda.cinema.search.MovieSearchDocument(m.id, m.title, m.director, m.cast, m.genre, m.status) " +
+            "FROM Movie m")
+    List<MovieSearchDocument> findSearchDocuments();
+
+    @Query("SELECT new com.amanda.cinema.search.MovieSearchDocument(m.id, m.title, m.director, m.cast, m.genre, m.status) " +
+            "FROM Movie m WHERE m.id IN :ids")
+    List<MovieSearchDocument> findSearchDocumentsByIds(@Param("ids") Collection<Long> ids);
+
+    // Faceted columns of every movie, for building the facet index
+    @Query("SELECT new com.amanda.cinema.search.MovieFacetDocument(m.id, m.genre, m.language, m.rating, m.status) " +
+            "FROM Movie m")
+    List<MovieFacetDocument> findFacetDocuments();
+
+    @Query("SELECT new com.amanda.cinema.search.MovieFacetDocument(m.id, m.genre, m.language, m.rating, m.status) " +
+            "FROM Movie m WHERE m.id IN :ids")
+    List<MovieFacetDocument> findFacetDocumentsByIds(@Param("ids") Collection<Long> ids);
+
     // Search movies by multiple criteria
     @Query("SELECT m FROM Movie m WHERE " +
             "(:title IS NULL OR LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
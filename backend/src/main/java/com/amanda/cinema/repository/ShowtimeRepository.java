@@ -1,13 +1,24 @@
 package com.amanda.cinema.repository;
 
+import com.amanda.cinema.booking.ShowtimeSeating;
+import com.amanda.cinema.dto.ShowtimeDTO;
+import com.amanda.cinema.dto.VersionStamp;
 import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.schedule.ShowtimeSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
@@ -21,6 +32,9 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
     // Find showtimes by movie and date
     List<Showtime> findByMovieIdAndShowDate(Long movieId, LocalDate showDate);
 
+    // Whether any showtime is scheduled in the hall
+    boolean existsByHallId(Long hallId);
+
     // Find showtimes by status
     List<Showtime> findByStatus(String status);
 
@@ -31,4 +45,107 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
     // Find showtimes by date range
     @Query("SELECT s FROM Showtime s WHERE s.showDate BETWEEN :startDate AND :endDate ORDER BY s.showDate, s.startTime")
     List<Showtime> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    String SHOWTIME_DTO_SELECT = "SELECT new com.amanda.cinema.dto.ShowtimeDTO(" +
+            "s.id, m.id, m.title, s.showDate, s.startTime, s.endTime, s.price, s.status, s.hall.id) " +
+            "FROM Showtime s JOIN s.movie m ";
+    String SHOWTIME_DTO_ORDER = "ORDER BY s.showDate, s.startTime, s.id";
+
+    // Projections below select the movie id and title in the same statement as the showtime
+
+    @Query(SHOWTIME_DTO_SELECT + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findAllDTOs();
+
+    @Query(SHOWTIME_DTO_SELECT + "WHERE s.id = :id")
+    Optional<ShowtimeDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SHOWTIME_DTO_SELECT + "WHERE s.showDate = :showDate " + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findDTOsByShowDate(@Param("showDate") LocalDate showDate);
+
+    @Query(SHOWTIME_DTO_SELECT + "WHERE m.id = :movieId " + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findDTOsByMovieId(@Param("movieId") Long movieId);
+
+    @Query(SHOWTIME_DTO_SELECT + "WHERE m.id = :movieId AND s.showDate = :showDate " + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findDTOsByMovieIdAndShowDate(@Param("movieId") Long movieId,
+                                                   @Param("showDate") LocalDate showDate);
+
+    @Query(SHOWTIME_DTO_SELECT + "WHERE s.showDate BETWEEN :startDate AND :endDate " + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findDTOsByDateRange(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    // A showtime's representation includes its movie's title, so versions take the later of the two
+    // updatedAt values
+    String SHOWTIME_VERSION_SELECT = "SELECT new com.amanda.cinema.dto.VersionStamp(COUNT(s), " +
+            "MAX(CASE WHEN m.updatedAt > s.updatedAt THEN m.updatedAt ELSE s.updatedAt END)) " +
+            "FROM Showtime s JOIN s.movie m ";
+
+    // Version of the showtimes matching the listing filters; null filters match everything
+    @Query(SHOWTIME_VERSION_SELECT +
+            "WHERE (:movieId IS NULL OR m.id = :movieId) " +
+            "AND (:showDate IS NULL OR s.showDate = :showDate) " +
+            "AND (:startDate IS NULL OR s.showDate >= :startDate) " +
+            "AND (:endDate IS NULL OR s.showDate <= :endDate)")
+    VersionStamp findVersion(@Param("movieId") Long movieId,
+                             @Param("showDate") LocalDate showDate,
+                             @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate);
+
+    // Version of one showtime; count is 0 when it does not exist
+    @Query(SHOWTIME_VERSION_SELECT + "WHERE s.id = :id")
+    VersionStamp findVersionById(@Param("id") Long id);
+
+    // Seating details for booking; showtimes without a hall are not returned
+    @Query("SELECT new com.amanda.cinema.booking.ShowtimeSeating(s.id, m.title, h.id, h.name, " +
+            "h.seatRows, h.seatsPerRow, s.price, s.status, s.showDate, s.startTime) " +
+            "FROM Showtime s JOIN s.movie m JOIN s.hall h WHERE s.id = :id")
+    Optional<ShowtimeSeating> findSeatingById(@Param("id") Long id);
+
+    // A movie's showtimes in a date range, to skip occurrences a bulk schedule already has
+    @Query("SELECT new com.amanda.cinema.schedule.ShowtimeSlot(s.id, s.movie.id, s.hall.id, s.showDate, s.startTime, s.endTime) " +
+            "FROM Showtime s WHERE s.movie.id = :movieId AND s.showDate BETWEEN :startDate AND :endDate")
+    List<ShowtimeSlot> findSlotsByMovieIdAndDateRange(@Param("movieId") Long movieId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+
+    // Everything scheduled between two dates, for the schedule optimizer to plan around
+    @Query("SELECT new com.amanda.cinema.schedule.ShowtimeSlot(s.id, s.movie.id, s.hall.id, s.showDate, s.startTime, s.endTime) " +
+            "FROM Showtime s WHERE s.showDate BETWEEN :startDate AND :endDate")
+    List<ShowtimeSlot> findSlotsByDateRange(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // Where one showtime runs, to free its range in the hall schedule when it is deleted
+    @Query("SELECT new com.amanda.cinema.schedule.ShowtimeSlot(s.id, s.movie.id, s.hall.id, s.showDate, s.startTime, s.endTime) " +
+            "FROM Showtime s WHERE s.id = :id")
+    Optional<ShowtimeSlot> findSlotById(@Param("id") Long id);
+
+    // Everything scheduled in a hall on a date, to load its interval index
+    @Query("SELECT new com.amanda.cinema.schedule.ShowtimeSlot(s.id, s.movie.id, s.hall.id, s.showDate, s.startTime, s.endTime) " +
+            "FROM Showtime s WHERE s.hall.id = :hallId AND s.showDate = :showDate")
+    List<ShowtimeSlot> findSlotsByHallIdAndShowDate(@Param("hallId") Long hallId,
+                                                    @Param("showDate") LocalDate showDate);
+
+    // First keyset page in (showDate, startTime, id) order, served by ix_showtimes_date_time
+    @Query(SHOWTIME_DTO_SELECT + SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findFirstPage(Limit limit);
+
+    // Keyset page after the given sort key; the leading showDate >= bound keeps it an index seek
+    @Query(SHOWTIME_DTO_SELECT +
+            "WHERE s.showDate >= :showDate AND (s.showDate > :showDate OR " +
+            "(s.startTime > :startTime OR (s.startTime = :startTime AND s.id > :afterId))) " +
+            SHOWTIME_DTO_ORDER)
+    List<ShowtimeDTO> findPageAfter(@Param("showDate") LocalDate showDate,
+                                    @Param("startTime") LocalTime startTime,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    // Streaming variants for exports: rows are read in fetch-size batches and never materialized
+    // as a list; DTOs are not managed, so the persistence context stays empty. Must be consumed
+    // inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SHOWTIME_DTO_SELECT + "WHERE s.showDate >= :currentDate AND s.status = 'ACTIVE' " + SHOWTIME_DTO_ORDER)
+    Stream<ShowtimeDTO> streamUpcomingShowtimes(@Param("currentDate") LocalDate currentDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SHOWTIME_DTO_SELECT + "WHERE s.showDate BETWEEN :startDate AND :endDate " + SHOWTIME_DTO_ORDER)
+    Stream<ShowtimeDTO> streamByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
@@ -1,10 +1,23 @@
 package com.amanda.cinema.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.amanda.cinema.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Keyset page ordered by id
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // [id, tokenEpoch] of every user, for the in-memory token epoch table
+    @Query("SELECT u.id, u.tokenEpoch FROM User u")
+    List<Object[]> findAllTokenEpochs();
 }
@@ -0,0 +1,47 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+
+// Outcome of one bulk schedule: rows written, occurrences already scheduled, and insert throughput
+public class BulkShowtimeResult {
+    private final Long movieId;
+    private final Long hallId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int created;
+    private final int skipped;
+    private final int batches;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public BulkShowtimeResult(Long movieId, Long hallId, LocalDate from, LocalDate to, int created, int skipped,
+                              int batches, long elapsedNanos) {
+        this.movieId = movieId;
+        this.hallId = hallId;
+        this.from = from;
+        this.to = to;
+        this.created = created;
+        this.skipped = skipped;
+        this.batches = batches;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos > 0 ? Math.round(created * 1_000_000_000.0 / elapsedNanos) : 0;
+    }
+
+    public Long getMovieId() { return movieId; }
+
+    public Long getHallId() { return hallId; }
+
+    public String getFrom() { return from.toString(); }
+
+    public String getTo() { return to.toString(); }
+
+    public int getCreated() { return created; }
+
+    public int getSkipped() { return skipped; }
+
+    public int getBatches() { return batches; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public long getRowsPerSecond() { return rowsPerSecond; }
+}
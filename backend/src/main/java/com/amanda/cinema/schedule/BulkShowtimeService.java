@@ -0,0 +1,138 @@
+package com.amanda.cinema.schedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Writes every showtime of a recurrence in one transaction. Rows are persisted directly and the
+// persistence context is flushed and cleared every JDBC batch, so Hibernate sends them as insert
+// batches over sequence-allocated ids and memory stays at one batch however long the schedule.
+// Every occurrence is reserved in the hall schedule before the first insert, so a clash with any
+// other showtime rejects the whole request without writing anything.
+@Component
+public class BulkShowtimeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkShowtimeService.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final HallScheduleIndex hallScheduleIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRows;
+
+    public BulkShowtimeService(ShowtimeRepository showtimeRepository,
+                               HallScheduleIndex hallScheduleIndex,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                               @Value("${showtime.bulk.max-rows:5000}") int maxRows) {
+        this.showtimeRepository = showtimeRepository;
+        this.hallScheduleIndex = hallScheduleIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRows = maxRows;
+    }
+
+    // Create the recurrence's showtimes for the movie, in the hall if given. Occurrences the movie
+    // already has at the same date, time and hall are skipped, so a repeated request is harmless;
+    // any other overlap in the hall throws ShowtimeConflictException.
+    public BulkShowtimeResult generate(Long movieId, Long hallId, ShowtimeRecurrence recurrence) {
+        long count = recurrence.count();
+        if (count > maxRows) {
+            throw new IllegalArgumentException("Pattern produces " + count
+                    + " showtimes; at most " + maxRows + " per request");
+        }
+        List<LocalDateTime> occurrences = recurrence.occurrences();
+
+        long started = System.nanoTime();
+        int[] counts = transactionTemplate.execute(status -> {
+            Set<LocalDateTime> scheduled = new HashSet<>();
+            for (ShowtimeSlot slot : showtimeRepository.findSlotsByMovieIdAndDateRange(movieId,
+                    recurrence.getFrom(), recurrence.getTo())) {
+                if (Objects.equals(slot.getHallId(), hallId)) {
+                    scheduled.add(slot.getShowDate().atTime(slot.getStartTime()));
+                }
+            }
+
+            List<ShowtimeSlot> slots = new ArrayList<>();
+            for (LocalDateTime occurrence : occurrences) {
+                if (scheduled.add(occurrence)) {
+                    slots.add(new ShowtimeSlot(null, movieId, hallId, occurrence.toLocalDate(),
+                            occurrence.toLocalTime(), recurrence.endOf(occurrence.toLocalTime())));
+                }
+            }
+
+            int batches = insert(slots, recurrence.getPrice(), recurrence.getStatus());
+            int created = slots.size();
+            return new int[] {created, occurrences.size() - created, batches};
+        });
+
+        BulkShowtimeResult result = new BulkShowtimeResult(movieId, hallId, recurrence.getFrom(), recurrence.getTo(),
+                counts[0], counts[1], counts[2], System.nanoTime() - started);
+        logger.info("Bulk schedule for movie {} created {} showtimes ({} skipped) in {} batches, {} ms, {} rows/s",
+                movieId, result.getCreated(), result.getSkipped(), result.getBatches(), result.getElapsedMillis(),
+                result.getRowsPerSecond());
+        return result;
+    }
+
+    // Insert the slots as showtimes in the current transaction and return the number of JDBC
+    // batches. Every slot with a hall is reserved first, so nothing is written if any would clash.
+    int insert(List<ShowtimeSlot> slots, BigDecimal price, String status) {
+        List<HallScheduleIndex.Reservation> reservations = new ArrayList<>(slots.size());
+        for (ShowtimeSlot slot : slots) {
+            reservations.add(slot.getHallId() != null ? hallScheduleIndex.reserve(slot) : null);
+        }
+
+        int created = 0;
+        int batches = 0;
+        for (ShowtimeSlot slot : slots) {
+            Showtime showtime = new Showtime();
+            // References only; clear() detaches them, so they are looked up again per row
+            showtime.setMovie(entityManager.getReference(Movie.class, slot.getMovieId()));
+            if (slot.getHallId() != null) {
+                showtime.setHall(entityManager.getReference(Hall.class, slot.getHallId()));
+            }
+            showtime.setShowDate(slot.getShowDate());
+            showtime.setStartTime(slot.getStartTime());
+            showtime.setEndTime(slot.getEndTime());
+            showtime.setPrice(price);
+            showtime.setStatus(status);
+            entityManager.persist(showtime);
+            if (reservations.get(created) != null) {
+                reservations.get(created).assign(showtime.getId());
+            }
+
+            if (++created % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                batches++;
+            }
+        }
+        if (created % batchSize != 0) {
+            entityManager.flush();
+            entityManager.clear();
+            batches++;
+        }
+        return batches;
+    }
+}
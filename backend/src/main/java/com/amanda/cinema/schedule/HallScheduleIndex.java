@@ -0,0 +1,357 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.config.VirtualThreads;
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+// The time each hall is in use, per hall and date, loaded from the showtimes table on first use.
+// Writers reserve a showtime's range here inside their transaction: the overlap check and the
+// claim happen under the day's lock, so two admins cannot both book the same gap, and the claim
+// is dropped again if the transaction rolls back. Changes to rows already committed are applied
+// inside the map's bin lock, so they cannot slip in between a concurrent load's read and insert.
+@Component
+public class HallScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HallScheduleIndex.class);
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final long PURGE_INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    private final ShowtimeRepository showtimeRepository;
+    private final TransactionTemplate loadTransactionTemplate;
+    private final int bufferMinutes;
+    private final ConcurrentMap<Key, HallDay> days = new ConcurrentHashMap<>();
+
+    public HallScheduleIndex(ShowtimeRepository showtimeRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${showtime.cleaning-buffer-minutes:15}") int bufferMinutes) {
+        this.showtimeRepository = showtimeRepository;
+        // Loads run outside the caller's transaction, which may already hold unflushed or
+        // uncommitted showtime changes that must not end up in the index as committed rows
+        this.loadTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransactionTemplate.setReadOnly(true);
+        this.bufferMinutes = Math.max(0, bufferMinutes);
+    }
+
+    public int getBufferMinutes() { return bufferMinutes; }
+
+    // The showtimes the slot would overlap, without claiming it; the slot's own id is ignored
+    public List<ShowtimeSlot> conflicts(ShowtimeSlot slot) {
+        return day(new Key(slot.getHallId(), slot.getShowDate())).conflicts(slot, bufferMinutes * 60);
+    }
+
+    // Claim the slot's range in its hall for the current transaction, or throw
+    // ShowtimeConflictException naming what is in the way. The claim becomes permanent on commit
+    // (replacing the showtime's previous range that day, if any) and is released on rollback.
+    public Reservation reserve(ShowtimeSlot slot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Showtime reservations require a transaction");
+        }
+
+        Key key = new Key(slot.getHallId(), slot.getShowDate());
+        Reservation reservation;
+        HallDay day;
+        do {
+            day = day(key);
+            // Null if the day was purged after the lookup; load it again
+            reservation = day.reserve(slot, bufferMinutes * 60);
+        } while (reservation == null);
+
+        HallDay reservedDay = day;
+        Reservation claimed = reservation;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reservedDay.complete(claimed.entry, status == STATUS_COMMITTED);
+            }
+        });
+        return reservation;
+    }
+
+    // Move a showtime from one slot to another; either may be without a hall. The old range stays
+    // taken until the transaction commits.
+    public Reservation move(ShowtimeSlot previous, ShowtimeSlot next) {
+        Reservation reservation = next.getHallId() != null ? reserve(next) : null;
+        boolean sameDay = Objects.equals(previous.getHallId(), next.getHallId())
+                && Objects.equals(previous.getShowDate(), next.getShowDate());
+        if (previous.getHallId() != null && (reservation == null || !sameDay)) {
+            removeAfterCommit(previous);
+        }
+        return reservation;
+    }
+
+    // Free a deleted showtime's range once the transaction commits
+    public void removeAfterCommit(ShowtimeSlot slot) {
+        if (slot.getHallId() == null) {
+            return;
+        }
+        Key key = new Key(slot.getHallId(), slot.getShowDate());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                days.computeIfPresent(key, (k, day) -> {
+                    day.remove(slot.getId());
+                    return day;
+                });
+            }
+        });
+    }
+
+    // Deleting a movie deletes its showtimes with it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getType() != MovieChangedEvent.Type.DELETED) {
+            return;
+        }
+        for (Key key : days.keySet()) {
+            days.computeIfPresent(key, (k, day) -> {
+                day.removeMovies(event.getMovieIds());
+                return day;
+            });
+        }
+    }
+
+    // Drop past days nobody is writing to; they are loaded again if edited
+    @Scheduled(fixedDelay = PURGE_INTERVAL_MILLIS)
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        int before = days.size();
+        for (Key key : days.keySet()) {
+            if (key.date.isBefore(today)) {
+                days.computeIfPresent(key, (k, day) -> day.retireIfIdle() ? null : day);
+            }
+        }
+        logger.debug("Purged {} past hall days, {} loaded", before - days.size(), days.size());
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private HallDay day(Key key) {
+        HallDay day = days.get(key);
+        return day != null ? day : VirtualThreads.limitPinned(() -> days.computeIfAbsent(key, this::load));
+    }
+
+    private HallDay load(Key key) {
+        List<ShowtimeSlot> slots = loadTransactionTemplate.execute(status ->
+                showtimeRepository.findSlotsByHallIdAndShowDate(key.hallId, key.date));
+        HallDay day = new HallDay(key.hallId, key.date);
+        for (ShowtimeSlot slot : slots) {
+            day.add(slot);
+        }
+        logger.debug("Schedule of hall {} on {} loaded, {} showtimes", key.hallId, key.date, slots.size());
+        return day;
+    }
+
+    private static int startSecond(ShowtimeSlot slot) {
+        return slot.getStartTime().toSecondOfDay();
+    }
+
+    // Showtimes are kept on one date; one whose end is not after its start runs to midnight
+    private static int endSecond(ShowtimeSlot slot) {
+        return slot.getEndTime().isAfter(slot.getStartTime()) ? slot.getEndTime().toSecondOfDay() : SECONDS_PER_DAY;
+    }
+
+    // A claimed range; creators assign the new showtime's id once it has one
+    public static class Reservation {
+        private final HallDay day;
+        private final Entry entry;
+
+        private Reservation(HallDay day, Entry entry) {
+            this.day = day;
+            this.entry = entry;
+        }
+
+        public void assign(Long showtimeId) {
+            day.assign(entry, showtimeId);
+        }
+    }
+
+    // One hall's showtimes on one date in a TreeMap by start. Ranges in a day are short and
+    // bounded, so a range can only overlap entries that start at most the longest entry's length
+    // (plus the buffer) before it: a conflict check is one subMap seek, O(log n + k), even with
+    // legacy rows that already overlap.
+    private static class HallDay {
+        private final Long hallId;
+        private final LocalDate date;
+        // Keyed by start second in the high half and a sequence number in the low half
+        private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+        private final Map<Long, Entry> committedById = new HashMap<>();
+        private int sequence;
+        private int maxLength;
+        private int pending;
+        private boolean retired;
+
+        HallDay(Long hallId, LocalDate date) {
+            this.hallId = hallId;
+            this.date = date;
+        }
+
+        synchronized List<ShowtimeSlot> conflicts(ShowtimeSlot slot, int bufferSeconds) {
+            int start = startSecond(slot);
+            int end = endSecond(slot);
+            List<ShowtimeSlot> conflicts = new ArrayList<>();
+            for (Entry entry : entries.subMap(key(start - maxLength - bufferSeconds, 0), true,
+                    key(end + bufferSeconds, 0), false).values()) {
+                boolean self = slot.getId() != null && slot.getId().equals(entry.showtimeId);
+                if (!self && entry.end + bufferSeconds > start) {
+                    conflicts.add(entry.toSlot(hallId, date));
+                }
+            }
+            return conflicts;
+        }
+
+        synchronized Reservation reserve(ShowtimeSlot slot, int bufferSeconds) {
+            if (retired) {
+                return null;
+            }
+            List<ShowtimeSlot> conflicts = conflicts(slot, bufferSeconds);
+            if (!conflicts.isEmpty()) {
+                throw new ShowtimeConflictException(slot, bufferSeconds / 60, conflicts);
+            }
+            Entry entry = insert(slot);
+            entry.pending = true;
+            pending++;
+            return new Reservation(this, entry);
+        }
+
+        synchronized void add(ShowtimeSlot slot) {
+            Entry entry = insert(slot);
+            committedById.put(entry.showtimeId, entry);
+        }
+
+        synchronized void assign(Entry entry, Long showtimeId) {
+            entry.showtimeId = showtimeId;
+        }
+
+        // Keep a reservation whose transaction committed, dropping the showtime's earlier range
+        // that day, or forget one whose transaction rolled back
+        synchronized void complete(Entry entry, boolean committed) {
+            entry.pending = false;
+            pending--;
+            if (!committed) {
+                entries.remove(entry.key);
+                return;
+            }
+            if (entry.showtimeId != null) {
+                Entry replaced = committedById.put(entry.showtimeId, entry);
+                if (replaced != null) {
+                    entries.remove(replaced.key);
+                }
+            }
+        }
+
+        synchronized void remove(Long showtimeId) {
+            Entry entry = committedById.remove(showtimeId);
+            if (entry != null) {
+                entries.remove(entry.key);
+            }
+        }
+
+        synchronized void removeMovies(Collection<Long> movieIds) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (!entry.pending && movieIds.contains(entry.movieId)) {
+                    it.remove();
+                    if (entry.showtimeId != null) {
+                        committedById.remove(entry.showtimeId, entry);
+                    }
+                }
+            }
+        }
+
+        synchronized boolean retireIfIdle() {
+            retired = pending == 0;
+            return retired;
+        }
+
+        private Entry insert(ShowtimeSlot slot) {
+            Entry entry = new Entry(key(startSecond(slot), sequence++ & Integer.MAX_VALUE), slot);
+            entries.put(entry.key, entry);
+            maxLength = Math.max(maxLength, entry.end - entry.start);
+            return entry;
+        }
+
+        private static long key(int startSecond, int sequence) {
+            return ((long) startSecond << 32) | sequence;
+        }
+    }
+
+    private static class Entry {
+        private final long key;
+        private final Long movieId;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final int start;
+        private final int end;
+        private Long showtimeId;
+        private boolean pending;
+
+        Entry(long key, ShowtimeSlot slot) {
+            this.key = key;
+            this.movieId = slot.getMovieId();
+            this.startTime = slot.getStartTime();
+            this.endTime = slot.getEndTime();
+            this.start = startSecond(slot);
+            this.end = endSecond(slot);
+            this.showtimeId = slot.getId();
+        }
+
+        ShowtimeSlot toSlot(Long hallId, LocalDate date) {
+            return new ShowtimeSlot(showtimeId, movieId, hallId, date, startTime, endTime);
+        }
+    }
+
+    private static class Key {
+        private final Long hallId;
+        private final LocalDate date;
+
+        Key(Long hallId, LocalDate date) {
+            this.hallId = hallId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hallId.equals(other.hallId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hallId, date);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.amanda.cinema.schedule;
+
+// Every optimizer run slot is taken; the request may be retried once one finishes
+public class OptimizerBusyException extends RuntimeException {
+
+    public OptimizerBusyException(int maxConcurrentRuns) {
+        super("The schedule optimizer is already running " + maxConcurrentRuns
+                + " plan(s); try again when one finishes");
+    }
+}
@@ -0,0 +1,39 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// The optimizer's screenings for one day, with how well they meet the targets and prime time
+public class PlannedDay {
+    private final LocalDate date;
+    private final List<ShowtimeSlot> screenings;
+    private final int wantedScreenings;
+    private final int primeTimeMinutes;
+    private final int primeTimeCoveredMinutes;
+    private final Map<Long, Integer> shortfalls;
+
+    public PlannedDay(LocalDate date, List<ShowtimeSlot> screenings, int wantedScreenings,
+                      int primeTimeMinutes, int primeTimeCoveredMinutes, Map<Long, Integer> shortfalls) {
+        this.date = date;
+        this.screenings = screenings;
+        this.wantedScreenings = wantedScreenings;
+        this.primeTimeMinutes = primeTimeMinutes;
+        this.primeTimeCoveredMinutes = primeTimeCoveredMinutes;
+        this.shortfalls = shortfalls;
+    }
+
+    public String getDate() { return date.toString(); }
+
+    public List<ShowtimeSlot> getScreenings() { return screenings; }
+
+    public int getWantedScreenings() { return wantedScreenings; }
+
+    // Prime time in the halls' free lanes, summed over halls
+    public int getPrimeTimeMinutes() { return primeTimeMinutes; }
+
+    public int getPrimeTimeCoveredMinutes() { return primeTimeCoveredMinutes; }
+
+    // Movie id to the screenings that did not fit
+    public Map<Long, Integer> getShortfalls() { return shortfalls; }
+}
@@ -0,0 +1,506 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Packs screenings into the free time of each hall, day by day. Each day is an independent
+// problem: every movie wants a number of screenings, every hall offers one or more free lanes
+// (opening hours minus the showtimes already there), and a plan scores one point per prime-time
+// minute screened plus a larger, fixed amount per screening placed, so meeting the targets comes
+// first and prime-time coverage decides between plans that do.
+//
+// A lane holds its screenings back to back, each start rounded up to the step and followed by the
+// cleaning buffer; the block is then slid within the lane to the start that covers the most prime
+// time. The search is a threshold-accepting local search (insert, replace, relocate and swap
+// moves) from a greedy start. Days and independent restarts of each day run as fork/join tasks;
+// restart seeds derive from the date, so a plan does not depend on the number of threads.
+public class ScheduleOptimizer {
+
+    // Worst score loss a move may cause early on; shrinks to zero by the last iteration
+    private static final int INITIAL_THRESHOLD = 30;
+
+    private final int bufferMinutes;
+    private final int stepMinutes;
+    private final int iterations;
+    private final int restarts;
+
+    public ScheduleOptimizer(int bufferMinutes, int stepMinutes, int iterations, int restarts) {
+        if (stepMinutes <= 0 || iterations < 0 || restarts <= 0) {
+            throw new IllegalArgumentException("Step and restarts must be positive");
+        }
+        this.bufferMinutes = bufferMinutes;
+        this.stepMinutes = stepMinutes;
+        this.iterations = iterations;
+        this.restarts = restarts;
+    }
+
+    // Plan every day on the pool; prime time is [primeStart, primeEnd) in minutes of the day
+    public List<PlannedDay> plan(List<Day> days, int primeStart, int primeEnd, ForkJoinPool pool) {
+        return pool.invoke(new PlanTask(days, primeStart, primeEnd));
+    }
+
+    private class PlanTask extends RecursiveTask<List<PlannedDay>> {
+        private final List<Day> days;
+        private final int primeStart;
+        private final int primeEnd;
+
+        PlanTask(List<Day> days, int primeStart, int primeEnd) {
+            this.days = days;
+            this.primeStart = primeStart;
+            this.primeEnd = primeEnd;
+        }
+
+        @Override
+        protected List<PlannedDay> compute() {
+            List<RestartTask> tasks = new ArrayList<>(days.size() * restarts);
+            for (Day day : days) {
+                for (int restart = 0; restart < restarts; restart++) {
+                    tasks.add(new RestartTask(day, primeStart, primeEnd, restart));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            List<PlannedDay> planned = new ArrayList<>(days.size());
+            for (int d = 0; d < days.size(); d++) {
+                Search best = null;
+                for (int restart = 0; restart < restarts; restart++) {
+                    Search search = tasks.get(d * restarts + restart).join();
+                    if (best == null || search.bestScore > best.bestScore) {
+                        best = search;
+                    }
+                }
+                planned.add(best.toPlannedDay());
+            }
+            return planned;
+        }
+    }
+
+    private class RestartTask extends RecursiveTask<Search> {
+        private final Day day;
+        private final int primeStart;
+        private final int primeEnd;
+        private final int restart;
+
+        RestartTask(Day day, int primeStart, int primeEnd, int restart) {
+            this.day = day;
+            this.primeStart = primeStart;
+            this.primeEnd = primeEnd;
+            this.restart = restart;
+        }
+
+        @Override
+        protected Search compute() {
+            Search search = new Search(day, primeStart, primeEnd, day.date.toEpochDay() * 31 + restart);
+            search.run(restart == 0);
+            return search;
+        }
+    }
+
+    // One restart of one day's search
+    private class Search {
+        private final Day day;
+        private final Random random;
+        private final int primeStart;
+        private final int primeEnd;
+        private final int fillWeight;
+        private final int[] duration;
+        // Minutes from one screening's start to the next one's in the same lane
+        private final int[] pitch;
+        private final int[] wanted;
+        private final int[] placed;
+        private final int[][] sequence;
+        private final int[] size;
+        private final int[] laneCover;
+        private final int[] scratchA;
+        private final int[] scratchB;
+        private int score;
+
+        private int bestScore = Integer.MIN_VALUE;
+        private int[][] bestSequence;
+        private int[] bestSize;
+
+        Search(Day day, int primeStart, int primeEnd, long seed) {
+            this.day = day;
+            this.random = new Random(seed);
+            this.primeStart = primeStart;
+            this.primeEnd = primeEnd;
+            // One screening outweighs all the prime time a lane can gain or lose by making room for it
+            this.fillWeight = Math.max(0, primeEnd - primeStart) + 1;
+
+            int films = day.films.size();
+            duration = new int[films];
+            pitch = new int[films];
+            wanted = new int[films];
+            placed = new int[films];
+            int shortest = Integer.MAX_VALUE;
+            for (int f = 0; f < films; f++) {
+                Film film = day.films.get(f);
+                duration[f] = film.durationMinutes;
+                pitch[f] = ceilStep(film.durationMinutes + bufferMinutes);
+                wanted[f] = film.wanted;
+                shortest = Math.min(shortest, duration[f]);
+            }
+
+            int lanes = day.lanes.size();
+            sequence = new int[lanes][];
+            size = new int[lanes];
+            laneCover = new int[lanes];
+            int widest = 0;
+            for (int l = 0; l < lanes; l++) {
+                Lane lane = day.lanes.get(l);
+                int capacity = films == 0 ? 0 : (lane.end - lane.start) / Math.max(1, shortest) + 1;
+                sequence[l] = new int[capacity];
+                widest = Math.max(widest, capacity);
+            }
+            scratchA = new int[widest + 1];
+            scratchB = new int[widest + 1];
+        }
+
+        void run(boolean longestFirst) {
+            if (day.films.isEmpty() || day.lanes.isEmpty()) {
+                snapshot();
+                return;
+            }
+            construct(longestFirst);
+            snapshot();
+
+            for (int i = 0; i < iterations; i++) {
+                int threshold = (int) ((long) INITIAL_THRESHOLD * (iterations - i) / iterations);
+                switch (random.nextInt(4)) {
+                    case 0 -> tryInsert(threshold);
+                    case 1 -> tryReplace(threshold);
+                    case 2 -> tryRelocate(threshold);
+                    default -> trySwap(threshold);
+                }
+                if (score > bestScore) {
+                    snapshot();
+                }
+            }
+        }
+
+        // Greedy start: each wanted screening, longest first or shuffled, at the end of the lane
+        // where it adds the most
+        private void construct(boolean longestFirst) {
+            List<Integer> units = new ArrayList<>();
+            for (int f = 0; f < duration.length; f++) {
+                for (int n = 0; n < wanted[f]; n++) {
+                    units.add(f);
+                }
+            }
+            Collections.shuffle(units, random);
+            if (longestFirst) {
+                units.sort((a, b) -> Integer.compare(duration[b], duration[a]));
+            }
+
+            for (int film : units) {
+                int bestLane = -1;
+                int bestCover = Integer.MIN_VALUE;
+                for (int l = 0; l < sequence.length; l++) {
+                    if (size[l] == sequence[l].length) {
+                        continue;
+                    }
+                    System.arraycopy(sequence[l], 0, scratchA, 0, size[l]);
+                    scratchA[size[l]] = film;
+                    int cover = evaluate(l, scratchA, size[l] + 1);
+                    if (cover >= 0 && cover - laneCover[l] > bestCover) {
+                        bestCover = cover - laneCover[l];
+                        bestLane = l;
+                    }
+                }
+                if (bestLane >= 0) {
+                    sequence[bestLane][size[bestLane]++] = film;
+                    laneCover[bestLane] += bestCover;
+                    placed[film]++;
+                    score += fillWeight + bestCover;
+                }
+            }
+        }
+
+        private void tryInsert(int threshold) {
+            int film = random.nextInt(duration.length);
+            int lane = random.nextInt(sequence.length);
+            if (placed[film] >= wanted[film] || size[lane] == sequence[lane].length) {
+                return;
+            }
+            int at = random.nextInt(size[lane] + 1);
+            int n = copyInserting(sequence[lane], size[lane], at, film, scratchA);
+            int cover = evaluate(lane, scratchA, n);
+            if (cover >= 0 && fillWeight + cover - laneCover[lane] >= -threshold) {
+                placed[film]++;
+                score += fillWeight;
+                accept(lane, scratchA, n, cover);
+            }
+        }
+
+        private void tryReplace(int threshold) {
+            int lane = random.nextInt(sequence.length);
+            int film = random.nextInt(duration.length);
+            if (size[lane] == 0 || placed[film] >= wanted[film]) {
+                return;
+            }
+            int at = random.nextInt(size[lane]);
+            int previous = sequence[lane][at];
+            if (previous == film) {
+                return;
+            }
+            System.arraycopy(sequence[lane], 0, scratchA, 0, size[lane]);
+            scratchA[at] = film;
+            int cover = evaluate(lane, scratchA, size[lane]);
+            if (cover >= 0 && cover - laneCover[lane] >= -threshold) {
+                placed[previous]--;
+                placed[film]++;
+                accept(lane, scratchA, size[lane], cover);
+            }
+        }
+
+        // Move one screening to another lane or another position in its own
+        private void tryRelocate(int threshold) {
+            int from = random.nextInt(sequence.length);
+            int to = random.nextInt(sequence.length);
+            if (size[from] == 0) {
+                return;
+            }
+            int at = random.nextInt(size[from]);
+            int film = sequence[from][at];
+            int n = copyRemoving(sequence[from], size[from], at, scratchA);
+
+            if (from == to) {
+                int m = copyInserting(scratchA, n, random.nextInt(n + 1), film, scratchB);
+                int cover = evaluate(from, scratchB, m);
+                if (cover >= 0 && cover - laneCover[from] >= -threshold) {
+                    accept(from, scratchB, m, cover);
+                }
+                return;
+            }
+
+            if (size[to] == sequence[to].length) {
+                return;
+            }
+            int m = copyInserting(sequence[to], size[to], random.nextInt(size[to] + 1), film, scratchB);
+            int coverFrom = evaluate(from, scratchA, n);
+            int coverTo = evaluate(to, scratchB, m);
+            if (coverFrom >= 0 && coverTo >= 0
+                    && coverFrom - laneCover[from] + coverTo - laneCover[to] >= -threshold) {
+                accept(from, scratchA, n, coverFrom);
+                accept(to, scratchB, m, coverTo);
+            }
+        }
+
+        private void trySwap(int threshold) {
+            int a = random.nextInt(sequence.length);
+            int b = random.nextInt(sequence.length);
+            if (size[a] == 0 || size[b] == 0) {
+                return;
+            }
+            int i = random.nextInt(size[a]);
+            int j = random.nextInt(size[b]);
+            int filmA = sequence[a][i];
+            int filmB = sequence[b][j];
+            if (filmA == filmB) {
+                return;
+            }
+
+            if (a == b) {
+                System.arraycopy(sequence[a], 0, scratchA, 0, size[a]);
+                scratchA[i] = filmB;
+                scratchA[j] = filmA;
+                int cover = evaluate(a, scratchA, size[a]);
+                if (cover >= 0 && cover - laneCover[a] >= -threshold) {
+                    accept(a, scratchA, size[a], cover);
+                }
+                return;
+            }
+
+            System.arraycopy(sequence[a], 0, scratchA, 0, size[a]);
+            scratchA[i] = filmB;
+            System.arraycopy(sequence[b], 0, scratchB, 0, size[b]);
+            scratchB[j] = filmA;
+            int coverA = evaluate(a, scratchA, size[a]);
+            int coverB = evaluate(b, scratchB, size[b]);
+            if (coverA >= 0 && coverB >= 0 && coverA - laneCover[a] + coverB - laneCover[b] >= -threshold) {
+                accept(a, scratchA, size[a], coverA);
+                accept(b, scratchB, size[b], coverB);
+            }
+        }
+
+        private void accept(int lane, int[] films, int n, int cover) {
+            System.arraycopy(films, 0, sequence[lane], 0, n);
+            size[lane] = n;
+            score += cover - laneCover[lane];
+            laneCover[lane] = cover;
+        }
+
+        // Prime-time minutes the lane covers with these screenings at its best start, or -1 if
+        // they do not fit
+        private int evaluate(int lane, int[] films, int n) {
+            return n == 0 ? 0 : (int) (bestStart(day.lanes.get(lane), films, n) >> 32);
+        }
+
+        // Cover in the high half and block start in the low half; cover -1 if the block does not fit
+        private long bestStart(Lane lane, int[] films, int n) {
+            int length = duration[films[n - 1]];
+            int screened = duration[films[n - 1]];
+            for (int i = 0; i < n - 1; i++) {
+                length += pitch[films[i]];
+                screened += duration[films[i]];
+            }
+            // No start can cover more than all of prime time or all of the screenings
+            int ceiling = Math.min(screened, Math.max(0, primeEnd - primeStart));
+
+            int first = ceilStep(lane.start);
+            int last = lane.end - length;
+            if (last < first) {
+                return -1L << 32;
+            }
+            int bestCover = -1;
+            int bestStart = first;
+            for (int start = first; start <= last; start += stepMinutes) {
+                int cover = 0;
+                int at = start;
+                for (int i = 0; i < n; i++) {
+                    cover += overlap(at, at + duration[films[i]]);
+                    at += pitch[films[i]];
+                }
+                if (cover > bestCover) {
+                    bestCover = cover;
+                    bestStart = start;
+                    if (cover == ceiling) {
+                        break;
+                    }
+                }
+            }
+            return ((long) bestCover << 32) | bestStart;
+        }
+
+        private int overlap(int start, int end) {
+            return Math.max(0, Math.min(end, primeEnd) - Math.max(start, primeStart));
+        }
+
+        private void snapshot() {
+            bestScore = score;
+            bestSequence = new int[sequence.length][];
+            for (int l = 0; l < sequence.length; l++) {
+                bestSequence[l] = Arrays.copyOf(sequence[l], size[l]);
+            }
+            bestSize = size.clone();
+        }
+
+        PlannedDay toPlannedDay() {
+            List<ShowtimeSlot> screenings = new ArrayList<>();
+            int[] count = new int[duration.length];
+            int covered = 0;
+            int capacity = 0;
+            for (int l = 0; l < bestSequence.length; l++) {
+                Lane lane = day.lanes.get(l);
+                capacity += overlap(lane.start, lane.end);
+                int n = bestSize[l];
+                if (n == 0) {
+                    continue;
+                }
+                long best = bestStart(lane, bestSequence[l], n);
+                covered += (int) (best >> 32);
+                int at = (int) best;
+                for (int i = 0; i < n; i++) {
+                    int film = bestSequence[l][i];
+                    screenings.add(new ShowtimeSlot(null, day.films.get(film).movieId, lane.hallId, day.date,
+                            LocalTime.of(at / 60, at % 60), LocalTime.of((at + duration[film]) / 60, (at + duration[film]) % 60)));
+                    count[film]++;
+                    at += pitch[film];
+                }
+            }
+
+            Map<Long, Integer> shortfalls = new LinkedHashMap<>();
+            int wantedTotal = 0;
+            for (int f = 0; f < duration.length; f++) {
+                wantedTotal += wanted[f];
+                if (count[f] < wanted[f]) {
+                    shortfalls.put(day.films.get(f).movieId, wanted[f] - count[f]);
+                }
+            }
+            return new PlannedDay(day.date, screenings, wantedTotal, capacity, covered, shortfalls);
+        }
+
+        private int ceilStep(int minutes) {
+            return (minutes + stepMinutes - 1) / stepMinutes * stepMinutes;
+        }
+
+        private static int copyInserting(int[] source, int n, int at, int film, int[] target) {
+            System.arraycopy(source, 0, target, 0, at);
+            target[at] = film;
+            System.arraycopy(source, at, target, at + 1, n - at);
+            return n + 1;
+        }
+
+        private static int copyRemoving(int[] source, int n, int at, int[] target) {
+            System.arraycopy(source, 0, target, 0, at);
+            System.arraycopy(source, at + 1, target, at, n - at - 1);
+            return n - 1;
+        }
+    }
+
+    // Free time in one hall on one day, [start, end) in minutes; screenings must end by end
+    public static class Lane {
+        private final Long hallId;
+        private final int start;
+        private final int end;
+
+        public Lane(Long hallId, int start, int end) {
+            this.hallId = hallId;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Long getHallId() { return hallId; }
+
+        public int getStart() { return start; }
+
+        public int getEnd() { return end; }
+    }
+
+    // A movie and the screenings it still wants on a day
+    public static class Film {
+        private final Long movieId;
+        private final int durationMinutes;
+        private final int wanted;
+
+        public Film(Long movieId, int durationMinutes, int wanted) {
+            this.movieId = movieId;
+            this.durationMinutes = durationMinutes;
+            this.wanted = wanted;
+        }
+
+        public Long getMovieId() { return movieId; }
+
+        public int getDurationMinutes() { return durationMinutes; }
+
+        public int getWanted() { return wanted; }
+    }
+
+    public static class Day {
+        private final LocalDate date;
+        private final List<Lane> lanes;
+        private final List<Film> films;
+
+        public Day(LocalDate date, List<Lane> lanes, List<Film> films) {
+            this.date = date;
+            this.lanes = lanes;
+            this.films = films;
+        }
+
+        public LocalDate getDate() { return date; }
+
+        public List<Lane> getLanes() { return lanes; }
+
+        public List<Film> getFilms() { return films; }
+    }
+}
@@ -0,0 +1,215 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.HallRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Builds a programme for a range of days across halls: reads the active movies, the halls and the
+// showtimes already scheduled, turns each hall's opening hours minus those showtimes into free
+// lanes, and lets ScheduleOptimizer fill them on a dedicated fork/join pool. Existing screenings
+// count towards each movie's daily target. A preview returns the plan without writing anything;
+// otherwise the plan is saved in one transaction through the hall schedule, so a showtime added
+// meanwhile makes the save fail with ShowtimeConflictException instead of overlapping it.
+// Each run keeps every pool thread busy for its whole search, so at most max-concurrent-runs plan
+// at once; further requests fail fast with OptimizerBusyException rather than queue behind them.
+@Component
+public class ScheduleOptimizerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleOptimizerService.class);
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final MovieRepository movieRepository;
+    private final HallRepository hallRepository;
+    private final ShowtimeRepository showtimeRepository;
+    private final BulkShowtimeService bulkShowtimeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduleOptimizer optimizer;
+    private final int bufferMinutes;
+    private final int maxDays;
+    private final int maxConcurrentRuns;
+    private final Semaphore runs;
+    private final ForkJoinPool pool;
+
+    public ScheduleOptimizerService(MovieRepository movieRepository,
+                                    HallRepository hallRepository,
+                                    ShowtimeRepository showtimeRepository,
+                                    HallScheduleIndex hallScheduleIndex,
+                                    BulkShowtimeService bulkShowtimeService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${schedule.optimizer.step-minutes:5}") int stepMinutes,
+                                    @Value("${schedule.optimizer.iterations:20000}") int iterations,
+                                    @Value("${schedule.optimizer.restarts:8}") int restarts,
+                                    @Value("${schedule.optimizer.parallelism:0}") int parallelism,
+                                    @Value("${schedule.optimizer.max-days:14}") int maxDays,
+                                    @Value("${schedule.optimizer.max-concurrent-runs:1}") int maxConcurrentRuns) {
+        this.movieRepository = movieRepository;
+        this.hallRepository = hallRepository;
+        this.showtimeRepository = showtimeRepository;
+        this.bulkShowtimeService = bulkShowtimeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bufferMinutes = hallScheduleIndex.getBufferMinutes();
+        this.optimizer = new ScheduleOptimizer(bufferMinutes, stepMinutes, iterations, restarts);
+        this.maxDays = maxDays;
+        this.maxConcurrentRuns = Math.max(1, maxConcurrentRuns);
+        this.runs = new Semaphore(this.maxConcurrentRuns);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("schedule-optimizer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    // Plan the options' days, and save the plan unless they ask for a preview
+    public SchedulePlan optimize(ScheduleOptions options) {
+        long dayCount = ChronoUnit.DAYS.between(options.getFrom(), options.getTo()) + 1;
+        if (dayCount > maxDays) {
+            throw new IllegalArgumentException("At most " + maxDays + " days can be planned at once");
+        }
+        if (!runs.tryAcquire()) {
+            throw new OptimizerBusyException(maxConcurrentRuns);
+        }
+        try {
+            return plan(options);
+        } finally {
+            runs.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private SchedulePlan plan(ScheduleOptions options) {
+        long started = System.nanoTime();
+        List<Hall> halls = findHalls(options.getHallIds());
+        List<Movie> movies = movieRepository.findSchedulable(options.getFrom(), options.getTo());
+        List<ShowtimeSlot> existing = showtimeRepository.findSlotsByDateRange(options.getFrom(), options.getTo());
+
+        List<ScheduleOptimizer.Day> days = new ArrayList<>();
+        for (LocalDate date = options.getFrom(); !date.isAfter(options.getTo()); date = date.plusDays(1)) {
+            days.add(buildDay(date, options, halls, movies, existing));
+        }
+        List<PlannedDay> planned = optimizer.plan(days, minuteOf(options.getPrimeTimeStart()),
+                minuteOf(options.getPrimeTimeEnd()), pool);
+
+        int created = 0;
+        if (!options.isPreview()) {
+            List<ShowtimeSlot> slots = new ArrayList<>();
+            for (PlannedDay day : planned) {
+                slots.addAll(day.getScreenings());
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    bulkShowtimeService.insert(slots, options.getPrice(), options.getStatus()));
+            created = slots.size();
+        }
+
+        SchedulePlan plan = new SchedulePlan(options.getFrom(), options.getTo(), options.isPreview(), halls.size(),
+                movies.size(), planned, created, System.nanoTime() - started);
+        logger.info("Schedule {} to {} over {} halls: {} of {} screenings, {}% of free prime time, {} created, {} ms",
+                options.getFrom(), options.getTo(), halls.size(), plan.getPlannedScreenings(),
+                plan.getWantedScreenings(), plan.getPrimeTimeCoverage(), created, plan.getElapsedMillis());
+        return plan;
+    }
+
+    private List<Hall> findHalls(List<Long> hallIds) {
+        if (hallIds == null) {
+            return hallRepository.findAllByOrderByNameAsc();
+        }
+        List<Hall> halls = new ArrayList<>(hallRepository.findAllById(hallIds));
+        if (halls.size() != new HashSet<>(hallIds).size()) {
+            throw new IllegalArgumentException("Hall not found");
+        }
+        halls.sort(Comparator.comparing(Hall::getName));
+        return halls;
+    }
+
+    private ScheduleOptimizer.Day buildDay(LocalDate date, ScheduleOptions options, List<Hall> halls,
+                                           List<Movie> movies, List<ShowtimeSlot> existing) {
+        Map<Long, Integer> alreadyScreened = new HashMap<>();
+        Map<Long, List<ShowtimeSlot>> byHall = new HashMap<>();
+        for (ShowtimeSlot slot : existing) {
+            if (slot.getShowDate().equals(date)) {
+                alreadyScreened.merge(slot.getMovieId(), 1, Integer::sum);
+                if (slot.getHallId() != null) {
+                    byHall.computeIfAbsent(slot.getHallId(), id -> new ArrayList<>()).add(slot);
+                }
+            }
+        }
+
+        List<ScheduleOptimizer.Film> films = new ArrayList<>();
+        for (Movie movie : movies) {
+            boolean showing = (movie.getShowStartDate() == null || !movie.getShowStartDate().isAfter(date))
+                    && (movie.getShowEndDate() == null || !movie.getShowEndDate().isBefore(date));
+            int wanted = options.targetFor(movie.getId()) - alreadyScreened.getOrDefault(movie.getId(), 0);
+            if (showing && movie.getDurationMinutes() > 0 && wanted > 0) {
+                films.add(new ScheduleOptimizer.Film(movie.getId(), movie.getDurationMinutes(), wanted));
+            }
+        }
+
+        List<ScheduleOptimizer.Lane> lanes = new ArrayList<>();
+        for (Hall hall : halls) {
+            lanes.addAll(freeLanes(hall.getId(), minuteOf(options.getOpeningTime()),
+                    minuteOf(options.getClosingTime()), byHall.getOrDefault(hall.getId(), List.of())));
+        }
+        return new ScheduleOptimizer.Day(date, lanes, films);
+    }
+
+    // Opening hours minus each scheduled showtime and the cleaning buffer on either side of it
+    private List<ScheduleOptimizer.Lane> freeLanes(Long hallId, int opening, int closing, List<ShowtimeSlot> scheduled) {
+        List<int[]> taken = new ArrayList<>();
+        for (ShowtimeSlot slot : scheduled) {
+            int start = minuteOf(slot.getStartTime());
+            int end = slot.getEndTime().isAfter(slot.getStartTime())
+                    ? (slot.getEndTime().toSecondOfDay() + 59) / 60 : MINUTES_PER_DAY;
+            taken.add(new int[] {start - bufferMinutes, end + bufferMinutes});
+        }
+        taken.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<ScheduleOptimizer.Lane> lanes = new ArrayList<>();
+        int free = opening;
+        for (int[] range : taken) {
+            if (range[0] > free) {
+                lanes.add(new ScheduleOptimizer.Lane(hallId, free, Math.min(range[0], closing)));
+            }
+            free = Math.max(free, range[1]);
+            if (free >= closing) {
+                break;
+            }
+        }
+        if (free < closing) {
+            lanes.add(new ScheduleOptimizer.Lane(hallId, free, closing));
+        }
+        lanes.removeIf(lane -> lane.getEnd() <= lane.getStart());
+        return lanes;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+}
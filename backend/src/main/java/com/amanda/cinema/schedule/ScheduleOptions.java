@@ -0,0 +1,137 @@
+package com.amanda.cinema.schedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// What the schedule optimizer should plan: which days and halls, the opening hours and prime
+// time, and how many screenings each movie wants per day
+public class ScheduleOptions {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<Long> hallIds;
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final LocalTime primeTimeStart;
+    private final LocalTime primeTimeEnd;
+    private final int screeningsPerDay;
+    private final Map<Long, Integer> targets;
+    private final BigDecimal price;
+    private final String status;
+    private final boolean preview;
+
+    public ScheduleOptions(LocalDate from, LocalDate to, List<Long> hallIds, LocalTime openingTime,
+                           LocalTime closingTime, LocalTime primeTimeStart, LocalTime primeTimeEnd,
+                           int screeningsPerDay, Map<Long, Integer> targets, BigDecimal price, String status,
+                           boolean preview) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (!closingTime.isAfter(openingTime)) {
+            throw new IllegalArgumentException("closingTime must be after openingTime");
+        }
+        if (!primeTimeEnd.isAfter(primeTimeStart)) {
+            throw new IllegalArgumentException("primeTimeEnd must be after primeTimeStart");
+        }
+        if (screeningsPerDay < 0 || targets.values().stream().anyMatch(target -> target < 0)) {
+            throw new IllegalArgumentException("Screening targets must not be negative");
+        }
+        if (!preview && price == null) {
+            throw new IllegalArgumentException("price is required unless previewing");
+        }
+        if (price != null && price.signum() < 0) {
+            throw new IllegalArgumentException("Price must not be negative");
+        }
+        this.from = from;
+        this.to = to;
+        this.hallIds = hallIds;
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+        this.primeTimeStart = primeTimeStart;
+        this.primeTimeEnd = primeTimeEnd;
+        this.screeningsPerDay = screeningsPerDay;
+        this.targets = targets;
+        this.price = price;
+        this.status = status;
+        this.preview = preview;
+    }
+
+    // Reads an optimize request: "from" and "to" are required, "price" too unless previewing.
+    // "preview" defaults to true, "hallIds" to every hall, opening hours to 10:00-23:30, prime time
+    // to 18:00-22:00 and "screeningsPerDay" to 3; "targets" maps movie ids to their own count.
+    public static ScheduleOptions parse(Map<String, Object> request) {
+        if (request.get("from") == null || request.get("to") == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+
+        List<Long> hallIds = null;
+        if (request.get("hallIds") != null) {
+            if (!(request.get("hallIds") instanceof List<?> ids) || ids.isEmpty()) {
+                throw new IllegalArgumentException("hallIds must be a non-empty list");
+            }
+            hallIds = new ArrayList<>();
+            for (Object id : ids) {
+                hallIds.add(Long.valueOf(id.toString()));
+            }
+        }
+
+        Map<Long, Integer> targets = new HashMap<>();
+        if (request.get("targets") != null) {
+            if (!(request.get("targets") instanceof Map<?, ?> byMovie)) {
+                throw new IllegalArgumentException("targets must map movie ids to screenings per day");
+            }
+            for (Map.Entry<?, ?> entry : byMovie.entrySet()) {
+                targets.put(Long.valueOf(entry.getKey().toString()), Integer.valueOf(entry.getValue().toString()));
+            }
+        }
+
+        return new ScheduleOptions(
+                LocalDate.parse(request.get("from").toString()),
+                LocalDate.parse(request.get("to").toString()),
+                hallIds,
+                time(request, "openingTime", "10:00"),
+                time(request, "closingTime", "23:30"),
+                time(request, "primeTimeStart", "18:00"),
+                time(request, "primeTimeEnd", "22:00"),
+                request.get("screeningsPerDay") != null ? Integer.parseInt(request.get("screeningsPerDay").toString()) : 3,
+                targets,
+                request.get("price") != null ? new BigDecimal(request.get("price").toString()) : null,
+                request.get("status") != null ? request.get("status").toString() : "ACTIVE",
+                request.get("preview") == null || Boolean.parseBoolean(request.get("preview").toString()));
+    }
+
+    // Screenings per day the movie should get
+    public int targetFor(Long movieId) {
+        return targets.getOrDefault(movieId, screeningsPerDay);
+    }
+
+    public LocalDate getFrom() { return from; }
+
+    public LocalDate getTo() { return to; }
+
+    // Null for every hall
+    public List<Long> getHallIds() { return hallIds; }
+
+    public LocalTime getOpeningTime() { return openingTime; }
+
+    public LocalTime getClosingTime() { return closingTime; }
+
+    public LocalTime getPrimeTimeStart() { return primeTimeStart; }
+
+    public LocalTime getPrimeTimeEnd() { return primeTimeEnd; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public String getStatus() { return status; }
+
+    public boolean isPreview() { return preview; }
+
+    private static LocalTime time(Map<String, Object> request, String field, String defaultValue) {
+        return LocalTime.parse(request.get(field) != null ? request.get(field).toString() : defaultValue);
+    }
+}
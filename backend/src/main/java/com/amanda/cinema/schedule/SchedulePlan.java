@@ -0,0 +1,76 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Outcome of one optimizer run: the planned days, totals over them, and whether anything was saved
+public class SchedulePlan {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final boolean preview;
+    private final int halls;
+    private final int movies;
+    private final List<PlannedDay> days;
+    private final int plannedScreenings;
+    private final int wantedScreenings;
+    private final int primeTimeMinutes;
+    private final int primeTimeCoveredMinutes;
+    private final int created;
+    private final long elapsedMillis;
+
+    public SchedulePlan(LocalDate from, LocalDate to, boolean preview, int halls, int movies, List<PlannedDay> days,
+                        int created, long elapsedNanos) {
+        this.from = from;
+        this.to = to;
+        this.preview = preview;
+        this.halls = halls;
+        this.movies = movies;
+        this.days = days;
+        int planned = 0;
+        int wanted = 0;
+        int primeTime = 0;
+        int covered = 0;
+        for (PlannedDay day : days) {
+            planned += day.getScreenings().size();
+            wanted += day.getWantedScreenings();
+            primeTime += day.getPrimeTimeMinutes();
+            covered += day.getPrimeTimeCoveredMinutes();
+        }
+        this.plannedScreenings = planned;
+        this.wantedScreenings = wanted;
+        this.primeTimeMinutes = primeTime;
+        this.primeTimeCoveredMinutes = covered;
+        this.created = created;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+    }
+
+    public String getFrom() { return from.toString(); }
+
+    public String getTo() { return to.toString(); }
+
+    public boolean isPreview() { return preview; }
+
+    public int getHalls() { return halls; }
+
+    public int getMovies() { return movies; }
+
+    public List<PlannedDay> getDays() { return days; }
+
+    public int getPlannedScreenings() { return plannedScreenings; }
+
+    public int getWantedScreenings() { return wantedScreenings; }
+
+    public int getPrimeTimeMinutes() { return primeTimeMinutes; }
+
+    public int getPrimeTimeCoveredMinutes() { return primeTimeCoveredMinutes; }
+
+    // Share of the free prime time the plan screens, in percent to one decimal
+    public double getPrimeTimeCoverage() {
+        return primeTimeMinutes > 0 ? Math.round(primeTimeCoveredMinutes * 1000.0 / primeTimeMinutes) / 10.0 : 0;
+    }
+
+    // Showtimes saved; always 0 for a preview
+    public int getCreated() { return created; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,19 @@
+package com.amanda.cinema.schedule;
+
+import java.util.List;
+
+// A showtime that would overlap others in its hall, cleaning buffer included
+public class ShowtimeConflictException extends RuntimeException {
+
+    private final List<ShowtimeSlot> conflicts;
+
+    public ShowtimeConflictException(ShowtimeSlot slot, int bufferMinutes, List<ShowtimeSlot> conflicts) {
+        super("Showtime " + slot.getStartTime() + "-" + slot.getEndTime() + " on " + slot.getShowDate()
+                + " overlaps " + conflicts.size() + " showtime(s) in hall " + slot.getHallId()
+                + " (cleaning buffer " + bufferMinutes + " min)");
+        this.conflicts = conflicts;
+    }
+
+    // The showtimes in the way; a pending one not yet saved has no id
+    public List<ShowtimeSlot> getConflicts() { return conflicts; }
+}
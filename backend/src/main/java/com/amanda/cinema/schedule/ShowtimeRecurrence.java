@@ -0,0 +1,153 @@
+package com.amanda.cinema.schedule;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.amanda.cinema.model.Movie;
+
+// A weekly screening pattern: the given start times on the given days of the week, every week
+// between two dates. Each showtime runs for the movie's duration and must end before midnight.
+public class ShowtimeRecurrence {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Set<DayOfWeek> days;
+    private final List<LocalTime> times;
+    private final int durationMinutes;
+    private final BigDecimal price;
+    private final String status;
+
+    public ShowtimeRecurrence(LocalDate from, LocalDate to, Set<DayOfWeek> days, Collection<LocalTime> times,
+                              int durationMinutes, BigDecimal price, String status) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (days.isEmpty() || times.isEmpty()) {
+            throw new IllegalArgumentException("At least one day and one start time are required");
+        }
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("Movie duration must be positive");
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("Price must not be negative");
+        }
+        this.from = from;
+        this.to = to;
+        this.days = EnumSet.copyOf(days);
+        this.times = new ArrayList<>(new TreeSet<>(times));
+        for (LocalTime time : this.times) {
+            if (time.toSecondOfDay() / 60 + durationMinutes >= MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("A showtime starting at " + time + " would run past midnight");
+            }
+        }
+        this.durationMinutes = durationMinutes;
+        this.price = price;
+        this.status = status;
+    }
+
+    // Reads a bulk request: "times" and "price" are required; "from"/"to" default to the movie's
+    // show window, "days" (MON or MONDAY, any case) to every day and "status" to ACTIVE
+    public static ShowtimeRecurrence parse(Map<String, Object> request, Movie movie) {
+        LocalDate from = request.get("from") != null ? LocalDate.parse(request.get("from").toString()) : movie.getShowStartDate();
+        LocalDate to = request.get("to") != null ? LocalDate.parse(request.get("to").toString()) : movie.getShowEndDate();
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required when the movie has no show dates");
+        }
+        if (movie.getDurationMinutes() == null) {
+            throw new IllegalArgumentException("Movie has no duration");
+        }
+        if (request.get("price") == null) {
+            throw new IllegalArgumentException("price is required");
+        }
+
+        Set<DayOfWeek> days = EnumSet.allOf(DayOfWeek.class);
+        if (request.get("days") != null) {
+            days = EnumSet.noneOf(DayOfWeek.class);
+            for (Object day : asList(request.get("days"), "days")) {
+                days.add(parseDay(day.toString()));
+            }
+        }
+
+        List<LocalTime> times = new ArrayList<>();
+        for (Object time : asList(request.get("times"), "times")) {
+            times.add(LocalTime.parse(time.toString()));
+        }
+
+        String status = request.get("status") != null ? request.get("status").toString() : "ACTIVE";
+        return new ShowtimeRecurrence(from, to, days, times, movie.getDurationMinutes(),
+                new BigDecimal(request.get("price").toString()), status);
+    }
+
+    // How many starts occurrences() would return, worked out without listing them: each selected
+    // day of the week falls once per whole week of the range, and once more if it is among the
+    // leftover days at its start
+    public long count() {
+        long totalDays = ChronoUnit.DAYS.between(from, to) + 1;
+        long weeks = totalDays / 7;
+        int leftover = (int) (totalDays % 7);
+        long matchingDays = 0;
+        for (DayOfWeek day : days) {
+            int offset = Math.floorMod(day.getValue() - from.getDayOfWeek().getValue(), 7);
+            matchingDays += weeks + (offset < leftover ? 1 : 0);
+        }
+        return matchingDays * times.size();
+    }
+
+    // Every start in date then time order; check count() first, as long ranges make long lists
+    public List<LocalDateTime> occurrences() {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (days.contains(date.getDayOfWeek())) {
+                for (LocalTime time : times) {
+                    occurrences.add(date.atTime(time));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    public LocalTime endOf(LocalTime start) {
+        return start.plusMinutes(durationMinutes);
+    }
+
+    public LocalDate getFrom() { return from; }
+
+    public LocalDate getTo() { return to; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public String getStatus() { return status; }
+
+    private static List<?> asList(Object value, String field) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            throw new IllegalArgumentException(field + " must be a non-empty list");
+        }
+        return list;
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        String name = day.trim().toUpperCase(Locale.ROOT);
+        if (name.length() >= 3) {
+            for (DayOfWeek candidate : DayOfWeek.values()) {
+                if (candidate.name().startsWith(name)) {
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + day);
+    }
+}
@@ -0,0 +1,52 @@
+package com.amanda.cinema.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Objects;
+
+import com.amanda.cinema.model.Showtime;
+
+// Where and when an existing showtime runs, without loading the entity
+public class ShowtimeSlot {
+    private final Long id;
+    private final Long movieId;
+    private final Long hallId;
+    private final LocalDate showDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    public ShowtimeSlot(Long id, Long movieId, Long hallId, LocalDate showDate, LocalTime startTime, LocalTime endTime) {
+        this.id = id;
+        this.movieId = movieId;
+        this.hallId = hallId;
+        this.showDate = showDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // The showtime's current placement; reads only the ids of its movie and hall, never loading them
+    public static ShowtimeSlot from(Showtime showtime) {
+        return new ShowtimeSlot(showtime.getId(), showtime.getMovie().getId(),
+                showtime.getHall() != null ? showtime.getHall().getId() : null,
+                showtime.getShowDate(), showtime.getStartTime(), showtime.getEndTime());
+    }
+
+    // Whether both describe the same movie in the same hall at the same time, whatever the ids
+    public boolean samePlacement(ShowtimeSlot other) {
+        return Objects.equals(movieId, other.movieId) && Objects.equals(hallId, other.hallId)
+                && Objects.equals(showDate, other.showDate) && Objects.equals(startTime, other.startTime)
+                && Objects.equals(endTime, other.endTime);
+    }
+
+    public Long getId() { return id; }
+
+    public Long getMovieId() { return movieId; }
+
+    public Long getHallId() { return hallId; }
+
+    public LocalDate getShowDate() { return showDate; }
+
+    public LocalTime getStartTime() { return startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+}
@@ -0,0 +1,23 @@
+package com.amanda.cinema.search;
+
+import java.util.List;
+import java.util.Map;
+
+// Movies matching a facet selection, plus per-value counts for every facet
+public class FacetResult {
+    private final List<Long> movieIds;
+    private final Map<String, Map<String, Integer>> counts;
+
+    public FacetResult(List<Long> movieIds, Map<String, Map<String, Integer>> counts) {
+        this.movieIds = movieIds;
+        this.counts = counts;
+    }
+
+    // Matching movie ids in ascending order
+    public List<Long> getMovieIds() { return movieIds; }
+
+    public int getTotal() { return movieIds.size(); }
+
+    // facet param -> value -> number of movies that would match with that value selected
+    public Map<String, Map<String, Integer>> getCounts() { return counts; }
+}
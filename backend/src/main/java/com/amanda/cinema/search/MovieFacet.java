@@ -0,0 +1,29 @@
+package com.amanda.cinema.search;
+
+// Catalog dimensions the facet index keeps a bitset per value for
+public enum MovieFacet {
+    GENRE("genre"),
+    LANGUAGE("language"),
+    RATING("rating"),
+    STATUS("status");
+
+    private final String param;
+
+    MovieFacet(String param) {
+        this.param = param;
+    }
+
+    // Request parameter and response key for this facet
+    public String getParam() {
+        return param;
+    }
+
+    String valueOf(MovieFacetDocument document) {
+        switch (this) {
+            case GENRE: return document.getGenre();
+            case LANGUAGE: return document.getLanguage();
+            case RATING: return document.getRating();
+            default: return document.getStatus();
+        }
+    }
+}
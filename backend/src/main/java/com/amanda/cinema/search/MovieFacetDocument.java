@@ -0,0 +1,28 @@
+package com.amanda.cinema.search;
+
+// The faceted columns of a movie, loaded by JPQL constructor expression
+public class MovieFacetDocument {
+    private final Long id;
+    private final String genre;
+    private final String language;
+    private final String rating;
+    private final String status;
+
+    public MovieFacetDocument(Long id, String genre, String language, String rating, String status) {
+        this.id = id;
+        this.genre = genre;
+        this.language = language;
+        this.rating = rating;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+
+    public String getGenre() { return genre; }
+
+    public String getLanguage() { return language; }
+
+    public String getRating() { return rating; }
+
+    public String getStatus() { return status; }
+}
@@ -0,0 +1,186 @@
+package com.amanda.cinema.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.repository.MovieRepository;
+
+// One bitset per facet value over dense movie ordinals. A selection ORs values within a facet and
+// ANDs across facets; counts are disjunctive, i.e. each facet is counted against the selections
+// on the other facets only, so picking one genre still shows how many movies the others have.
+@Component
+public class MovieFacetIndex extends MovieIndex<MovieFacetDocument> {
+
+    private final MovieRepository movieRepository;
+
+    // Dense ordinals keep the bitsets short; ordinals of deleted movies are reused
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> movieIds = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+
+    // facet -> lower-cased value -> movies having it
+    private final Map<MovieFacet, Map<String, FacetValue>> values = new EnumMap<>(MovieFacet.class);
+
+    public MovieFacetIndex(MovieRepository movieRepository) {
+        super("Movie facet index");
+        this.movieRepository = movieRepository;
+        for (MovieFacet facet : MovieFacet.values()) {
+            values.put(facet, new HashMap<>());
+        }
+    }
+
+    @Override
+    protected List<MovieFacetDocument> loadAll() {
+        return movieRepository.findFacetDocuments();
+    }
+
+    @Override
+    protected List<MovieFacetDocument> loadByIds(Collection<Long> ids) {
+        return movieRepository.findFacetDocumentsByIds(ids);
+    }
+
+    @Override
+    protected void clear() {
+        ordinals.clear();
+        movieIds.clear();
+        freeOrdinals.clear();
+        live.clear();
+        values.values().forEach(Map::clear);
+    }
+
+    // Movies matching the selection and the disjunctive counts of every facet value. Facets absent
+    // from the selection (or with no values) do not filter; value matching ignores case.
+    public FacetResult query(Map<MovieFacet, ? extends Collection<String>> selection) {
+        lock.readLock().lock();
+        try {
+            Map<MovieFacet, BitSet> filters = new EnumMap<>(MovieFacet.class);
+            for (MovieFacet facet : MovieFacet.values()) {
+                Collection<String> selected = selection.get(facet);
+                if (selected != null && !selected.isEmpty()) {
+                    filters.put(facet, union(facet, selected));
+                }
+            }
+
+            BitSet matching = intersect(filters, null);
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (MovieFacet facet : MovieFacet.values()) {
+                BitSet others = filters.containsKey(facet) ? intersect(filters, facet) : matching;
+                Map<String, Integer> facetCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (FacetValue value : values.get(facet).values()) {
+                    BitSet counted = (BitSet) value.movies.clone();
+                    counted.and(others);
+                    int count = counted.cardinality();
+                    if (count > 0 || isSelected(selection.get(facet), value.label)) {
+                        facetCounts.put(value.label, count);
+                    }
+                }
+                counts.put(facet.getParam(), facetCounts);
+            }
+
+            List<Long> ids = new ArrayList<>(matching.cardinality());
+            for (int ordinal = matching.nextSetBit(0); ordinal >= 0; ordinal = matching.nextSetBit(ordinal + 1)) {
+                ids.add(movieIds.get(ordinal));
+            }
+            ids.sort(null);
+
+            return new FacetResult(ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // OR of the bitsets of the selected values of one facet
+    private BitSet union(MovieFacet facet, Collection<String> selected) {
+        BitSet union = new BitSet();
+        for (String value : selected) {
+            FacetValue facetValue = values.get(facet).get(key(value));
+            if (facetValue != null) {
+                union.or(facetValue.movies);
+            }
+        }
+        return union;
+    }
+
+    // AND of all live movies with every facet filter except the excluded one
+    private BitSet intersect(Map<MovieFacet, BitSet> filters, MovieFacet excluded) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<MovieFacet, BitSet> filter : filters.entrySet()) {
+            if (filter.getKey() != excluded) {
+                result.and(filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    private boolean isSelected(Collection<String> selected, String label) {
+        return selected != null && selected.stream().anyMatch(label::equalsIgnoreCase);
+    }
+
+    @Override
+    protected void add(MovieFacetDocument document) {
+        Integer reused = freeOrdinals.poll();
+        int ordinal;
+        if (reused != null) {
+            ordinal = reused;
+            movieIds.set(ordinal, document.getId());
+        } else {
+            ordinal = movieIds.size();
+            movieIds.add(document.getId());
+        }
+        ordinals.put(document.getId(), ordinal);
+        live.set(ordinal);
+
+        for (MovieFacet facet : MovieFacet.values()) {
+            String value = facet.valueOf(document);
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            values.get(facet)
+                    .computeIfAbsent(key(value), k -> new FacetValue(value.trim()))
+                    .movies.set(ordinal);
+        }
+    }
+
+    @Override
+    protected void remove(Long movieId) {
+        Integer ordinal = ordinals.remove(movieId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        for (Map<String, FacetValue> facetValues : values.values()) {
+            facetValues.values().removeIf(value -> {
+                value.movies.clear(ordinal);
+                return value.movies.isEmpty();
+            });
+        }
+        freeOrdinals.push(ordinal);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class FacetValue {
+        private final String label;
+        private final BitSet movies = new BitSet();
+
+        FacetValue(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.amanda.cinema.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amanda.cinema.event.MovieChangedEvent;
+
+// Base of the in-process movie indexes: built from every movie's document at startup and kept
+// current from MovieChangedEvents. Subclasses hold the index structures, guarded by lock, and say
+// how documents are loaded, added and removed.
+abstract class MovieIndex<D> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieIndex.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String name;
+    private volatile boolean ready;
+    // Ids of movies changed while a rebuild is running, null otherwise; guarded by lock
+    private Set<Long> changedDuringRebuild;
+
+    protected MovieIndex(String name) {
+        this.name = name;
+    }
+
+    // Documents of every movie
+    protected abstract List<D> loadAll();
+
+    // Current documents of those of the movies that still exist
+    protected abstract List<D> loadByIds(Collection<Long> movieIds);
+
+    // The index operations below are called with the write lock held
+    protected abstract void clear();
+
+    protected abstract void add(D document);
+
+    protected abstract void remove(Long movieId);
+
+    // Load every movie and swap the index in. Events arriving while the load runs are applied to
+    // the old index, which the swap discards, so their movie ids are collected and loaded again
+    // before the swap releases the lock; later events find the new index in place.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<D> documents;
+        int reloaded = 0;
+        boolean completed = false;
+        try {
+            documents = loadAll();
+
+            lock.writeLock().lock();
+            try {
+                clear();
+                documents.forEach(this::add);
+                Set<Long> changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+                reload(changed);
+                reloaded = changed.size();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // Stop collecting; events keep being applied to whichever index is in place
+                lock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        logger.info("{} built with {} movies in {} ms ({} reloaded after changes)",
+                name, documents.size(), System.currentTimeMillis() - started, reloaded);
+    }
+
+    // The documents are read while the write lock is held: read before it, two events for the same
+    // movie could be applied in the opposite order to their reads, leaving the older document in place
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getType() == MovieChangedEvent.Type.PHOTOS_CHANGED) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == MovieChangedEvent.Type.DELETED) {
+                event.getMovieIds().forEach(this::remove);
+            } else {
+                reload(event.getMovieIds());
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(event.getMovieIds());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Replace the movies' documents with their current ones, dropping those that no longer exist;
+    // caller holds the write lock
+    private void reload(Collection<Long> movieIds) {
+        List<Long> ids = new ArrayList<>(movieIds);
+        List<D> documents = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            documents.addAll(loadByIds(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()))));
+        }
+        ids.forEach(this::remove);
+        documents.forEach(this::add);
+    }
+}
@@ -0,0 +1,32 @@
+package com.amanda.cinema.search;
+
+// The searchable columns of a movie, loaded by JPQL constructor expression
+public class MovieSearchDocument {
+    private final Long id;
+    private final String title;
+    private final String director;
+    private final String cast;
+    private final String genre;
+    private final String status;
+
+    public MovieSearchDocument(Long id, String title, String director, String cast, String genre, String status) {
+        this.id = id;
+        this.title = title;
+        this.director = director;
+        this.cast = cast;
+        this.genre = genre;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getDirector() { return director; }
+
+    public String getCast() { return cast; }
+
+    public String getGenre() { return genre; }
+
+    public String getStatus() { return status; }
+}
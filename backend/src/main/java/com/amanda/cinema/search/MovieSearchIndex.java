@@ -0,0 +1,244 @@
+package com.amanda.cinema.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.repository.MovieRepository;
+
+// In-process inverted trigram index over movie title, director and cast. Built at startup and kept
+// current from MovieChangedEvents; search returns ranked movie ids for the caller to hydrate.
+@Component
+public class MovieSearchIndex extends MovieIndex<MovieSearchDocument> {
+
+    private static final int TITLE = 0;
+    private static final int DIRECTOR = 1;
+    private static final int CAST = 2;
+    private static final double[] FIELD_WEIGHTS = {3.0, 1.5, 1.0};
+
+    // Share of the query's trigrams a field needs to match when it does not contain the query outright
+    private static final double MIN_SIMILARITY = 0.6;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final MovieRepository movieRepository;
+    private final Map<Long, IndexedMovie> movies = new HashMap<>();
+    // trigram -> movie id -> bitmask of the fields containing it
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    public MovieSearchIndex(MovieRepository movieRepository) {
+        super("Movie search index");
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    protected List<MovieSearchDocument> loadAll() {
+        return movieRepository.findSearchDocuments();
+    }
+
+    @Override
+    protected List<MovieSearchDocument> loadByIds(Collection<Long> movieIds) {
+        return movieRepository.findSearchDocumentsByIds(movieIds);
+    }
+
+    @Override
+    protected void clear() {
+        movies.clear();
+        postings.clear();
+    }
+
+    // Ids of movies whose title, director or cast match the query, best first. A field matches when
+    // it contains the query or shares enough of its trigrams; genre and status filter exactly.
+    public List<Long> search(String query, String genre, String status) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        List<ScoredMovie> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < 3) {
+                // Too short for trigrams to be selective; a substring check over every movie is cheap
+                for (IndexedMovie movie : movies.values()) {
+                    score(movie, normalized, null, 0, genre, status, results);
+                }
+            } else {
+                Set<String> queryGrams = trigrams(normalized);
+                Map<Long, int[]> hits = new HashMap<>();
+                for (String gram : queryGrams) {
+                    Map<Long, Integer> posting = postings.get(gram);
+                    if (posting == null) {
+                        continue;
+                    }
+                    posting.forEach((movieId, fieldMask) -> {
+                        int[] counts = hits.computeIfAbsent(movieId, id -> new int[FIELD_WEIGHTS.length]);
+                        for (int field = 0; field < counts.length; field++) {
+                            if ((fieldMask & (1 << field)) != 0) {
+                                counts[field]++;
+                            }
+                        }
+                    });
+                }
+                for (Map.Entry<Long, int[]> hit : hits.entrySet()) {
+                    score(movies.get(hit.getKey()), normalized, hit.getValue(), queryGrams.size(),
+                            genre, status, results);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        results.sort(Comparator.comparingDouble(ScoredMovie::score).reversed()
+                .thenComparing(ScoredMovie::title, Comparator.nullsLast(String::compareTo))
+                .thenComparing(ScoredMovie::id));
+        return results.stream().map(ScoredMovie::id).toList();
+    }
+
+    private void score(IndexedMovie movie, String query, int[] gramCounts, int queryGramCount,
+                       String genre, String status, List<ScoredMovie> results) {
+        if (movie == null
+                || (genre != null && !genre.equalsIgnoreCase(movie.genre))
+                || (status != null && !status.equalsIgnoreCase(movie.status))) {
+            return;
+        }
+
+        double score = 0;
+        for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+            String text = movie.fields[field];
+            if (text == null) {
+                continue;
+            }
+
+            double similarity;
+            int position = text.indexOf(query);
+            if (position >= 0) {
+                // Whole-query matches outrank fuzzy ones; a match at a word start ranks higher still
+                boolean wordStart = position == 0 || text.charAt(position - 1) == ' ';
+                similarity = wordStart ? 1.5 : 1.0;
+            } else if (gramCounts != null) {
+                similarity = (double) gramCounts[field] / queryGramCount;
+                if (similarity < MIN_SIMILARITY) {
+                    continue;
+                }
+            } else {
+                continue;
+            }
+            score += FIELD_WEIGHTS[field] * similarity;
+        }
+
+        if (score > 0) {
+            results.add(new ScoredMovie(movie.id, score, movie.title));
+        }
+    }
+
+    @Override
+    protected void add(MovieSearchDocument document) {
+        IndexedMovie movie = new IndexedMovie(document);
+        movies.put(movie.id, movie);
+
+        for (int field = 0; field < movie.fields.length; field++) {
+            if (movie.fields[field] == null) {
+                continue;
+            }
+            int bit = 1 << field;
+            for (String gram : trigrams(movie.fields[field])) {
+                movie.grams.add(gram);
+                postings.computeIfAbsent(gram, g -> new HashMap<>()).merge(movie.id, bit, (a, b) -> a | b);
+            }
+        }
+    }
+
+    @Override
+    protected void remove(Long movieId) {
+        IndexedMovie movie = movies.remove(movieId);
+        if (movie == null) {
+            return;
+        }
+        for (String gram : movie.grams) {
+            Map<Long, Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(movieId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Lower-cased, accent-stripped, with punctuation collapsed to single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Trigrams of each word padded as "  word ", so word starts weigh more than word ends
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static class IndexedMovie {
+        private final Long id;
+        private final String title;
+        private final String genre;
+        private final String status;
+        private final String[] fields = new String[FIELD_WEIGHTS.length];
+        private final Set<String> grams = new HashSet<>();
+
+        IndexedMovie(MovieSearchDocument document) {
+            this.id = document.getId();
+            this.title = document.getTitle();
+            this.genre = document.getGenre();
+            this.status = document.getStatus();
+            fields[TITLE] = nullIfEmpty(normalize(document.getTitle()));
+            fields[DIRECTOR] = nullIfEmpty(normalize(document.getDirector()));
+            fields[CAST] = nullIfEmpty(normalize(document.getCast()));
+        }
+
+        private static String nullIfEmpty(String text) {
+            return text.isEmpty() ? null : text;
+        }
+    }
+
+    private static class ScoredMovie {
+        private final Long id;
+        private final double score;
+        private final String title;
+
+        ScoredMovie(Long id, double score, String title) {
+            this.id = id;
+            this.score = score;
+            this.title = title;
+        }
+
+        Long id() { return id; }
+
+        double score() { return score; }
+
+        String title() { return title; }
+    }
+}
@@ -11,8 +11,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.amanda.cinema.model.User;
-import com.amanda.cinema.repository.UserRepository;
+import com.amanda.cinema.security.JwtPrincipalCache.CachedPrincipal;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,12 +22,16 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private final JwtPrincipalCache jwtPrincipalCache;
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtPrincipalCache jwtPrincipalCache,
+                                   JwtUtil jwtUtil,
+                                   TokenEpochRegistry tokenEpochRegistry) {
+        this.jwtPrincipalCache = jwtPrincipalCache;
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.tokenEpochRegistry = tokenEpochRegistry;
     }
 
     @Override
@@ -45,42 +50,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
+        CachedPrincipal principal = null;
 
-        // Extract JWT from Authorization header
+        // Extract JWT from Authorization header; verified tokens are served from the principal cache,
+        // or built from the claims alone in stateless mode
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+            String token = authHeader.substring(7);
             try {
-                email = jwtUtil.extractUsername(token);
-            } catch (Exception e) {
+                principal = tokenEpochRegistry.isEnabled()
+                        ? resolveFromClaims(token)
+                        : jwtPrincipalCache.resolve(token);
+            } catch (JwtException | IllegalArgumentException e) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"error\":\"Invalid or expired token\"}");
                 return;
             }
         }
 
-        // Validate token and set Spring Security context
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user != null) {
-                // Add role as authority
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole());
+        // Set Spring Security context
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            principal.getUser(),
+                            null,
+                            principal.getAuthorities()
+                    );
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                user,
-                                null,
-                                Collections.singletonList(authority)
-                        );
+        filterChain.doFilter(request, response);
+    }
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+    // Stateless mode: the principal is a transient User built from verified claims, so no database
+    // access happens. Users missing from the epoch table (registered or deleted since the last
+    // refresh, or tokens without a userId) go through the database-backed cache instead.
+    private CachedPrincipal resolveFromClaims(String token) {
+        JwtClaims claims = jwtUtil.parse(token);
+        Integer currentEpoch = tokenEpochRegistry.currentEpoch(claims.getUserId());
+
+        if (currentEpoch == null) {
+            CachedPrincipal principal = jwtPrincipalCache.resolve(token);
+            if (principal != null) {
+                tokenEpochRegistry.record(principal.getUser().getId(), principal.getUser().getTokenEpoch());
             }
+            return principal;
         }
 
-        filterChain.doFilter(request, response);
+        // Revoked by a role change or forced sign-out
+        if (claims.getTokenEpoch() < currentEpoch) {
+            return null;
+        }
+
+        User user = new User(claims.getEmail(), claims.getName(), claims.getRole(), null);
+        user.setId(claims.getUserId());
+        user.setTokenEpoch(claims.getTokenEpoch());
+        return new CachedPrincipal(claims, user,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.getRole())));
     }
 }
\ No newline at end of file
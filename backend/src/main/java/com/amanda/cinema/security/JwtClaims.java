@@ -0,0 +1,60 @@
+package com.amanda.cinema.security;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+// Immutable, typed view of a verified token's claims, produced by a single JwtUtil.parse call
+public final class JwtClaims {
+    private final String email;
+    private final Long userId;
+    private final String role;
+    private final String name;
+    private final int tokenEpoch;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+
+    private JwtClaims(String email, Long userId, String role, String name, int tokenEpoch,
+                      long issuedAtMillis, long expirationMillis) {
+        this.email = email;
+        this.userId = userId;
+        this.role = role;
+        this.name = name;
+        this.tokenEpoch = tokenEpoch;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    static JwtClaims from(Claims claims) {
+        Object userIdObj = claims.get("userId");
+        Long userId = userIdObj instanceof Number ? ((Number) userIdObj).longValue() : null;
+        // Tokens issued before epochs existed count as epoch 0
+        Object epochObj = claims.get("epoch");
+        int tokenEpoch = epochObj instanceof Number ? ((Number) epochObj).intValue() : 0;
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new JwtClaims(
+                claims.getSubject(),
+                userId,
+                claims.get("role", String.class),
+                claims.get("name", String.class),
+                tokenEpoch,
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    public String getEmail() { return email; }
+
+    public Long getUserId() { return userId; }
+
+    public String getRole() { return role; }
+
+    public String getName() { return name; }
+
+    public int getTokenEpoch() { return tokenEpoch; }
+
+    public long getIssuedAtMillis() { return issuedAtMillis; }
+
+    public long getExpirationMillis() { return expirationMillis; }
+}
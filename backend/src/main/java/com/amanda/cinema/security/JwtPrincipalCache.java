@@ -0,0 +1,137 @@
+package com.amanda.cinema.security;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.config.VirtualThreads;
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Bounded cache of verified tokens and the principal they resolve to, so repeat requests with
+// the same token skip signature verification and the users lookup. Entries never outlive the
+// token itself and are dropped when the user's role changes: locally at once, and on every other
+// node once its epoch table shows an epoch above the token's.
+@Component
+public class JwtPrincipalCache {
+
+    private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final Cache<String, CachedPrincipal> cache;
+
+    public JwtPrincipalCache(JwtUtil jwtUtil,
+                             UserRepository userRepository,
+                             TokenEpochRegistry tokenEpochRegistry,
+                             MeterRegistry meterRegistry,
+                             @Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                             @Value("${security.jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds)))
+                .recordStats()
+                .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size under cache=jwt.principal
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.principal");
+    }
+
+    // Verify the token (on a miss) and resolve its principal; null if the user no longer exists
+    // or the token was revoked by an epoch bump.
+    // Invalid or expired tokens throw the underlying JwtException.
+    public CachedPrincipal resolve(String token) {
+        CachedPrincipal principal = cache.asMap().get(token);
+        if (principal != null && isRevoked(principal)) {
+            // Bumped past the token's epoch, possibly on another node
+            cache.asMap().remove(token, principal);
+            return null;
+        }
+        return principal != null ? principal : VirtualThreads.limitPinned(() -> cache.get(token, this::load));
+    }
+
+    // Drop every cached token of a user, e.g. after a role change
+    public void invalidateUser(Long userId) {
+        cache.asMap().values().removeIf(principal -> principal.getUser().getId().equals(userId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // The epoch table is ahead of the token; users missing from the table are not checked
+    private boolean isRevoked(CachedPrincipal principal) {
+        Integer currentEpoch = tokenEpochRegistry.currentEpoch(principal.getUser().getId());
+        return currentEpoch != null && principal.getClaims().getTokenEpoch() < currentEpoch;
+    }
+
+    private CachedPrincipal load(String token) {
+        JwtClaims claims = jwtUtil.parse(token);
+        User user = userRepository.findByEmail(claims.getEmail()).orElse(null);
+        if (user == null || claims.getTokenEpoch() < user.getTokenEpoch()) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities =
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
+        return new CachedPrincipal(claims, user, authorities);
+    }
+
+    // Expire at the configured TTL or when the token itself expires, whichever is sooner
+    static class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        private final long ttlNanos;
+
+        TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, CachedPrincipal principal, long currentTime) {
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                    principal.getClaims().getExpirationMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class CachedPrincipal {
+        private final JwtClaims claims;
+        private final User user;
+        private final List<GrantedAuthority> authorities;
+
+        public CachedPrincipal(JwtClaims claims, User user, List<GrantedAuthority> authorities) {
+            this.claims = claims;
+            this.user = user;
+            this.authorities = authorities;
+        }
+
+        public JwtClaims getClaims() { return claims; }
+
+        public User getUser() { return user; }
+
+        public List<GrantedAuthority> getAuthorities() { return authorities; }
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import com.amanda.cinema.model.User;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,11 +20,20 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final long jwtExpiration;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    // Built once; both are immutable and thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret,
+                   @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
 
     // Generate JWT for user
     public String generateToken(User user) {
@@ -31,70 +41,55 @@ public class JwtUtil {
         claims.put("userId", user.getId());        // Add user ID
         claims.put("role", user.getRole());        // Add role
         claims.put("name", user.getName());        // Add name (optional)
+        claims.put("epoch", user.getTokenEpoch()); // Tokens below the user's current epoch are revoked
         return createToken(claims, user.getEmail());
     }
 
     // Create token
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // Get signing key (256-bit+)
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    // Verify the token once and return all of its claims
+    public JwtClaims parse(String token) {
+        return JwtClaims.from(extractAllClaims(token));
     }
 
     // Extract email
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return parse(token).getEmail();
     }
 
     // Extract user ID from token
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object userIdObj = claims.get("userId");
-
-        if (userIdObj instanceof Integer) {
-            return ((Integer) userIdObj).longValue();
-        } else if (userIdObj instanceof Long) {
-            return (Long) userIdObj;
-        }
-        return null;
+        return parse(token).getUserId();
     }
 
     // Extract role from token
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return parse(token).getRole();
     }
 
     // Extract name from token
     public String extractName(String token) {
-        return extractAllClaims(token).get("name", String.class);
+        return parse(token).getName();
     }
 
     // Validate & parse token
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // Validate token
     public boolean validateToken(String token, String email) {
-        final String tokenEmail = extractUsername(token);
-        return (tokenEmail.equals(email) && !isTokenExpired(token));
-    }
-
-    // Check if token is expired
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+        JwtClaims claims = parse(token);
+        return claims.getEmail().equals(email) && claims.getExpirationMillis() > System.currentTimeMillis();
     }
-}
\ No newline at end of file
+}
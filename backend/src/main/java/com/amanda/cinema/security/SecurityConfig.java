@@ -2,6 +2,7 @@ package com.amanda.cinema.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -43,6 +44,12 @@ public class SecurityConfig {
                                 "/oauth2/**",
                                 "/login/**"
                         ).permitAll()
+                        // Raw photo bytes are loaded by <img> tags, which cannot send a bearer token
+                        .requestMatchers(HttpMethod.GET, "/api/admin/movies/*/photos/*/raw").permitAll()
+                        // Customer-facing movie lists
+                        .requestMatchers(HttpMethod.GET, "/api/catalog/**").permitAll()
+                        // Seat availability is shown before sign-in; holding seats needs a user
+                        .requestMatchers(HttpMethod.GET, "/api/bookings/showtimes/*/seats").permitAll()
                         // Admin endpoints - require authentication
                         .requestMatchers("/api/admin/**").authenticated()
                         // All other requests require authentication
@@ -0,0 +1,68 @@
+package com.amanda.cinema.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amanda.cinema.repository.UserRepository;
+
+// In-memory userId -> token epoch table. The stateless authentication mode checks tokens against
+// it; the principal cache drops entries loaded before a user's current epoch. Refreshed from the
+// users table on a fixed delay; changes made on this node are applied immediately, other nodes
+// pick them up on their next refresh.
+@Component
+public class TokenEpochRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenEpochRegistry.class);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private volatile Map<Long, Integer> epochs = new ConcurrentHashMap<>();
+
+    public TokenEpochRegistry(UserRepository userRepository,
+                              @Value("${security.jwt.stateless:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    // Whether tokens are authenticated from their claims alone
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Current epoch of a user, or null if the user was not present at the last refresh
+    public Integer currentEpoch(Long userId) {
+        return userId != null ? epochs.get(userId) : null;
+    }
+
+    // Apply a locally known epoch without waiting for the next refresh
+    public void record(Long userId, int epoch) {
+        epochs.merge(userId, epoch, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.epoch-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            List<Object[]> rows = userRepository.findAllTokenEpochs();
+            Map<Long, Integer> previous = epochs;
+            Map<Long, Integer> fresh = new ConcurrentHashMap<>(rows.size() * 2);
+            for (Object[] row : rows) {
+                Long userId = (Long) row[0];
+                int epoch = row[1] != null ? ((Number) row[1]).intValue() : 0;
+                // Epochs only grow; keep a bump recorded locally after this snapshot was read
+                fresh.put(userId, Math.max(epoch, previous.getOrDefault(userId, 0)));
+            }
+            // Users deleted since the last refresh drop out here
+            epochs = fresh;
+            logger.debug("Token epoch table refreshed with {} users", fresh.size());
+        } catch (Exception e) {
+            logger.warn("Token epoch refresh failed, keeping previous table", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.amanda.cinema.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+// Content-addressed photo store on the local disk: <root>/ab/cd/abcd...ef. The directory belongs to
+// this process, so locks striped by content hash order every store against every delete.
+@Component
+public class FileSystemPhotoStorage implements PhotoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemPhotoStorage.class);
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path tempDir;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // Stores whose rows have not committed yet, by content hash; guarded by the hash's lock
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    public FileSystemPhotoStorage(@Value("${photo.storage.path:./data/photos}") String rootPath) throws IOException {
+        this.root = Paths.get(rootPath).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        logger.info("Photo storage directory: {}", root);
+    }
+
+    @Override
+    public StoredPhoto store(InputStream data) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+        long size = 0;
+
+        try {
+            try (DigestInputStream in = new DigestInputStream(data, digest);
+                 OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(contentHash);
+
+            synchronized (lockFor(contentHash)) {
+                if (Files.exists(target)) {
+                    // Same bytes already stored - keep the existing copy
+                    Files.deleteIfExists(tempFile);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                pins.merge(contentHash, 1, Integer::sum);
+            }
+
+            return new StoredPhoto(contentHash, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public Resource load(String contentHash) {
+        Path path = pathFor(contentHash);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void release(String contentHash) {
+        synchronized (lockFor(contentHash)) {
+            pins.computeIfPresent(contentHash, (hash, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnreferenced(String contentHash, BooleanSupplier referenced) throws IOException {
+        Path path = pathFor(contentHash);
+        synchronized (lockFor(contentHash)) {
+            if (pins.containsKey(contentHash) || referenced.getAsBoolean()) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        }
+    }
+
+    private Object lockFor(String contentHash) {
+        return locks[Math.floorMod(contentHash.hashCode(), locks.length)];
+    }
+
+    private Path pathFor(String contentHash) {
+        if (contentHash == null || !SHA256_HEX.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
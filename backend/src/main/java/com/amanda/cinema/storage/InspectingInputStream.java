@@ -0,0 +1,113 @@
+package com.amanda.cinema.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// Wraps an upload stream to enforce the size limit and sniff the image type as bytes flow past,
+// so neither check needs the whole file in memory
+public class InspectingInputStream extends FilterInputStream {
+
+    static final int SNIFF_LENGTH = 12;
+
+    private final long maxBytes;
+    private final byte[] header = new byte[SNIFF_LENGTH];
+    private int headerLength;
+    private long count;
+    private String detectedContentType;
+
+    public InspectingInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            onEnd();
+        } else {
+            observe(new byte[] { (byte) b }, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        // Never pull more than one byte past the limit from the client
+        long allowed = maxBytes - count + 1;
+        int n = super.read(buffer, offset, (int) Math.min(length, Math.max(1, allowed)));
+        if (n == -1) {
+            onEnd();
+        } else if (n > 0) {
+            observe(buffer, offset, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("skip is not supported on inspected uploads");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    // Image MIME type detected from the magic bytes, available once the header has been read
+    public String getDetectedContentType() { return detectedContentType; }
+
+    public long getCount() { return count; }
+
+    private void observe(byte[] buffer, int offset, int n) throws PhotoRejectedException {
+        count += n;
+        if (count > maxBytes) {
+            throw new PhotoRejectedException(PhotoRejectedException.Reason.TOO_LARGE,
+                    "Photo exceeds the maximum size of " + maxBytes + " bytes");
+        }
+
+        if (detectedContentType == null && headerLength < SNIFF_LENGTH) {
+            int copy = Math.min(n, SNIFF_LENGTH - headerLength);
+            System.arraycopy(buffer, offset, header, headerLength, copy);
+            headerLength += copy;
+            if (headerLength == SNIFF_LENGTH) {
+                detect();
+            }
+        }
+    }
+
+    private void onEnd() throws PhotoRejectedException {
+        if (detectedContentType == null) {
+            detect();
+        }
+    }
+
+    private void detect() throws PhotoRejectedException {
+        detectedContentType = sniff(Arrays.copyOf(header, headerLength));
+        if (detectedContentType == null) {
+            throw new PhotoRejectedException(PhotoRejectedException.Reason.UNSUPPORTED_TYPE,
+                    "Only JPEG, PNG, GIF and WebP images are accepted");
+        }
+    }
+
+    static String sniff(byte[] h) {
+        if (h.length >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (h.length >= 8 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G'
+                && h[4] == 0x0D && h[5] == 0x0A && h[6] == 0x1A && h[7] == 0x0A) {
+            return "image/png";
+        }
+        if (h.length >= 6 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8'
+                && (h[4] == '7' || h[4] == '9') && h[5] == 'a') {
+            return "image/gif";
+        }
+        if (h.length >= 12 && h[0] == 'R' && h[1] == 'I' && h[2] == 'F' && h[3] == 'F'
+                && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+}
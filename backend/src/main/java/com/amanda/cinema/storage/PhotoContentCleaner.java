@@ -0,0 +1,71 @@
+package com.amanda.cinema.storage;
+
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+
+// Drops stored photo bytes that no photo or variant row references any more, once the transaction
+// that deleted the rows has committed
+@Component
+public class PhotoContentCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoContentCleaner.class);
+
+    private final MoviePhotoRepository moviePhotoRepository;
+    private final MoviePhotoVariantRepository moviePhotoVariantRepository;
+    private final PhotoStorage photoStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    public PhotoContentCleaner(MoviePhotoRepository moviePhotoRepository,
+                               MoviePhotoVariantRepository moviePhotoVariantRepository,
+                               PhotoStorage photoStorage,
+                               PlatformTransactionManager transactionManager) {
+        this.moviePhotoRepository = moviePhotoRepository;
+        this.moviePhotoVariantRepository = moviePhotoVariantRepository;
+        this.photoStorage = photoStorage;
+        // Reference counts are read after the deleting transaction has committed, when it can no
+        // longer run statements of its own, or after a failed insert rolled back
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Must be called inside the deleting transaction. References are counted after the commit:
+    // counted before it, a photo with the same content saved by another request in the meantime
+    // would be left pointing at deleted bytes.
+    public void deleteUnreferencedAfterCommit(Set<String> contentHashes) {
+        if (contentHashes.isEmpty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                contentHashes.forEach(PhotoContentCleaner.this::deleteUnreferenced);
+            }
+        });
+    }
+
+    // Delete stored content no committed row references, e.g. after the insert of the row that
+    // would have referenced it failed. Counted under the storage's lock for the hash, so a store
+    // of the same bytes cannot reuse the file between the count and the delete.
+    public void deleteUnreferenced(String contentHash) {
+        try {
+            photoStorage.deleteIfUnreferenced(contentHash, () -> Boolean.TRUE.equals(
+                    transactionTemplate.execute(status -> moviePhotoRepository.countByContentHash(contentHash) > 0
+                            || moviePhotoVariantRepository.countByContentHash(contentHash) > 0)));
+        } catch (Exception e) {
+            logger.warn("Failed to delete stored photo content {}", contentHash, e);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.amanda.cinema.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.model.MoviePhotoData;
+import com.amanda.cinema.model.MoviePhotoVariant;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Generates the PhotoVariant derivatives of uploaded photos on a bounded worker pool
+@Component
+public class PhotoDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoDerivativeService.class);
+    private static final int BACKFILL_PAGE_SIZE = 100;
+    private static final long BACKFILL_RETRY_MILLIS = 200;
+
+    private final MoviePhotoRepository moviePhotoRepository;
+    private final MoviePhotoDataRepository moviePhotoDataRepository;
+    private final MoviePhotoVariantRepository variantRepository;
+    private final PhotoStorage photoStorage;
+    private final PhotoContentCleaner photoContentCleaner;
+    private final TransactionTemplate transactionTemplate;
+    private final float quality;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "photo-derivative-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong backfillQueued = new AtomicLong();
+
+    public PhotoDerivativeService(MoviePhotoRepository moviePhotoRepository,
+                                  MoviePhotoDataRepository moviePhotoDataRepository,
+                                  MoviePhotoVariantRepository variantRepository,
+                                  PhotoStorage photoStorage,
+                                  PhotoContentCleaner photoContentCleaner,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${photo.derivatives.pool-size:2}") int poolSize,
+                                  @Value("${photo.derivatives.queue-capacity:200}") int queueCapacity,
+                                  @Value("${photo.derivatives.quality:0.82}") float quality) {
+        this.moviePhotoRepository = moviePhotoRepository;
+        this.moviePhotoDataRepository = moviePhotoDataRepository;
+        this.variantRepository = variantRepository;
+        this.photoStorage = photoStorage;
+        this.photoContentCleaner = photoContentCleaner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.quality = Math.max(0.1f, Math.min(1.0f, quality));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-derivative-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Decode and encode in memory rather than through ImageIO's temp files
+        ImageIO.setUseCache(false);
+    }
+
+    // Queue derivative generation once the surrounding transaction has committed the photo row
+    public void submitAfterCommit(Long photoId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(photoId);
+                }
+            });
+        } else {
+            submit(photoId);
+        }
+    }
+
+    // Queue derivative generation; returns false when the queue is full
+    public boolean submit(Long photoId) {
+        try {
+            workers.execute(() -> generate(photoId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            logger.warn("Derivative queue full, photo id {} left for backfill", photoId);
+            return false;
+        }
+    }
+
+    // Start queueing every photo that is missing variants; returns false if already running
+    public boolean startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        backfillQueued.set(0);
+
+        backfillExecutor.submit(() -> {
+            try {
+                runBackfill();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Photo derivative backfill aborted", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("backfillRunning", backfillRunning.get());
+        status.put("backfillQueued", backfillQueued.get());
+        status.put("queued", workers.getQueue().size());
+        status.put("active", workers.getActiveCount());
+        status.put("generated", generated.get());
+        status.put("failed", failed.get());
+        status.put("rejected", rejected.get());
+        return status;
+    }
+
+    private void runBackfill() throws InterruptedException {
+        logger.info("Photo derivative backfill started");
+        long afterId = 0;
+
+        while (true) {
+            List<Long> ids = variantRepository.findPhotoIdsMissingVariants(afterId,
+                    PhotoVariant.values().length, PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            for (Long id : ids) {
+                // Wait for the bounded queue to drain instead of dropping work
+                while (workers.getQueue().remainingCapacity() == 0) {
+                    Thread.sleep(BACKFILL_RETRY_MILLIS);
+                }
+                if (submit(id)) {
+                    backfillQueued.incrementAndGet();
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        logger.info("Photo derivative backfill queued {} photos", backfillQueued.get());
+    }
+
+    // Generate the photo's missing variants; runs on a worker, or the caller's thread in tests
+    void generate(Long photoId) {
+        try {
+            MoviePhoto photo = moviePhotoRepository.findById(photoId).orElse(null);
+            if (photo == null) {
+                return;
+            }
+
+            Set<String> existing = new HashSet<>(variantRepository.findVariantNamesByPhotoId(photoId));
+            if (existing.size() == PhotoVariant.values().length) {
+                return;
+            }
+
+            BufferedImage original;
+            try (InputStream in = openOriginal(photo)) {
+                original = in != null ? ImageIO.read(in) : null;
+            }
+            if (original == null) {
+                // No reader for the format (e.g. WebP) will appear on a later attempt either
+                failed.incrementAndGet();
+                transactionTemplate.executeWithoutResult(status ->
+                        moviePhotoRepository.markDerivativesFailed(photoId, LocalDateTime.now()));
+                logger.warn("Photo id {} could not be decoded, no derivatives generated", photoId);
+                return;
+            }
+
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                if (existing.contains(variant.name())) {
+                    continue;
+                }
+
+                BufferedImage scaled = scaleToFit(original, variant.getMaxWidth(), variant.getMaxHeight());
+                byte[] encoded = encodeJpeg(scaled);
+                StoredPhoto stored = photoStorage.store(new ByteArrayInputStream(encoded));
+
+                MoviePhotoVariant row = new MoviePhotoVariant();
+                row.setPhoto(photo);
+                row.setVariant(variant.name());
+                row.setContentHash(stored.getContentHash());
+                row.setContentType(MediaType.IMAGE_JPEG_VALUE);
+                row.setWidth(scaled.getWidth());
+                row.setHeight(scaled.getHeight());
+                row.setSizeBytes(stored.getSizeBytes());
+
+                boolean saved = false;
+                try {
+                    variantRepository.save(row);
+                    saved = true;
+                    generated.incrementAndGet();
+                } catch (DataIntegrityViolationException e) {
+                    if (!moviePhotoRepository.existsById(photoId)) {
+                        logger.debug("Photo id {} was deleted while its derivatives were generated", photoId);
+                        return;
+                    }
+                    // Another worker produced the same variant first
+                    logger.debug("Variant {} of photo id {} already exists", variant, photoId);
+                } finally {
+                    photoStorage.release(stored.getContentHash());
+                    if (!saved) {
+                        // Kept if the other worker's variant encoded to the same bytes
+                        photoContentCleaner.deleteUnreferenced(stored.getContentHash());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.error("Failed to generate derivatives for photo id: {}", photoId, e);
+        }
+    }
+
+    private InputStream openOriginal(MoviePhoto photo) throws IOException {
+        if (photo.getContentHash() != null) {
+            Resource resource = photoStorage.load(photo.getContentHash());
+            return resource != null ? resource.getInputStream() : null;
+        }
+        // Legacy photo whose bytes are still inline in the table
+        byte[] inline = moviePhotoDataRepository.findById(photo.getId())
+                .map(MoviePhotoData::getPhotoData)
+                .orElse(null);
+        return inline != null ? new ByteArrayInputStream(inline) : null;
+    }
+
+    // Downscale preserving aspect ratio (never upscales) onto an opaque RGB canvas for JPEG
+    private BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min(1.0, Math.min((double) maxWidth / source.getWidth(),
+                (double) maxHeight / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Halve in steps first; a single bilinear pass over a large reduction aliases badly
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
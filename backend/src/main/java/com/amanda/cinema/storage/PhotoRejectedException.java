@@ -0,0 +1,18 @@
+package com.amanda.cinema.storage;
+
+import java.io.IOException;
+
+// Thrown while an upload is still streaming, as soon as it is known to be unacceptable
+public class PhotoRejectedException extends IOException {
+
+    public enum Reason { TOO_LARGE, UNSUPPORTED_TYPE }
+
+    private final Reason reason;
+
+    public PhotoRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() { return reason; }
+}
@@ -0,0 +1,28 @@
+package com.amanda.cinema.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.core.io.Resource;
+
+// Backend that keeps photo bytes outside the database, addressed by their SHA-256 hash
+public interface PhotoStorage {
+
+    // Store the stream's bytes in fixed-size chunks; identical content is only kept once.
+    // Exceptions thrown by the stream (e.g. PhotoRejectedException) abort and discard the write.
+    // The content stays pinned against deleteIfUnreferenced until release is called, which the
+    // caller does once the row referencing it has committed or rolled back.
+    StoredPhoto store(InputStream data) throws IOException;
+
+    // Unpin content returned by store
+    void release(String contentHash);
+
+    // Open previously stored content, or null if nothing is stored under the hash
+    Resource load(String contentHash) throws IOException;
+
+    // Remove stored content if no store has it pinned and the check reports no committed row
+    // referencing it. Stores of the same content wait meanwhile, so none can reuse the file while
+    // it is being deleted. Returns whether the content was deleted.
+    boolean deleteIfUnreferenced(String contentHash, BooleanSupplier referenced) throws IOException;
+}
@@ -0,0 +1,234 @@
+package com.amanda.cinema.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.dto.PhotoRefDTO;
+import com.amanda.cinema.model.MoviePhotoData;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+// Moves legacy inline photo bytes out of movie_photos.photo_data into PhotoStorage, one batch per
+// transaction; a batch with a failing photo is redone one photo per transaction
+@Component
+public class PhotoStorageMigrationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoStorageMigrationJob.class);
+
+    private final MoviePhotoRepository moviePhotoRepository;
+    private final MoviePhotoDataRepository moviePhotoDataRepository;
+    private final PhotoStorage photoStorage;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "photo-storage-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile String lastError;
+
+    public PhotoStorageMigrationJob(MoviePhotoRepository moviePhotoRepository,
+                                    MoviePhotoDataRepository moviePhotoDataRepository,
+                                    PhotoStorage photoStorage,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager) {
+        this.moviePhotoRepository = moviePhotoRepository;
+        this.moviePhotoDataRepository = moviePhotoDataRepository;
+        this.photoStorage = photoStorage;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Start the migration in the background; returns false if it is already running
+    public boolean start(int batchSize) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        migrated.set(0);
+        failed.set(0);
+        lastError = null;
+
+        executor.submit(() -> {
+            try {
+                run(batchSize);
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.error("Photo storage migration aborted", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        status.put("migrated", migrated.get());
+        status.put("failed", failed.get());
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void run(int batchSize) {
+        logger.info("Photo storage migration started, batch size {}", batchSize);
+        long afterId = 0;
+
+        while (true) {
+            long cursor = afterId;
+            List<Long> ids = transactionTemplate.execute(status ->
+                    moviePhotoDataRepository.findIdsWithInlineData(cursor, PageRequest.of(0, batchSize)));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+
+            migrateBatch(ids);
+
+            afterId = ids.get(ids.size() - 1);
+            logger.info("Photo storage migration: {} migrated, {} failed (up to id {})",
+                    migrated.get(), failed.get(), afterId);
+        }
+
+        repairContentTypes(batchSize);
+        logger.info("Photo storage migration finished: {} migrated, {} failed", migrated.get(), failed.get());
+    }
+
+    // Record the sniffed type of photos an earlier run migrated without one
+    private void repairContentTypes(int batchSize) {
+        long afterId = 0;
+        int repaired = 0;
+
+        while (true) {
+            long cursor = afterId;
+            List<PhotoRefDTO> photos = transactionTemplate.execute(status ->
+                    moviePhotoRepository.findStoredPhotoRefsWithoutContentType(cursor, PageRequest.of(0, batchSize)));
+            if (photos == null || photos.isEmpty()) {
+                break;
+            }
+
+            for (PhotoRefDTO photo : photos) {
+                String contentType = sniffStored(photo);
+                if (contentType != null) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            moviePhotoRepository.updateContentType(photo.getPhotoId(), contentType));
+                    repaired++;
+                }
+            }
+            afterId = photos.get(photos.size() - 1).getPhotoId();
+        }
+
+        if (repaired > 0) {
+            logger.info("Photo storage migration recorded the content type of {} earlier migrated photos", repaired);
+        }
+    }
+
+    private String sniffStored(PhotoRefDTO photo) {
+        try {
+            Resource resource = photoStorage.load(photo.getContentHash());
+            if (resource == null) {
+                return null;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                return InspectingInputStream.sniff(in.readNBytes(InspectingInputStream.SNIFF_LENGTH));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read stored content of photo id: {}", photo.getPhotoId(), e);
+            return null;
+        }
+    }
+
+    // Migrate the batch in one transaction. A photo that fails marks that transaction rollback-only,
+    // so the batch is then redone with one transaction per photo to migrate the others and count
+    // that one as failed. Stored files are content-addressed, so writing one again is harmless.
+    private void migrateBatch(List<Long> ids) {
+        List<String> stored = new ArrayList<>();
+        try {
+            Integer done = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Long id : ids) {
+                    if (migrateOne(id, stored)) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            migrated.addAndGet(done != null ? done : 0);
+        } catch (RuntimeException e) {
+            logger.warn("Photo storage migration batch {}-{} failed, retrying photo by photo",
+                    ids.get(0), ids.get(ids.size() - 1), e);
+            for (Long id : ids) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrateOne(id, stored)))) {
+                        migrated.incrementAndGet();
+                    }
+                } catch (RuntimeException rowError) {
+                    failed.incrementAndGet();
+                    lastError = "Photo " + id + ": " + rowError.getMessage();
+                    logger.warn("Failed to migrate photo id: {}", id, rowError);
+                }
+            }
+        } finally {
+            // Every transaction of the batch has committed or rolled back
+            stored.forEach(photoStorage::release);
+        }
+    }
+
+    // Move one photo's bytes to storage, adding the content to those the caller releases once the
+    // transaction has ended; false if the photo has no bytes left to move
+    private boolean migrateOne(Long id, List<String> stored) {
+        MoviePhotoData data = moviePhotoDataRepository.findById(id).orElse(null);
+        if (data == null || data.getPhotoData() == null) {
+            return false;
+        }
+
+        StoredPhoto content;
+        try {
+            content = photoStorage.store(new ByteArrayInputStream(data.getPhotoData()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stored.add(content.getContentHash());
+
+        // Legacy rows carry no content type; without one the photo would be served as JPEG
+        String contentType = InspectingInputStream.sniff(data.getPhotoData());
+        if (contentType == null) {
+            logger.warn("Photo id {} is not a recognised image type, it will be served as JPEG", id);
+        }
+
+        // Release the blob as soon as it is written instead of holding the whole batch
+        entityManager.detach(data);
+        moviePhotoRepository.updateStoredContent(id, content.getContentHash(), content.getSizeBytes(), contentType);
+        moviePhotoDataRepository.clearPhotoData(id);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package com.amanda.cinema.storage;
+
+// Fixed-size derivatives generated for every uploaded photo, smallest first
+public enum PhotoVariant {
+    THUMBNAIL(240, 360),
+    CARD(480, 720),
+    HERO(1920, 1080);
+
+    private final int maxWidth;
+    private final int maxHeight;
+
+    PhotoVariant(int maxWidth, int maxHeight) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxWidth() { return maxWidth; }
+
+    public int getMaxHeight() { return maxHeight; }
+
+    public static PhotoVariant smallest() {
+        return THUMBNAIL;
+    }
+
+    // Parse the ?variant= request parameter, or null if it names no variant
+    public static PhotoVariant fromParam(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (PhotoVariant variant : values()) {
+            if (variant.name().equalsIgnoreCase(value.trim())) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
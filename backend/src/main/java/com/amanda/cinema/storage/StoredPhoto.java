@@ -0,0 +1,16 @@
+package com.amanda.cinema.storage;
+
+// Result of writing photo bytes to a PhotoStorage
+public class StoredPhoto {
+    private final String contentHash;
+    private final long sizeBytes;
+
+    public StoredPhoto(String contentHash, long sizeBytes) {
+        this.contentHash = contentHash;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getContentHash() { return contentHash; }
+
+    public long getSizeBytes() { return sizeBytes; }
+}
@@ -0,0 +1,61 @@
+package com.amanda.cinema.storage;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Writes a whole file to the response. With Tomcat's sendfile support (NIO/NIO2 connectors over
+// plain HTTP) the kernel copies the file to the socket and it never enters the JVM. Without it
+// (TLS connectors, sendfile disabled, other containers) the file is copied through transferTo into
+// the servlet output stream: no whole-file buffer, but every byte still passes through user space
+// in small chunks, so that path is not zero-copy. The first such response logs a warning.
+@Component
+public class ZeroCopyFileSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZeroCopyFileSender.class);
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AtomicBoolean fallbackLogged = new AtomicBoolean(false);
+
+    // Headers (status, content type, caching) must already be set on the response
+    public void send(HttpServletRequest request, HttpServletResponse response, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentLengthLong(size);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                // Tomcat streams the file itself once the request completes
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+
+            if (fallbackLogged.compareAndSet(false, true)) {
+                logger.warn("Connector does not offer sendfile; files are copied through the response stream");
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+            response.flushBuffer();
+        }
+    }
+}
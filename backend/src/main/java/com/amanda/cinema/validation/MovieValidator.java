@@ -0,0 +1,31 @@
+package com.amanda.cinema.validation;
+
+import com.amanda.cinema.model.Movie;
+
+// The rules a new movie must meet, shared by createMovie and the bulk catalog import
+public final class MovieValidator {
+
+    private MovieValidator() {
+    }
+
+    // The first rule the movie breaks, or null when it is valid
+    public static String validate(Movie movie) {
+        if (movie.getTitle() == null || movie.getTitle().trim().isEmpty()) {
+            return "Title is required";
+        }
+        if (movie.getDurationMinutes() == null) {
+            return "Duration is required";
+        }
+        if (movie.getStartTime() == null) {
+            return "Start time is required";
+        }
+        return null;
+    }
+
+    // Fill in what the client may leave out
+    public static void applyDefaults(Movie movie) {
+        if (movie.getStatus() == null || movie.getStatus().trim().isEmpty()) {
+            movie.setStatus("ACTIVE");
+        }
+    }
+}
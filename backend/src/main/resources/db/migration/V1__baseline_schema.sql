@@ -0,0 +1,59 @@
+-- Baseline schema as ddl-auto=update created it from the original entities, before photo storage,
+-- photo variants and token epochs. Databases that already have these tables are baselined at
+-- version 1 and skip this script, so it must not describe anything they lack: later columns and
+-- tables belong in the versioned scripts after it.
+
+CREATE TABLE users (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NULL,
+    role        VARCHAR(255) NULL,
+    provider    VARCHAR(255) NULL,
+    password    VARCHAR(255) NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE movies (
+    id               BIGINT IDENTITY(1,1) NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    description      NVARCHAR(MAX) NULL,
+    genre            VARCHAR(255) NULL,
+    duration_minutes INT NOT NULL,
+    start_time       TIME NOT NULL,
+    language         VARCHAR(255) NULL,
+    rating           VARCHAR(255) NULL,
+    release_date     DATE NULL,
+    show_start_date  DATE NULL,
+    show_end_date    DATE NULL,
+    director         VARCHAR(255) NULL,
+    [cast]           NVARCHAR(MAX) NULL,
+    status           VARCHAR(50) NULL,
+    created_at       DATETIME2(6) NULL,
+    updated_at       DATETIME2(6) NULL,
+    CONSTRAINT pk_movies PRIMARY KEY (id)
+);
+
+CREATE TABLE movie_photos (
+    id           BIGINT IDENTITY(1,1) NOT NULL,
+    movie_id     BIGINT NOT NULL,
+    photo_data   VARBINARY(MAX) NOT NULL,
+    is_primary   BIT NULL,
+    created_at   DATETIME2(6) NULL,
+    CONSTRAINT pk_movie_photos PRIMARY KEY (id),
+    CONSTRAINT fk_movie_photos_movie FOREIGN KEY (movie_id) REFERENCES movies (id)
+);
+
+CREATE TABLE showtimes (
+    id         BIGINT IDENTITY(1,1) NOT NULL,
+    movie_id   BIGINT NOT NULL,
+    show_date  DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time   TIME NOT NULL,
+    price      NUMERIC(10,2) NOT NULL,
+    status     VARCHAR(50) NULL,
+    created_at DATETIME2(6) NULL,
+    updated_at DATETIME2(6) NULL,
+    CONSTRAINT pk_showtimes PRIMARY KEY (id),
+    CONSTRAINT fk_showtimes_movie FOREIGN KEY (movie_id) REFERENCES movies (id)
+);
@@ -0,0 +1,38 @@
+-- Columns and tables added after the baseline: stored photo content (content_hash, size_bytes,
+-- content_type), generated photo variants and per-user token epochs. A database that ran those
+-- versions under ddl-auto=update before it was baselined may already have some of them, so each
+-- is created only when missing.
+
+IF COL_LENGTH('movie_photos', 'content_hash') IS NULL
+    ALTER TABLE movie_photos ADD content_hash VARCHAR(64) NULL;
+GO
+
+IF COL_LENGTH('movie_photos', 'size_bytes') IS NULL
+    ALTER TABLE movie_photos ADD size_bytes BIGINT NULL;
+GO
+
+IF COL_LENGTH('movie_photos', 'content_type') IS NULL
+    ALTER TABLE movie_photos ADD content_type VARCHAR(100) NULL;
+GO
+
+IF OBJECT_ID('movie_photo_variants', 'U') IS NULL
+    CREATE TABLE movie_photo_variants (
+        id           BIGINT IDENTITY(1,1) NOT NULL,
+        photo_id     BIGINT NOT NULL,
+        variant      VARCHAR(20) NOT NULL,
+        content_hash VARCHAR(64) NOT NULL,
+        content_type VARCHAR(100) NOT NULL,
+        width        INT NULL,
+        height       INT NULL,
+        size_bytes   BIGINT NULL,
+        created_at   DATETIME2(6) NULL,
+        CONSTRAINT pk_movie_photo_variants PRIMARY KEY (id),
+        CONSTRAINT uk_movie_photo_variants_photo_variant UNIQUE (photo_id, variant),
+        CONSTRAINT fk_movie_photo_variants_photo FOREIGN KEY (photo_id)
+            REFERENCES movie_photos (id) ON DELETE CASCADE
+    );
+GO
+
+IF COL_LENGTH('users', 'token_epoch') IS NULL
+    ALTER TABLE users ADD token_epoch INT NULL;
+GO
@@ -0,0 +1,19 @@
+-- Former SchemaPatchRunner patches for databases created by ddl-auto=update.
+
+-- Photo bytes moved to PhotoStorage, so the legacy inline column must accept NULL
+IF COLUMNPROPERTY(OBJECT_ID('movie_photos'), 'photo_data', 'AllowsNull') = 0
+    ALTER TABLE movie_photos ALTER COLUMN photo_data VARBINARY(MAX) NULL;
+GO
+
+-- At most one primary photo per movie; older duplicate primaries are demoted first
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ux_movie_photos_primary' AND object_id = OBJECT_ID('movie_photos'))
+BEGIN
+    UPDATE mp SET is_primary = 0
+    FROM movie_photos mp
+    WHERE mp.is_primary = 1
+      AND EXISTS (SELECT 1 FROM movie_photos newer
+                  WHERE newer.movie_id = mp.movie_id AND newer.is_primary = 1 AND newer.id > mp.id);
+    CREATE UNIQUE INDEX ux_movie_photos_primary ON movie_photos (movie_id) WHERE is_primary = 1;
+END;
+GO
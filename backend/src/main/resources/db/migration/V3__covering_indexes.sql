@@ -0,0 +1,64 @@
+-- Covering indexes for the hot read paths. INCLUDE lists carry the columns the queries select,
+-- so none of them needs a key lookup into the clustered primary key.
+
+-- findUpcomingShowtimes / streamUpcomingShowtimes: status = 'ACTIVE' AND show_date >= ?
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_showtimes_status_date_time' AND object_id = OBJECT_ID('showtimes'))
+    CREATE INDEX ix_showtimes_status_date_time ON showtimes (status, show_date, start_time)
+        INCLUDE (movie_id, end_time, price);
+GO
+
+-- findByDateRange, findByShowDate and keyset pages in (show_date, start_time, id) order.
+-- Replaces the key-only index ddl-auto may have created under the same name.
+IF EXISTS (SELECT 1 FROM sys.indexes
+           WHERE name = 'ix_showtimes_date_time' AND object_id = OBJECT_ID('showtimes'))
+BEGIN
+    CREATE INDEX ix_showtimes_date_time ON showtimes (show_date, start_time)
+        INCLUDE (movie_id, end_time, price, status) WITH (DROP_EXISTING = ON);
+END
+ELSE
+BEGIN
+    CREATE INDEX ix_showtimes_date_time ON showtimes (show_date, start_time)
+        INCLUDE (movie_id, end_time, price, status);
+END
+GO
+
+-- findByMovieIdAndShowDate / findDTOsByMovieId and the movie foreign key
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_showtimes_movie_date' AND object_id = OBJECT_ID('showtimes'))
+    CREATE INDEX ix_showtimes_movie_date ON showtimes (movie_id, show_date, start_time)
+        INCLUDE (end_time, price, status);
+GO
+
+-- findCurrentlyShowing / findComingSoon: status = ? AND show_start_date <= ? AND show_end_date >= ?
+-- These load whole entities, so the seek is followed by key lookups for the selected rows only
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_movies_status_show_dates' AND object_id = OBJECT_ID('movies'))
+    CREATE INDEX ix_movies_status_show_dates ON movies (status, show_start_date, show_end_date);
+GO
+
+-- findPrimaryPhotoByMovieId / findPrimaryPhotoRefsByMovieIds: rebuild the filtered unique
+-- index from V2 so the photo reference columns are covered
+CREATE UNIQUE INDEX ux_movie_photos_primary ON movie_photos (movie_id)
+    INCLUDE (content_type, content_hash, size_bytes)
+    WHERE is_primary = 1
+    WITH (DROP_EXISTING = ON);
+GO
+
+-- findPhotoRefsByMovieId and the movie foreign key
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_movie_photos_movie' AND object_id = OBJECT_ID('movie_photos'))
+    CREATE INDEX ix_movie_photos_movie ON movie_photos (movie_id)
+        INCLUDE (is_primary, content_type, content_hash, size_bytes);
+GO
+
+-- countByContentHash before deleting stored files
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_movie_photos_content_hash' AND object_id = OBJECT_ID('movie_photos'))
+    CREATE INDEX ix_movie_photos_content_hash ON movie_photos (content_hash) WHERE content_hash IS NOT NULL;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE name = 'ix_movie_photo_variants_content_hash' AND object_id = OBJECT_ID('movie_photo_variants'))
+    CREATE INDEX ix_movie_photo_variants_content_hash ON movie_photo_variants (content_hash);
+GO
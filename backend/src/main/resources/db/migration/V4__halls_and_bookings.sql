@@ -0,0 +1,70 @@
+-- Seat sales: halls with a seat grid, showtimes placed in a hall, and bookings owning seats.
+-- booking_seats rows exist only for HELD and CONFIRMED bookings, so the unique key on
+-- (showtime_id, seat_index) rejects any second sale of a seat.
+
+CREATE TABLE halls (
+    id            BIGINT IDENTITY(1,1) NOT NULL,
+    name          VARCHAR(100) NOT NULL,
+    seat_rows     INT NOT NULL,
+    seats_per_row INT NOT NULL,
+    created_at    DATETIME2(6) NULL,
+    updated_at    DATETIME2(6) NULL,
+    CONSTRAINT pk_halls PRIMARY KEY (id),
+    CONSTRAINT uk_halls_name UNIQUE (name),
+    CONSTRAINT ck_halls_grid CHECK (seat_rows > 0 AND seats_per_row > 0)
+);
+GO
+
+ALTER TABLE showtimes ADD hall_id BIGINT NULL
+    CONSTRAINT fk_showtimes_hall FOREIGN KEY REFERENCES halls (id);
+GO
+
+CREATE INDEX ix_showtimes_hall_date ON showtimes (hall_id, show_date, start_time)
+    INCLUDE (end_time, status)
+    WHERE hall_id IS NOT NULL;
+GO
+
+CREATE TABLE bookings (
+    id              BIGINT IDENTITY(1,1) NOT NULL,
+    showtime_id     BIGINT NOT NULL,
+    user_id         BIGINT NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    seat_count      INT NOT NULL,
+    total_price     NUMERIC(10,2) NOT NULL,
+    hold_expires_at DATETIME2(6) NULL,
+    created_at      DATETIME2(6) NULL,
+    updated_at      DATETIME2(6) NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_showtime FOREIGN KEY (showtime_id) REFERENCES showtimes (id),
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+GO
+
+-- A user's bookings, newest first
+CREATE INDEX ix_bookings_user ON bookings (user_id, created_at DESC);
+GO
+
+-- The hold expiry sweep: HELD bookings past hold_expires_at
+CREATE INDEX ix_bookings_held_expiry ON bookings (hold_expires_at)
+    INCLUDE (showtime_id)
+    WHERE status = 'HELD';
+GO
+
+-- Active bookings of a showtime, e.g. before moving it to another hall
+CREATE INDEX ix_bookings_showtime ON bookings (showtime_id, status);
+GO
+
+CREATE TABLE booking_seats (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    booking_id  BIGINT NOT NULL,
+    showtime_id BIGINT NOT NULL,
+    seat_index  INT NOT NULL,
+    CONSTRAINT pk_booking_seats PRIMARY KEY (id),
+    CONSTRAINT uk_booking_seats_showtime_seat UNIQUE (showtime_id, seat_index),
+    CONSTRAINT fk_booking_seats_booking FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_seats_showtime FOREIGN KEY (showtime_id) REFERENCES showtimes (id)
+);
+GO
+
+CREATE INDEX ix_booking_seats_booking ON booking_seats (booking_id) INCLUDE (seat_index);
+GO
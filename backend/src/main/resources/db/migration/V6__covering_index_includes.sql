@@ -0,0 +1,23 @@
+-- Complete the INCLUDE lists of the covering indexes for the columns the queries actually select.
+
+-- findCurrentlyShowing / findComingSoon load whole movies. Include every mapped column so the seek
+-- on (status, show dates) answers them without a key lookup per row; description and [cast] are
+-- NVARCHAR(MAX) and, as included columns, are stored at the leaf level only.
+CREATE INDEX ix_movies_status_show_dates ON movies (status, show_start_date, show_end_date)
+    INCLUDE (title, description, genre, duration_minutes, start_time, language, rating, release_date,
+             director, [cast], created_at, updated_at)
+    WITH (DROP_EXISTING = ON);
+GO
+
+-- Showtime projections select hall_id since halls were added (V4); V5 recreated these indexes
+-- without it
+CREATE INDEX ix_showtimes_status_date_time ON showtimes (status, show_date, start_time)
+    INCLUDE (movie_id, end_time, price, hall_id)
+    WITH (DROP_EXISTING = ON);
+CREATE INDEX ix_showtimes_date_time ON showtimes (show_date, start_time)
+    INCLUDE (movie_id, end_time, price, status, hall_id)
+    WITH (DROP_EXISTING = ON);
+CREATE INDEX ix_showtimes_movie_date ON showtimes (movie_id, show_date, start_time)
+    INCLUDE (end_time, price, status, hall_id)
+    WITH (DROP_EXISTING = ON);
+GO
@@ -0,0 +1,4 @@
+-- When derivative generation gave up on a photo whose content cannot be decoded (e.g. WebP).
+-- Backfills skip such photos; clearing the column queues the photo again.
+ALTER TABLE movie_photos ADD derivatives_failed_at DATETIME2(6) NULL;
+GO
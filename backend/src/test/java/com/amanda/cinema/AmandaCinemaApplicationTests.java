@@ -3,7 +3,18 @@ package com.amanda.cinema;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The Flyway scripts are written for SQL Server, so the schema comes from the entities here;
+// the persistence tests cover the queries against H2 in SQL Server mode
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:context;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.flyway.enabled=false",
+		"spring.jpa.properties.hibernate.auto_quote_keyword=true",
+		"jwt.secret=test-secret-test-secret-test-secret-test-secret",
+		"jwt.expiration=3600000",
+		"spring.security.oauth2.client.registration.google.client-id=test-client",
+		"spring.security.oauth2.client.registration.google.client-secret=test-secret"
+})
 class AmandaCinemaApplicationTests {
 
 	@Test
@@ -0,0 +1,252 @@
+package com.amanda.cinema.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amanda.cinema.dto.BookingDTO;
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.BookingSeat;
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.BookingSeatRepository;
+import com.amanda.cinema.repository.HallRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+import com.amanda.cinema.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookings;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The service commits in transactions of its own, so the seeded rows must commit too
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SeatInventory seatInventory;
+    private HoldExpiryService holdExpiry;
+    private BookingService service;
+    private User user;
+    private User otherUser;
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("viewer@example.com", "Viewer", "USER", "LOCAL"));
+        otherUser = userRepository.save(new User("other@example.com", "Other", "USER", "LOCAL"));
+
+        Movie movie = new Movie();
+        movie.setTitle("Harbour Lights");
+        movie.setStatus("ACTIVE");
+        movie.setDurationMinutes(110);
+        movie.setStartTime(LocalTime.of(20, 0));
+        movie = movieRepository.save(movie);
+        Hall hall = hallRepository.save(new Hall("Hall 1", 4, 10));
+
+        showtime = new Showtime();
+        showtime.setMovie(movie);
+        showtime.setHall(hall);
+        showtime.setShowDate(LocalDate.now().plusDays(1));
+        showtime.setStartTime(LocalTime.of(20, 0));
+        showtime.setEndTime(LocalTime.of(21, 50));
+        showtime.setPrice(new BigDecimal("9.50"));
+        showtime = showtimeRepository.save(showtime);
+
+        seatInventory = new SeatInventory(bookingSeatRepository);
+        holdExpiry = new HoldExpiryService(bookingRepository, bookingSeatRepository, seatInventory,
+                transactionManager, new SimpleMeterRegistry(), 1000, 512, 30, 60, 60);
+        service = new BookingService(showtimeRepository, bookingRepository, bookingSeatRepository, userRepository,
+                seatInventory, holdExpiry, transactionManager, 4, 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdExpiry.shutdown();
+        bookingSeatRepository.deleteAll();
+        bookingRepository.deleteAll();
+        showtimeRepository.deleteAll();
+        hallRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void holdTakesTheSeatsUntilItExpires() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("b2", "A1"), user.getId());
+
+        assertThat(held.getStatus()).isEqualTo(Booking.HELD);
+        assertThat(held.getSeats()).containsExactly("A1", "B2");
+        assertThat(held.getTotalPrice()).isEqualByComparingTo("19.00");
+        assertThat(held.getHoldExpiresAt()).isAfter(LocalDateTime.now().plusSeconds(590));
+        assertThat(bookingSeatRepository.findSeatIndexesByBookingId(held.getId())).containsExactlyInAnyOrder(0, 11);
+        assertThat(service.seatMap(showtime.getId()).getTaken()).containsExactly("A1", "B2");
+        assertThat(holdExpiry.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void heldSeatsAreRefusedToTheNextRequest() {
+        service.hold(showtime.getId(), List.of("A1"), user.getId());
+
+        assertThatThrownBy(() -> service.hold(showtime.getId(), List.of("A1", "A2"), otherUser.getId()))
+                .isInstanceOfSatisfying(BookingException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(BookingException.Reason.SEATS_UNAVAILABLE);
+                    assertThat(e.getSeats()).containsExactly("A1");
+                });
+        // The refused request's other seat was not kept
+        assertThat(service.seatMap(showtime.getId()).getTaken()).containsExactly("A1");
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownSeatsAndPastShowtimesAreRejected() {
+        assertThatThrownBy(() -> service.hold(showtime.getId(), List.of("A1", "Z99"), user.getId()))
+                .isInstanceOfSatisfying(BookingException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(BookingException.Reason.INVALID_SEATS);
+                    assertThat(e.getSeats()).containsExactly("Z99");
+                });
+
+        showtime.setShowDate(LocalDate.now().minusDays(1));
+        showtimeRepository.save(showtime);
+        assertThatThrownBy(() -> service.hold(showtime.getId(), List.of("A1"), user.getId()))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.NOT_BOOKABLE));
+    }
+
+    @Test
+    void mapThatMissedASeatTakenInTheDatabaseIsEvictedAndReloaded() {
+        assertThat(service.seatMap(showtime.getId()).getTaken()).isEmpty();
+        // Another node sells A1 after this node loaded its map
+        Booking sold = new Booking();
+        sold.setShowtime(showtime);
+        sold.setUser(otherUser);
+        sold.setStatus(Booking.CONFIRMED);
+        sold.setSeatCount(1);
+        sold.setTotalPrice(new BigDecimal("9.50"));
+        bookingRepository.save(sold);
+        bookingSeatRepository.save(new BookingSeat(sold, showtime.getId(), 0));
+
+        assertThatThrownBy(() -> service.hold(showtime.getId(), List.of("A1", "A2"), user.getId()))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.SEATS_UNAVAILABLE));
+
+        assertThat(seatInventory.size()).isZero();
+        assertThat(service.seatMap(showtime.getId()).getTaken()).containsExactly("A1");
+        assertThat(bookingRepository.findAll()).extracting(Booking::getId).containsExactly(sold.getId());
+        assertThat(holdExpiry.pending()).isZero();
+    }
+
+    @Test
+    void confirmTurnsTheHoldIntoASale() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("C5"), user.getId());
+
+        BookingDTO confirmed = service.confirm(held.getId(), user.getId());
+
+        assertThat(confirmed.getStatus()).isEqualTo(Booking.CONFIRMED);
+        assertThat(confirmed.getHoldExpiresAt()).isNull();
+        assertThat(confirmed.getSeats()).containsExactly("C5");
+        assertThat(holdExpiry.pending()).isZero();
+        assertThatThrownBy(() -> service.confirm(held.getId(), user.getId()))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.INVALID_STATE));
+    }
+
+    @Test
+    void holdPastItsDeadlineCannotBeConfirmed() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("C5"), user.getId());
+        jdbcTemplate.update("UPDATE bookings SET hold_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), held.getId());
+
+        assertThatThrownBy(() -> service.confirm(held.getId(), user.getId()))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.HOLD_EXPIRED));
+        assertThat(bookingRepository.findById(held.getId()).orElseThrow().getStatus()).isEqualTo(Booking.HELD);
+    }
+
+    @Test
+    void otherUsersBookingsAreNotFound() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("C5"), user.getId());
+
+        assertThatThrownBy(() -> service.confirm(held.getId(), otherUser.getId()))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.NOT_FOUND));
+        assertThatThrownBy(() -> service.cancel(held.getId(), otherUser.getId(), false))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.NOT_FOUND));
+    }
+
+    @Test
+    void cancelFreesTheSeats() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("D1", "D2"), user.getId());
+
+        BookingDTO cancelled = service.cancel(held.getId(), user.getId(), false);
+
+        assertThat(cancelled.getStatus()).isEqualTo(Booking.CANCELLED);
+        assertThat(bookingSeatRepository.findSeatIndexesByBookingId(held.getId())).isEmpty();
+        assertThat(service.seatMap(showtime.getId()).getAvailable()).isEqualTo(40);
+        assertThat(holdExpiry.pending()).isZero();
+        assertThatThrownBy(() -> service.cancel(held.getId(), user.getId(), false))
+                .isInstanceOfSatisfying(BookingException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(BookingException.Reason.INVALID_STATE));
+
+        // The freed seats can be held again
+        assertThat(service.hold(showtime.getId(), List.of("D1", "D2"), otherUser.getId()).getStatus())
+                .isEqualTo(Booking.HELD);
+    }
+
+    @Test
+    void adminsCancelAnyonesSale() {
+        BookingDTO held = service.hold(showtime.getId(), List.of("D1"), user.getId());
+        service.confirm(held.getId(), user.getId());
+
+        assertThat(service.cancel(held.getId(), otherUser.getId(), true).getStatus()).isEqualTo(Booking.CANCELLED);
+        assertThat(service.seatMap(showtime.getId()).getTaken()).isEmpty();
+    }
+}
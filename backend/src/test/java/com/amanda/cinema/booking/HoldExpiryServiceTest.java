@@ -0,0 +1,228 @@
+package com.amanda.cinema.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amanda.cinema.model.Booking;
+import com.amanda.cinema.model.BookingSeat;
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.BookingRepository;
+import com.amanda.cinema.repository.BookingSeatRepository;
+import com.amanda.cinema.repository.HallRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+import com.amanda.cinema.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hold-expiry;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Expiry runs in transactions of its own, so the seeded holds must commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HoldExpiryServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> releases = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private HoldExpiryService holdExpiry;
+    private User user;
+    private Showtime showtime;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("viewer@example.com", "Viewer", "USER", "LOCAL"));
+
+        Movie movie = new Movie();
+        movie.setTitle("Harbour Lights");
+        movie.setStatus("ACTIVE");
+        movie.setDurationMinutes(110);
+        movie.setStartTime(LocalTime.of(20, 0));
+        movie = movieRepository.save(movie);
+
+        showtime = new Showtime();
+        showtime.setMovie(movie);
+        showtime.setHall(hallRepository.save(new Hall("Hall 1", 4, 10)));
+        showtime.setShowDate(LocalDate.now().plusDays(1));
+        showtime.setStartTime(LocalTime.of(20, 0));
+        showtime.setEndTime(LocalTime.of(21, 50));
+        showtime.setPrice(BigDecimal.TEN);
+        showtime = showtimeRepository.save(showtime);
+
+        meterRegistry = new SimpleMeterRegistry();
+        holdExpiry = service(bookingSeatRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdExpiry.shutdown();
+        bookingSeatRepository.deleteAll();
+        bookingRepository.deleteAll();
+        showtimeRepository.deleteAll();
+        hallRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void dueHoldsExpireAndTheirSeatsAreReleasedOnceThatCommitted() {
+        Long due = hold(LocalDateTime.now().minusSeconds(1), 0, 1);
+        Long other = hold(LocalDateTime.now().minusSeconds(1), 5);
+
+        assertThat(holdExpiry.expireBatch(List.of(due))).isTrue();
+
+        assertThat(status(due)).isEqualTo(Booking.EXPIRED);
+        assertThat(bookingSeatRepository.findSeatIndexesByBookingId(due)).isEmpty();
+        // Released after the commit: another connection already sees the booking expired
+        assertThat(releases).containsExactly("[0, 1] with 1 expired");
+        assertThat(status(other)).isEqualTo(Booking.HELD);
+        assertThat(meterRegistry.counter("booking.holds.expired").count()).isEqualTo(1);
+    }
+
+    @Test
+    void holdNotYetDueByTheDatabaseClockGoesBackOnTheWheel() {
+        // The wheel fired early, e.g. its clock runs ahead of the database's
+        Long early = hold(LocalDateTime.now().plusMinutes(5), 2);
+
+        assertThat(holdExpiry.expireBatch(List.of(early))).isTrue();
+
+        assertThat(status(early)).isEqualTo(Booking.HELD);
+        assertThat(bookingSeatRepository.findSeatIndexesByBookingId(early)).containsExactly(2);
+        assertThat(releases).isEmpty();
+        assertThat(holdExpiry.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void confirmedBookingsAreLeftAlone() {
+        Long confirmed = hold(LocalDateTime.now().minusSeconds(1), 3);
+        jdbcTemplate.update("UPDATE bookings SET status = 'CONFIRMED', hold_expires_at = NULL WHERE id = ?", confirmed);
+
+        assertThat(holdExpiry.expireBatch(List.of(confirmed))).isTrue();
+
+        assertThat(status(confirmed)).isEqualTo(Booking.CONFIRMED);
+        assertThat(bookingSeatRepository.findSeatIndexesByBookingId(confirmed)).containsExactly(3);
+        assertThat(releases).isEmpty();
+        assertThat(holdExpiry.pending()).isZero();
+    }
+
+    @Test
+    void failedBatchIsRetriedFromTheWheel() {
+        BookingSeatRepository failing = mock(BookingSeatRepository.class);
+        when(failing.findByBookingIds(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        holdExpiry.shutdown();
+        holdExpiry = service(failing);
+        Long due = hold(LocalDateTime.now().minusSeconds(1), 4);
+
+        assertThat(holdExpiry.expireBatch(List.of(due))).isFalse();
+
+        assertThat(status(due)).isEqualTo(Booking.HELD);
+        assertThat(releases).isEmpty();
+        assertThat(holdExpiry.pending()).isEqualTo(1);
+        assertThat(meterRegistry.counter("booking.holds.expiry.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepExpiresHoldsLongOverdueThatNoWheelHas() {
+        // Taken by a node that died: in the database only
+        Long abandoned = hold(LocalDateTime.now().minusMinutes(5), 6, 7);
+        // Overdue within the grace period, so its own node's wheel may still expire it
+        Long recent = hold(LocalDateTime.now().minusSeconds(10), 8);
+        Long current = hold(LocalDateTime.now().plusMinutes(5), 9);
+
+        holdExpiry.sweep();
+
+        assertThat(status(abandoned)).isEqualTo(Booking.EXPIRED);
+        assertThat(status(recent)).isEqualTo(Booking.HELD);
+        assertThat(status(current)).isEqualTo(Booking.HELD);
+        assertThat(releases).containsExactly("[6, 7] with 1 expired");
+    }
+
+    private HoldExpiryService service(BookingSeatRepository seats) {
+        // Records each release with the number of expired bookings another connection sees by then
+        SeatInventory seatInventory = new SeatInventory(bookingSeatRepository) {
+            @Override
+            public void release(Long showtimeId, int[] released) {
+                Integer committed = CompletableFuture.supplyAsync(() -> jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM bookings WHERE status = 'EXPIRED'", Integer.class)).join();
+                releases.add(Arrays.toString(released) + " with " + committed + " expired");
+                super.release(showtimeId, released);
+            }
+        };
+        return new HoldExpiryService(bookingRepository, seats, seatInventory, transactionManager, meterRegistry,
+                1000, 512, 30, 60, 60);
+    }
+
+    // A HELD booking of the seats with the given deadline, written directly so no wheel has it
+    private Long hold(LocalDateTime expiresAt, Integer... seats) {
+        Booking booking = new Booking();
+        booking.setShowtime(showtime);
+        booking.setUser(user);
+        booking.setStatus(Booking.HELD);
+        booking.setSeatCount(seats.length);
+        booking.setTotalPrice(BigDecimal.TEN.multiply(BigDecimal.valueOf(seats.length)));
+        booking.setHoldExpiresAt(expiresAt);
+        bookingRepository.save(booking);
+        for (Integer seat : seats) {
+            bookingSeatRepository.save(new BookingSeat(booking, showtime.getId(), seat));
+        }
+        return booking.getId();
+    }
+
+    private String status(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+}
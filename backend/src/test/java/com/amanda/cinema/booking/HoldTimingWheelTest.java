@@ -0,0 +1,82 @@
+package com.amanda.cinema.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HoldTimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void holdsExpireWithinOneTickOfTheirDeadlineAndCancelledOnesNever() {
+        HoldTimingWheel wheel = new HoldTimingWheel(512, TICK, 0);
+        int holds = 200_000;
+        long[] deadlines = new long[holds];
+        Random random = new Random(42);
+        for (int i = 0; i < holds; i++) {
+            // Up to twice around the wheel, so slots mix entries of different turns
+            deadlines[i] = random.nextInt((int) (2 * 512 * TICK));
+            wheel.schedule((long) i, deadlines[i]);
+        }
+        Set<Long> cancelled = new HashSet<>();
+        for (long i = 0; i < holds; i += 3) {
+            assertThat(wheel.cancel(i)).isTrue();
+            cancelled.add(i);
+        }
+        assertThat(wheel.size()).isEqualTo(holds - cancelled.size());
+
+        Set<Long> expired = new HashSet<>();
+        for (long now = 0; now <= 2 * 512 * TICK; now += TICK) {
+            for (Long id : wheel.advance(now)) {
+                long deadline = deadlines[id.intValue()];
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                assertThat(now - deadline).isLessThan(TICK);
+                assertThat(expired.add(id)).isTrue();
+            }
+        }
+
+        assertThat(expired).hasSize(holds - cancelled.size());
+        assertThat(Collections.disjoint(expired, cancelled)).isTrue();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advanceAfterAStallOfSeveralTurnsExpiresEverythingDue() {
+        HoldTimingWheel wheel = new HoldTimingWheel(8, TICK, 0);
+        for (long i = 0; i < 100; i++) {
+            wheel.schedule(i, i * 370);
+        }
+
+        List<Long> due = wheel.advance(20_000);
+
+        assertThat(due).hasSize(55);
+        assertThat(wheel.size()).isEqualTo(45);
+        assertThat(wheel.advance(40_000)).hasSize(45);
+    }
+
+    @Test
+    void reschedulingReplacesTheEarlierDeadline() {
+        HoldTimingWheel wheel = new HoldTimingWheel(16, TICK, 0);
+        wheel.schedule(1L, 2_000);
+        wheel.schedule(1L, 30_000);
+
+        assertThat(wheel.advance(10_000)).isEmpty();
+        assertThat(wheel.advance(30_000)).containsExactly(1L);
+        assertThat(wheel.cancel(1L)).isFalse();
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvance() {
+        HoldTimingWheel wheel = new HoldTimingWheel(16, TICK, 50_000);
+        wheel.schedule(7L, 1_000);
+
+        assertThat(wheel.advance(50_000)).containsExactly(7L);
+    }
+}
@@ -0,0 +1,55 @@
+package com.amanda.cinema.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.repository.BookingSeatRepository;
+
+class SeatInventoryTest {
+
+    private static final Long SHOWTIME_ID = 7L;
+
+    private final BookingSeatRepository bookingSeatRepository = mock(BookingSeatRepository.class);
+    private final SeatInventory inventory = new SeatInventory(bookingSeatRepository);
+    private final ShowtimeSeating seating = new ShowtimeSeating(SHOWTIME_ID, "Film", 1L, "Hall 1", 4, 10,
+            BigDecimal.TEN, "ACTIVE", LocalDate.of(2026, 11, 2), LocalTime.of(20, 0));
+
+    @Test
+    void seatsReleasedByAnotherNodeReloadTheMap() {
+        // Loaded while seats 3 and 4 were held; the other node has since released them
+        when(bookingSeatRepository.findSeatIndexesByShowtimeId(SHOWTIME_ID)).thenReturn(List.of(3, 4))
+                .thenReturn(List.of(4));
+        when(bookingSeatRepository.findTakenSeatIndexes(eq(SHOWTIME_ID), anyCollection())).thenReturn(List.of());
+        SeatMap stale = inventory.get(seating);
+        int[] seats = {2, 3};
+        assertThat(stale.tryReserve(seats)).isFalse();
+
+        SeatMap current = inventory.reloadIfStale(seating, stale, seats);
+
+        assertThat(current).isNotSameAs(stale).isSameAs(inventory.get(seating));
+        assertThat(current.takenSeats()).containsExactly(4);
+        assertThat(current.tryReserve(seats)).isTrue();
+    }
+
+    @Test
+    void seatsTakenInTheDatabaseKeepTheMap() {
+        when(bookingSeatRepository.findSeatIndexesByShowtimeId(SHOWTIME_ID)).thenReturn(List.of(3));
+        when(bookingSeatRepository.findTakenSeatIndexes(eq(SHOWTIME_ID), anyCollection())).thenReturn(List.of(3));
+        SeatMap map = inventory.get(seating);
+        int[] seats = {3};
+        assertThat(map.tryReserve(seats)).isFalse();
+
+        assertThat(inventory.reloadIfStale(seating, map, seats)).isNull();
+        assertThat(inventory.get(seating)).isSameAs(map);
+    }
+}
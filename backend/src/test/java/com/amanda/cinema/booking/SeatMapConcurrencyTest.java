@@ -0,0 +1,160 @@
+package com.amanda.cinema.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SeatMapConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CAPACITY = 400;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void randomReservationsNeverDoubleBook() throws Exception {
+        SeatMap seatMap = new SeatMap(CAPACITY);
+        // Seat -> id of the request that won it; a second winner for a seat is an oversell
+        AtomicIntegerArray owners = new AtomicIntegerArray(CAPACITY);
+        AtomicInteger oversold = new AtomicInteger();
+        AtomicInteger reservedSeats = new AtomicInteger();
+        AtomicInteger requestIds = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int attempt = 0; attempt < 2_000; attempt++) {
+                int[] seats = randomSeats(random, 1 + random.nextInt(6));
+                if (seatMap.tryReserve(seats)) {
+                    int id = requestIds.incrementAndGet();
+                    for (int seat : seats) {
+                        if (!owners.compareAndSet(seat, 0, id)) {
+                            oversold.incrementAndGet();
+                        }
+                    }
+                    reservedSeats.addAndGet(seats.length);
+                }
+            }
+            return null;
+        });
+
+        assertThat(oversold.get()).isZero();
+        assertThat(seatMap.getTaken()).isEqualTo(reservedSeats.get());
+        assertThat(seatMap.takenSeats()).hasSize(reservedSeats.get());
+        for (int seat : seatMap.takenSeats()) {
+            assertThat(owners.get(seat)).isPositive();
+        }
+    }
+
+    @Test
+    void exactlyOneOfManyIdenticalRequestsWins() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            SeatMap seatMap = new SeatMap(CAPACITY);
+            // Spans two bitmap words so a winner of one word can still lose the other
+            int[] seats = {62, 63, 64, 65};
+            AtomicInteger winners = new AtomicInteger();
+
+            runConcurrently(() -> {
+                if (seatMap.tryReserve(seats)) {
+                    winners.incrementAndGet();
+                }
+                return null;
+            });
+
+            assertThat(winners.get()).isEqualTo(1);
+            assertThat(seatMap.getTaken()).isEqualTo(seats.length);
+            assertThat(seatMap.takenSeats()).containsExactly(62, 63, 64, 65);
+        }
+    }
+
+    @Test
+    void reserveAndReleaseChurnLeavesMapConsistent() throws Exception {
+        SeatMap seatMap = new SeatMap(CAPACITY);
+        AtomicIntegerArray held = new AtomicIntegerArray(CAPACITY);
+        AtomicInteger oversold = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<int[]> mine = new ArrayList<>();
+            for (int attempt = 0; attempt < 5_000; attempt++) {
+                if (!mine.isEmpty() && random.nextBoolean()) {
+                    int[] seats = mine.remove(random.nextInt(mine.size()));
+                    for (int seat : seats) {
+                        held.set(seat, 0);
+                    }
+                    seatMap.release(seats);
+                    continue;
+                }
+                int[] seats = randomSeats(random, 1 + random.nextInt(4));
+                if (seatMap.tryReserve(seats)) {
+                    for (int seat : seats) {
+                        if (!held.compareAndSet(seat, 0, 1)) {
+                            oversold.incrementAndGet();
+                        }
+                    }
+                    mine.add(seats);
+                }
+            }
+            mine.forEach(seats -> {
+                for (int seat : seats) {
+                    held.set(seat, 0);
+                }
+                seatMap.release(seats);
+            });
+            return null;
+        });
+
+        assertThat(oversold.get()).isZero();
+        assertThat(seatMap.getTaken()).isZero();
+        assertThat(seatMap.takenSeats()).isEmpty();
+        assertThat(seatMap.getAvailable()).isEqualTo(CAPACITY);
+    }
+
+    // Start every worker at once so they contend for the same words
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int[] randomSeats(ThreadLocalRandom random, int count) {
+        return IntStream.generate(() -> random.nextInt(CAPACITY))
+                .distinct()
+                .limit(count)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,173 @@
+package com.amanda.cinema.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.dto.MovieDTOAssembler;
+import com.amanda.cinema.dto.VersionStamp;
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MovieRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CatalogCacheTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final CatalogCache cache = new CatalogCache(movieRepository,
+            new MovieDTOAssembler(mock(MoviePhotoRepository.class)), new SimpleMeterRegistry(), 64, 900);
+
+    private LocalDate today;
+    private Movie showing;
+    private Movie upcoming;
+
+    @BeforeEach
+    void setUp() {
+        today = cache.today();
+        showing = movie(1L, "ACTIVE", today.minusDays(3), today.plusDays(10));
+        upcoming = movie(2L, "COMING_SOON", today.plusDays(5), today.plusDays(30));
+
+        when(movieRepository.findVersion()).thenReturn(new VersionStamp(2L, LocalDateTime.now()));
+        when(movieRepository.findCurrentlyShowing(today)).thenReturn(List.of(showing));
+        when(movieRepository.findComingSoon(today)).thenReturn(List.of(upcoming));
+
+        cache.get(CatalogList.NOW_SHOWING, today);
+        cache.get(CatalogList.COMING_SOON, today);
+    }
+
+    @Test
+    void repeatReadsAreServedFromTheCache() {
+        assertThat(cache.get(CatalogList.NOW_SHOWING, today).getMovies()).extracting("id").containsExactly(1L);
+        assertThat(cache.get(CatalogList.COMING_SOON, today).getMovies()).extracting("id").containsExactly(2L);
+
+        assertLoads(1, 1);
+    }
+
+    @Test
+    void updatingAListedMovieInvalidatesOnlyItsList() {
+        when(movieRepository.findAllById(anyList())).thenReturn(List.of(showing));
+
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 1L));
+        readBoth();
+
+        assertLoads(2, 1);
+    }
+
+    @Test
+    void photoChangesAndDeletionsInvalidateTheListsShowingTheMovie() {
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.PHOTOS_CHANGED, 2L));
+        readBoth();
+        assertLoads(1, 2);
+
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, 1L));
+        readBoth();
+        assertLoads(2, 2);
+    }
+
+    @Test
+    void movieJoiningAListInvalidatesThatList() {
+        Movie created = movie(3L, "COMING_SOON", today.plusDays(2), today.plusDays(20));
+        when(movieRepository.findAllById(anyList())).thenReturn(List.of(created));
+
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.CREATED, 3L));
+        readBoth();
+
+        assertLoads(1, 2);
+    }
+
+    @Test
+    void changesToUnlistedMoviesInvalidateNothing() {
+        Movie ended = movie(4L, "ENDED", today.minusDays(40), today.minusDays(10));
+        when(movieRepository.findAllById(anyList())).thenReturn(List.of(ended));
+
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 4L));
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.PHOTOS_CHANGED, 4L));
+        cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, 4L));
+        readBoth();
+
+        assertLoads(1, 1);
+    }
+
+    @Test
+    void changeCommittedDuringALoadDropsTheListItLoaded() throws Exception {
+        cache.invalidateAll();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch changeCommitted = new CountDownLatch(1);
+        when(movieRepository.findCurrentlyShowing(today)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            changeCommitted.await(5, TimeUnit.SECONDS);
+            return List.of(showing);
+        }).thenReturn(List.of());
+
+        CompletableFuture<CatalogEntry> load = CompletableFuture.supplyAsync(() -> cache.get(CatalogList.NOW_SHOWING, today));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The listener waits for the load it cannot see yet instead of missing it
+        CompletableFuture<Void> invalidation = CompletableFuture.runAsync(() ->
+                cache.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, 1L)));
+        Thread.sleep(100);
+        assertThat(invalidation).isNotDone();
+        changeCommitted.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS).getMovies()).extracting("id").containsExactly(1L);
+        invalidation.get(5, TimeUnit.SECONDS);
+        assertThat(cache.get(CatalogList.NOW_SHOWING, today).getMovies()).isEmpty();
+    }
+
+    @Test
+    void entriesExpireAtTheMidnightEndingTheirDateOrTheTtlIfSooner() {
+        ZoneId zone = ZoneId.of("Asia/Colombo");
+        LocalDate date = LocalDate.of(2026, 3, 14);
+        Clock lateEvening = Clock.fixed(date.atTime(23, 0).atZone(zone).toInstant(), zone);
+        Clock morning = Clock.fixed(date.atTime(9, 0).atZone(zone).toInstant(), zone);
+        long ttl = TimeUnit.MINUTES.toNanos(15);
+
+        CatalogCache.MidnightExpiry atLateEvening = new CatalogCache.MidnightExpiry(lateEvening, TimeUnit.HOURS.toNanos(24));
+        assertThat(atLateEvening.expireAfterCreate(key(date), null, 0)).isEqualTo(TimeUnit.HOURS.toNanos(1));
+        // An entry loaded for a date that has already ended is never served
+        assertThat(atLateEvening.expireAfterCreate(key(date.minusDays(1)), null, 0)).isZero();
+
+        assertThat(new CatalogCache.MidnightExpiry(morning, ttl).expireAfterCreate(key(date), null, 0)).isEqualTo(ttl);
+    }
+
+    private void readBoth() {
+        cache.get(CatalogList.NOW_SHOWING, today);
+        cache.get(CatalogList.COMING_SOON, today);
+    }
+
+    private void assertLoads(int nowShowing, int comingSoon) {
+        verify(movieRepository, times(nowShowing)).findCurrentlyShowing(today);
+        verify(movieRepository, times(comingSoon)).findComingSoon(today);
+    }
+
+    private static CatalogCache.Key key(LocalDate date) {
+        return new CatalogCache.Key(CatalogList.NOW_SHOWING, date);
+    }
+
+    private static Movie movie(Long id, String status, LocalDate showStart, LocalDate showEnd) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setStatus(status);
+        movie.setShowStartDate(showStart);
+        movie.setShowEndDate(showEnd);
+        return movie;
+    }
+}
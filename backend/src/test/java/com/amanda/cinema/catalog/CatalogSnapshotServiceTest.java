@@ -0,0 +1,149 @@
+package com.amanda.cinema.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.dto.MovieDTO;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class CatalogSnapshotServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    private final CatalogCache catalogCache = mock(CatalogCache.class);
+    private final JsonMapper objectMapper = new JsonMapper();
+    private final CatalogSnapshotService service = new CatalogSnapshotService(catalogCache, objectMapper);
+    private final Map<CatalogList, CatalogEntry> entries = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(catalogCache.today()).thenReturn(TODAY);
+        when(catalogCache.get(any(), any())).thenAnswer(invocation -> entries.get(invocation.<CatalogList>getArgument(0)));
+        setEntries(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void gzipBytesDecompressToTheJsonBytes() throws IOException {
+        CatalogSnapshot.RenderedList rendered = service.current().get(CatalogList.NOW_SHOWING);
+
+        assertThat(gunzip(rendered.getGzip())).isEqualTo(rendered.getJson());
+        assertThat(objectMapper.readTree(rendered.getJson()).get(0).get("title").asString()).isEqualTo("now-showing 1");
+        assertThat(rendered.getETag()).isEqualTo("W/\"NOW_SHOWING-1\"");
+    }
+
+    @Test
+    void unchangedListsKeepTheirRenderingAcrossRebuilds() {
+        CatalogSnapshot first = service.current();
+
+        entries.put(CatalogList.COMING_SOON, entry(CatalogList.COMING_SOON, 2));
+        CatalogSnapshot second = service.rebuild();
+
+        assertThat(service.current()).isSameAs(second);
+        assertThat(second.get(CatalogList.NOW_SHOWING)).isSameAs(first.get(CatalogList.NOW_SHOWING));
+        assertThat(second.get(CatalogList.COMING_SOON)).isNotSameAs(first.get(CatalogList.COMING_SOON));
+        // The previous snapshot is never modified by a rebuild
+        assertThat(first.get(CatalogList.COMING_SOON).getETag()).isEqualTo("W/\"COMING_SOON-1\"");
+    }
+
+    @Test
+    void aNewDayRebuildsOnRead() {
+        CatalogSnapshot yesterday = service.current();
+
+        when(catalogCache.today()).thenReturn(TODAY.plusDays(1));
+        CatalogSnapshot today = service.current();
+
+        assertThat(today).isNotSameAs(yesterday);
+        assertThat(today.getDate()).isEqualTo(TODAY.plusDays(1));
+    }
+
+    @Test
+    void readersAlwaysSeeACompleteSnapshotWhileRebuildsSwapThemIn() throws Exception {
+        service.rebuild();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch readersStarted = new CountDownLatch(4);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            results.add(readers.submit(() -> {
+                readersStarted.countDown();
+                int reads = 0;
+                while (running.get()) {
+                    CatalogSnapshot snapshot = service.current();
+                    CatalogSnapshot.RenderedList nowShowing = snapshot.get(CatalogList.NOW_SHOWING);
+                    CatalogSnapshot.RenderedList comingSoon = snapshot.get(CatalogList.COMING_SOON);
+                    // Both lists of a snapshot come from the same build, and each list's bytes match
+                    assertThat(generation(nowShowing)).isEqualTo(generation(comingSoon));
+                    assertThat(gunzip(nowShowing.getGzip())).isEqualTo(nowShowing.getJson());
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+
+        readersStarted.await();
+        for (int generation = 2; generation <= 200; generation++) {
+            setEntries(generation);
+            service.rebuild();
+        }
+        running.set(false);
+
+        readers.shutdown();
+        assertThat(readers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        for (Future<Integer> result : results) {
+            assertThat(result.get()).isPositive();
+        }
+        assertThat(generation(service.current().get(CatalogList.NOW_SHOWING))).isEqualTo(200);
+    }
+
+    private void setEntries(int generation) {
+        for (CatalogList list : CatalogList.values()) {
+            entries.put(list, entry(list, generation));
+        }
+    }
+
+    private static CatalogEntry entry(CatalogList list, int generation) {
+        MovieDTO movie = new MovieDTO();
+        movie.setId((long) generation);
+        movie.setTitle(list.name().toLowerCase().replace('_', '-') + " " + generation);
+        return new CatalogEntry(List.of(movie), "W/\"" + list + "-" + generation + "\"");
+    }
+
+    private static int generation(CatalogSnapshot.RenderedList rendered) {
+        String eTag = rendered.getETag();
+        return Integer.parseInt(eTag.substring(eTag.lastIndexOf('-') + 1, eTag.length() - 1));
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
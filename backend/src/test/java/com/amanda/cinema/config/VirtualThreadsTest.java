@@ -0,0 +1,77 @@
+package com.amanda.cinema.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+    @Test
+    void virtualThreadsTakeTurnsBeyondTheLimit() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger mostInside = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> loads = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int value = i;
+                loads.add(executor.submit(() -> VirtualThreads.limitPinned(() -> {
+                    mostInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    sleep(5);
+                    inside.decrementAndGet();
+                    return value;
+                })));
+            }
+            for (int i = 0; i < loads.size(); i++) {
+                assertThat(loads.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(i);
+            }
+        }
+        assertThat(mostInside.get()).isBetween(1, VirtualThreads.maxPinned());
+    }
+
+    @Test
+    void platformThreadsAreNotLimited() throws Exception {
+        int threads = VirtualThreads.maxPinned() + 2;
+        CountDownLatch allInside = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> loads = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                loads.add(executor.submit(() -> VirtualThreads.limitPinned(() -> {
+                    allInside.countDown();
+                    return await(allInside);
+                })));
+            }
+            for (Future<Boolean> load : loads) {
+                assertThat(load.get(10, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.amanda.cinema.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.UserRepository;
+import com.amanda.cinema.security.JwtPrincipalCache;
+import com.amanda.cinema.security.JwtUtil;
+import com.amanda.cinema.security.TokenEpochRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdminControllerTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-test-secret-test-secret-test-secret", 3_600_000L);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenEpochRegistry registry = new TokenEpochRegistry(userRepository, false);
+    private final JwtPrincipalCache cache =
+            new JwtPrincipalCache(jwtUtil, userRepository, registry, new SimpleMeterRegistry(), 100, 300);
+    private final AdminController controller = new AdminController(userRepository, cache, registry);
+
+    @Test
+    void revokingTokensDropsTheUsersCachedPrincipals() {
+        User user = new User("viewer@example.com", "Viewer", "CUSTOMER", "LOCAL");
+        user.setId(7L);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        String token = jwtUtil.generateToken(user);
+        assertThat(cache.resolve(token)).isNotNull();
+
+        assertThat(controller.revokeUserTokens(7L, admin()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(user.getTokenEpoch()).isEqualTo(1);
+        assertThat(registry.currentEpoch(7L)).isEqualTo(1);
+        assertThat(cache.resolve(token)).isNull();
+    }
+
+    @Test
+    void onlyAdminsCanRevokeTokens() {
+        User customer = new User("viewer@example.com", "Viewer", "CUSTOMER", "LOCAL");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                customer, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+
+        assertThat(controller.revokeUserTokens(7L, authentication).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    private static UsernamePasswordAuthenticationToken admin() {
+        User admin = new User("admin@example.com", "Admin", "ADMIN", "LOCAL");
+        admin.setId(1L);
+        return new UsernamePasswordAuthenticationToken(admin, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
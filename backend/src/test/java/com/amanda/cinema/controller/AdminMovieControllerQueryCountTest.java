@@ -0,0 +1,218 @@
+package com.amanda.cinema.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.amanda.cinema.dto.CursorPage;
+import com.amanda.cinema.dto.MovieDTO;
+import com.amanda.cinema.dto.MovieDTOAssembler;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.search.MovieFacetIndex;
+import com.amanda.cinema.search.MovieSearchIndex;
+import com.amanda.cinema.storage.FileSystemPhotoStorage;
+import com.amanda.cinema.storage.PhotoContentCleaner;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AdminMovieControllerQueryCountTest {
+
+    private static final int MOVIE_COUNT = 25;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MoviePhotoRepository moviePhotoRepository;
+
+    @Autowired
+    private MoviePhotoVariantRepository moviePhotoVariantRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path photoDir;
+
+    private AdminMovieController controller;
+    private Authentication admin;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < MOVIE_COUNT; i++) {
+            Movie movie = new Movie();
+            movie.setTitle("Movie " + i);
+            movie.setGenre("Drama");
+            movie.setStatus("ACTIVE");
+            movie.setDurationMinutes(120);
+            movie.setStartTime(LocalTime.of(18, 0));
+            movieRepository.save(movie);
+
+            moviePhotoRepository.save(new MoviePhoto(movie, true));
+            moviePhotoRepository.save(new MoviePhoto(movie, false));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        MovieSearchIndex searchIndex = new MovieSearchIndex(movieRepository);
+        searchIndex.rebuild();
+
+        FileSystemPhotoStorage photoStorage = new FileSystemPhotoStorage(photoDir.toString());
+        controller = new AdminMovieController(movieRepository,
+                new MovieDTOAssembler(moviePhotoRepository), moviePhotoRepository, moviePhotoVariantRepository,
+                new PhotoContentCleaner(moviePhotoRepository, moviePhotoVariantRepository, photoStorage, transactionManager),
+                transactionManager, entityManager, new JsonMapper(), event -> { }, searchIndex,
+                new MovieFacetIndex(movieRepository));
+        admin = new UsernamePasswordAuthenticationToken("admin@amanda.lk", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllMoviesLoadsPrimaryPhotosInOneBatch() {
+        ResponseEntity<?> response = controller.getAllMovies(null, null, webRequest(), admin);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) response.getBody()).hasSize(MOVIE_COUNT);
+        // one statement for the version stamp, one for the movies, one for all of their primary photos
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void currentETagIsAnsweredWithoutLoadingMovies() {
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/admin/movies");
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        controller.getAllMovies(null, null, new ServletWebRequest(first, firstResponse), admin);
+        String etag = firstResponse.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/");
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/api/admin/movies");
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse revalidateResponse = new MockHttpServletResponse();
+        statistics.clear();
+
+        ResponseEntity<?> response = controller.getAllMovies(null, null,
+                new ServletWebRequest(revalidate, revalidateResponse), admin);
+
+        assertThat(response).isNull();
+        assertThat(revalidateResponse.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deletionIsNotHiddenByIfModifiedSince() {
+        movieRepository.deleteById(movieRepository.findAll().get(0).getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // The latest updatedAt is unchanged by the delete, so a date validator would still match
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/api/admin/movies");
+        revalidate.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 3_600_000L);
+        MockHttpServletResponse revalidateResponse = new MockHttpServletResponse();
+
+        ResponseEntity<?> response = controller.getAllMovies(null, null,
+                new ServletWebRequest(revalidate, revalidateResponse), admin);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) response.getBody()).hasSize(MOVIE_COUNT - 1);
+        assertThat(revalidateResponse.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+    }
+
+    @Test
+    void searchMoviesHydratesIndexMatchesInOneBatch() {
+        ResponseEntity<?> response = controller.searchMovies("movie", "Drama", null, admin);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) response.getBody()).hasSize(MOVIE_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void moviePagesCoverEveryMovieOnceWithThreeStatementsEach() {
+        Set<Long> seen = new HashSet<>();
+        List<Long> ordered = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            statistics.clear();
+            ResponseEntity<?> response = controller.getAllMovies(10, cursor, webRequest(), admin);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+            CursorPage<MovieDTO> page = (CursorPage<MovieDTO>) response.getBody();
+            page.getItems().forEach(movie -> {
+                assertThat(seen.add(movie.getId())).isTrue();
+                ordered.add(movie.getId());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(MOVIE_COUNT);
+        assertThat(ordered).isSorted();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        ResponseEntity<?> response = controller.getAllMovies(null, "not-a-cursor", webRequest(), admin);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/admin/movies"),
+                new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,270 @@
+package com.amanda.cinema.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.storage.FileSystemPhotoStorage;
+import com.amanda.cinema.storage.PhotoContentCleaner;
+import com.amanda.cinema.storage.PhotoDerivativeService;
+import com.amanda.cinema.storage.StoredPhoto;
+import com.amanda.cinema.storage.ZeroCopyFileSender;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:photo-controller;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AdminMoviePhotoControllerTest {
+
+    private static final byte[] BYTES = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13};
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MoviePhotoRepository moviePhotoRepository;
+
+    @Autowired
+    private MoviePhotoDataRepository moviePhotoDataRepository;
+
+    @Autowired
+    private MoviePhotoVariantRepository moviePhotoVariantRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path photoDir;
+
+    private FileSystemPhotoStorage photoStorage;
+    private MockMvc mockMvc;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        photoStorage = new FileSystemPhotoStorage(photoDir.toString());
+        mockMvc = mockMvc(10_485_760L);
+
+        movie = new Movie();
+        movie.setTitle("Harbour Lights");
+        movie.setStatus("ACTIVE");
+        movie.setDurationMinutes(110);
+        movie.setStartTime(LocalTime.of(18, 0));
+        movieRepository.save(movie);
+    }
+
+    @Test
+    void wholeFileIsSentWithTheContentHashAsAStrongETag() throws Exception {
+        StoredPhoto stored = photoStorage.store(new ByteArrayInputStream(BYTES));
+        Long photoId = storedPhoto(stored);
+
+        mockMvc.perform(get(rawUrl(photoId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + stored.getContentHash() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    void photosWithTheSameBytesShareAnETag() throws Exception {
+        StoredPhoto first = photoStorage.store(new ByteArrayInputStream(BYTES));
+        StoredPhoto second = photoStorage.store(new ByteArrayInputStream(BYTES));
+        StoredPhoto other = photoStorage.store(new ByteArrayInputStream("other".getBytes(StandardCharsets.US_ASCII)));
+
+        String firstETag = eTag(storedPhoto(first));
+        assertThat(eTag(storedPhoto(second))).isEqualTo(firstETag);
+        assertThat(eTag(storedPhoto(other))).isNotEqualTo(firstETag);
+    }
+
+    @Test
+    void currentETagIsAnsweredWith304AndNoBody() throws Exception {
+        StoredPhoto stored = photoStorage.store(new ByteArrayInputStream(BYTES));
+        Long photoId = storedPhoto(stored);
+
+        mockMvc.perform(get(rawUrl(photoId)).header(HttpHeaders.IF_NONE_MATCH, "\"" + stored.getContentHash() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get(rawUrl(photoId)).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rangeRequestIsAnsweredWithThePartialContent() throws Exception {
+        Long photoId = storedPhoto(photoStorage.store(new ByteArrayInputStream(BYTES)));
+
+        mockMvc.perform(get(rawUrl(photoId)).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + BYTES.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(BYTES, 2, 6)));
+
+        mockMvc.perform(get(rawUrl(photoId)).header(HttpHeaders.RANGE, "bytes=-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(BYTES, BYTES.length - 4, BYTES.length)));
+    }
+
+    @Test
+    void legacyInlinePhotosSupportETagsAndRanges() throws Exception {
+        MoviePhoto photo = moviePhotoRepository.saveAndFlush(new MoviePhoto(movie, true));
+        entityManager.createNativeQuery("UPDATE movie_photos SET photo_data = ? WHERE id = ?")
+                .setParameter(1, BYTES)
+                .setParameter(2, photo.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        String eTag = "\"photo-" + photo.getId() + "\"";
+        mockMvc.perform(get(rawUrl(photo.getId())).header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(Arrays.copyOfRange(BYTES, 0, 4)));
+
+        mockMvc.perform(get(rawUrl(photo.getId())).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void photoOfAnotherMovieIsNotFound() throws Exception {
+        Long photoId = storedPhoto(photoStorage.store(new ByteArrayInputStream(BYTES)));
+
+        mockMvc.perform(get("/api/admin/movies/" + (movie.getId() + 1) + "/photos/" + photoId + "/raw"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadStreamedPastTheLimitIsRejectedWith413() throws Exception {
+        byte[] png = Arrays.copyOf(PNG_HEADER, 65);
+
+        // Without a declared length only the streamed bytes can give the size away
+        mockMvc(64).perform(post(photosUrl()).contentType(MediaType.IMAGE_PNG).content(png)
+                        .principal(admin()).with(withoutContentLength()))
+                .andExpect(status().isContentTooLarge())
+                .andExpect(jsonPath("$.error").value("Photo exceeds the maximum size of 64 bytes"));
+
+        assertNothingStored();
+    }
+
+    @Test
+    void uploadThatIsNotAnImageIsRejectedWith415() throws Exception {
+        mockMvc.perform(post(photosUrl()).contentType(MediaType.APPLICATION_OCTET_STREAM).content(BYTES)
+                        .principal(admin()))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.error").value("Only JPEG, PNG, GIF and WebP images are accepted"));
+
+        assertNothingStored();
+    }
+
+    private MockMvc mockMvc(long maxUploadBytes) {
+        AdminMoviePhotoController controller = new AdminMoviePhotoController(movieRepository,
+                moviePhotoRepository, moviePhotoDataRepository, moviePhotoVariantRepository, photoStorage,
+                mock(PhotoDerivativeService.class),
+                new PhotoContentCleaner(moviePhotoRepository, moviePhotoVariantRepository, photoStorage, transactionManager),
+                new ZeroCopyFileSender(), transactionManager, event -> { }, maxUploadBytes);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private void assertNothingStored() throws IOException {
+        assertThat(moviePhotoRepository.findByMovieId(movie.getId())).isEmpty();
+        try (Stream<Path> files = Files.walk(photoDir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    private static Authentication admin() {
+        return new UsernamePasswordAuthenticationToken("admin@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    // Drops the request's length, as for a chunked upload
+    private static RequestPostProcessor withoutContentLength() {
+        return request -> {
+            MockHttpServletRequest chunked = new MockHttpServletRequest(request.getServletContext(),
+                    request.getMethod(), request.getRequestURI()) {
+                @Override
+                public int getContentLength() {
+                    return -1;
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            };
+            chunked.setContentType(request.getContentType());
+            chunked.setContent(request.getContentAsByteArray());
+            chunked.setParameters(request.getParameterMap());
+            chunked.setUserPrincipal(request.getUserPrincipal());
+            return chunked;
+        };
+    }
+
+    private Long storedPhoto(StoredPhoto stored) {
+        MoviePhoto photo = new MoviePhoto(movie, false);
+        photo.setContentHash(stored.getContentHash());
+        photo.setSizeBytes(stored.getSizeBytes());
+        photo.setContentType("image/png");
+        return moviePhotoRepository.saveAndFlush(photo).getId();
+    }
+
+    private String eTag(Long photoId) throws Exception {
+        return mockMvc.perform(get(rawUrl(photoId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String photosUrl() {
+        return "/api/admin/movies/" + movie.getId() + "/photos";
+    }
+
+    private String rawUrl(Long photoId) {
+        return "/api/admin/movies/" + movie.getId() + "/photos/" + photoId + "/raw";
+    }
+}
@@ -0,0 +1,109 @@
+package com.amanda.cinema.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.amanda.cinema.booking.BookingException;
+import com.amanda.cinema.booking.BookingService;
+import com.amanda.cinema.dto.BookingDTO;
+import com.amanda.cinema.model.User;
+
+class BookingControllerTest {
+
+    private static final String HOLD_A1 = "{\"showtimeId\": 12, \"seats\": [\"A1\"]}";
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private MockMvc mockMvc;
+    private Authentication viewer;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookingController(bookingService)).build();
+
+        User user = new User("viewer@example.com", "Viewer", "USER", "LOCAL");
+        user.setId(7L);
+        viewer = new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void heldSeatsAreCreated() throws Exception {
+        when(bookingService.hold(12L, List.of("A1"), 7L)).thenReturn(new BookingDTO(3L, 12L, "Harbour Lights",
+                "Hall 1", "2026-11-02", "20:00", List.of("A1"), "HELD", BigDecimal.TEN,
+                LocalDateTime.of(2026, 11, 2, 19, 10), LocalDateTime.of(2026, 11, 2, 19, 0)));
+
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(HOLD_A1)
+                        .principal(viewer))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3))
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.seats[0]").value("A1"));
+    }
+
+    @Test
+    void eachRefusalMapsToItsStatus() throws Exception {
+        Map<BookingException.Reason, HttpStatus> expected = Map.of(
+                BookingException.Reason.NOT_FOUND, HttpStatus.NOT_FOUND,
+                BookingException.Reason.INVALID_SEATS, HttpStatus.BAD_REQUEST,
+                BookingException.Reason.HOLD_EXPIRED, HttpStatus.GONE,
+                BookingException.Reason.NOT_BOOKABLE, HttpStatus.CONFLICT,
+                BookingException.Reason.SEATS_UNAVAILABLE, HttpStatus.CONFLICT,
+                BookingException.Reason.INVALID_STATE, HttpStatus.CONFLICT);
+
+        for (BookingException.Reason reason : BookingException.Reason.values()) {
+            doThrow(new BookingException(reason, "Refused: " + reason)).when(bookingService).confirm(3L, 7L);
+
+            mockMvc.perform(post("/api/bookings/3/confirm").principal(viewer))
+                    .andExpect(status().is(expected.get(reason).value()))
+                    .andExpect(jsonPath("$.error").value("Refused: " + reason))
+                    .andExpect(jsonPath("$.seats").doesNotExist());
+        }
+    }
+
+    @Test
+    void unavailableSeatsAreListed() throws Exception {
+        when(bookingService.hold(eq(12L), anyList(), eq(7L))).thenThrow(new BookingException(
+                BookingException.Reason.SEATS_UNAVAILABLE, "Seats are no longer available", List.of("A1")));
+
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(HOLD_A1)
+                        .principal(viewer))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.seats[0]").value("A1"));
+    }
+
+    @Test
+    void malformedOrAnonymousRequestsNeverReachTheService() throws Exception {
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(HOLD_A1))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"showtimeId\": 12}").principal(viewer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"showtimeId\": \"twelve\", \"seats\": [\"A1\"]}").principal(viewer))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid showtimeId"));
+
+        verifyNoInteractions(bookingService);
+    }
+}
@@ -0,0 +1,102 @@
+package com.amanda.cinema.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.amanda.cinema.catalog.CatalogEntry;
+import com.amanda.cinema.catalog.CatalogList;
+import com.amanda.cinema.catalog.CatalogSnapshot;
+import com.amanda.cinema.catalog.CatalogSnapshotService;
+
+class CatalogControllerTest {
+
+    private static final byte[] JSON = "[{\"id\":1,\"title\":\"Harbour Lights\"}]".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "W/\"catalog-1\"";
+
+    private final CatalogSnapshotService catalogSnapshotService = mock(CatalogSnapshotService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(JSON);
+        }
+        CatalogSnapshot.RenderedList rendered =
+                new CatalogSnapshot.RenderedList(new CatalogEntry(List.of(), ETAG), JSON, bytes.toByteArray());
+        when(catalogSnapshotService.current()).thenReturn(new CatalogSnapshot(LocalDate.of(2026, 3, 14),
+                Map.of(CatalogList.NOW_SHOWING, rendered, CatalogList.COMING_SOON, rendered)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new CatalogController(catalogSnapshotService)).build();
+    }
+
+    @Test
+    void gzipIsSentWhenAccepted() throws Exception {
+        for (String acceptEncoding : new String[] {"gzip", "deflate, gzip;q=0.5", "GZIP", "*", "br;q=1, *;q=0.1"}) {
+            MvcResult result = request(acceptEncoding);
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).as(acceptEncoding).isEqualTo("gzip");
+            assertThat(gunzip(result.getResponse().getContentAsByteArray())).as(acceptEncoding).isEqualTo(JSON);
+        }
+    }
+
+    @Test
+    void plainJsonIsSentWhenGzipIsRefusedOrNotOffered() throws Exception {
+        for (String acceptEncoding : new String[] {null, "", "br", "gzip;q=0", "gzip; q=0.000", "*;q=0",
+                "*, gzip;q=0", "gzip;q=0, *"}) {
+            MvcResult result = request(acceptEncoding);
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).as(acceptEncoding).isNull();
+            assertThat(result.getResponse().getContentAsByteArray()).as(acceptEncoding).isEqualTo(JSON);
+        }
+    }
+
+    @Test
+    void responsesVaryByAcceptEncodingAndRevalidateWithTheETag() throws Exception {
+        mockMvc.perform(get("/api/catalog/coming-soon"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, JSON.length));
+
+        mockMvc.perform(get("/api/catalog/coming-soon").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    private MvcResult request(String acceptEncoding) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/catalog/now-showing");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
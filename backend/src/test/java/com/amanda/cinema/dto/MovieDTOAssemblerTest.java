@@ -0,0 +1,48 @@
+package com.amanda.cinema.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+
+class MovieDTOAssemblerTest {
+
+    private final MoviePhotoRepository moviePhotoRepository = mock(MoviePhotoRepository.class);
+    private final MovieDTOAssembler assembler = new MovieDTOAssembler(moviePhotoRepository);
+
+    @Test
+    void listRowsLinkTheThumbnail() {
+        when(moviePhotoRepository.findPrimaryPhotoRefsByMovieIds(anyList())).thenReturn(List.of(photo(1L, 10L)));
+
+        List<MovieDTO> dtos = assembler.toDTOs(List.of(movie(1L), movie(2L)));
+
+        assertThat(dtos).extracting(MovieDTO::getPrimaryPhotoUrl)
+                .containsExactly("/api/admin/movies/1/photos/10/raw?variant=thumbnail", null);
+    }
+
+    @Test
+    void singleMovieLinksTheCardVariant() {
+        when(moviePhotoRepository.findPrimaryPhotoRefsByMovieIds(List.of(1L))).thenReturn(List.of(photo(1L, 10L)));
+
+        assertThat(assembler.toDTO(movie(1L)).getPrimaryPhotoUrl())
+                .isEqualTo("/api/admin/movies/1/photos/10/raw?variant=card");
+    }
+
+    private static Movie movie(Long id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        return movie;
+    }
+
+    private static PhotoRefDTO photo(Long movieId, Long photoId) {
+        return new PhotoRefDTO(movieId, photoId, true, "image/jpeg", "hash-" + photoId, 100L);
+    }
+}
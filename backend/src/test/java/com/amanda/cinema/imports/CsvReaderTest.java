@@ -0,0 +1,73 @@
+package com.amanda.cinema.imports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsHoldDelimitersQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = reader("title,description\r\n"
+                + "\"Crouching Tiger, Hidden Dragon\",\"A \"\"wuxia\"\" film\nspanning\r\nthree lines\"\n"
+                + "Plain,\n");
+
+        assertThat(reader.readRecord()).containsExactly("title", "description");
+        assertThat(reader.readRecord()).containsExactly("Crouching Tiger, Hidden Dragon",
+                "A \"wuxia\" film\nspanning\r\nthree lines");
+        assertThat(reader.readRecord()).containsExactly("Plain", "");
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void lastRecordNeedsNoLineBreak() throws IOException {
+        CsvReader reader = reader("a,\"b\"\nc,\"d\"");
+
+        assertThat(reader.readRecord()).containsExactly("a", "b");
+        assertThat(reader.readRecord()).containsExactly("c", "d");
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void quotesInsideAnUnquotedFieldAreKept() throws IOException {
+        assertThat(reader("5\" screen,x\n").readRecord()).containsExactly("5\" screen", "x");
+    }
+
+    @Test
+    void unterminatedQuoteFailsTheRead() {
+        CsvReader reader = reader("title\n\"never closed\n");
+
+        assertThatThrownBy(() -> {
+            reader.readRecord();
+            reader.readRecord();
+        }).isInstanceOf(IOException.class).hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void fieldsLongerThanTheLimitFailTheRead() {
+        CsvReader reader = new CsvReader(new StringReader("\"" + "x".repeat(20) + "\"\n"), 10);
+
+        assertThatThrownBy(reader::readRecord).isInstanceOf(IOException.class).hasMessageContaining("longer than 10");
+    }
+
+    @Test
+    void quotedValuesReadBackUnchanged() throws IOException {
+        List<String> values = List.of("plain", "with, comma", "with \"quotes\"", "two\nlines", "");
+        StringBuilder line = new StringBuilder();
+        for (String value : values) {
+            line.append(line.isEmpty() ? "" : ",").append(CsvReader.quote(value));
+        }
+
+        assertThat(CsvReader.quote("plain")).isEqualTo("plain");
+        assertThat(reader(line + "\n").readRecord()).containsExactlyElementsOf(values);
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv), 1 << 20);
+    }
+}
@@ -0,0 +1,185 @@
+package com.amanda.cinema.imports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.repository.MovieRepository;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.json.JsonMapper;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:movie-import;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Every batch commits in a transaction of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovieImportServiceTest {
+
+    private static final String HEADER = "title,duration_minutes,startTime,status,description\n";
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path reportDir;
+
+    private final List<Object> events = new ArrayList<>();
+    private MovieImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MovieImportService(entityManager, transactionManager, events::add, new JsonMapper(),
+                3, reportDir.toString(), 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void quotedAndMultilineFieldsAreImportedIntact() throws IOException {
+        MovieImportResult result = importCsv(HEADER
+                + "\"Crouching Tiger, Hidden Dragon\",120,19:00,ACTIVE,\"A \"\"wuxia\"\" epic,\nin two lines\"\r\n"
+                + "\n"
+                + "Plain Movie,95,21:30,,\n");
+
+        assertThat(result.getRows()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getErrorReportUrl()).isNull();
+
+        Movie tiger = movie("Crouching Tiger, Hidden Dragon");
+        assertThat(tiger.getDescription()).isEqualTo("A \"wuxia\" epic,\nin two lines");
+        // Defaults apply as in createMovie
+        assertThat(movie("Plain Movie").getStatus()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void rowTheDatabaseRejectsIsRetriedAloneAndTheRestOfItsBatchIsImported() throws IOException {
+        String tooLongStatus = "S".repeat(60);
+        MovieImportResult result = importCsv(HEADER
+                + "One,90,18:00,ACTIVE,\n"
+                + "Two,90,18:00," + tooLongStatus + ",\n"
+                + "Three,90,18:00,ACTIVE,\n"
+                + "Four,90,18:00,ACTIVE,\n"
+                + "Five,90,18:00,ACTIVE,\n");
+
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(movieRepository.findAll()).extracting(Movie::getTitle)
+                .containsExactlyInAnyOrder("One", "Three", "Four", "Five");
+        // One event per row from the fallback, one for the batch that committed whole
+        assertThat(events).hasSize(3);
+
+        List<List<String>> report = report(result);
+        assertThat(report).hasSize(2);
+        assertThat(report.get(1).subList(0, 2)).containsExactly("2", "Two");
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheirRowNumberAndReason() throws IOException {
+        MovieImportResult result = importCsv(HEADER
+                + "Good,100,20:00,ACTIVE,\n"
+                + "\"No, duration\",,20:00,ACTIVE,\n"
+                + "Bad time,100,8pm,ACTIVE,\n"
+                + ",100,20:00,ACTIVE,\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrorReportUrl()).isEqualTo("/api/admin/movies/import/" + result.getImportId() + "/errors");
+
+        assertThat(report(result)).containsExactly(
+                List.of("row", "title", "error"),
+                List.of("2", "No, duration", "Duration is required"),
+                List.of("3", "Bad time", "startTime: invalid value '8pm'"),
+                List.of("4", "", "Title is required"));
+    }
+
+    @Test
+    void malformedInputStopsTheImportAndKeepsCommittedBatches() throws IOException {
+        MovieImportResult result = importCsv(HEADER
+                + "One,90,18:00,ACTIVE,\n"
+                + "Two,90,18:00,ACTIVE,\n"
+                + "Three,90,18:00,ACTIVE,\n"
+                + "Four,90,18:00,ACTIVE,\n"
+                + "Five,90,18:00,ACTIVE,\"never closed\n");
+
+        assertThat(result.getAbortedReason()).startsWith("Stopped reading after row 4");
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(movieRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void ndjsonExportsCanBeImported() throws IOException {
+        String ndjson = "{\"id\":7,\"title\":\"Exported\",\"durationMinutes\":110,\"startTime\":\"17:15:00\","
+                + "\"cast\":[\"Anna Nolan\",\"Tom Reed\"],\"primaryPhotoUrl\":\"/x\"}\n"
+                + "{\"title\":\"Second\",\"durationMinutes\":80,\"startTime\":\"10:00\"}\n";
+
+        MovieImportResult result = service.importMovies(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MovieImportService.Format.JSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getIgnoredColumns()).isEmpty();
+        Movie exported = movie("Exported");
+        assertThat(exported.getId()).isNotEqualTo(7L);
+        assertThat(exported.getCast()).isEqualTo("Anna Nolan, Tom Reed");
+    }
+
+    private MovieImportResult importCsv(String csv) throws IOException {
+        return service.importMovies(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MovieImportService.Format.CSV);
+    }
+
+    private Movie movie(String title) {
+        return movieRepository.findAll().stream()
+                .filter(movie -> movie.getTitle().equals(title))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<List<String>> report(MovieImportResult result) throws IOException {
+        Path report = service.findReport(result.getImportId());
+        assertThat(report).isNotNull().startsWith(reportDir);
+
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(Files.readString(report)), 1 << 20)) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,107 @@
+package com.amanda.cinema.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Upgrade check for databases that predate Flyway: the schema ddl-auto=update created from the
+// original entities, holding a legacy inline photo, is baselined at version 1 and migrated as the
+// application does on startup. The context then starts with ddl-auto=validate, so every entity
+// must match the migrated schema.
+// Skipped unless MIGRATION_TEST_DB_URL points at a dedicated SQL Server database; it is cleaned
+// first, e.g.
+//   MIGRATION_TEST_DB_URL="jdbc:sqlserver://localhost:1433;databaseName=amanda_cinema_migrations;encrypt=true;trustServerCertificate=true"
+//   MIGRATION_TEST_DB_USER=sa MIGRATION_TEST_DB_PASSWORD=... mvn test -Dtest=FlywayBaselineMigrationTest
+@EnabledIfEnvironmentVariable(named = "MIGRATION_TEST_DB_URL", matches = ".+")
+@DataJpaTest(properties = {
+        "spring.datasource.url=${MIGRATION_TEST_DB_URL}",
+        "spring.datasource.username=${MIGRATION_TEST_DB_USER:}",
+        "spring.datasource.password=${MIGRATION_TEST_DB_PASSWORD:}",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.SQLServerDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlywayBaselineMigrationTest {
+
+    private static final byte[] LEGACY_PHOTO = {(byte) 0x89, 'P', 'N', 'G'};
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class BaselineSchema {
+
+        // Replaces the startup migration: recreate the pre-Flyway schema, then migrate it
+        @Bean
+        FlywayMigrationStrategy fromBaselineSchema() {
+            return flyway -> {
+                flyway.clean();
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                        .execute(dataSource);
+
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                jdbc.update("INSERT INTO users (email, name, role, provider) VALUES ('admin@example.com', 'Admin', 'ADMIN', 'LOCAL')");
+                jdbc.update("INSERT INTO movies (title, duration_minutes, start_time, status) VALUES ('Legacy', 120, '18:00', 'ACTIVE')");
+                jdbc.update("INSERT INTO movie_photos (movie_id, photo_data, is_primary) "
+                        + "SELECT id, ?, 1 FROM movies WHERE title = 'Legacy'", (Object) LEGACY_PHOTO);
+
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Test
+    void baselinedDatabaseMigratesToTheCurrentSchema() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertThat(applied[0].getType().isBaseline()).isTrue();
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(applied).allMatch(migration -> !migration.getState().isFailed());
+        assertThat(flyway.info().pending()).isEmpty();
+
+        // Legacy rows are kept, with the columns added after the baseline left empty
+        Map<String, Object> photo = jdbcTemplate.queryForMap(
+                "SELECT photo_data, content_hash, content_type FROM movie_photos");
+        assertThat((byte[]) photo.get("photo_data")).isEqualTo(LEGACY_PHOTO);
+        assertThat(photo.get("content_hash")).isNull();
+        assertThat(photo.get("content_type")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT token_epoch FROM users", Integer.class)).isNull();
+
+        List<String> variantColumns = jdbcTemplate.queryForList(
+                "SELECT name FROM sys.columns WHERE object_id = OBJECT_ID('movie_photo_variants')", String.class);
+        assertThat(variantColumns).contains("photo_id", "variant", "content_hash");
+    }
+
+    @Test
+    void migratingAgainChangesNothing() {
+        assertThat(flyway.migrate().migrationsExecuted).isZero();
+    }
+}
@@ -0,0 +1,363 @@
+package com.amanda.cinema.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import com.amanda.cinema.dto.ShowtimeDTO;
+
+// Execution-plan regression checks for the hot read paths against a local SQL Server database,
+// migrated with the project's Flyway scripts. Each test calls the repository method, captures the
+// SQL Hibernate sent with a StatementInspector, and asserts on the plan SQL Server compiled and
+// cached for that statement, with the parameter values it sniffed. The tables are seeded once with
+// a realistic catalog (5,000 movies, 250,000 showtimes over two years) and statistics refreshed, so
+// the optimizer costs scans against seeks as it would in production.
+// Skipped unless PLAN_TEST_DB_URL points at a dedicated database, e.g.
+//   PLAN_TEST_DB_URL="jdbc:sqlserver://localhost:1433;databaseName=amanda_cinema_plans;encrypt=true;trustServerCertificate=true"
+//   PLAN_TEST_DB_USER=sa PLAN_TEST_DB_PASSWORD=... mvn test -Dtest=QueryPlanRegressionTest
+// The user needs VIEW SERVER STATE to read the plan cache.
+@EnabledIfEnvironmentVariable(named = "PLAN_TEST_DB_URL", matches = ".+")
+@DataJpaTest(properties = {
+        "spring.datasource.url=${PLAN_TEST_DB_URL}",
+        "spring.datasource.username=${PLAN_TEST_DB_USER:}",
+        "spring.datasource.password=${PLAN_TEST_DB_PASSWORD:}",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.SQLServerDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Seed rows must commit, and each repository call runs as it would in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanRegressionTest {
+
+    private static final int MOVIE_COUNT = 5_000;
+    private static final int SHOWTIME_COUNT = 250_000;
+    private static final int HALL_COUNT = 20;
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    private static boolean seeded;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MoviePhotoRepository moviePhotoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingStatementInspector statements;
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    // Every statement Hibernate prepares, as sent to the driver
+    static class RecordingStatementInspector implements StatementInspector {
+
+        private final List<String> recorded = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            recorded.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            recorded.clear();
+        }
+
+        // The one query the call sent
+        String lastSelect() {
+            List<String> selects = recorded.stream()
+                    .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                    .toList();
+            assertThat(selects).as("queries sent").hasSize(1);
+            return selects.get(0);
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM movies WHERE title LIKE 'Plan movie %'", Integer.class);
+        if (existing == null || existing < MOVIE_COUNT) {
+            seedCatalog();
+        }
+        // Plans cached before the seed or by an earlier run must not answer for this one
+        jdbcTemplate.execute("ALTER DATABASE SCOPED CONFIGURATION CLEAR PROCEDURE_CACHE");
+        seeded = true;
+    }
+
+    @Test
+    void upcomingShowtimesExportSeeksStatusDateIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String sql = capture(() -> readOnly.executeWithoutResult(status -> {
+            try (Stream<ShowtimeDTO> showtimes = showtimeRepository.streamUpcomingShowtimes(TODAY.plusDays(300))) {
+                assertThat(showtimes.count()).isPositive();
+            }
+        }));
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "showtimes", "ix_showtimes_status_date_time");
+        assertNoKeyLookups(plan, "showtimes");
+    }
+
+    @Test
+    void showtimeDateRangeSeeksDateTimeIndex() {
+        String sql = capture(() -> assertThat(showtimeRepository.findDTOsByDateRange(TODAY, TODAY.plusDays(6))).isNotEmpty());
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "showtimes", "ix_showtimes_date_time");
+        assertNoKeyLookups(plan, "showtimes");
+    }
+
+    @Test
+    void showtimeKeysetPageSeeksDateTimeIndex() {
+        String sql = capture(() -> assertThat(
+                showtimeRepository.findPageAfter(TODAY, LocalTime.of(18, 0), 0L, Limit.of(51))).hasSize(51));
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "showtimes", "ix_showtimes_date_time");
+        assertNoKeyLookups(plan, "showtimes");
+    }
+
+    @Test
+    void showtimesByMovieAndDateSeekMovieDateIndex() {
+        Map<String, Object> sample = jdbcTemplate.queryForMap(
+                "SELECT TOP 1 movie_id, show_date FROM showtimes WHERE show_date = ?", TODAY);
+        Long movieId = ((Number) sample.get("movie_id")).longValue();
+
+        String sql = capture(() -> assertThat(showtimeRepository.findDTOsByMovieIdAndShowDate(movieId, TODAY)).isNotEmpty());
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "showtimes", "ix_showtimes_movie_date");
+        assertNoKeyLookups(plan, "showtimes");
+    }
+
+    @Test
+    void currentlyShowingSeeksCoveringStatusShowDatesIndex() {
+        String sql = capture(() -> assertThat(movieRepository.findCurrentlyShowing(TODAY)).isNotEmpty());
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "movies", "ix_movies_status_show_dates");
+        assertNoKeyLookups(plan, "movies");
+    }
+
+    @Test
+    void comingSoonSeeksCoveringStatusShowDatesIndex() {
+        String sql = capture(() -> assertThat(movieRepository.findComingSoon(TODAY)).isNotEmpty());
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "movies", "ix_movies_status_show_dates");
+        assertNoKeyLookups(plan, "movies");
+    }
+
+    @Test
+    void primaryPhotosSeekFilteredPrimaryIndex() {
+        List<Long> movieIds = jdbcTemplate.queryForList(
+                "SELECT TOP 25 id FROM movies WHERE title LIKE 'Plan movie %' ORDER BY id", Long.class);
+
+        String sql = capture(() -> assertThat(moviePhotoRepository.findPrimaryPhotoRefsByMovieIds(movieIds)).hasSize(25));
+
+        Document plan = cachedPlan(sql);
+        assertSeeks(plan, "movie_photos", "ux_movie_photos_primary");
+        assertNoKeyLookups(plan, "movie_photos");
+    }
+
+    // Run the repository call and return the statement it sent
+    private String capture(Runnable call) {
+        statements.clear();
+        call.run();
+        return statements.lastSelect();
+    }
+
+    // The table must be read by a seek on the expected index and never by a table or clustered index scan
+    private void assertSeeks(Document plan, String table, String index) {
+        List<Element> accesses = tableAccesses(plan, table);
+
+        assertThat(accesses).as("plan reads %s", table).isNotEmpty();
+        assertThat(accesses)
+                .extracting(QueryPlanRegressionTest::physicalOp)
+                .as("no scans of %s", table)
+                .doesNotContain("Table Scan", "Clustered Index Scan");
+        assertThat(accesses)
+                .filteredOn(access -> ("[" + index + "]").equals(access.getAttribute("Index")))
+                .extracting(QueryPlanRegressionTest::physicalOp)
+                .as("%s seeks %s", table, index)
+                .contains("Index Seek");
+    }
+
+    // A covering index answers the query alone: no lookups into the clustered primary key
+    private void assertNoKeyLookups(Document plan, String table) {
+        assertThat(tableAccesses(plan, table))
+                .filteredOn(access -> {
+                    String lookup = ((Element) access.getParentNode()).getAttribute("Lookup");
+                    return "1".equals(lookup) || "true".equals(lookup);
+                })
+                .as("key lookups into %s", table)
+                .isEmpty();
+    }
+
+    // The plan cached for the statement. The driver sends each ? as @P0, @P1, ... after a
+    // declaration of their types, so the cached text ends with the statement rewritten that way.
+    private Document cachedPlan(String sql) {
+        StringBuilder sent = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                sent.append("@P").append(parameter++);
+            } else {
+                sent.append(c);
+            }
+        }
+
+        List<String> plans = jdbcTemplate.queryForList(
+                "SELECT CAST(qp.query_plan AS NVARCHAR(MAX)) FROM sys.dm_exec_cached_plans cp " +
+                        "CROSS APPLY sys.dm_exec_sql_text(cp.plan_handle) st " +
+                        "CROSS APPLY sys.dm_exec_query_plan(cp.plan_handle) qp " +
+                        "WHERE st.dbid = DB_ID() AND CHARINDEX(?, st.text) > 0",
+                String.class, sent.toString());
+        assertThat(plans).as("cached plan of %s", sent).isNotEmpty();
+
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            return factory.newDocumentBuilder().parse(new InputSource(new StringReader(plans.get(0))));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan for " + sent, e);
+        }
+    }
+
+    // <Object> elements (RelOp > IndexScan|TableScan > Object) that read the given table
+    private static List<Element> tableAccesses(Document plan, String table) {
+        List<Element> accesses = new ArrayList<>();
+        NodeList objects = plan.getElementsByTagNameNS("*", "Object");
+        for (int i = 0; i < objects.getLength(); i++) {
+            Element object = (Element) objects.item(i);
+            Element parent = (Element) object.getParentNode();
+            boolean isRead = "IndexScan".equals(parent.getLocalName()) || "TableScan".equals(parent.getLocalName());
+            if (isRead && ("[" + table + "]").equals(object.getAttribute("Table"))) {
+                accesses.add(object);
+            }
+        }
+        return accesses;
+    }
+
+    private static String physicalOp(Element access) {
+        return ((Element) access.getParentNode().getParentNode()).getAttribute("PhysicalOp");
+    }
+
+    // Movies whose show windows are spread over two years around TODAY, about one in ten of them
+    // showing and one in twenty coming soon; two photos each, one primary; showtimes in every hall
+    // on every day of the two years, about one in fifty cancelled
+    private void seedCatalog() {
+        jdbcTemplate.update(
+                "WITH n AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i " +
+                        "FROM sys.all_columns a CROSS JOIN sys.all_columns b) " +
+                        "INSERT INTO halls (name, seat_rows, seats_per_row, created_at, updated_at) " +
+                        "SELECT CONCAT('Plan hall ', i), 12, 20, SYSDATETIME(), SYSDATETIME() FROM n " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM halls h WHERE h.name = CONCAT('Plan hall ', i))",
+                HALL_COUNT);
+
+        jdbcTemplate.update(
+                "WITH n AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i " +
+                        "FROM sys.all_columns a CROSS JOIN sys.all_columns b) " +
+                        "INSERT INTO movies (title, description, genre, duration_minutes, start_time, language, rating, " +
+                        "release_date, show_start_date, show_end_date, director, [cast], status, created_at, updated_at) " +
+                        "SELECT CONCAT('Plan movie ', i), REPLICATE(N'A long synopsis. ', 40), " +
+                        "CHOOSE(i % 6 + 1, 'Drama', 'Comedy', 'Action', 'Horror', 'Animation', 'Documentary'), " +
+                        "85 + i % 90, '10:00', 'English', 'PG-13', DATEADD(day, i % 730 - 400, ?), " +
+                        "DATEADD(day, i % 730 - 365, ?), DATEADD(day, i % 730 - 365 + 42, ?), " +
+                        "CONCAT('Director ', i % 700), N'Lead actor, Supporting actor, Another actor', " +
+                        "CASE WHEN i % 20 < 2 THEN 'ACTIVE' WHEN i % 20 = 2 THEN 'COMING_SOON' ELSE 'ENDED' END, " +
+                        "SYSDATETIME(), SYSDATETIME() FROM n",
+                MOVIE_COUNT, TODAY, TODAY, TODAY);
+
+        jdbcTemplate.update(
+                "INSERT INTO movie_photos (movie_id, content_hash, size_bytes, content_type, is_primary, created_at) " +
+                        "SELECT m.id, CONVERT(VARCHAR(64), HASHBYTES('SHA2_256', CONCAT('plan-photo-', m.id, '-', v.k)), 2), " +
+                        "150000, 'image/jpeg', CASE v.k WHEN 0 THEN 1 ELSE 0 END, SYSDATETIME() " +
+                        "FROM movies m CROSS JOIN (VALUES (0), (1)) v(k) WHERE m.title LIKE 'Plan movie %'");
+
+        jdbcTemplate.update(
+                "WITH n AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1 AS i " +
+                        "FROM sys.all_columns a CROSS JOIN sys.all_columns b), " +
+                        "m AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS k FROM movies WHERE title LIKE 'Plan movie %'), " +
+                        "h AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS k FROM halls WHERE name LIKE 'Plan hall %') " +
+                        "INSERT INTO showtimes (id, movie_id, hall_id, show_date, start_time, end_time, price, status, " +
+                        "created_at, updated_at) " +
+                        "SELECT (SELECT COALESCE(MAX(id), 0) FROM showtimes) + n.i + 1, m.id, h.id, " +
+                        "DATEADD(day, n.i % 730 - 365, ?), " +
+                        "TIMEFROMPARTS(10 + n.i / 730 % 12, n.i / 730 % 4 * 15, 0, 0, 0), " +
+                        "TIMEFROMPARTS(12 + n.i / 730 % 12, n.i / 730 % 4 * 15, 0, 0, 0), 12.50, " +
+                        "CASE WHEN n.i % 50 = 0 THEN 'CANCELLED' ELSE 'ACTIVE' END, SYSDATETIME(), SYSDATETIME() " +
+                        "FROM n JOIN m ON m.k = n.i % ? JOIN h ON h.k = n.i / 730 % ?",
+                SHOWTIME_COUNT, TODAY, MOVIE_COUNT, HALL_COUNT);
+
+        // Hibernate draws showtime ids from the sequence; keep it above the seeded ones
+        jdbcTemplate.execute(
+                "DECLARE @restart BIGINT = (SELECT MAX(id) FROM showtimes) + 50; " +
+                        "DECLARE @sql NVARCHAR(200) = N'ALTER SEQUENCE showtimes_seq RESTART WITH ' " +
+                        "+ CAST(@restart AS NVARCHAR(20)); EXEC sp_executesql @sql;");
+
+        for (String table : List.of("movies", "movie_photos", "halls", "showtimes")) {
+            jdbcTemplate.execute("UPDATE STATISTICS " + table + " WITH FULLSCAN");
+        }
+    }
+}
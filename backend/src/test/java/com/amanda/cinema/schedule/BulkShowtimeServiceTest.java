@@ -0,0 +1,152 @@
+package com.amanda.cinema.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amanda.cinema.model.Hall;
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.Showtime;
+import com.amanda.cinema.repository.HallRepository;
+import com.amanda.cinema.repository.MovieRepository;
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-showtimes;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Showtimes must commit: the hall schedule loads them in transactions of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkShowtimeServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 11, 2);
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BulkShowtimeService service;
+    private Movie movie;
+    private Hall hall;
+
+    @BeforeEach
+    void setUp() {
+        movie = new Movie();
+        movie.setTitle("Bulk movie");
+        movie.setStatus("ACTIVE");
+        movie.setDurationMinutes(120);
+        movie.setStartTime(LocalTime.of(18, 0));
+        movie = movieRepository.save(movie);
+        hall = hallRepository.save(new Hall("Hall 1", 10, 12));
+
+        HallScheduleIndex index = new HallScheduleIndex(showtimeRepository, transactionManager, 15);
+        service = new BulkShowtimeService(showtimeRepository, index, entityManager, transactionManager, 3, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        showtimeRepository.deleteAll();
+        movieRepository.deleteAll();
+        hallRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedRequestSkipsTheShowtimesItAlreadyCreated() {
+        BulkShowtimeResult first = service.generate(movie.getId(), hall.getId(),
+                weekly(MONDAY, MONDAY.plusDays(13), "14:00", "18:00"));
+        assertThat(first.getCreated()).isEqualTo(8);
+        assertThat(first.getSkipped()).isZero();
+        // batch size 3: 3 + 3 + 2
+        assertThat(first.getBatches()).isEqualTo(3);
+
+        BulkShowtimeResult again = service.generate(movie.getId(), hall.getId(),
+                weekly(MONDAY, MONDAY.plusDays(13), "14:00", "18:00"));
+        assertThat(again.getCreated()).isZero();
+        assertThat(again.getSkipped()).isEqualTo(8);
+
+        // A week longer: only the new week's four are written
+        BulkShowtimeResult extended = service.generate(movie.getId(), hall.getId(),
+                weekly(MONDAY, MONDAY.plusDays(20), "14:00", "18:00"));
+        assertThat(extended.getCreated()).isEqualTo(4);
+        assertThat(extended.getSkipped()).isEqualTo(8);
+        assertThat(showtimeRepository.count()).isEqualTo(12);
+    }
+
+    @Test
+    void oneConflictRollsBackTheWholeRequest() {
+        // Another showtime in the hall on the second Wednesday at 20:00
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Showtime existing = new Showtime();
+            existing.setMovie(movie);
+            existing.setHall(hall);
+            existing.setShowDate(MONDAY.plusDays(9));
+            existing.setStartTime(LocalTime.of(20, 0));
+            existing.setEndTime(LocalTime.of(22, 0));
+            existing.setPrice(BigDecimal.TEN);
+            existing.setStatus("ACTIVE");
+            showtimeRepository.save(existing);
+        });
+
+        assertThatThrownBy(() -> service.generate(movie.getId(), hall.getId(),
+                weekly(MONDAY, MONDAY.plusDays(13), "14:00", "19:00")))
+                .isInstanceOfSatisfying(ShowtimeConflictException.class, e ->
+                        assertThat(e.getConflicts()).extracting(ShowtimeSlot::getStartTime)
+                                .containsExactly(LocalTime.of(20, 0)));
+        assertThat(showtimeRepository.count()).isEqualTo(1);
+
+        // The rolled-back request holds no reservations: its free slots can still be booked
+        BulkShowtimeResult result = service.generate(movie.getId(), hall.getId(),
+                weekly(MONDAY, MONDAY.plusDays(13), "14:00", "17:00"));
+        assertThat(result.getCreated()).isEqualTo(8);
+        assertThat(showtimeRepository.count()).isEqualTo(9);
+    }
+
+    @Test
+    void patternsOverTheRowLimitAreRejectedBeforeAnyWork() {
+        assertThatThrownBy(() -> service.generate(movie.getId(), hall.getId(),
+                new ShowtimeRecurrence(MONDAY, MONDAY.plusYears(50), EnumSet.allOf(DayOfWeek.class),
+                        List.of(LocalTime.of(14, 0)), 120, BigDecimal.TEN, "ACTIVE")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 100");
+        assertThat(showtimeRepository.count()).isZero();
+    }
+
+    // Mondays and Wednesdays at the given times
+    private static ShowtimeRecurrence weekly(LocalDate from, LocalDate to, String... times) {
+        return new ShowtimeRecurrence(from, to, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                List.of(times).stream().map(LocalTime::parse).toList(), 120, BigDecimal.TEN, "ACTIVE");
+    }
+}
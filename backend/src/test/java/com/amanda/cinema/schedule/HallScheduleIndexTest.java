@@ -0,0 +1,133 @@
+package com.amanda.cinema.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.amanda.cinema.repository.ShowtimeRepository;
+
+class HallScheduleIndexTest {
+
+    private static final Long HALL = 1L;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    private HallScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ShowtimeRepository showtimeRepository = mock(ShowtimeRepository.class);
+        when(showtimeRepository.findSlotsByHallIdAndShowDate(any(), any()))
+                .thenReturn(List.of(slot(10L, "14:00", "16:00")));
+        index = new HallScheduleIndex(showtimeRepository, mock(PlatformTransactionManager.class), 15);
+    }
+
+    @Test
+    void overlapsIncludingTheCleaningBufferAreRejectedWithTheClashingShowtime() {
+        assertThatThrownBy(() -> inTransaction(true, () -> index.reserve(slot(null, "16:10", "18:00"))))
+                .isInstanceOfSatisfying(ShowtimeConflictException.class, e ->
+                        assertThat(e.getConflicts()).extracting(ShowtimeSlot::getId).containsExactly(10L));
+        assertThatThrownBy(() -> inTransaction(true, () -> index.reserve(slot(null, "11:00", "13:50"))))
+                .isInstanceOf(ShowtimeConflictException.class);
+
+        inTransaction(true, () -> index.reserve(slot(null, "16:15", "18:00")));
+        inTransaction(true, () -> index.reserve(slot(null, "11:00", "13:45")));
+        assertThat(index.conflicts(slot(null, "13:00", "19:00"))).hasSize(3);
+    }
+
+    @Test
+    void rolledBackReservationsFreeTheirRange() {
+        inTransaction(false, () -> index.reserve(slot(null, "18:00", "20:00")));
+        assertThat(index.conflicts(slot(null, "18:00", "20:00"))).isEmpty();
+
+        inTransaction(true, () -> index.reserve(slot(null, "18:00", "20:00")).assign(11L));
+        assertThat(index.conflicts(slot(null, "18:00", "20:00")))
+                .extracting(ShowtimeSlot::getId).containsExactly(11L);
+    }
+
+    @Test
+    void movingAShowtimeIgnoresItsOwnRangeAndFreesItOnCommit() {
+        inTransaction(true, () -> index.move(slot(10L, "14:00", "16:00"), slot(10L, "15:00", "17:00")));
+
+        assertThat(index.conflicts(slot(null, "12:00", "14:40"))).isEmpty();
+        assertThat(index.conflicts(slot(null, "12:00", "14:50")))
+                .extracting(ShowtimeSlot::getStartTime).containsExactly(LocalTime.of(15, 0));
+    }
+
+    @Test
+    void concurrentWritersCannotBothClaimTheSameGap() throws Exception {
+        int writers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            // Every candidate overlaps every other one
+            LocalTime from = LocalTime.of(17, 0).plusMinutes(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inTransaction(true, () -> index.reserve(
+                            new ShowtimeSlot(null, 2L, HALL, DAY, from, from.plusMinutes(90))));
+                    return true;
+                } catch (ShowtimeConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int claimed = 0;
+        for (Future<Boolean> result : results) {
+            claimed += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertThat(claimed).isEqualTo(1);
+    }
+
+    private static ShowtimeSlot slot(Long id, String start, String end) {
+        return new ShowtimeSlot(id, 2L, HALL, DAY, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    // Runs the work with transaction synchronization active, then completes the synchronizations
+    // as a commit or a rollback would
+    private static void inTransaction(boolean commit, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            for (TransactionSynchronization synchronization : synchronizations) {
+                if (commit) {
+                    synchronization.afterCommit();
+                }
+            }
+            for (TransactionSynchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(commit
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } catch (RuntimeException e) {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            throw e;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.amanda.cinema.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ScheduleOptimizerTest {
+
+    private static final int BUFFER = 15;
+    private static final int OPENING = 10 * 60;
+    private static final int CLOSING = 23 * 60 + 30;
+    private static final int PRIME_START = 18 * 60;
+    private static final int PRIME_END = 22 * 60;
+    // Every seventh hall already has a showtime blocking the late afternoon
+    private static final int BLOCKED_FROM = 17 * 60 + 7;
+    private static final int BLOCKED_TO = 19 * 60 + 40;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void plansStayInsideFreeTimeWithBuffersAndTargets() {
+        List<ScheduleOptimizer.Film> films = films();
+        List<ScheduleOptimizer.Day> days = week(20, films);
+
+        long started = System.nanoTime();
+        List<PlannedDay> plan = new ScheduleOptimizer(BUFFER, 5, 20_000, 8).plan(days, PRIME_START, PRIME_END, pool);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(plan).hasSize(7);
+        assertThat(elapsedMillis).isLessThan(10_000);
+        int planned = 0;
+        int wanted = 0;
+        for (PlannedDay day : plan) {
+            Map<Long, List<ShowtimeSlot>> byHall = new HashMap<>();
+            Map<Long, Integer> perMovie = new HashMap<>();
+            for (ShowtimeSlot slot : day.getScreenings()) {
+                int start = slot.getStartTime().toSecondOfDay() / 60;
+                int end = slot.getEndTime().toSecondOfDay() / 60;
+                assertThat(start).isGreaterThanOrEqualTo(OPENING).matches(minute -> minute % 5 == 0);
+                assertThat(end).isLessThanOrEqualTo(CLOSING);
+                assertThat(end - start).isEqualTo(films.get(slot.getMovieId().intValue()).getDurationMinutes());
+                if (slot.getHallId() % 7 == 0) {
+                    assertThat(end <= BLOCKED_FROM || start >= BLOCKED_TO).isTrue();
+                }
+                byHall.computeIfAbsent(slot.getHallId(), id -> new ArrayList<>()).add(slot);
+                perMovie.merge(slot.getMovieId(), 1, Integer::sum);
+            }
+            for (List<ShowtimeSlot> slots : byHall.values()) {
+                slots.sort(Comparator.comparing(ShowtimeSlot::getStartTime));
+                for (int i = 1; i < slots.size(); i++) {
+                    int previousEnd = slots.get(i - 1).getEndTime().toSecondOfDay() / 60;
+                    assertThat(slots.get(i).getStartTime().toSecondOfDay() / 60).isGreaterThanOrEqualTo(previousEnd + BUFFER);
+                }
+            }
+            perMovie.forEach((movieId, count) ->
+                    assertThat(count).isLessThanOrEqualTo(films.get(movieId.intValue()).getWanted()));
+            assertThat(day.getPrimeTimeCoveredMinutes()).isLessThanOrEqualTo(day.getPrimeTimeMinutes());
+            planned += day.getScreenings().size();
+            wanted += day.getWantedScreenings();
+        }
+        assertThat(planned).isGreaterThan(wanted * 8 / 10);
+    }
+
+    @Test
+    void planDoesNotDependOnThePoolSize() {
+        List<ScheduleOptimizer.Day> days = week(6, films());
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            List<PlannedDay> sequential = new ScheduleOptimizer(BUFFER, 5, 2_000, 4).plan(days, PRIME_START, PRIME_END, single);
+            List<PlannedDay> parallel = new ScheduleOptimizer(BUFFER, 5, 2_000, 4).plan(days, PRIME_START, PRIME_END, pool);
+
+            for (int i = 0; i < days.size(); i++) {
+                assertThat(parallel.get(i).getScreenings())
+                        .extracting(ShowtimeSlot::getHallId, ShowtimeSlot::getMovieId, ShowtimeSlot::getStartTime)
+                        .containsExactlyElementsOf(sequential.get(i).getScreenings().stream()
+                                .map(slot -> tuple(slot.getHallId(), slot.getMovieId(), slot.getStartTime()))
+                                .toList());
+            }
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private static List<ScheduleOptimizer.Film> films() {
+        Random random = new Random(1);
+        List<ScheduleOptimizer.Film> films = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            films.add(new ScheduleOptimizer.Film((long) i, 85 + random.nextInt(100), 4 + random.nextInt(5)));
+        }
+        return films;
+    }
+
+    private static List<ScheduleOptimizer.Day> week(int halls, List<ScheduleOptimizer.Film> films) {
+        List<ScheduleOptimizer.Day> days = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            List<ScheduleOptimizer.Lane> lanes = new ArrayList<>();
+            for (long hall = 0; hall < halls; hall++) {
+                if (hall % 7 == 0) {
+                    lanes.add(new ScheduleOptimizer.Lane(hall, OPENING, BLOCKED_FROM));
+                    lanes.add(new ScheduleOptimizer.Lane(hall, BLOCKED_TO, CLOSING));
+                } else {
+                    lanes.add(new ScheduleOptimizer.Lane(hall, OPENING, CLOSING));
+                }
+            }
+            days.add(new ScheduleOptimizer.Day(LocalDate.of(2026, 11, 2).plusDays(d), lanes, films));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,60 @@
+package com.amanda.cinema.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ShowtimeRecurrenceTest {
+
+    private static final List<LocalTime> TIMES = List.of(LocalTime.of(14, 0), LocalTime.of(18, 30), LocalTime.of(21, 0));
+
+    @Test
+    void countMatchesTheListedOccurrences() {
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            LocalDate from = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(400));
+            LocalDate to = from.plusDays(random.nextInt(60));
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (random.nextBoolean()) {
+                    days.add(day);
+                }
+            }
+            if (days.isEmpty()) {
+                days.add(DayOfWeek.of(1 + random.nextInt(7)));
+            }
+            List<LocalTime> times = TIMES.subList(0, 1 + random.nextInt(TIMES.size()));
+
+            ShowtimeRecurrence recurrence = recurrence(from, to, days, times);
+
+            assertThat(recurrence.count()).as("%s to %s on %s", from, to, days)
+                    .isEqualTo(recurrence.occurrences().size());
+        }
+    }
+
+    @Test
+    void countOfAHugeRangeIsExact() {
+        // 1,000 years of every weekend at three times: counted, never listed
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = from.plusYears(1000).minusDays(1);
+        ShowtimeRecurrence recurrence = recurrence(from, to, EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), TIMES);
+
+        long weekendDays = from.datesUntil(to.plusDays(1))
+                .filter(date -> date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)
+                .count();
+        assertThat(recurrence.count()).isEqualTo(weekendDays * TIMES.size());
+    }
+
+    private static ShowtimeRecurrence recurrence(LocalDate from, LocalDate to, Set<DayOfWeek> days, List<LocalTime> times) {
+        return new ShowtimeRecurrence(from, to, days, times, 120, BigDecimal.TEN, "ACTIVE");
+    }
+}
@@ -0,0 +1,107 @@
+package com.amanda.cinema.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.repository.MovieRepository;
+
+class MovieFacetIndexTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final MovieFacetIndex index = new MovieFacetIndex(movieRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(movieRepository.findFacetDocuments()).thenReturn(List.of(
+                new MovieFacetDocument(1L, "Drama", "English", "PG", "ACTIVE"),
+                new MovieFacetDocument(2L, "Comedy", "English", "PG-13", "ACTIVE"),
+                new MovieFacetDocument(3L, "Drama", "French", "R", "ACTIVE"),
+                new MovieFacetDocument(4L, "Horror", "English", "R", "ENDED")));
+        index.rebuild();
+    }
+
+    @Test
+    void valuesOfOneFacetAreOredAndFacetsAreAnded() {
+        FacetResult oneFacet = index.query(Map.of(MovieFacet.GENRE, List.of("Drama", "comedy")));
+        assertThat(oneFacet.getMovieIds()).containsExactly(1L, 2L, 3L);
+
+        FacetResult twoFacets = index.query(Map.of(
+                MovieFacet.GENRE, List.of("Drama", "Comedy"),
+                MovieFacet.LANGUAGE, List.of("English")));
+        assertThat(twoFacets.getMovieIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void noSelectionMatchesEverythingAndCountsEveryValue() {
+        FacetResult result = index.query(Map.of());
+
+        assertThat(result.getMovieIds()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.getCounts().get("genre"))
+                .containsExactly(entry("Comedy", 1), entry("Drama", 2), entry("Horror", 1));
+        assertThat(result.getCounts().get("status")).containsEntry("ACTIVE", 3).containsEntry("ENDED", 1);
+    }
+
+    @Test
+    void countsOfASelectedFacetIgnoreItsOwnSelection() {
+        FacetResult result = index.query(Map.of(
+                MovieFacet.GENRE, List.of("Drama"),
+                MovieFacet.LANGUAGE, List.of("English")));
+
+        assertThat(result.getMovieIds()).containsExactly(1L);
+        // Genres are counted against the language filter only
+        assertThat(result.getCounts().get("genre"))
+                .containsEntry("Drama", 1).containsEntry("Comedy", 1).containsEntry("Horror", 1);
+        // Languages are counted against the genre filter only
+        assertThat(result.getCounts().get("language"))
+                .containsEntry("English", 1).containsEntry("French", 1);
+        // Unselected facets are counted against the full selection
+        assertThat(result.getCounts().get("rating")).containsOnlyKeys("PG").containsEntry("PG", 1);
+    }
+
+    @Test
+    void selectedValuesWithoutMatchesStillShowAZeroCount() {
+        FacetResult result = index.query(Map.of(
+                MovieFacet.STATUS, List.of("ENDED"),
+                MovieFacet.LANGUAGE, List.of("French")));
+
+        assertThat(result.getMovieIds()).isEmpty();
+        assertThat(result.getCounts().get("status")).containsEntry("ENDED", 0).containsEntry("ACTIVE", 1);
+    }
+
+    @Test
+    void changesKeepCountsCurrent() {
+        when(movieRepository.findFacetDocumentsByIds(anyCollection()))
+                .thenReturn(List.of(new MovieFacetDocument(2L, "Drama", "English", "PG-13", "ACTIVE")));
+        index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 2L));
+        index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, 4L));
+
+        FacetResult result = index.query(Map.of());
+        assertThat(result.getMovieIds()).containsExactly(1L, 2L, 3L);
+        assertThat(result.getCounts().get("genre")).containsOnlyKeys("Drama").containsEntry("Drama", 3);
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreNotLost() {
+        when(movieRepository.findFacetDocuments()).thenAnswer(invocation -> {
+            index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 1L));
+            return List.of(new MovieFacetDocument(1L, "Drama", "English", "PG", "ACTIVE"));
+        });
+        when(movieRepository.findFacetDocumentsByIds(anyCollection()))
+                .thenReturn(List.of(new MovieFacetDocument(1L, "Comedy", "English", "PG", "ACTIVE")));
+
+        index.rebuild();
+
+        assertThat(index.query(Map.of(MovieFacet.GENRE, List.of("Comedy"))).getMovieIds()).containsExactly(1L);
+        assertThat(index.query(Map.of(MovieFacet.GENRE, List.of("Drama"))).getMovieIds()).isEmpty();
+    }
+}
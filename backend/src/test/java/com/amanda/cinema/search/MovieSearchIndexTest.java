@@ -0,0 +1,148 @@
+package com.amanda.cinema.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.event.MovieChangedEvent;
+import com.amanda.cinema.repository.MovieRepository;
+
+class MovieSearchIndexTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final MovieSearchIndex index = new MovieSearchIndex(movieRepository);
+
+    @Test
+    void titleMatchesOutrankDirectorAndCastMatches() {
+        build(document(1L, "A Quiet Evening", "Nolan Marsh", null),
+                document(2L, "Nolan", null, null),
+                document(3L, "Harbour Lights", null, "Anna Nolan, Tom Reed"));
+
+        assertThat(index.search("nolan", null, null)).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void wordStartsOutrankMatchesInsideWords() {
+        build(document(1L, "Starlight", null, null),
+                document(2L, "Light Years", null, null));
+
+        assertThat(index.search("light", null, null)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void misspelledQueriesMatchBySharedTrigrams() {
+        build(document(1L, "The Godfather", "Francis Ford Coppola", null),
+                document(2L, "Goodfellas", "Martin Scorsese", null));
+
+        assertThat(index.search("godfathr", null, null)).containsExactly(1L);
+        assertThat(index.search("scorsesse", null, null)).containsExactly(2L);
+    }
+
+    @Test
+    void accentsAndCaseAreFoldedOnBothSides() {
+        build(document(1L, "Amélie", "Jean-Pierre Jeunet", "Audrey Tautou"),
+                document(2L, "Pokemon Detective", null, null));
+
+        assertThat(index.search("AMELIE", null, null)).containsExactly(1L);
+        assertThat(index.search("jean pierre", null, null)).containsExactly(1L);
+        assertThat(index.search("Pokémon", null, null)).containsExactly(2L);
+        assertThat(MovieSearchIndex.normalize("  Ça  va? Crème-Brûlée! ")).isEqualTo("ca va creme brulee");
+    }
+
+    @Test
+    void genreAndStatusFilterExactly() {
+        build(document(1L, "Night Train", null, null, "Drama", "ACTIVE"),
+                document(2L, "Night Shift", null, null, "Comedy", "ACTIVE"),
+                document(3L, "Night Owls", null, null, "Drama", "ENDED"));
+
+        assertThat(index.search("night", "drama", null)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("night", "drama", "active")).containsExactly(1L);
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreNotLost() {
+        // The full load reads the old title; the rename commits while it runs
+        when(movieRepository.findSearchDocuments()).thenAnswer(invocation -> {
+            index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 1L));
+            return List.of(document(1L, "Winter Harbour", null, null), document(2L, "Other", null, null));
+        });
+        when(movieRepository.findSearchDocumentsByIds(anyCollection()))
+                .thenReturn(List.of(document(1L, "Summer Fields", null, null)));
+
+        index.rebuild();
+
+        assertThat(index.search("summer fields", null, null)).containsExactly(1L);
+        assertThat(index.search("winter harbour", null, null)).isEmpty();
+        assertThat(index.search("other", null, null)).containsExactly(2L);
+    }
+
+    @Test
+    void deletionsDuringARebuildAreNotLost() {
+        when(movieRepository.findSearchDocuments()).thenAnswer(invocation -> {
+            index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, 1L));
+            return List.of(document(1L, "Deleted Movie", null, null));
+        });
+        when(movieRepository.findSearchDocumentsByIds(anyCollection())).thenReturn(List.of());
+
+        index.rebuild();
+
+        assertThat(index.search("deleted", null, null)).isEmpty();
+    }
+
+    @Test
+    void changesAreAppliedInTheOrderTheirDocumentsWereRead() throws Exception {
+        build(document(1L, "Autumn Road", null, null));
+
+        // The first event reads the title before a second rename; its read stalls until the
+        // second event is under way
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        when(movieRepository.findSearchDocumentsByIds(anyCollection())).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                reading.countDown();
+                assertThat(resume.await(5, TimeUnit.SECONDS)).isTrue();
+                return List.of(document(1L, "Winter Harbour", null, null));
+            }
+            return List.of(document(1L, "Summer Fields", null, null));
+        });
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 1L)));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                index.onMovieChanged(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, 1L)));
+        while (!second.isDone() && !index.lock.hasQueuedThreads()) {
+            Thread.onSpinWait();
+        }
+        resume.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(index.search("summer fields", null, null)).containsExactly(1L);
+        assertThat(index.search("winter harbour", null, null)).isEmpty();
+    }
+
+    private void build(MovieSearchDocument... documents) {
+        when(movieRepository.findSearchDocuments()).thenReturn(List.of(documents));
+        index.rebuild();
+    }
+
+    private static MovieSearchDocument document(Long id, String title, String director, String cast) {
+        return document(id, title, director, cast, "Drama", "ACTIVE");
+    }
+
+    private static MovieSearchDocument document(Long id, String title, String director, String cast,
+                                                String genre, String status) {
+        return new MovieSearchDocument(id, title, director, cast, genre, status);
+    }
+}
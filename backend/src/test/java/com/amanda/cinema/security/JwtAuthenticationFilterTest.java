@@ -0,0 +1,94 @@
+package com.amanda.cinema.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenEpochRegistry registry = new TokenEpochRegistry(userRepository, true);
+    private final JwtPrincipalCache cache =
+            new JwtPrincipalCache(jwtUtil, userRepository, registry, new SimpleMeterRegistry(), 100, 300);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(cache, jwtUtil, registry);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessModeAuthenticatesFromClaimsWithoutTheDatabase() throws Exception {
+        User user = user(7L, 0);
+        registry.record(7L, 0);
+
+        Authentication authentication = authenticate(jwtUtil.generateToken(user));
+
+        assertThat(authentication).isNotNull();
+        assertThat(((User) authentication.getPrincipal()).getId()).isEqualTo(7L);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_CUSTOMER");
+        verify(userRepository, never()).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void anEpochBumpRejectsTokensIssuedBeforeIt() throws Exception {
+        User user = user(7L, 0);
+        String oldToken = jwtUtil.generateToken(user);
+        registry.record(7L, 0);
+        assertThat(authenticate(oldToken)).isNotNull();
+        SecurityContextHolder.clearContext();
+
+        registry.record(7L, 1);
+        user.setTokenEpoch(1);
+
+        assertThat(authenticate(oldToken)).isNull();
+        assertThat(authenticate(jwtUtil.generateToken(user))).isNotNull();
+    }
+
+    @Test
+    void usersMissingFromTheEpochTableAreResolvedFromTheDatabaseAndRecorded() throws Exception {
+        User user = user(7L, 2);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        assertThat(authenticate(jwtUtil.generateToken(user))).isNotNull();
+        assertThat(registry.currentEpoch(7L)).isEqualTo(2);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(Long id, int epoch) {
+        User user = new User("viewer@example.com", "Viewer", "CUSTOMER", "LOCAL");
+        user.setId(id);
+        user.setTokenEpoch(epoch);
+        return user;
+    }
+}
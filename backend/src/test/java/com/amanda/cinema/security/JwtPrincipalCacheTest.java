@@ -0,0 +1,84 @@
+package com.amanda.cinema.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.model.User;
+import com.amanda.cinema.repository.UserRepository;
+import com.amanda.cinema.security.JwtPrincipalCache.CachedPrincipal;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtPrincipalCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-test-secret-test-secret-test-secret", 3_600_000L);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenEpochRegistry registry = new TokenEpochRegistry(userRepository, false);
+    private final JwtPrincipalCache cache =
+            new JwtPrincipalCache(jwtUtil, userRepository, registry, new SimpleMeterRegistry(), 100, 300);
+
+    @Test
+    void repeatRequestsAreServedFromTheCache() {
+        User user = user(0);
+        String token = jwtUtil.generateToken(user);
+
+        assertThat(cache.resolve(token).getUser()).isSameAs(user);
+        assertThat(cache.resolve(token).getUser()).isSameAs(user);
+
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void anEpochBumpSeenByTheRegistryMissesTheCache() {
+        User user = user(0);
+        String token = jwtUtil.generateToken(user);
+        assertThat(cache.resolve(token)).isNotNull();
+
+        // Revoked on another node: after a refresh the epoch table has epoch 1
+        when(userRepository.findAllTokenEpochs()).thenReturn(List.<Object[]>of(new Object[] {7L, 1}));
+        registry.refresh();
+
+        assertThat(cache.resolve(token)).isNull();
+        assertThat(cache.resolve(jwtUtil.generateToken(user(1)))).isNotNull();
+    }
+
+    @Test
+    void entriesExpireAtTheTtlOrTheTokensExpiryWhicheverIsSooner() {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(300);
+        JwtPrincipalCache.TokenExpiry expiry = new JwtPrincipalCache.TokenExpiry(ttlNanos);
+
+        long longLived = expiry.expireAfterCreate("a", expiringIn(TimeUnit.HOURS.toMillis(1)), 0);
+        long shortLived = expiry.expireAfterCreate("b", expiringIn(TimeUnit.SECONDS.toMillis(10)), 0);
+        long expired = expiry.expireAfterCreate("c", expiringIn(-1000), 0);
+
+        assertThat(longLived).isEqualTo(ttlNanos);
+        assertThat(shortLived).isBetween(TimeUnit.SECONDS.toNanos(9), TimeUnit.SECONDS.toNanos(10));
+        assertThat(expired).isZero();
+    }
+
+    private User user(int epoch) {
+        User user = new User("viewer@example.com", "Viewer", "CUSTOMER", "LOCAL");
+        user.setId(7L);
+        user.setTokenEpoch(epoch);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private static CachedPrincipal expiringIn(long millis) {
+        Claims claims = Jwts.claims().setSubject("viewer@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + millis));
+        return new CachedPrincipal(JwtClaims.from(claims), new User(), List.of());
+    }
+}
@@ -0,0 +1,53 @@
+package com.amanda.cinema.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.amanda.cinema.repository.UserRepository;
+
+class TokenEpochRegistryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenEpochRegistry registry = new TokenEpochRegistry(userRepository, true);
+
+    @Test
+    void recordNeverLowersAnEpoch() {
+        registry.record(1L, 3);
+        registry.record(1L, 2);
+
+        assertThat(registry.currentEpoch(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void refreshKeepsABumpRecordedAfterTheSnapshotWasRead() {
+        registry.record(1L, 2);
+        when(userRepository.findAllTokenEpochs()).thenReturn(List.<Object[]>of(
+                new Object[] {1L, 1},
+                new Object[] {2L, null}));
+
+        registry.refresh();
+
+        assertThat(registry.currentEpoch(1L)).isEqualTo(2);
+        assertThat(registry.currentEpoch(2L)).isZero();
+    }
+
+    @Test
+    void refreshDropsDeletedUsersAndKeepsTheTableOnFailure() {
+        registry.record(1L, 1);
+        when(userRepository.findAllTokenEpochs()).thenReturn(List.<Object[]>of(new Object[] {2L, 4}));
+        registry.refresh();
+
+        assertThat(registry.currentEpoch(1L)).isNull();
+        assertThat(registry.currentEpoch(2L)).isEqualTo(4);
+
+        when(userRepository.findAllTokenEpochs()).thenThrow(new IllegalStateException("database down"));
+        registry.refresh();
+
+        assertThat(registry.currentEpoch(2L)).isEqualTo(4);
+    }
+}
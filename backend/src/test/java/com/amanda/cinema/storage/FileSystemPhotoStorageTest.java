@@ -0,0 +1,96 @@
+package com.amanda.cinema.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemPhotoStorageTest {
+
+    private static final byte[] BYTES = "photo bytes".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path root;
+
+    private FileSystemPhotoStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FileSystemPhotoStorage(root.toString());
+    }
+
+    @Test
+    void contentIsKeptWhileAStoreIsPinningIt() throws IOException {
+        String hash = store().getContentHash();
+
+        assertThat(storage.deleteIfUnreferenced(hash, () -> false)).isFalse();
+        assertThat(storage.load(hash)).isNotNull();
+
+        storage.release(hash);
+        assertThat(storage.deleteIfUnreferenced(hash, () -> false)).isTrue();
+        assertThat(storage.load(hash)).isNull();
+    }
+
+    @Test
+    void everyStoreOfTheSameContentHoldsItsOwnPin() throws IOException {
+        String hash = store().getContentHash();
+        store();
+
+        storage.release(hash);
+        assertThat(storage.deleteIfUnreferenced(hash, () -> false)).isFalse();
+
+        storage.release(hash);
+        assertThat(storage.deleteIfUnreferenced(hash, () -> false)).isTrue();
+    }
+
+    @Test
+    void referencedContentIsKept() throws IOException {
+        String hash = store().getContentHash();
+        storage.release(hash);
+
+        assertThat(storage.deleteIfUnreferenced(hash, () -> true)).isFalse();
+        assertThat(storage.load(hash)).isNotNull();
+    }
+
+    @Test
+    void storeOfTheSameBytesWaitsForADeleteAndWritesTheContentAgain() throws Exception {
+        String hash = store().getContentHash();
+        storage.release(hash);
+
+        CompletableFuture<StoredPhoto> concurrentStore = new CompletableFuture<>();
+        boolean deleted = storage.deleteIfUnreferenced(hash, () -> {
+            // A concurrent upload of the same bytes arrives between the count and the delete
+            Thread.ofPlatform().start(() -> {
+                try {
+                    concurrentStore.complete(store());
+                } catch (IOException e) {
+                    concurrentStore.completeExceptionally(e);
+                }
+            });
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(concurrentStore).isNotDone();
+            return false;
+        });
+
+        assertThat(deleted).isTrue();
+        assertThat(concurrentStore.get(5, TimeUnit.SECONDS).getContentHash()).isEqualTo(hash);
+        // The upload that waited stored its own copy rather than reusing the deleted file
+        assertThat(storage.load(hash)).isNotNull();
+    }
+
+    private StoredPhoto store() throws IOException {
+        return storage.store(new ByteArrayInputStream(BYTES));
+    }
+}
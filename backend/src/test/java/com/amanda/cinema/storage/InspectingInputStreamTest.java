@@ -0,0 +1,110 @@
+package com.amanda.cinema.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class InspectingInputStreamTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13};
+
+    @Test
+    void streamOfExactlyTheLimitIsAccepted() throws IOException {
+        InspectingInputStream in = new InspectingInputStream(new ByteArrayInputStream(png(64)), 64);
+
+        assertThat(in.readAllBytes()).hasSize(64);
+        assertThat(in.getCount()).isEqualTo(64);
+        assertThat(in.getDetectedContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    void streamOneBytePastTheLimitIsRejected() {
+        InspectingInputStream in = new InspectingInputStream(new ByteArrayInputStream(png(65)), 64);
+
+        assertThatThrownBy(in::readAllBytes)
+                .isInstanceOfSatisfying(PhotoRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(PhotoRejectedException.Reason.TOO_LARGE));
+        assertThat(in.getCount()).isEqualTo(65);
+    }
+
+    @Test
+    void noMoreThanOneBytePastTheLimitIsPulledFromTheClient() {
+        ByteArrayInputStream client = new ByteArrayInputStream(png(1_000_000));
+        InspectingInputStream in = new InspectingInputStream(client, 64);
+
+        assertThatThrownBy(() -> in.read(new byte[8192])).isInstanceOf(PhotoRejectedException.class);
+        assertThat(1_000_000 - client.available()).isEqualTo(65);
+
+        // A caller that keeps reading regardless gets one byte per attempt
+        assertThatThrownBy(() -> in.read(new byte[8192])).isInstanceOf(PhotoRejectedException.class);
+        assertThat(1_000_000 - client.available()).isEqualTo(66);
+    }
+
+    @Test
+    void nonImageHeaderIsRejectedOnceTheHeaderIsRead() {
+        byte[] text = "<html><body>not an image</body></html>".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayInputStream client = new ByteArrayInputStream(text);
+        InspectingInputStream in = new InspectingInputStream(trickle(client, 4), 1024);
+
+        assertThatThrownBy(in::readAllBytes)
+                .isInstanceOfSatisfying(PhotoRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(PhotoRejectedException.Reason.UNSUPPORTED_TYPE));
+        assertThat(in.getCount()).isEqualTo(InspectingInputStream.SNIFF_LENGTH);
+        assertThat(client.available()).isEqualTo(text.length - InspectingInputStream.SNIFF_LENGTH);
+    }
+
+    @Test
+    void headerSplitAcrossReadsIsStillSniffed() throws IOException {
+        byte[] bytes = png(40);
+        InspectingInputStream in = new InspectingInputStream(trickle(new ByteArrayInputStream(bytes), 5), 1024);
+
+        assertThat(in.readAllBytes()).isEqualTo(bytes);
+        assertThat(in.getDetectedContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    void headerReadOneByteAtATimeIsStillSniffed() throws IOException {
+        byte[] bytes = {'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, 0, 0, 0, 0};
+        InspectingInputStream in = new InspectingInputStream(new ByteArrayInputStream(bytes), 1024);
+
+        while (in.read() != -1) {
+            // drain
+        }
+
+        assertThat(in.getDetectedContentType()).isEqualTo("image/gif");
+    }
+
+    @Test
+    void fileShorterThanTheHeaderIsSniffedAtTheEnd() throws IOException {
+        InspectingInputStream in = new InspectingInputStream(
+                new ByteArrayInputStream(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x01}), 1024);
+
+        assertThat(in.readAllBytes()).hasSize(4);
+        assertThat(in.getDetectedContentType()).isEqualTo("image/jpeg");
+    }
+
+    // A PNG header padded to the given length
+    private static byte[] png(int length) {
+        byte[] bytes = Arrays.copyOf(PNG_HEADER, length);
+        Arrays.fill(bytes, PNG_HEADER.length, length, (byte) 7);
+        return bytes;
+    }
+
+    // Hands out at most chunk bytes per read, like a slow client
+    private static InputStream trickle(InputStream in, int chunk) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, chunk));
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.amanda.cinema.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MoviePhotoVariantRepository;
+import com.amanda.cinema.repository.MovieRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:photo-derivatives;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// generate() commits its own statements, so the seeded rows must commit too
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PhotoDerivativeServiceTest {
+
+    // A RIFF/WEBP header: sniffed as an image, but ImageIO has no reader for it
+    private static final byte[] WEBP = {'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MoviePhotoRepository moviePhotoRepository;
+
+    @Autowired
+    private MoviePhotoDataRepository moviePhotoDataRepository;
+
+    @Autowired
+    private MoviePhotoVariantRepository variantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path photoDir;
+
+    private RecordingPhotoStorage photoStorage;
+    private PhotoDerivativeService service;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        photoStorage = new RecordingPhotoStorage(photoDir.toString());
+        PhotoContentCleaner cleaner = new PhotoContentCleaner(moviePhotoRepository, variantRepository, photoStorage,
+                transactionManager);
+        service = new PhotoDerivativeService(moviePhotoRepository, moviePhotoDataRepository, variantRepository,
+                photoStorage, cleaner, transactionManager, 1, 10, 0.8f);
+
+        movie = new Movie();
+        movie.setTitle("Harbour Lights");
+        movie.setDurationMinutes(110);
+        movie.setStartTime(LocalTime.of(18, 0));
+        movieRepository.save(movie);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        variantRepository.deleteAll();
+        moviePhotoRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void generatesEveryVariantOfADecodablePhoto() throws IOException {
+        Long id = storedPhoto(png(1200, 800));
+
+        service.generate(id);
+
+        assertThat(variantRepository.findVariantNamesByPhotoId(id))
+                .containsExactlyInAnyOrder(names(PhotoVariant.values()));
+        assertThat(missingVariants()).isEmpty();
+    }
+
+    @Test
+    void undecodablePhotoIsMarkedAndLeftOutOfLaterBackfills() throws IOException {
+        Long undecodable = storedPhoto(WEBP);
+        Long pending = storedPhoto(png(40, 30));
+        assertThat(missingVariants()).containsExactly(undecodable, pending);
+
+        service.generate(undecodable);
+
+        assertThat(moviePhotoRepository.findById(undecodable).orElseThrow().getDerivativesFailedAt()).isNotNull();
+        assertThat(variantRepository.findVariantNamesByPhotoId(undecodable)).isEmpty();
+        assertThat(missingVariants()).containsExactly(pending);
+        assertThat(service.status()).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void derivativeOfAPhotoDeletedMidGenerationIsNotLeftInStorage() throws IOException {
+        Long id = storedPhoto(png(1200, 800));
+        // Delete the photo as soon as its first derivative is stored, before the variant row is saved
+        photoStorage.onStore = () -> jdbcTemplate.update("DELETE FROM movie_photos WHERE id = ?", id);
+
+        service.generate(id);
+
+        assertThat(photoStorage.stored).hasSize(1);
+        assertThat(photoStorage.load(photoStorage.stored.get(0))).isNull();
+        assertThat(variantRepository.count()).isZero();
+        assertThat(service.status()).containsEntry("generated", 0L).containsEntry("failed", 0L);
+    }
+
+    private Long storedPhoto(byte[] bytes) throws IOException {
+        StoredPhoto stored = photoStorage.store(new ByteArrayInputStream(bytes));
+        photoStorage.release(stored.getContentHash());
+        photoStorage.stored.clear();
+
+        MoviePhoto photo = new MoviePhoto(movie, false);
+        photo.setContentHash(stored.getContentHash());
+        photo.setSizeBytes(stored.getSizeBytes());
+        return moviePhotoRepository.save(photo).getId();
+    }
+
+    private List<Long> missingVariants() {
+        return variantRepository.findPhotoIdsMissingVariants(0L, PhotoVariant.values().length, PageRequest.of(0, 10));
+    }
+
+    private static String[] names(PhotoVariant[] variants) {
+        String[] names = new String[variants.length];
+        for (int i = 0; i < variants.length; i++) {
+            names[i] = variants[i].name();
+        }
+        return names;
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    // Records the content it stores and runs a hook after each store
+    private static class RecordingPhotoStorage extends FileSystemPhotoStorage {
+
+        private final List<String> stored = new ArrayList<>();
+        private Runnable onStore = () -> { };
+
+        RecordingPhotoStorage(String rootPath) throws IOException {
+            super(rootPath);
+        }
+
+        @Override
+        public StoredPhoto store(InputStream data) throws IOException {
+            StoredPhoto photo = super.store(data);
+            stored.add(photo.getContentHash());
+            onStore.run();
+            return photo;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.amanda.cinema.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amanda.cinema.model.Movie;
+import com.amanda.cinema.model.MoviePhoto;
+import com.amanda.cinema.repository.MoviePhotoDataRepository;
+import com.amanda.cinema.repository.MoviePhotoRepository;
+import com.amanda.cinema.repository.MovieRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:photo-migration;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The job reads and writes from its own thread, so the seeded rows must commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PhotoStorageMigrationJobTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final byte[] GIF = {'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0};
+    private static final byte[] UNKNOWN = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MoviePhotoRepository moviePhotoRepository;
+
+    @Autowired
+    private MoviePhotoDataRepository moviePhotoDataRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path photoDir;
+
+    private FileSystemPhotoStorage photoStorage;
+    private PhotoStorageMigrationJob job;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        photoStorage = new FileSystemPhotoStorage(photoDir.toString());
+        job = new PhotoStorageMigrationJob(moviePhotoRepository, moviePhotoDataRepository, photoStorage,
+                entityManager, transactionManager);
+
+        movie = new Movie();
+        movie.setTitle("Harbour Lights");
+        movie.setDurationMinutes(110);
+        movie.setStartTime(LocalTime.of(18, 0));
+        movieRepository.save(movie);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+        moviePhotoRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void migratedPhotosKeepTheirSniffedContentType() throws Exception {
+        Long png = inlinePhoto(PNG);
+        Long gif = inlinePhoto(GIF);
+        Long unknown = inlinePhoto(UNKNOWN);
+
+        runJob();
+
+        assertStored(png, PNG, "image/png");
+        assertStored(gif, GIF, "image/gif");
+        // Left without a type, so it is still served with the JPEG fallback
+        assertStored(unknown, UNKNOWN, null);
+        assertThat(job.status()).containsEntry("migrated", 3L).containsEntry("failed", 0L);
+    }
+
+    @Test
+    void photosMigratedWithoutAContentTypeAreRepaired() throws Exception {
+        StoredPhoto stored = photoStorage.store(new ByteArrayInputStream(PNG));
+        MoviePhoto photo = new MoviePhoto(movie, false);
+        photo.setContentHash(stored.getContentHash());
+        photo.setSizeBytes(stored.getSizeBytes());
+        Long id = moviePhotoRepository.save(photo).getId();
+
+        runJob();
+
+        assertThat(contentType(id)).isEqualTo("image/png");
+    }
+
+    private Long inlinePhoto(byte[] bytes) {
+        Long id = moviePhotoRepository.save(new MoviePhoto(movie, false)).getId();
+        jdbcTemplate.update("UPDATE movie_photos SET photo_data = ? WHERE id = ?", bytes, id);
+        return id;
+    }
+
+    private void runJob() throws InterruptedException {
+        assertThat(job.start(2)).isTrue();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Boolean.TRUE.equals(job.status().get("running")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job.status()).containsEntry("running", false);
+    }
+
+    private void assertStored(Long id, byte[] bytes, String contentType) throws IOException {
+        String contentHash = jdbcTemplate.queryForObject("SELECT content_hash FROM movie_photos WHERE id = ?",
+                String.class, id);
+        assertThat(photoStorage.load(contentHash).getContentAsByteArray()).isEqualTo(bytes);
+        assertThat(contentType(id)).isEqualTo(contentType);
+        assertThat(jdbcTemplate.queryForObject("SELECT photo_data FROM movie_photos WHERE id = ?", byte[].class, id))
+                .isNull();
+    }
+
+    private String contentType(Long id) {
+        return jdbcTemplate.queryForObject("SELECT content_type FROM movie_photos WHERE id = ?", String.class, id);
+    }
+}
@@ -20,7 +20,7 @@ interface Movie {
   director: string;
   cast: string;
   status: string;
-  primaryPhotoBase64?: string;
+  primaryPhotoUrl?: string;
 }
 
 interface Showtime {
@@ -35,7 +35,8 @@ interface Showtime {
 interface MoviePhoto {
   id: number;
   isPrimary: boolean;
-  photoData: string;
+  url: string;
+  thumbnailUrl: string;
 }
 
 interface MovieFormData {
@@ -664,9 +665,9 @@ export default function ManageMovies() {
                 key={movie.id}
                 className="bg-[#1a1a1a] border border-gray-800 rounded-lg overflow-hidden hover:border-[#d4af37] transition"
               >
-                {movie.primaryPhotoBase64 ? (
+                {movie.primaryPhotoUrl ? (
                   <img
-                    src={`data:image/jpeg;base64,${movie.primaryPhotoBase64}`}
+                    src={`http://localhost:8080${movie.primaryPhotoUrl}`}
                     alt={movie.title}
                     className="w-full h-48 object-cover"
                   />
@@ -912,7 +913,7 @@ export default function ManageMovies() {
                                 }`}
                               >
                                 <img
-                                  src={`data:image/jpeg;base64,${photo.photoData}`}
+                                  src={`http://localhost:8080${photo.thumbnailUrl}`}
                                   alt="Movie"
                                   className="w-full h-32 object-cover"
                                 />